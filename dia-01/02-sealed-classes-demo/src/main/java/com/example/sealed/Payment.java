@@ -1,6 +1,7 @@
 package com.example.sealed;
 
 import java.math.BigDecimal;
+import java.util.Objects;
 
 /**
  * Sealed class - Hierarquia controlada
@@ -11,10 +12,18 @@ public abstract sealed class Payment
     
     protected final BigDecimal amount;
     protected final String description;
+    // Valor em centavos, calculado uma vez: o processamento em lote usa só long
+    private final long amountCents;
     
+    /**
+     * @throws NullPointerException     se amount for null
+     * @throws IllegalArgumentException se amount tiver mais de 2 casas decimais
+     *                                  (não cabe em centavos sem arredondar)
+     */
     protected Payment(BigDecimal amount, String description) {
-        this.amount = amount;
+        this.amount = Objects.requireNonNull(amount, "Amount must not be null");
         this.description = description;
+        this.amountCents = toCents(amount);
     }
     
     public abstract void process();
@@ -26,4 +35,17 @@ public abstract sealed class Payment
     public String getDescription() {
         return description;
     }
+    
+    public long getAmountCents() {
+        return amountCents;
+    }
+    
+    private static long toCents(BigDecimal amount) {
+        try {
+            return amount.movePointRight(2).longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException(
+                "Amount must have at most 2 decimal places (whole cents): " + amount.toPlainString(), e);
+        }
+    }
 }
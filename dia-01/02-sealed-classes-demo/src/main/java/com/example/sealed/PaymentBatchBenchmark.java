@@ -0,0 +1,139 @@
+package com.example.sealed;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+
+/**
+ * Vazão do PaymentBatchProcessor em pagamentos/segundo, total e por núcleo.
+ *
+ * Roda o mesmo lote com 1, 2, 4... até todos os núcleos disponíveis e
+ * compara com o cálculo "ingênuo": laço sequencial com instanceof e
+ * BigDecimal (calculateFee/getBankFee). Antes de medir, confere que os
+ * dois chegam aos mesmos totais.
+ *
+ * Propriedades: -Dbench.payments (padrão 5.000.000), -Dbench.warmup (3),
+ * -Dbench.iterations (5). Com 5M de pagamentos use -Xmx2g.
+ */
+public class PaymentBatchBenchmark {
+
+    private static volatile Object sink;
+
+    public static void main(String[] args) {
+        int size = Integer.getInteger("bench.payments", 5_000_000);
+        int warmup = Integer.getInteger("bench.warmup", 3);
+        int iterations = Integer.getInteger("bench.iterations", 5);
+        int cores = Runtime.getRuntime().availableProcessors();
+
+        System.out.println("=== PAYMENT BATCH PROCESSOR ===\n");
+        System.out.printf("Payments: %,d | warmup: %d | iterations: %d | CPUs: %d%n%n", size, warmup, iterations, cores);
+
+        List<Payment> payments = generate(size);
+        verify(payments);
+
+        System.out.printf("%-28s %10s %16s %16s%n", "Mode", "ms/batch", "payments/s", "payments/s/core");
+        System.out.println("-".repeat(74));
+
+        double ms = measure(() -> bigDecimalTotals(payments), warmup, iterations);
+        print("BigDecimal loop (1 thread)", ms, size, 1);
+
+        TreeSet<Integer> parallelism = new TreeSet<>();
+        for (int p = 1; p < cores; p *= 2) {
+            parallelism.add(p);
+        }
+        parallelism.add(cores);
+
+        for (int p : parallelism) {
+            ForkJoinPool pool = new ForkJoinPool(p);
+            try {
+                PaymentBatchProcessor processor = new PaymentBatchProcessor(pool, PaymentBatchProcessor.DEFAULT_THRESHOLD);
+                ms = measure(() -> processor.process(payments), warmup, iterations);
+                print("Processor (" + p + (p == 1 ? " core)" : " cores)"), ms, size, p);
+            } finally {
+                pool.shutdown();
+            }
+        }
+
+        PaymentBatchProcessor.BatchSummary summary = new PaymentBatchProcessor().process(payments);
+        System.out.println("\n📊 Totais do lote:");
+        printTotals("Cartão", summary.creditCard());
+        printTotals("PIX", summary.pix());
+        printTotals("Boleto", summary.boleto());
+        printTotals("Total", summary.total());
+    }
+
+    private static List<Payment> generate(int size) {
+        Random random = new Random(42);
+        LocalDate dueDate = LocalDate.now().plusDays(3);
+        List<Payment> payments = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            BigDecimal amount = BigDecimal.valueOf(100 + random.nextInt(1_000_000), 2); // R$ 1,00 a R$ 10.000,99
+            int type = random.nextInt(10);
+            if (type < 5) {
+                payments.add(new CreditCardPayment(amount, "Compra", "1234567890123456", 1 + random.nextInt(12)));
+            } else if (type < 8) {
+                payments.add(new PixPayment(amount, "Transferência", "email@example.com"));
+            } else {
+                payments.add(new BoletoPayment(amount, "Mensalidade", "23793.38128", dueDate));
+            }
+        }
+        return payments;
+    }
+
+    /**
+     * Cálculo de referência: um BigDecimal por taxa, como no SealedClassesDemo.
+     * Devolve {valor total, taxas totais}.
+     */
+    private static BigDecimal[] bigDecimalTotals(List<Payment> payments) {
+        BigDecimal amount = BigDecimal.ZERO;
+        BigDecimal fees = BigDecimal.ZERO;
+        for (Payment payment : payments) {
+            amount = amount.add(payment.getAmount());
+            if (payment instanceof CreditCardPayment cc) {
+                fees = fees.add(cc.calculateFee());
+            } else if (payment instanceof BoletoPayment boleto) {
+                fees = fees.add(boleto.getBankFee());
+            }
+        }
+        return new BigDecimal[]{amount, fees};
+    }
+
+    private static void verify(List<Payment> payments) {
+        BigDecimal[] expected = bigDecimalTotals(payments);
+        PaymentBatchProcessor.TypeTotals total = new PaymentBatchProcessor().process(payments).total();
+
+        BigDecimal expectedFees = expected[1].setScale(2, RoundingMode.HALF_EVEN);
+        if (expected[0].compareTo(total.amount()) != 0 || expectedFees.compareTo(total.fees()) != 0) {
+            throw new IllegalStateException("Totals differ: BigDecimal=" + expected[0] + "/" + expectedFees
+                    + " processor=" + total.amount() + "/" + total.fees());
+        }
+        System.out.println("✅ Processor totals match the BigDecimal calculation\n");
+    }
+
+    private static double measure(Supplier<?> batch, int warmup, int iterations) {
+        for (int i = 0; i < warmup; i++) {
+            sink = batch.get();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink = batch.get();
+        }
+        return (System.nanoTime() - start) / 1_000_000.0 / iterations;
+    }
+
+    private static void print(String mode, double ms, int size, int cores) {
+        double perSecond = size / (ms / 1000.0);
+        System.out.printf("%-28s %10.1f %,16.0f %,16.0f%n", mode, ms, perSecond, perSecond / cores);
+    }
+
+    private static void printTotals(String label, PaymentBatchProcessor.TypeTotals totals) {
+        System.out.printf("   %-7s %,12d pagamentos | valor R$ %,18.2f | taxas R$ %,14.2f | líquido R$ %,18.2f%n",
+                label, totals.count(), totals.amount(), totals.fees(), totals.net());
+    }
+}
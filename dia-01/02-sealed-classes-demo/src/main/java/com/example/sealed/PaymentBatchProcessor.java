@@ -0,0 +1,223 @@
+package com.example.sealed;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Liquidação em lote de pagamentos: totais e taxas por tipo.
+ *
+ * - Dispatch com switch exaustivo sobre a hierarquia sealed (sem default:
+ *   um novo tipo em 'permits' vira erro de compilação aqui)
+ * - Taxas em long, sem BigDecimal por item: cada taxa é calculada de forma
+ *   exata em frações de centavo (1/10.000 de centavo) e somada assim; o
+ *   arredondamento para centavos (HALF_EVEN) acontece uma vez, no total
+ * - O lote é dividido em pedaços processados em paralelo com fork/join
+ *
+ * Tabela de taxas (a mesma de CreditCardPayment.calculateFee e
+ * BoletoPayment.getBankFee):
+ *   cartão 2% do valor | PIX grátis | boleto R$ 3,50 fixo
+ */
+public class PaymentBatchProcessor {
+
+    /** Frações de centavo por centavo usadas no cálculo exato das taxas. */
+    public static final long FEE_SCALE = 10_000;
+
+    /** Taxa do cartão em pontos-base (200 = 2%). */
+    public static final long CREDIT_CARD_FEE_BPS = 200;
+
+    /** Taxa fixa do boleto em centavos. */
+    public static final long BOLETO_FEE_CENTS = 350;
+
+    /** Pagamentos por tarefa sem dividir mais. */
+    public static final int DEFAULT_THRESHOLD = 8_192;
+
+    private final ForkJoinPool pool;
+    private final int threshold;
+
+    public PaymentBatchProcessor() {
+        this(ForkJoinPool.commonPool(), DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * @param pool      pool que executa o lote (o paralelismo dele define quantos núcleos são usados)
+     * @param threshold pagamentos por tarefa folha
+     */
+    public PaymentBatchProcessor(ForkJoinPool pool, int threshold) {
+        if (threshold < 1) {
+            throw new IllegalArgumentException("Threshold must be positive: " + threshold);
+        }
+        this.pool = pool;
+        this.threshold = threshold;
+    }
+
+    /**
+     * Processa o lote e devolve os totais por tipo de pagamento.
+     */
+    public BatchSummary process(List<? extends Payment> payments) {
+        List<? extends Payment> batch = payments instanceof RandomAccess ? payments : new ArrayList<>(payments);
+        return pool.invoke(new SettleTask(batch, 0, batch.size())).toSummary();
+    }
+
+    /**
+     * Taxa exata de um pagamento, em frações de centavo (ver FEE_SCALE).
+     */
+    public static long feeUnits(Payment payment) {
+        return switch (payment) {
+            case CreditCardPayment card -> Math.multiplyExact(card.getAmountCents(), CREDIT_CARD_FEE_BPS);
+            case PixPayment pix -> 0;
+            case BoletoPayment boleto -> BOLETO_FEE_CENTS * FEE_SCALE;
+        };
+    }
+
+    /**
+     * Taxa de um pagamento arredondada para centavos (HALF_EVEN).
+     */
+    public static long feeCents(Payment payment) {
+        return roundHalfEven(feeUnits(payment), FEE_SCALE);
+    }
+
+    /**
+     * value / divisor arredondado para o par mais próximo (arredondamento bancário).
+     */
+    static long roundHalfEven(long value, long divisor) {
+        long quotient = Math.floorDiv(value, divisor);
+        long twiceRemainder = 2 * Math.floorMod(value, divisor);
+        if (twiceRemainder > divisor || (twiceRemainder == divisor && (quotient & 1) == 1)) {
+            quotient++;
+        }
+        return quotient;
+    }
+
+    // ═══════════════════════════════════════════════════════════
+    //  RESULTADO
+    // ═══════════════════════════════════════════════════════════
+
+    /**
+     * Totais de um tipo de pagamento.
+     *
+     * @param count       quantidade de pagamentos
+     * @param amountCents soma dos valores, em centavos
+     * @param feeUnits    soma exata das taxas, em frações de centavo
+     */
+    public record TypeTotals(long count, long amountCents, long feeUnits) {
+
+        public TypeTotals plus(TypeTotals other) {
+            return new TypeTotals(
+                    Math.addExact(count, other.count),
+                    Math.addExact(amountCents, other.amountCents),
+                    Math.addExact(feeUnits, other.feeUnits));
+        }
+
+        public long feeCents() {
+            return roundHalfEven(feeUnits, FEE_SCALE);
+        }
+
+        public BigDecimal amount() {
+            return BigDecimal.valueOf(amountCents, 2);
+        }
+
+        /** Soma das taxas, arredondada para centavos uma única vez. */
+        public BigDecimal fees() {
+            return BigDecimal.valueOf(feeCents(), 2);
+        }
+
+        /** Valor líquido: amount - fees. */
+        public BigDecimal net() {
+            return BigDecimal.valueOf(amountCents - feeCents(), 2);
+        }
+    }
+
+    /**
+     * Totais do lote por tipo; total() soma as frações antes de arredondar.
+     */
+    public record BatchSummary(TypeTotals creditCard, TypeTotals pix, TypeTotals boleto) {
+
+        public TypeTotals total() {
+            return creditCard.plus(pix).plus(boleto);
+        }
+    }
+
+    // ═══════════════════════════════════════════════════════════
+    //  FORK/JOIN
+    // ═══════════════════════════════════════════════════════════
+
+    // Acumuladores de um pedaço do lote (3 tipos x count/amount/fee)
+    private static final class Totals {
+        long cardCount, cardAmount, cardFees;
+        long pixCount, pixAmount, pixFees;
+        long boletoCount, boletoAmount, boletoFees;
+
+        Totals merge(Totals other) {
+            cardCount += other.cardCount;
+            cardAmount = Math.addExact(cardAmount, other.cardAmount);
+            cardFees = Math.addExact(cardFees, other.cardFees);
+            pixCount += other.pixCount;
+            pixAmount = Math.addExact(pixAmount, other.pixAmount);
+            pixFees = Math.addExact(pixFees, other.pixFees);
+            boletoCount += other.boletoCount;
+            boletoAmount = Math.addExact(boletoAmount, other.boletoAmount);
+            boletoFees = Math.addExact(boletoFees, other.boletoFees);
+            return this;
+        }
+
+        BatchSummary toSummary() {
+            return new BatchSummary(
+                    new TypeTotals(cardCount, cardAmount, cardFees),
+                    new TypeTotals(pixCount, pixAmount, pixFees),
+                    new TypeTotals(boletoCount, boletoAmount, boletoFees));
+        }
+    }
+
+    private final class SettleTask extends RecursiveTask<Totals> {
+        private final List<? extends Payment> payments;
+        private final int from;
+        private final int to;
+
+        SettleTask(List<? extends Payment> payments, int from, int to) {
+            this.payments = payments;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Totals compute() {
+            if (to - from > threshold) {
+                int mid = (from + to) >>> 1;
+                SettleTask left = new SettleTask(payments, from, mid);
+                left.fork();
+                Totals right = new SettleTask(payments, mid, to).compute();
+                return left.join().merge(right);
+            }
+
+            Totals totals = new Totals();
+            for (int i = from; i < to; i++) {
+                Payment payment = payments.get(i);
+                long amount = payment.getAmountCents();
+                // A taxa vem sempre de feeUnits; o switch só escolhe o acumulador
+                long fee = feeUnits(payment);
+                switch (payment) {
+                    case CreditCardPayment card -> {
+                        totals.cardCount++;
+                        totals.cardAmount = Math.addExact(totals.cardAmount, amount);
+                        totals.cardFees = Math.addExact(totals.cardFees, fee);
+                    }
+                    case PixPayment pix -> {
+                        totals.pixCount++;
+                        totals.pixAmount = Math.addExact(totals.pixAmount, amount);
+                        totals.pixFees = Math.addExact(totals.pixFees, fee);
+                    }
+                    case BoletoPayment boleto -> {
+                        totals.boletoCount++;
+                        totals.boletoAmount = Math.addExact(totals.boletoAmount, amount);
+                        totals.boletoFees = Math.addExact(totals.boletoFees, fee);
+                    }
+                }
+            }
+            return totals;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.example.sealed;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.List;
 
 /**
  * Demonstração de Sealed Classes e Pattern Matching
@@ -55,6 +56,17 @@ public class SealedClassesDemo {
             String fee = getProcessingFee(payment);
             System.out.println("   " + payment.getDescription() + ": " + fee);
         }
+        System.out.println();
+        
+        // Processamento em lote: switch exaustivo + taxas em centavos (long)
+        System.out.println("4. Processamento em lote (PaymentBatchProcessor):\n");
+        PaymentBatchProcessor.BatchSummary summary =
+            new PaymentBatchProcessor().process(List.of(payments));
+        System.out.println("   Cartão: " + summary.creditCard().count() + " | taxas R$ " + summary.creditCard().fees());
+        System.out.println("   PIX:    " + summary.pix().count() + " | taxas R$ " + summary.pix().fees());
+        System.out.println("   Boleto: " + summary.boleto().count() + " | taxas R$ " + summary.boleto().fees());
+        System.out.println("   Total:  R$ " + summary.total().amount() + " | taxas R$ " + summary.total().fees()
+                         + " | líquido R$ " + summary.total().net());
         
         System.out.println("\n✅ Demonstração completa!");
         System.out.println("\nVantagens de Sealed Classes:");
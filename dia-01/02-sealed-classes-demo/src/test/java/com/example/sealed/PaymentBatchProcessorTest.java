@@ -0,0 +1,67 @@
+package com.example.sealed;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("PaymentBatchProcessor — liquidação em lote")
+class PaymentBatchProcessorTest {
+
+    @Test
+    @DisplayName("totais do fork/join batem com feeUnits pagamento a pagamento")
+    void batchTotalsMatchFeeUnits() {
+        List<Payment> payments = new ArrayList<>();
+        for (int i = 1; i <= 1_000; i++) {
+            BigDecimal amount = BigDecimal.valueOf(i * 137L, 2);
+            payments.add(switch (i % 3) {
+                case 0 -> new CreditCardPayment(amount, "Cartão " + i, "4111111111111111", 1);
+                case 1 -> new PixPayment(amount, "PIX " + i, "chave@pix.com");
+                default -> new BoletoPayment(amount, "Boleto " + i, "0000", LocalDate.of(2026, 1, 1));
+            });
+        }
+
+        // Threshold pequeno: o lote é dividido em muitas tarefas
+        PaymentBatchProcessor.BatchSummary summary = new PaymentBatchProcessor(new ForkJoinPool(4), 16).process(payments);
+
+        long expectedFees = payments.stream().mapToLong(PaymentBatchProcessor::feeUnits).sum();
+        long expectedAmount = payments.stream().mapToLong(Payment::getAmountCents).sum();
+        assertThat(summary.total().count()).isEqualTo(1_000);
+        assertThat(summary.total().feeUnits()).isEqualTo(expectedFees);
+        assertThat(summary.total().amountCents()).isEqualTo(expectedAmount);
+        assertThat(summary.pix().feeUnits()).isZero();
+        assertThat(summary.boleto().feeUnits()).isEqualTo(summary.boleto().count() * 350 * PaymentBatchProcessor.FEE_SCALE);
+        assertThat(summary.creditCard().feeCents())
+            .isEqualTo(payments.stream()
+                .filter(CreditCardPayment.class::isInstance)
+                .map(payment -> ((CreditCardPayment) payment).calculateFee())
+                .reduce(BigDecimal.ZERO, BigDecimal::add)
+                .movePointRight(2).setScale(0, RoundingMode.HALF_EVEN).longValueExact());
+    }
+
+    @Test
+    @DisplayName("valor com mais de 2 casas decimais é rejeitado com mensagem clara")
+    void rejectsFractionalCents() {
+        assertThatThrownBy(() -> new PixPayment(new BigDecimal("10.005"), "PIX", "chave"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Amount must have at most 2 decimal places (whole cents): 10.005");
+        // Zeros à direita não contam
+        assertThat(new PixPayment(new BigDecimal("10.500"), "PIX", "chave").getAmountCents()).isEqualTo(1_050);
+    }
+
+    @Test
+    @DisplayName("valor null é rejeitado com mensagem clara")
+    void rejectsNullAmount() {
+        assertThatThrownBy(() -> new BoletoPayment(null, "Boleto", "0000", LocalDate.of(2026, 1, 1)))
+            .isInstanceOf(NullPointerException.class)
+            .hasMessage("Amount must not be null");
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.textblocks.bench;
+
+import com.example.textblocks.EmailTemplates;
+import com.example.textblocks.TextTemplate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.CharArrayWriter;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Email de confirmação de pedido (TextBlocksDemo, seção 5) renderizado com
+ * formatted()/String.format contra o TextTemplate pré-compilado.
+ *
+ * - *ToString: devolve a String pronta
+ * - renderTo: acrescenta em um StringBuilder do chamador (reaproveitado)
+ * - *ToWriter: escreve em um Writer (reaproveitado)
+ *
+ * Gerar: mvn package -Pbenchmarks
+ * Executar: java -jar target/benchmarks.jar TextTemplateBenchmark -prof gc
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TextTemplateBenchmark {
+
+    /** O template como estava no demo, com especificadores do Formatter. */
+    static final String ORDER_CONFIRMATION_FORMAT = """
+            ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+            📧 CONFIRMAÇÃO DE PEDIDO
+            ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+            
+            Olá, %s!
+            
+            Seu pedido foi confirmado com sucesso! ✅
+            
+            📦 DETALHES DO PEDIDO
+            ─────────────────────────────────────────
+            Número do pedido: %s
+            Produto: %s
+            Valor total: R$ %.2f
+            
+            🚚 ENTREGA
+            ─────────────────────────────────────────
+            Previsão: 3-5 dias úteis
+            Você receberá um código de rastreamento em breve.
+            
+            Obrigado por comprar conosco!
+            
+            Atenciosamente,
+            Equipe de Vendas
+            ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+            """;
+
+    private static final TextTemplate TEMPLATE = EmailTemplates.ORDER_CONFIRMATION;
+
+    private final String customerName = "João Silva";
+    private final String orderNumber = "ORD-2026-0001";
+    private final String productName = "Laptop Gaming";
+    private final BigDecimal total = BigDecimal.valueOf(4500.00);
+
+    private final StringBuilder builder = new StringBuilder(2048);
+    private final CharArrayWriter writer = new CharArrayWriter(2048);
+
+    /**
+     * As duas formas precisam produzir o mesmo texto antes de medir
+     * (o Formatter usa o Locale padrão; a comparação fixa Locale.ROOT).
+     */
+    @Setup
+    public void verify() {
+        String expected = String.format(Locale.ROOT, ORDER_CONFIRMATION_FORMAT,
+                customerName, orderNumber, productName, total);
+        String actual = TEMPLATE.render(customerName, orderNumber, productName, total);
+        if (!expected.equals(actual)) {
+            throw new IllegalStateException("TextTemplate output differs from String.format:\n" + actual);
+        }
+    }
+
+    @Benchmark
+    public String formattedToString() {
+        return ORDER_CONFIRMATION_FORMAT.formatted(customerName, orderNumber, productName, total);
+    }
+
+    @Benchmark
+    public String stringFormatToString() {
+        return String.format(ORDER_CONFIRMATION_FORMAT, customerName, orderNumber, productName, total);
+    }
+
+    @Benchmark
+    public String templateToString() {
+        return TEMPLATE.render(customerName, orderNumber, productName, total);
+    }
+
+    @Benchmark
+    public int templateRenderTo() {
+        builder.setLength(0);
+        return TEMPLATE.renderTo(builder, customerName, orderNumber, productName, total).length();
+    }
+
+    @Benchmark
+    public int formattedToWriter() throws IOException {
+        writer.reset();
+        writer.write(ORDER_CONFIRMATION_FORMAT.formatted(customerName, orderNumber, productName, total));
+        return writer.size();
+    }
+
+    @Benchmark
+    public int templateToWriter() throws IOException {
+        writer.reset();
+        TEMPLATE.writeTo(writer, customerName, orderNumber, productName, total);
+        return writer.size();
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.textblocks;
+
+/**
+ * Templates de email compilados uma vez, na carga da classe.
+ */
+public final class EmailTemplates {
+
+    /**
+     * Confirmação de pedido (texto puro).
+     * Parâmetros: customerName, orderNumber, productName, total.
+     */
+    public static final TextTemplate ORDER_CONFIRMATION = TextTemplate.compile("""
+            ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+            📧 CONFIRMAÇÃO DE PEDIDO
+            ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+            
+            Olá, ${customerName}!
+            
+            Seu pedido foi confirmado com sucesso! ✅
+            
+            📦 DETALHES DO PEDIDO
+            ─────────────────────────────────────────
+            Número do pedido: ${orderNumber}
+            Produto: ${productName}
+            Valor total: R$ ${total:.2}
+            
+            🚚 ENTREGA
+            ─────────────────────────────────────────
+            Previsão: 3-5 dias úteis
+            Você receberá um código de rastreamento em breve.
+            
+            Obrigado por comprar conosco!
+            
+            Atenciosamente,
+            Equipe de Vendas
+            ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+            """);
+
+    /**
+     * Confirmação de pedido em HTML: os valores são escapados.
+     * Parâmetros: customerName, orderNumber, productName, total.
+     */
+    public static final TextTemplate ORDER_CONFIRMATION_HTML = TextTemplate.compile("""
+            <html>
+              <body>
+                <h1>Confirmação de pedido</h1>
+                <p>Olá, ${customerName}!</p>
+                <table>
+                  <tr><td>Pedido</td><td>${orderNumber}</td></tr>
+                  <tr><td>Produto</td><td>${productName}</td></tr>
+                  <tr><td>Total</td><td>R$ ${total:.2}</td></tr>
+                </table>
+              </body>
+            </html>
+            """, TextTemplate.Escaping.HTML);
+
+    private EmailTemplates() {
+    }
+}
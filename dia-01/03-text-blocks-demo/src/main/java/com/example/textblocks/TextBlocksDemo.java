@@ -8,6 +8,15 @@ import java.math.BigDecimal;
  */
 public class TextBlocksDemo {
     
+    private static final TextTemplate PRODUCT_JSON = TextTemplate.compile("""
+            {
+              "product": "${product}",
+              "price": ${price:.2},
+              "currency": "BRL",
+              "inStock": ${inStock}
+            }
+            """, TextTemplate.Escaping.JSON);
+    
     public static void main(String[] args) {
         System.out.println("=== DEMONSTRAÇÃO DE TEXT BLOCKS ===\n");
         
@@ -118,24 +127,17 @@ public class TextBlocksDemo {
     private static void demonstrateFormatting() {
         System.out.println("4. FORMATAÇÃO COM VARIÁVEIS\n");
         
-        String productName = "Laptop Gaming";
+        String productName = "Laptop \"Gaming\" 15\"";
         BigDecimal price = BigDecimal.valueOf(4500.99);
         boolean inStock = true;
         
-        // Usando String.format() com text block
-        String json = """
-            {
-              "product": "%s",
-              "price": %.2f,
-              "currency": "BRL",
-              "inStock": %b
-            }
-            """.formatted(productName, price, inStock);
+        // Template compilado uma vez (PRODUCT_JSON), com escape de JSON nos valores
+        String json = PRODUCT_JSON.render(productName, price, inStock);
         
-        System.out.println("JSON com variáveis:");
+        System.out.println("JSON com variáveis (TextTemplate, escape JSON):");
         System.out.println(json);
         
-        // Ou usando formatted() (Java 15+)
+        // Ou usando formatted() (Java 15+): o formato é interpretado a cada chamada
         String message = """
             Produto: %s
             Preço: R$ %.2f
@@ -158,33 +160,14 @@ public class TextBlocksDemo {
         String productName = "Laptop Gaming";
         BigDecimal total = BigDecimal.valueOf(4500.00);
         
-        String email = """
-            ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
-            📧 CONFIRMAÇÃO DE PEDIDO
-            ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
-            
-            Olá, %s!
-            
-            Seu pedido foi confirmado com sucesso! ✅
-            
-            📦 DETALHES DO PEDIDO
-            ─────────────────────────────────────────
-            Número do pedido: %s
-            Produto: %s
-            Valor total: R$ %.2f
-            
-            🚚 ENTREGA
-            ─────────────────────────────────────────
-            Previsão: 3-5 dias úteis
-            Você receberá um código de rastreamento em breve.
-            
-            Obrigado por comprar conosco!
-            
-            Atenciosamente,
-            Equipe de Vendas
-            ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
-            """.formatted(customerName, orderNumber, productName, total);
+        String email = EmailTemplates.ORDER_CONFIRMATION.render(customerName, orderNumber, productName, total);
         
         System.out.println(email);
+        
+        // Mesmo pedido em HTML: valores escapados (<, >, &, aspas)
+        String html = EmailTemplates.ORDER_CONFIRMATION_HTML.render(
+                "João <Admin>", orderNumber, "Laptop & Mouse", total);
+        System.out.println("Versão HTML:");
+        System.out.println(html);
     }
 }
@@ -0,0 +1,358 @@
+package com.example.textblocks;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Template de texto com placeholders nomeados, compilado uma única vez.
+ *
+ * Sintaxe:
+ *   ${name}      valor como texto (String.valueOf)
+ *   ${total:.2}  número com 2 casas decimais (HALF_UP, sempre com ponto)
+ *   $${          um "${" literal
+ *
+ * compile() quebra o texto em segmentos (literal, placeholder, literal, ...)
+ * e resolve cada nome para um índice. Renderizar só percorre esse array:
+ * não há parse a cada chamada, como em String.format/formatted.
+ *
+ * A saída vai para um StringBuilder reaproveitado por thread (render), para
+ * um StringBuilder do chamador (renderTo) ou direto para um Writer (writeTo).
+ * Os valores (nunca os literais) passam pelo Escaping escolhido na compilação.
+ *
+ * Instâncias são imutáveis e podem ser compartilhadas entre threads.
+ */
+public final class TextTemplate {
+
+    /**
+     * Como os valores são escapados antes de entrar no texto.
+     */
+    public enum Escaping {
+        /** Valor inserido como está. */
+        NONE,
+        /** &amp; &lt; &gt; &quot; &#39; */
+        HTML,
+        /** Conteúdo de string JSON: aspas, barra invertida e caracteres de controle. */
+        JSON
+    }
+
+    /** Maior buffer (em chars) mantido no pool de cada thread. */
+    static final int MAX_POOLED_CAPACITY = 64 * 1024;
+
+    // Buffer livre da thread; fica null enquanto está em uso (render aninhado cria o seu)
+    private static final ThreadLocal<StringBuilder> BUFFER = new ThreadLocal<>();
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final String source;
+    private final Escaping escaping;
+    // literals[i] vem antes de slots[i]; o último literal fecha o texto
+    private final String[] literals;
+    private final int[] slots;
+    private final int[] scales;
+    private final List<String> parameters;
+    private final int literalLength;
+
+    private TextTemplate(String source, Escaping escaping, String[] literals, int[] slots, int[] scales,
+                         List<String> parameters) {
+        this.source = source;
+        this.escaping = escaping;
+        this.literals = literals;
+        this.slots = slots;
+        this.scales = scales;
+        this.parameters = parameters;
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    public static TextTemplate compile(String source) {
+        return compile(source, Escaping.NONE);
+    }
+
+    /**
+     * Compila o template.
+     *
+     * @throws IllegalArgumentException se um placeholder estiver aberto, vazio ou com formato inválido
+     */
+    public static TextTemplate compile(String source, Escaping escaping) {
+        List<String> literals = new ArrayList<>();
+        List<Integer> slots = new ArrayList<>();
+        List<Integer> scales = new ArrayList<>();
+        Map<String, Integer> names = new LinkedHashMap<>();
+
+        StringBuilder literal = new StringBuilder();
+        int i = 0;
+        while (i < source.length()) {
+            if (source.startsWith("$${", i)) {
+                literal.append("${");
+                i += 3;
+            } else if (source.startsWith("${", i)) {
+                int end = source.indexOf('}', i + 2);
+                if (end < 0) {
+                    throw new IllegalArgumentException("Unclosed placeholder at index " + i);
+                }
+                String placeholder = source.substring(i + 2, end);
+                int colon = placeholder.indexOf(':');
+                String name = (colon < 0 ? placeholder : placeholder.substring(0, colon)).trim();
+                if (name.isEmpty()) {
+                    throw new IllegalArgumentException("Empty placeholder at index " + i);
+                }
+                literals.add(literal.toString());
+                literal.setLength(0);
+                slots.add(names.computeIfAbsent(name, key -> names.size()));
+                scales.add(colon < 0 ? -1 : parseScale(placeholder.substring(colon + 1).trim(), i));
+                i = end + 1;
+            } else {
+                literal.append(source.charAt(i++));
+            }
+        }
+        literals.add(literal.toString());
+
+        return new TextTemplate(source, escaping,
+                literals.toArray(String[]::new),
+                slots.stream().mapToInt(Integer::intValue).toArray(),
+                scales.stream().mapToInt(Integer::intValue).toArray(),
+                List.copyOf(names.keySet()));
+    }
+
+    // ".2" → 2 casas decimais
+    private static int parseScale(String format, int index) {
+        if (format.length() >= 2 && format.charAt(0) == '.') {
+            try {
+                int scale = Integer.parseInt(format.substring(1));
+                if (scale >= 0 && scale <= 18) {
+                    return scale;
+                }
+            } catch (NumberFormatException e) {
+                // cai no erro abaixo
+            }
+        }
+        throw new IllegalArgumentException("Invalid format '" + format + "' at index " + index + " (expected .N)");
+    }
+
+    // ═══════════════════════════════════════════════════════════
+    //  METADADOS
+    // ═══════════════════════════════════════════════════════════
+
+    /**
+     * Nomes dos placeholders na ordem da primeira aparição: é a ordem dos
+     * valores em render(Object...).
+     */
+    public List<String> parameters() {
+        return parameters;
+    }
+
+    public Escaping escaping() {
+        return escaping;
+    }
+
+    public String source() {
+        return source;
+    }
+
+    // ═══════════════════════════════════════════════════════════
+    //  RENDERIZAÇÃO
+    // ═══════════════════════════════════════════════════════════
+
+    /**
+     * Renderiza com os valores na ordem de parameters(), usando o
+     * StringBuilder do pool da thread (só a String final é alocada).
+     */
+    public String render(Object... values) {
+        checkArity(values);
+        StringBuilder out = BUFFER.get();
+        if (out == null) {
+            out = new StringBuilder(Math.max(1024, estimatedLength()));
+        } else {
+            BUFFER.set(null);
+            out.setLength(0);
+        }
+        try {
+            append(out, values);
+            return out.toString();
+        } finally {
+            // Buffers que cresceram demais não voltam para o pool
+            if (out.capacity() <= MAX_POOLED_CAPACITY) {
+                BUFFER.set(out);
+            }
+        }
+    }
+
+    /**
+     * Renderiza com os valores por nome.
+     *
+     * @throws IllegalArgumentException se faltar algum parâmetro
+     */
+    public String render(Map<String, ?> values) {
+        return render(resolve(values));
+    }
+
+    /**
+     * Acrescenta o texto ao StringBuilder do chamador.
+     */
+    public StringBuilder renderTo(StringBuilder out, Object... values) {
+        checkArity(values);
+        out.ensureCapacity(out.length() + estimatedLength());
+        append(out, values);
+        return out;
+    }
+
+    /**
+     * Escreve o texto direto no Writer, sem montar a String inteira.
+     */
+    public void writeTo(Writer out, Object... values) throws IOException {
+        checkArity(values);
+        write(out, values);
+    }
+
+    public void writeTo(Writer out, Map<String, ?> values) throws IOException {
+        write(out, resolve(values));
+    }
+
+    /** Tamanho dos literais + uma folga por placeholder. */
+    int estimatedLength() {
+        return literalLength + 16 * slots.length;
+    }
+
+    private void append(StringBuilder out, Object[] values) {
+        try {
+            write(out, values);
+        } catch (IOException e) {
+            // StringBuilder não lança IOException
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void write(Appendable out, Object[] values) throws IOException {
+        for (int i = 0; i < slots.length; i++) {
+            out.append(literals[i]);
+            appendValue(out, values[slots[i]], scales[i]);
+        }
+        out.append(literals[slots.length]);
+    }
+
+    private void appendValue(Appendable out, Object value, int scale) throws IOException {
+        if (scale >= 0 && value instanceof Number number) {
+            out.append(toDecimal(number).setScale(scale, RoundingMode.HALF_UP).toPlainString());
+            return;
+        }
+        switch (value) {
+            // Números e booleanos nunca precisam de escape
+            case Integer n when out instanceof StringBuilder sb -> sb.append(n.intValue());
+            case Long n when out instanceof StringBuilder sb -> sb.append(n.longValue());
+            case Boolean b when out instanceof StringBuilder sb -> sb.append(b.booleanValue());
+            case Number n -> out.append(n.toString());
+            case Boolean b -> out.append(b.toString());
+            case CharSequence text -> escape(out, text);
+            case null -> out.append("null");
+            default -> escape(out, value.toString());
+        }
+    }
+
+    private static BigDecimal toDecimal(Number number) {
+        return switch (number) {
+            case BigDecimal decimal -> decimal;
+            case Double d -> BigDecimal.valueOf(d);
+            case Float f -> BigDecimal.valueOf(f.doubleValue());
+            case Integer n -> BigDecimal.valueOf(n);
+            case Long n -> BigDecimal.valueOf(n);
+            default -> new BigDecimal(number.toString());
+        };
+    }
+
+    private void checkArity(Object[] values) {
+        if (values.length != parameters.size()) {
+            throw new IllegalArgumentException(
+                    "Expected " + parameters.size() + " values " + parameters + ", got " + values.length);
+        }
+    }
+
+    private Object[] resolve(Map<String, ?> values) {
+        Object[] resolved = new Object[parameters.size()];
+        for (int i = 0; i < resolved.length; i++) {
+            String name = parameters.get(i);
+            if (!values.containsKey(name)) {
+                throw new IllegalArgumentException("Missing template parameter: " + name);
+            }
+            resolved[i] = values.get(name);
+        }
+        return resolved;
+    }
+
+    // ═══════════════════════════════════════════════════════════
+    //  ESCAPE
+    // ═══════════════════════════════════════════════════════════
+
+    // Copia trechos sem escape de uma vez; só os caracteres especiais são trocados
+    private void escape(Appendable out, CharSequence text) throws IOException {
+        if (escaping == Escaping.NONE) {
+            out.append(text);
+            return;
+        }
+
+        int start = 0;
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            String replacement = escaping == Escaping.HTML ? htmlEscape(c) : jsonEscape(c);
+            if (replacement != null) {
+                out.append(text, start, i);
+                if (replacement.isEmpty()) {
+                    appendUnicodeEscape(out, c);
+                } else {
+                    out.append(replacement);
+                }
+                start = i + 1;
+            }
+        }
+        out.append(text, start, length);
+    }
+
+    private static String htmlEscape(char c) {
+        return switch (c) {
+            case '&' -> "&amp;";
+            case '<' -> "&lt;";
+            case '>' -> "&gt;";
+            case '"' -> "&quot;";
+            case '\'' -> "&#39;";
+            default -> null;
+        };
+    }
+
+    // "" = escrever como \\uXXXX
+    private static String jsonEscape(char c) {
+        return switch (c) {
+            case '"' -> "\\\"";
+            case '\\' -> "\\\\";
+            case '\n' -> "\\n";
+            case '\r' -> "\\r";
+            case '\t' -> "\\t";
+            case '\b' -> "\\b";
+            case '\f' -> "\\f";
+            case '\u2028', '\u2029' -> "";
+            default -> c < 0x20 ? "" : null;
+        };
+    }
+
+    private static void appendUnicodeEscape(Appendable out, char c) throws IOException {
+        out.append('\\').append('u')
+                .append(HEX[(c >> 12) & 0xF])
+                .append(HEX[(c >> 8) & 0xF])
+                .append(HEX[(c >> 4) & 0xF])
+                .append(HEX[c & 0xF]);
+    }
+
+    @Override
+    public String toString() {
+        return "TextTemplate" + parameters + " (" + escaping + ")";
+    }
+}
@@ -0,0 +1,204 @@
+package com.example.textblocks;
+
+import com.example.textblocks.TextTemplate.Escaping;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("TextTemplate — compilação, escape e renderização")
+class TextTemplateTest {
+
+    @Test
+    @DisplayName("compile: parâmetros na ordem da primeira aparição, nome repetido usa o mesmo valor")
+    void parsesPlaceholders() {
+        TextTemplate template = TextTemplate.compile("Olá ${ name }, pedido ${id}: ${name} paga ${total:.2}");
+
+        assertThat(template.parameters()).containsExactly("name", "id", "total");
+        assertThat(template.render("Ana", 42, new BigDecimal("10.5")))
+            .isEqualTo("Olá Ana, pedido 42: Ana paga 10.50");
+    }
+
+    @Test
+    @DisplayName("compile: texto sem placeholders, $ e } soltos ficam como estão")
+    void literalsOnly() {
+        TextTemplate template = TextTemplate.compile("Preço em $ {sem placeholder} $x }");
+
+        assertThat(template.parameters()).isEmpty();
+        assertThat(template.render()).isEqualTo("Preço em $ {sem placeholder} $x }");
+    }
+
+    @Test
+    @DisplayName("$${ é um ${ literal, inclusive ao lado de um placeholder")
+    void escapedPlaceholder() {
+        TextTemplate template = TextTemplate.compile("$${name} = ${name}, $${ fim");
+
+        assertThat(template.parameters()).containsExactly("name");
+        assertThat(template.render("Ana")).isEqualTo("${name} = Ana, ${ fim");
+    }
+
+    @Test
+    @DisplayName("compile: placeholder aberto, vazio ou com formato inválido")
+    void invalidPlaceholders() {
+        assertThatThrownBy(() -> TextTemplate.compile("Olá ${name"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Unclosed placeholder at index 4");
+        assertThatThrownBy(() -> TextTemplate.compile("Olá ${ }"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Empty placeholder at index 4");
+        assertThatThrownBy(() -> TextTemplate.compile("${total:2}"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("Invalid format '2'");
+        assertThatThrownBy(() -> TextTemplate.compile("${total:.x}"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("Invalid format '.x'");
+        assertThatThrownBy(() -> TextTemplate.compile("${total:.19}"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("Invalid format '.19'");
+    }
+
+    @Test
+    @DisplayName("HTML: & < > \" ' nos valores; literais ficam como estão")
+    void htmlEscaping() {
+        TextTemplate template = TextTemplate.compile("<p title=\"${title}\">${body}</p>", Escaping.HTML);
+
+        assertThat(template.render("\"Tom\" & 'Jerry'", "<b>1 > 0</b>"))
+            .isEqualTo("<p title=\"&quot;Tom&quot; &amp; &#39;Jerry&#39;\">&lt;b&gt;1 &gt; 0&lt;/b&gt;</p>");
+    }
+
+    @Test
+    @DisplayName("JSON: aspas, barra invertida e caracteres de controle")
+    void jsonEscaping() {
+        TextTemplate template = TextTemplate.compile("{\"name\": \"${name}\"}", Escaping.JSON);
+
+        assertThat(template.render("Diz \"oi\"\\\n\r\t\b\f"))
+            .isEqualTo("{\"name\": \"Diz \\\"oi\\\"\\\\\\n\\r\\t\\b\\f\"}");
+        assertThat(template.render("a\u0000b\u001fc\u2028d\u2029"))
+            .isEqualTo("{\"name\": \"a\\u0000b\\u001fc\\u2028d\\u2029\"}");
+        // Números e booleanos não passam pelo escape
+        assertThat(template.render(12.5)).isEqualTo("{\"name\": \"12.5\"}");
+    }
+
+    @Test
+    @DisplayName("${x:.N}: números com N casas (HALF_UP); texto e null ficam como estão")
+    void scaledValues() {
+        TextTemplate template = TextTemplate.compile("${x:.2}");
+
+        assertThat(template.render(new BigDecimal("2.345"))).isEqualTo("2.35");
+        assertThat(template.render(2.675)).isEqualTo("2.68");
+        assertThat(template.render(-1.005)).isEqualTo("-1.01");
+        assertThat(template.render(1.5f)).isEqualTo("1.50");
+        assertThat(template.render(7)).isEqualTo("7.00");
+        assertThat(template.render(7L)).isEqualTo("7.00");
+        assertThat(template.render(BigInteger.TEN)).isEqualTo("10.00");
+        assertThat(TextTemplate.compile("${x:.0}").render(2.5)).isEqualTo("3");
+        assertThat(template.render(new BigDecimal("1E+3"))).isEqualTo("1000.00");
+
+        assertThat(template.render("abc")).isEqualTo("abc");
+        assertThat(template.render((Object) null)).isEqualTo("null");
+        assertThat(TextTemplate.compile("${x:.2}", Escaping.HTML).render("<1.5>")).isEqualTo("&lt;1.5&gt;");
+    }
+
+    @Test
+    @DisplayName("parâmetros faltando, sobrando ou em número errado")
+    void missingAndUnknownParameters() {
+        TextTemplate template = TextTemplate.compile("${a}-${b}");
+
+        assertThatThrownBy(() -> template.render(Map.of("a", 1)))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Missing template parameter: b");
+        assertThatThrownBy(() -> template.render("só um"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Expected 2 values [a, b], got 1");
+        assertThatThrownBy(() -> template.renderTo(new StringBuilder(), 1, 2, 3))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> template.writeTo(new StringWriter(), 1))
+            .isInstanceOf(IllegalArgumentException.class);
+
+        // Chave presente com valor null é "null"; chaves que o template não usa são ignoradas
+        Map<String, Object> values = new HashMap<>();
+        values.put("a", null);
+        values.put("b", 2);
+        values.put("desconhecido", "x");
+        assertThat(template.render(values)).isEqualTo("null-2");
+    }
+
+    @Test
+    @DisplayName("render, renderTo e writeTo produzem o mesmo texto")
+    void outputsMatch() throws IOException {
+        TextTemplate template = TextTemplate.compile("""
+            Olá ${name},
+            ${count} itens, total R$ ${total:.2} (pago: ${paid}, ${ratio})
+            Obs.: ${note}
+            """, Escaping.HTML);
+        Object[] values = {"Ana & Bia", 3, new BigDecimal("99.999"), true, 0.25, null};
+        Map<String, Object> byName = new HashMap<>();
+        for (int i = 0; i < values.length; i++) {
+            byName.put(template.parameters().get(i), values[i]);
+        }
+
+        String rendered = template.render(values);
+        StringBuilder builder = new StringBuilder("prefixo|");
+        template.renderTo(builder, values);
+        StringWriter writer = new StringWriter();
+        template.writeTo(writer, values);
+        StringWriter writerByName = new StringWriter();
+        template.writeTo(writerByName, byName);
+
+        assertThat(rendered).isEqualTo("""
+            Olá Ana &amp; Bia,
+            3 itens, total R$ 100.00 (pago: true, 0.25)
+            Obs.: null
+            """);
+        assertThat(builder.toString()).isEqualTo("prefixo|" + rendered);
+        assertThat(writer.toString()).isEqualTo(rendered);
+        assertThat(writerByName.toString()).isEqualTo(rendered);
+        assertThat(template.render(byName)).isEqualTo(rendered);
+    }
+
+    @Test
+    @DisplayName("render aninhado (toString de um valor renderiza) não mistura os buffers")
+    void nestedRender() {
+        TextTemplate outer = TextTemplate.compile("[${inner}|${after}]");
+        TextTemplate inner = TextTemplate.compile("<${v}>");
+        Object nested = new Object() {
+            @Override
+            public String toString() {
+                // O mesmo template de fora, reentrante, e outro template
+                return outer.render(inner.render("x"), "y") + inner.render("z");
+            }
+        };
+
+        assertThat(outer.render(nested, "fim")).isEqualTo("[[<x>|y]<z>|fim]");
+        // Depois, o buffer da thread volta limpo
+        assertThat(inner.render("w")).isEqualTo("<w>");
+        assertThat(outer.render("a", "b")).isEqualTo("[a|b]");
+    }
+
+    @Test
+    @DisplayName("render que falha ou cresce além do pool não deixa conteúdo para a próxima chamada")
+    void bufferReuse() {
+        TextTemplate template = TextTemplate.compile("${a}${b}");
+        Object failing = new Object() {
+            @Override
+            public String toString() {
+                throw new IllegalStateException("falhou");
+            }
+        };
+
+        assertThatThrownBy(() -> template.render("parcial", failing)).isInstanceOf(IllegalStateException.class);
+        assertThat(template.render("a", "b")).isEqualTo("ab");
+
+        String big = "x".repeat(TextTemplate.MAX_POOLED_CAPACITY + 1);
+        assertThat(template.render(big, "")).hasSize(big.length());
+        assertThat(template.render("c", "d")).isEqualTo("cd");
+    }
+}
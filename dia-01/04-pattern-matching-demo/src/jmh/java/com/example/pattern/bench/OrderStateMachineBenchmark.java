@@ -0,0 +1,271 @@
+package com.example.pattern.bench;
+
+import com.example.pattern.OrderStateMachine;
+import com.example.pattern.OrderStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.ThreadParams;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+/**
+ * OrderStateMachine (EnumMap/EnumSet + CAS + LongAdder) contra a abordagem
+ * atual: regra em switch expression, status em array guardado por
+ * synchronized e contadores AtomicLong em HashMap.
+ *
+ * - validate*: só a regra, sobre 1.024 pares (from, to) aleatórios
+ * - lifecycle*: ciclo completo por pedido (register → PROCESSING →
+ *   COMPLETED → REFUNDED → remove) com 4 threads disputando os contadores
+ * - bulk*: o mesmo ciclo sobre 1.000.000 de ids de uma vez
+ *
+ * Gerar: mvn package -Pbenchmarks
+ * Executar: java -jar target/benchmarks.jar OrderStateMachineBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderStateMachineBenchmark {
+
+    private static final int PAIRS = 1_024;
+    private static final int BULK_ORDERS = 1_000_000;
+    private static final int ORDERS_PER_THREAD = 4_096;
+    private static final int MAX_THREADS = 64;
+
+    // ═══════════════════════════════════════════════════════════
+    //  ABORDAGEM ATUAL (switch)
+    // ═══════════════════════════════════════════════════════════
+
+    static boolean canTransitionSwitch(OrderStatus from, OrderStatus to) {
+        return switch (from) {
+            case PENDING -> to == OrderStatus.PROCESSING || to == OrderStatus.CANCELLED;
+            case PROCESSING -> to == OrderStatus.COMPLETED || to == OrderStatus.CANCELLED;
+            case COMPLETED -> to == OrderStatus.REFUNDED;
+            case CANCELLED, REFUNDED -> false;
+        };
+    }
+
+    /**
+     * Status em array comum sob lock, contadores AtomicLong por status.
+     */
+    static final class SwitchOrderStore {
+        private final OrderStatus[] statuses;
+        private final Map<OrderStatus, AtomicLong> counters = new HashMap<>();
+
+        SwitchOrderStore(int capacity) {
+            this.statuses = new OrderStatus[capacity];
+            for (OrderStatus status : OrderStatus.values()) {
+                counters.put(status, new AtomicLong());
+            }
+        }
+
+        synchronized boolean register(int orderId) {
+            if (statuses[orderId] != null) {
+                return false;
+            }
+            statuses[orderId] = OrderStatus.PENDING;
+            counters.get(OrderStatus.PENDING).incrementAndGet();
+            return true;
+        }
+
+        synchronized boolean transition(int orderId, OrderStatus to) {
+            OrderStatus from = statuses[orderId];
+            if (from == null || !canTransitionSwitch(from, to)) {
+                return false;
+            }
+            statuses[orderId] = to;
+            counters.get(from).decrementAndGet();
+            counters.get(to).incrementAndGet();
+            return true;
+        }
+
+        synchronized boolean remove(int orderId) {
+            OrderStatus current = statuses[orderId];
+            if (current == null) {
+                return false;
+            }
+            statuses[orderId] = null;
+            counters.get(current).decrementAndGet();
+            return true;
+        }
+
+        long count(OrderStatus status) {
+            return counters.get(status).get();
+        }
+    }
+
+    // ═══════════════════════════════════════════════════════════
+    //  VALIDAÇÃO
+    // ═══════════════════════════════════════════════════════════
+
+    @State(Scope.Thread)
+    public static class Pairs {
+        OrderStatus[] from = new OrderStatus[PAIRS];
+        OrderStatus[] to = new OrderStatus[PAIRS];
+
+        @Setup
+        public void setup() {
+            OrderStatus[] values = OrderStatus.values();
+            Random random = new Random(42);
+            for (int i = 0; i < PAIRS; i++) {
+                from[i] = values[random.nextInt(values.length)];
+                to[i] = values[random.nextInt(values.length)];
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAIRS)
+    public int validateSwitch(Pairs pairs) {
+        int allowed = 0;
+        for (int i = 0; i < PAIRS; i++) {
+            if (canTransitionSwitch(pairs.from[i], pairs.to[i])) {
+                allowed++;
+            }
+        }
+        return allowed;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAIRS)
+    public int validateEnumSet(Pairs pairs) {
+        int allowed = 0;
+        for (int i = 0; i < PAIRS; i++) {
+            if (OrderStateMachine.canTransition(pairs.from[i], pairs.to[i])) {
+                allowed++;
+            }
+        }
+        return allowed;
+    }
+
+    // ═══════════════════════════════════════════════════════════
+    //  CICLO DE VIDA CONCORRENTE
+    // ═══════════════════════════════════════════════════════════
+
+    @State(Scope.Benchmark)
+    public static class Stores {
+        OrderStateMachine machine;
+        SwitchOrderStore store;
+
+        @Setup(Level.Iteration)
+        public void setup() {
+            machine = new OrderStateMachine(MAX_THREADS * ORDERS_PER_THREAD);
+            store = new SwitchOrderStore(MAX_THREADS * ORDERS_PER_THREAD);
+        }
+    }
+
+    /**
+     * Cada thread usa sua própria faixa de ids; o que é compartilhado são
+     * os contadores (e, na versão atual, o lock).
+     */
+    @State(Scope.Thread)
+    public static class OrderIds {
+        int base;
+        int next;
+
+        @Setup
+        public void setup(ThreadParams thread) {
+            base = (thread.getThreadIndex() % MAX_THREADS) * ORDERS_PER_THREAD;
+        }
+
+        int nextId() {
+            next = (next + 1) & (ORDERS_PER_THREAD - 1);
+            return base + next;
+        }
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean lifecycleSwitch(Stores stores, OrderIds ids) {
+        SwitchOrderStore store = stores.store;
+        int id = ids.nextId();
+        store.register(id);
+        store.transition(id, OrderStatus.PROCESSING);
+        store.transition(id, OrderStatus.COMPLETED);
+        store.transition(id, OrderStatus.REFUNDED);
+        return store.remove(id);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean lifecycleStateMachine(Stores stores, OrderIds ids) {
+        OrderStateMachine machine = stores.machine;
+        int id = ids.nextId();
+        machine.register(id);
+        machine.transition(id, OrderStatus.PROCESSING);
+        machine.transition(id, OrderStatus.COMPLETED);
+        machine.transition(id, OrderStatus.REFUNDED);
+        return machine.remove(id);
+    }
+
+    // ═══════════════════════════════════════════════════════════
+    //  EM LOTE
+    // ═══════════════════════════════════════════════════════════
+
+    @State(Scope.Benchmark)
+    public static class Bulk {
+        int[] ids;
+        OrderStateMachine machine;
+        SwitchOrderStore store;
+
+        @Setup
+        public void setup() {
+            ids = IntStream.range(0, BULK_ORDERS).toArray();
+            machine = new OrderStateMachine(BULK_ORDERS);
+            store = new SwitchOrderStore(BULK_ORDERS);
+        }
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public long bulkSwitch(Bulk bulk) {
+        SwitchOrderStore store = bulk.store;
+        for (int id : bulk.ids) {
+            store.register(id);
+        }
+        for (OrderStatus to : new OrderStatus[] {OrderStatus.PROCESSING, OrderStatus.COMPLETED, OrderStatus.REFUNDED}) {
+            for (int id : bulk.ids) {
+                store.transition(id, to);
+            }
+        }
+        long refunded = store.count(OrderStatus.REFUNDED);
+        for (int id : bulk.ids) {
+            store.remove(id);
+        }
+        return refunded;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public long bulkStateMachine(Bulk bulk) {
+        OrderStateMachine machine = bulk.machine;
+        for (int id : bulk.ids) {
+            machine.register(id);
+        }
+        machine.transitionAll(bulk.ids, OrderStatus.PROCESSING);
+        machine.transitionAll(bulk.ids, OrderStatus.COMPLETED);
+        machine.transitionAll(bulk.ids, OrderStatus.REFUNDED);
+        long refunded = machine.count(OrderStatus.REFUNDED);
+        for (int id : bulk.ids) {
+            machine.remove(id);
+        }
+        return refunded;
+    }
+}
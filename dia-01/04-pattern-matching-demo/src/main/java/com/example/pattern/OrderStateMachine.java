@@ -0,0 +1,178 @@
+package com.example.pattern;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+/**
+ * Ciclo de vida de pedidos sobre OrderStatus.
+ *
+ * Transições permitidas (tabela pré-calculada em EnumMap/EnumSet):
+ *
+ *   PENDING    → PROCESSING, CANCELLED
+ *   PROCESSING → COMPLETED, CANCELLED
+ *   COMPLETED  → REFUNDED
+ *   CANCELLED, REFUNDED → (finais)
+ *
+ * Os pedidos são identificados por um int de 0 a capacity - 1. O status de
+ * cada um fica em um AtomicReferenceArray e muda por compareAndSet: entre
+ * threads concorrentes só uma vence cada transição, e só a vencedora mexe
+ * nos contadores (um LongAdder por status). Validar e transicionar não
+ * aloca nada.
+ */
+public class OrderStateMachine {
+
+    private static final EnumMap<OrderStatus, EnumSet<OrderStatus>> TRANSITIONS = buildTransitions();
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+
+    /** Tamanho dos pedaços processados em paralelo em transitionAll. */
+    static final int BULK_CHUNK = 1 << 14;
+
+    private final AtomicReferenceArray<OrderStatus> statuses;
+    private final EnumMap<OrderStatus, LongAdder> counters = new EnumMap<>(OrderStatus.class);
+
+    public OrderStateMachine(int capacity) {
+        this.statuses = new AtomicReferenceArray<>(capacity);
+        for (OrderStatus status : STATUSES) {
+            counters.put(status, new LongAdder());
+        }
+    }
+
+    private static EnumMap<OrderStatus, EnumSet<OrderStatus>> buildTransitions() {
+        EnumMap<OrderStatus, EnumSet<OrderStatus>> transitions = new EnumMap<>(OrderStatus.class);
+        transitions.put(OrderStatus.PENDING, EnumSet.of(OrderStatus.PROCESSING, OrderStatus.CANCELLED));
+        transitions.put(OrderStatus.PROCESSING, EnumSet.of(OrderStatus.COMPLETED, OrderStatus.CANCELLED));
+        transitions.put(OrderStatus.COMPLETED, EnumSet.of(OrderStatus.REFUNDED));
+        transitions.put(OrderStatus.CANCELLED, EnumSet.noneOf(OrderStatus.class));
+        transitions.put(OrderStatus.REFUNDED, EnumSet.noneOf(OrderStatus.class));
+        return transitions;
+    }
+
+    // ═══════════════════════════════════════════════════════════
+    //  REGRAS
+    // ═══════════════════════════════════════════════════════════
+
+    /**
+     * true se a transição from → to é permitida (consulta EnumMap + EnumSet, sem alocação).
+     */
+    public static boolean canTransition(OrderStatus from, OrderStatus to) {
+        return TRANSITIONS.get(from).contains(to);
+    }
+
+    /**
+     * Destinos permitidos a partir de um status (somente leitura).
+     */
+    public static Set<OrderStatus> allowedTransitions(OrderStatus from) {
+        return Collections.unmodifiableSet(TRANSITIONS.get(from));
+    }
+
+    // ═══════════════════════════════════════════════════════════
+    //  PEDIDOS
+    // ═══════════════════════════════════════════════════════════
+
+    /**
+     * Cria o pedido em PENDING. false se o id já está em uso.
+     */
+    public boolean register(int orderId) {
+        if (statuses.compareAndSet(orderId, null, OrderStatus.PENDING)) {
+            counters.get(OrderStatus.PENDING).increment();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Arquiva o pedido (libera o id e sai das contagens). false se não existir.
+     */
+    public boolean remove(int orderId) {
+        while (true) {
+            OrderStatus current = statuses.get(orderId);
+            if (current == null) {
+                return false;
+            }
+            if (statuses.compareAndSet(orderId, current, null)) {
+                counters.get(current).decrement();
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Status atual, ou null se o pedido não existir.
+     */
+    public OrderStatus status(int orderId) {
+        return statuses.get(orderId);
+    }
+
+    /**
+     * Move o pedido para {@code to} se a regra permitir a partir do status atual.
+     *
+     * @return false se o pedido não existe ou a transição não é permitida
+     */
+    public boolean transition(int orderId, OrderStatus to) {
+        while (true) {
+            OrderStatus from = statuses.get(orderId);
+            if (from == null || !canTransition(from, to)) {
+                return false;
+            }
+            if (statuses.compareAndSet(orderId, from, to)) {
+                counters.get(from).decrement();
+                counters.get(to).increment();
+                return true;
+            }
+            // Outra thread mudou o status no meio: reavalia a regra com o novo valor
+        }
+    }
+
+    /**
+     * Aplica a mesma transição a vários pedidos, em pedaços paralelos.
+     * Cada pedido passa por transition(): os contadores mudam junto com o
+     * status, então counts() durante o lote já inclui os pedidos movidos.
+     *
+     * @return quantos pedidos mudaram de status
+     */
+    public int transitionAll(int[] orderIds, OrderStatus to) {
+        int chunks = (orderIds.length + BULK_CHUNK - 1) / BULK_CHUNK;
+        return IntStream.range(0, chunks)
+                .parallel()
+                .map(chunk -> transitionRange(orderIds, chunk * BULK_CHUNK,
+                        Math.min(orderIds.length, (chunk + 1) * BULK_CHUNK), to))
+                .sum();
+    }
+
+    private int transitionRange(int[] orderIds, int from, int to, OrderStatus target) {
+        int moved = 0;
+        for (int i = from; i < to; i++) {
+            if (transition(orderIds[i], target)) {
+                moved++;
+            }
+        }
+        return moved;
+    }
+
+    // ═══════════════════════════════════════════════════════════
+    //  CONTADORES
+    // ═══════════════════════════════════════════════════════════
+
+    /**
+     * Pedidos atualmente no status. Sob escrita concorrente, é uma leitura
+     * aproximada do instante (LongAdder.sum); em repouso, é exata.
+     */
+    public long count(OrderStatus status) {
+        return counters.get(status).sum();
+    }
+
+    /**
+     * Contagem de todos os status.
+     */
+    public Map<OrderStatus, Long> counts() {
+        EnumMap<OrderStatus, Long> counts = new EnumMap<>(OrderStatus.class);
+        counters.forEach((status, counter) -> counts.put(status, counter.sum()));
+        return counts;
+    }
+}
@@ -25,6 +25,10 @@ public class PatternMatchingDemo {
         
         // 4. Pattern Matching for Switch (Java 21+)
         demonstratePatternSwitch();
+        System.out.println("\n" + "=".repeat(60) + "\n");
+        
+        // 5. Máquina de estados de pedidos (EnumMap/EnumSet)
+        demonstrateStateMachine();
         
         System.out.println("\n✅ Demonstração completa!");
         System.out.println("\nVantagens:");
@@ -203,4 +207,32 @@ public class PatternMatchingDemo {
             default -> "❓ Unknown type: " + obj.getClass().getSimpleName();
         };
     }
+    
+    /**
+     * 5. Máquina de estados: a regra do switch vira tabela EnumMap/EnumSet
+     */
+    private static void demonstrateStateMachine() {
+        System.out.println("5. MÁQUINA DE ESTADOS DE PEDIDOS\n");
+        
+        for (OrderStatus status : OrderStatus.values()) {
+            System.out.println("   " + status + " → " + OrderStateMachine.allowedTransitions(status));
+        }
+        
+        OrderStateMachine machine = new OrderStateMachine(10);
+        for (int id = 0; id < 10; id++) {
+            machine.register(id);
+        }
+        
+        int[] ids = {0, 1, 2, 3, 4, 5};
+        System.out.println("\n✅ Em lote:");
+        System.out.println("   → PROCESSING: " + machine.transitionAll(ids, OrderStatus.PROCESSING) + " pedidos");
+        System.out.println("   → COMPLETED:  " + machine.transitionAll(new int[] {0, 1, 2}, OrderStatus.COMPLETED) + " pedidos");
+        
+        System.out.println("\n✅ Individual:");
+        System.out.println("   #0 COMPLETED → REFUNDED: " + machine.transition(0, OrderStatus.REFUNDED));
+        System.out.println("   #9 PENDING → COMPLETED:  " + machine.transition(9, OrderStatus.COMPLETED) + " (não permitido)");
+        System.out.println("   #8 PENDING → CANCELLED:  " + machine.transition(8, OrderStatus.CANCELLED));
+        
+        System.out.println("\n✅ Contadores: " + machine.counts());
+    }
 }
@@ -0,0 +1,98 @@
+package com.example.pattern;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("OrderStateMachine — transições e contadores")
+class OrderStateMachineTest {
+
+    private static final int ORDERS = 200_000;
+
+    @Test
+    @DisplayName("transitionAll: contadores acompanham cada pedido, não cada pedaço")
+    void countsFollowBulkTransitions() throws InterruptedException {
+        OrderStateMachine machine = new OrderStateMachine(ORDERS);
+        int[] ids = IntStream.range(0, ORDERS).toArray();
+        for (int id : ids) {
+            machine.register(id);
+        }
+
+        // Leitor concorrente: conta os pedidos já em PROCESSING e depois lê o contador.
+        // O contador só pode ficar atrás pelas transições em andamento (uma por
+        // thread do lote), nunca por um pedaço inteiro de BULK_CHUNK pedidos
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicLong maxLag = new AtomicLong();
+        Thread reader = new Thread(() -> {
+            while (!done.get()) {
+                long seen = IntStream.of(ids).filter(id -> machine.status(id) == OrderStatus.PROCESSING).count();
+                long counted = machine.count(OrderStatus.PROCESSING);
+                maxLag.accumulateAndGet(seen - counted, Math::max);
+            }
+        });
+        reader.start();
+        try {
+            assertThat(machine.transitionAll(ids, OrderStatus.PROCESSING)).isEqualTo(ORDERS);
+        } finally {
+            done.set(true);
+            reader.join();
+        }
+
+        assertThat(maxLag.get()).isLessThanOrEqualTo(ForkJoinPool.getCommonPoolParallelism() + 1);
+        assertThat(machine.count(OrderStatus.PROCESSING)).isEqualTo(ORDERS);
+        assertThat(machine.count(OrderStatus.PENDING)).isZero();
+    }
+
+    @Test
+    @DisplayName("transition() concorrente com transitionAll: contagens batem com os status")
+    void concurrentSingleAndBulk() throws InterruptedException {
+        OrderStateMachine machine = new OrderStateMachine(ORDERS);
+        int[] ids = IntStream.range(0, ORDERS).toArray();
+        for (int id : ids) {
+            machine.register(id);
+        }
+
+        // Cancela os pares enquanto o lote move todos para PROCESSING
+        Thread canceller = new Thread(() -> {
+            for (int id = 0; id < ORDERS; id += 2) {
+                machine.transition(id, OrderStatus.CANCELLED);
+            }
+        });
+        canceller.start();
+        int moved = machine.transitionAll(ids, OrderStatus.PROCESSING);
+        canceller.join();
+
+        Map<OrderStatus, Long> actual = new EnumMap<>(OrderStatus.class);
+        for (OrderStatus status : OrderStatus.values()) {
+            actual.put(status, 0L);
+        }
+        for (int id : ids) {
+            actual.merge(machine.status(id), 1L, Long::sum);
+        }
+        assertThat(machine.counts()).isEqualTo(actual);
+        // Um pedido cancelado no meio pode ainda ter passado por PROCESSING antes
+        assertThat(moved).isGreaterThanOrEqualTo(ORDERS / 2);
+        assertThat(actual.get(OrderStatus.CANCELLED)).isEqualTo(ORDERS / 2);
+    }
+
+    @Test
+    @DisplayName("regras: só transições da tabela, pedido inexistente falha")
+    void rules() {
+        OrderStateMachine machine = new OrderStateMachine(4);
+        machine.register(0);
+
+        assertThat(machine.transition(0, OrderStatus.COMPLETED)).isFalse();
+        assertThat(machine.transition(0, OrderStatus.PROCESSING)).isTrue();
+        assertThat(machine.transition(1, OrderStatus.PROCESSING)).isFalse();
+        assertThat(OrderStateMachine.allowedTransitions(OrderStatus.COMPLETED)).containsExactly(OrderStatus.REFUNDED);
+        assertThat(machine.count(OrderStatus.PROCESSING)).isEqualTo(1);
+    }
+}
@@ -0,0 +1,555 @@
+package com.example.stream;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Tabela colunar de produtos para análises em memória.
+ *
+ * Em vez de uma List<Product> (um objeto + Long + BigDecimal por linha),
+ * cada coluna é um array primitivo:
+ * - ids: long[]
+ * - preços: long[] em centavos (sem BigDecimal, soma exata em long)
+ * - categorias: int[] com códigos de um dicionário (String[] code → nome)
+ *
+ * filter, groupByCategory e topKByPrice dividem as linhas em pedaços e
+ * rodam em paralelo com fork/join (ForkJoinPool comum); percentis usam
+ * Arrays.parallelSort, que também é fork/join.
+ *
+ * A tabela é imutável: filter devolve uma nova tabela (com o mesmo dicionário).
+ */
+public final class ProductTable {
+
+    /** Linhas processadas por uma tarefa sem dividir mais. */
+    static final int LEAF_SIZE = 1 << 16;
+
+    private final long[] ids;
+    private final long[] priceCents;
+    private final int[] categoryCodes;
+    private final String[] dictionary;
+    private final int size;
+
+    private ProductTable(long[] ids, long[] priceCents, int[] categoryCodes, String[] dictionary, int size) {
+        this.ids = ids;
+        this.priceCents = priceCents;
+        this.categoryCodes = categoryCodes;
+        this.dictionary = dictionary;
+        this.size = size;
+    }
+
+    /**
+     * Converte uma coleção de Product. Preços com mais de 2 casas decimais
+     * lançam ArithmeticException (não há arredondamento silencioso).
+     */
+    public static ProductTable from(Collection<Product> products) {
+        Builder builder = builder(products.size());
+        for (Product product : products) {
+            builder.add(product);
+        }
+        return builder.build();
+    }
+
+    public static Builder builder(int expectedRows) {
+        return new Builder(expectedRows);
+    }
+
+    /**
+     * Monta a tabela linha a linha, codificando as categorias no dicionário.
+     */
+    public static final class Builder {
+        private long[] ids;
+        private long[] priceCents;
+        private int[] categoryCodes;
+        private int size;
+        private final Map<String, Integer> codes = new HashMap<>();
+        private final List<String> dictionary = new ArrayList<>();
+
+        private Builder(int expectedRows) {
+            int capacity = Math.max(expectedRows, 16);
+            ids = new long[capacity];
+            priceCents = new long[capacity];
+            categoryCodes = new int[capacity];
+        }
+
+        public Builder add(Product product) {
+            return add(product.id(), toCents(product.price()), product.category());
+        }
+
+        public Builder add(long id, long priceCents, String category) {
+            if (size == ids.length) {
+                int capacity = size + (size >> 1);
+                ids = Arrays.copyOf(ids, capacity);
+                this.priceCents = Arrays.copyOf(this.priceCents, capacity);
+                categoryCodes = Arrays.copyOf(categoryCodes, capacity);
+            }
+            ids[size] = id;
+            this.priceCents[size] = priceCents;
+            categoryCodes[size] = codes.computeIfAbsent(category, c -> {
+                dictionary.add(c);
+                return dictionary.size() - 1;
+            });
+            size++;
+            return this;
+        }
+
+        public ProductTable build() {
+            return new ProductTable(
+                    Arrays.copyOf(ids, size),
+                    Arrays.copyOf(priceCents, size),
+                    Arrays.copyOf(categoryCodes, size),
+                    dictionary.toArray(String[]::new),
+                    size);
+        }
+    }
+
+    // ═══════════════════════════════════════════════════════════
+    //  ACESSO
+    // ═══════════════════════════════════════════════════════════
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Código da categoria no dicionário, ou -1 se ela não existir na tabela.
+     * null é a categoria dos produtos sem categoria (o Builder também a
+     * codifica): tem código se a tabela tiver algum, senão -1.
+     */
+    public int categoryCode(String category) {
+        for (int code = 0; code < dictionary.length; code++) {
+            if (Objects.equals(dictionary[code], category)) {
+                return code;
+            }
+        }
+        return -1;
+    }
+
+    public Row row(int index) {
+        return new Row(ids[index], priceCents[index], dictionary[categoryCodes[index]]);
+    }
+
+    /**
+     * Uma linha da tabela (usada nos resultados de top-K).
+     */
+    public record Row(long id, long priceCents, String category) {
+        public BigDecimal price() {
+            return BigDecimal.valueOf(priceCents, 2);
+        }
+    }
+
+    // ═══════════════════════════════════════════════════════════
+    //  FILTER
+    // ═══════════════════════════════════════════════════════════
+
+    /**
+     * Predicado sobre as colunas primitivas (sem criar objeto por linha).
+     * Para filtrar por categoria, compare com {@link #categoryCode(String)}.
+     */
+    @FunctionalInterface
+    public interface RowPredicate {
+        boolean test(long id, long priceCents, int categoryCode);
+    }
+
+    /**
+     * Linhas que atendem ao predicado, em uma nova tabela (mesma ordem).
+     */
+    public ProductTable filter(RowPredicate predicate) {
+        int[] rows = new FilterTask(predicate, 0, size).invoke();
+
+        long[] newIds = new long[rows.length];
+        long[] newPrices = new long[rows.length];
+        int[] newCodes = new int[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            int row = rows[i];
+            newIds[i] = ids[row];
+            newPrices[i] = priceCents[row];
+            newCodes[i] = categoryCodes[row];
+        }
+        return new ProductTable(newIds, newPrices, newCodes, dictionary, rows.length);
+    }
+
+    /**
+     * Quantidade de linhas que atendem ao predicado (sem montar a tabela filtrada).
+     */
+    public long count(RowPredicate predicate) {
+        return new CountTask(predicate, 0, size).invoke();
+    }
+
+    private final class CountTask extends RecursiveTask<Long> {
+        private final RowPredicate predicate;
+        private final int from;
+        private final int to;
+
+        CountTask(RowPredicate predicate, int from, int to) {
+            this.predicate = predicate;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Long compute() {
+            if (to - from > LEAF_SIZE) {
+                int mid = (from + to) >>> 1;
+                CountTask left = new CountTask(predicate, from, mid);
+                left.fork();
+                long right = new CountTask(predicate, mid, to).compute();
+                return left.join() + right;
+            }
+
+            long count = 0;
+            for (int row = from; row < to; row++) {
+                if (predicate.test(ids[row], priceCents[row], categoryCodes[row])) {
+                    count++;
+                }
+            }
+            return count;
+        }
+    }
+
+    private final class FilterTask extends RecursiveTask<int[]> {
+        private final RowPredicate predicate;
+        private final int from;
+        private final int to;
+
+        FilterTask(RowPredicate predicate, int from, int to) {
+            this.predicate = predicate;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected int[] compute() {
+            if (to - from > LEAF_SIZE) {
+                int mid = (from + to) >>> 1;
+                FilterTask left = new FilterTask(predicate, from, mid);
+                left.fork();
+                int[] right = new FilterTask(predicate, mid, to).compute();
+                int[] leftRows = left.join();
+
+                int[] rows = Arrays.copyOf(leftRows, leftRows.length + right.length);
+                System.arraycopy(right, 0, rows, leftRows.length, right.length);
+                return rows;
+            }
+
+            int[] rows = new int[to - from];
+            int count = 0;
+            for (int row = from; row < to; row++) {
+                if (predicate.test(ids[row], priceCents[row], categoryCodes[row])) {
+                    rows[count++] = row;
+                }
+            }
+            return Arrays.copyOf(rows, count);
+        }
+    }
+
+    // ═══════════════════════════════════════════════════════════
+    //  GROUP BY categoria: count, sum, avg, min, max
+    // ═══════════════════════════════════════════════════════════
+
+    /**
+     * Agregados de um grupo. Valores em centavos; os métodos sem "Cents"
+     * devolvem BigDecimal com 2 casas para exibição.
+     */
+    public record CategoryStats(String category, long count, long sumCents, long minCents, long maxCents) {
+
+        public BigDecimal sum() {
+            return BigDecimal.valueOf(sumCents, 2);
+        }
+
+        public BigDecimal average() {
+            return BigDecimal.valueOf(sumCents, 2).divide(BigDecimal.valueOf(count), 2, RoundingMode.HALF_EVEN);
+        }
+
+        public BigDecimal min() {
+            return BigDecimal.valueOf(minCents, 2);
+        }
+
+        public BigDecimal max() {
+            return BigDecimal.valueOf(maxCents, 2);
+        }
+    }
+
+    /**
+     * Agregados por categoria, na ordem do dicionário (ordem de primeira aparição).
+     */
+    public Map<String, CategoryStats> groupByCategory() {
+        Aggregates aggregates = new GroupTask(0, size).invoke();
+
+        Map<String, CategoryStats> stats = new LinkedHashMap<>();
+        for (int code = 0; code < dictionary.length; code++) {
+            if (aggregates.count[code] > 0) {
+                stats.put(dictionary[code], aggregates.toStats(code, dictionary[code]));
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * Agregados de todas as linhas (categoria "*").
+     */
+    public CategoryStats summary() {
+        long count = 0, sum = 0, min = Long.MAX_VALUE, max = Long.MIN_VALUE;
+        for (CategoryStats group : groupByCategory().values()) {
+            count += group.count();
+            sum += group.sumCents();
+            min = Math.min(min, group.minCents());
+            max = Math.max(max, group.maxCents());
+        }
+        if (count == 0) {
+            throw new IllegalStateException("Empty table");
+        }
+        return new CategoryStats("*", count, sum, min, max);
+    }
+
+    // Acumuladores por código de categoria; cada tarefa folha tem os seus
+    private static final class Aggregates {
+        final long[] count;
+        final long[] sum;
+        final long[] min;
+        final long[] max;
+
+        Aggregates(int categories) {
+            count = new long[categories];
+            sum = new long[categories];
+            min = new long[categories];
+            max = new long[categories];
+            Arrays.fill(min, Long.MAX_VALUE);
+            Arrays.fill(max, Long.MIN_VALUE);
+        }
+
+        Aggregates merge(Aggregates other) {
+            for (int code = 0; code < count.length; code++) {
+                count[code] += other.count[code];
+                sum[code] += other.sum[code];
+                min[code] = Math.min(min[code], other.min[code]);
+                max[code] = Math.max(max[code], other.max[code]);
+            }
+            return this;
+        }
+
+        CategoryStats toStats(int code, String category) {
+            return new CategoryStats(category, count[code], sum[code], min[code], max[code]);
+        }
+    }
+
+    private final class GroupTask extends RecursiveTask<Aggregates> {
+        private final int from;
+        private final int to;
+
+        GroupTask(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Aggregates compute() {
+            if (to - from > LEAF_SIZE) {
+                int mid = (from + to) >>> 1;
+                GroupTask left = new GroupTask(from, mid);
+                left.fork();
+                Aggregates right = new GroupTask(mid, to).compute();
+                return left.join().merge(right);
+            }
+
+            Aggregates aggregates = new Aggregates(dictionary.length);
+            long[] count = aggregates.count;
+            long[] sum = aggregates.sum;
+            long[] min = aggregates.min;
+            long[] max = aggregates.max;
+            for (int row = from; row < to; row++) {
+                int code = categoryCodes[row];
+                long price = priceCents[row];
+                count[code]++;
+                sum[code] += price;
+                if (price < min[code]) {
+                    min[code] = price;
+                }
+                if (price > max[code]) {
+                    max[code] = price;
+                }
+            }
+            return aggregates;
+        }
+    }
+
+    // ═══════════════════════════════════════════════════════════
+    //  TOP-K por preço
+    // ═══════════════════════════════════════════════════════════
+
+    /**
+     * Os k produtos mais caros (empate: menor id primeiro), do mais caro ao mais barato.
+     */
+    public List<Row> topKByPrice(int k) {
+        k = Math.min(k, size);
+        if (k <= 0) {
+            return List.of();
+        }
+        int[] rows = new TopKTask(k, 0, size).invoke().sortedRows();
+
+        List<Row> result = new ArrayList<>(rows.length);
+        for (int row : rows) {
+            result.add(row(row));
+        }
+        return result;
+    }
+
+    /**
+     * true se a linha a vem antes da b no ranking (mais cara; empate: menor id).
+     */
+    private boolean ranksBefore(int a, int b) {
+        int byPrice = Long.compare(priceCents[a], priceCents[b]);
+        return byPrice != 0 ? byPrice > 0 : ids[a] < ids[b];
+    }
+
+    // Min-heap de índices de linha: a raiz é a pior das k melhores linhas.
+    // Começa do tamanho da folha e cresce até k só quando os merges pedem
+    private final class TopK {
+        private final int k;
+        private int[] heap;
+        private int count;
+
+        TopK(int k, int initialCapacity) {
+            this.k = k;
+            heap = new int[initialCapacity];
+        }
+
+        void offer(int row) {
+            if (count < k) {
+                if (count == heap.length) {
+                    heap = Arrays.copyOf(heap, (int) Math.min(k, Math.max(16L, 2L * count)));
+                }
+                heap[count] = row;
+                siftUp(count++);
+            } else if (ranksBefore(row, heap[0])) {
+                heap[0] = row;
+                siftDown(0);
+            }
+        }
+
+        TopK merge(TopK other) {
+            if (other.count > count) {
+                return other.merge(this);
+            }
+            for (int i = 0; i < other.count; i++) {
+                offer(other.heap[i]);
+            }
+            return this;
+        }
+
+        int[] sortedRows() {
+            int[] rows = new int[count];
+            // Extrai sempre a pior linha; preenche do fim para o começo
+            for (int i = count - 1; i >= 0; i--) {
+                rows[i] = heap[0];
+                heap[0] = heap[--count];
+                siftDown(0);
+            }
+            return rows;
+        }
+
+        private void siftUp(int index) {
+            int row = heap[index];
+            while (index > 0) {
+                int parent = (index - 1) >>> 1;
+                if (!ranksBefore(heap[parent], row)) {
+                    break;
+                }
+                heap[index] = heap[parent];
+                index = parent;
+            }
+            heap[index] = row;
+        }
+
+        private void siftDown(int index) {
+            int row = heap[index];
+            int half = count >>> 1;
+            while (index < half) {
+                int child = 2 * index + 1;
+                if (child + 1 < count && ranksBefore(heap[child], heap[child + 1])) {
+                    child++;
+                }
+                if (!ranksBefore(row, heap[child])) {
+                    break;
+                }
+                heap[index] = heap[child];
+                index = child;
+            }
+            heap[index] = row;
+        }
+    }
+
+    private final class TopKTask extends RecursiveTask<TopK> {
+        private final int k;
+        private final int from;
+        private final int to;
+
+        TopKTask(int k, int from, int to) {
+            this.k = k;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected TopK compute() {
+            if (to - from > LEAF_SIZE) {
+                int mid = (from + to) >>> 1;
+                TopKTask left = new TopKTask(k, from, mid);
+                left.fork();
+                TopK right = new TopKTask(k, mid, to).compute();
+                return left.join().merge(right);
+            }
+
+            TopK topK = new TopK(k, Math.min(k, to - from));
+            for (int row = from; row < to; row++) {
+                topK.offer(row);
+            }
+            return topK;
+        }
+    }
+
+    // ═══════════════════════════════════════════════════════════
+    //  PERCENTIS de preço
+    // ═══════════════════════════════════════════════════════════
+
+    /**
+     * Percentis de preço em centavos pelo método nearest-rank
+     * (p50 = mediana, p0 = mínimo, p100 = máximo). Ordena uma cópia
+     * da coluna uma única vez para todos os percentis pedidos.
+     */
+    public long[] percentilesCents(double... percentiles) {
+        if (size == 0) {
+            throw new IllegalStateException("Empty table");
+        }
+        long[] sorted = Arrays.copyOf(priceCents, size);
+        Arrays.parallelSort(sorted);
+
+        long[] result = new long[percentiles.length];
+        for (int i = 0; i < percentiles.length; i++) {
+            result[i] = sorted[nearestRank(percentiles[i], size) - 1];
+        }
+        return result;
+    }
+
+    /**
+     * Posição (1..n) do percentil p em n valores ordenados.
+     */
+    static int nearestRank(double percentile, int n) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100: " + percentile);
+        }
+        return Math.max(1, (int) Math.ceil(percentile / 100.0 * n));
+    }
+
+    private static long toCents(BigDecimal price) {
+        return price.movePointRight(2).longValueExact();
+    }
+}
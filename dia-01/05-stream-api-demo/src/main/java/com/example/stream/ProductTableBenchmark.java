@@ -0,0 +1,212 @@
+package com.example.stream;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Compara as pipelines de Stream do StreamApiDemo (List<Product> com
+ * BigDecimal) com a ProductTable colunar, nas mesmas consultas:
+ * soma total, group-by categoria (count/sum/avg/min/max), filtro,
+ * top-10 por preço e percentis p50/p90/p99.
+ *
+ * Cada consulta roda com stream(), parallelStream() e ProductTable; os
+ * resultados são conferidos entre si antes de medir.
+ *
+ * Propriedades: -Dbench.rows (padrão 10.000.000), -Dbench.warmup (3),
+ * -Dbench.iterations (5). Com 10M de linhas use -Xmx4g.
+ */
+public class ProductTableBenchmark {
+
+    private static final String[] CATEGORIES = {
+        "Electronics", "Furniture", "Stationery", "Books", "Sports", "Toys", "Garden", "Kitchen"
+    };
+    private static final BigDecimal THOUSAND = BigDecimal.valueOf(1000);
+
+    private static volatile Object sink;
+
+    public static void main(String[] args) {
+        int rows = Integer.getInteger("bench.rows", 10_000_000);
+        int warmup = Integer.getInteger("bench.warmup", 3);
+        int iterations = Integer.getInteger("bench.iterations", 5);
+
+        System.out.println("=== PRODUCT TABLE vs STREAM API ===\n");
+        System.out.printf("Rows: %,d | warmup: %d | iterations: %d | CPUs: %d%n%n",
+                rows, warmup, iterations, Runtime.getRuntime().availableProcessors());
+
+        long start = System.nanoTime();
+        List<Product> products = generate(rows);
+        System.out.printf("📦 List<Product> generated in %,d ms%n", (System.nanoTime() - start) / 1_000_000);
+
+        start = System.nanoTime();
+        ProductTable table = ProductTable.from(products);
+        System.out.printf("📦 ProductTable built in %,d ms%n%n", (System.nanoTime() - start) / 1_000_000);
+
+        verify(products, table);
+
+        System.out.printf("%-22s %12s %12s %12s %9s%n", "Query (ms/op)", "stream", "parallel", "table", "speedup");
+        System.out.println("-".repeat(72));
+
+        compare("sum", warmup, iterations,
+                () -> sumStream(products.stream()),
+                () -> sumStream(products.parallelStream()),
+                () -> table.summary().sumCents());
+
+        compare("group by category", warmup, iterations,
+                () -> groupStream(products.stream()),
+                () -> groupStream(products.parallelStream()),
+                table::groupByCategory);
+
+        int electronics = table.categoryCode("Electronics");
+        compare("filter + count", warmup, iterations,
+                () -> filterStream(products.stream()),
+                () -> filterStream(products.parallelStream()),
+                () -> table.count((id, price, category) -> category == electronics && price > 100_000));
+
+        compare("filter (materialize)", warmup, iterations,
+                () -> filterListStream(products.stream()),
+                () -> filterListStream(products.parallelStream()),
+                () -> table.filter((id, price, category) -> category == electronics && price > 100_000));
+
+        compare("top-10 by price", warmup, iterations,
+                () -> topStream(products.stream()),
+                () -> topStream(products.parallelStream()),
+                () -> table.topKByPrice(10));
+
+        compare("p50/p90/p99", warmup, iterations,
+                () -> percentilesStream(products.stream(), rows),
+                () -> percentilesStream(products.parallelStream(), rows),
+                () -> table.percentilesCents(50, 90, 99));
+
+        System.out.println("\n(speedup = stream / table)");
+    }
+
+    // ═══════════════════════════════════════════════════════════
+    //  Pipelines de Stream (mesmo estilo do StreamApiDemo)
+    // ═══════════════════════════════════════════════════════════
+
+    private static BigDecimal sumStream(Stream<Product> products) {
+        return products.map(Product::price).reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    private static Map<String, List<BigDecimal>> groupStream(Stream<Product> products) {
+        Map<String, List<Product>> byCategory = products.collect(Collectors.groupingBy(Product::category));
+
+        return byCategory.entrySet().stream().collect(Collectors.toMap(Map.Entry::getKey, entry -> {
+            List<Product> items = entry.getValue();
+            BigDecimal sum = items.stream().map(Product::price).reduce(BigDecimal.ZERO, BigDecimal::add);
+            BigDecimal avg = sum.divide(BigDecimal.valueOf(items.size()), 2, RoundingMode.HALF_EVEN);
+            BigDecimal min = items.stream().map(Product::price).min(Comparator.naturalOrder()).orElseThrow();
+            BigDecimal max = items.stream().map(Product::price).max(Comparator.naturalOrder()).orElseThrow();
+            return List.of(BigDecimal.valueOf(items.size()), sum, avg, min, max);
+        }));
+    }
+
+    private static long filterStream(Stream<Product> products) {
+        return products
+            .filter(p -> p.category().equals("Electronics"))
+            .filter(p -> p.price().compareTo(THOUSAND) > 0)
+            .count();
+    }
+
+    private static List<Product> filterListStream(Stream<Product> products) {
+        return products
+            .filter(p -> p.category().equals("Electronics"))
+            .filter(p -> p.price().compareTo(THOUSAND) > 0)
+            .toList();
+    }
+
+    private static List<Product> topStream(Stream<Product> products) {
+        return products
+            .sorted(Comparator.comparing(Product::price).reversed().thenComparing(Product::id))
+            .limit(10)
+            .toList();
+    }
+
+    private static List<BigDecimal> percentilesStream(Stream<Product> products, int rows) {
+        List<BigDecimal> sorted = products.map(Product::price).sorted().toList();
+        return List.of(
+            sorted.get(ProductTable.nearestRank(50, rows) - 1),
+            sorted.get(ProductTable.nearestRank(90, rows) - 1),
+            sorted.get(ProductTable.nearestRank(99, rows) - 1));
+    }
+
+    // ═══════════════════════════════════════════════════════════
+    //  Harness
+    // ═══════════════════════════════════════════════════════════
+
+    private static List<Product> generate(int rows) {
+        Random random = new Random(42);
+        List<Product> products = new ArrayList<>(rows);
+        for (int i = 1; i <= rows; i++) {
+            long cents = 100 + random.nextInt(500_000); // R$ 1,00 a R$ 5.000,99
+            products.add(new Product((long) i, "Product", BigDecimal.valueOf(cents, 2),
+                    CATEGORIES[random.nextInt(CATEGORIES.length)]));
+        }
+        return products;
+    }
+
+    /**
+     * Confere que as duas implementações respondem o mesmo antes de medir.
+     */
+    private static void verify(List<Product> products, ProductTable table) {
+        check("sum", sumStream(products.stream()), table.summary().sum());
+
+        Map<String, List<BigDecimal>> groups = groupStream(products.stream());
+        table.groupByCategory().forEach((category, stats) -> check("group " + category,
+                groups.get(category),
+                List.of(BigDecimal.valueOf(stats.count()), stats.sum(), stats.average(), stats.min(), stats.max())));
+
+        int electronics = table.categoryCode("Electronics");
+        check("filter", filterStream(products.stream()),
+                table.count((id, price, category) -> category == electronics && price > 100_000));
+        ProductTable filtered = table.filter((id, price, category) -> category == electronics && price > 100_000);
+        check("filter rows", filterListStream(products.stream()).stream().map(Product::id).toList(),
+                IntStream.range(0, filtered.size()).mapToObj(i -> filtered.row(i).id()).toList());
+
+        check("top-10", topStream(products.stream()).stream().map(Product::id).toList(),
+                table.topKByPrice(10).stream().map(ProductTable.Row::id).toList());
+
+        long[] percentiles = table.percentilesCents(50, 90, 99);
+        check("percentiles", percentilesStream(products.stream(), products.size()),
+                List.of(BigDecimal.valueOf(percentiles[0], 2), BigDecimal.valueOf(percentiles[1], 2),
+                        BigDecimal.valueOf(percentiles[2], 2)));
+
+        System.out.println("✅ Stream and ProductTable results match\n");
+    }
+
+    private static void check(String query, Object expected, Object actual) {
+        if (!Objects.equals(expected, actual)) {
+            throw new IllegalStateException(query + ": stream=" + expected + " table=" + actual);
+        }
+    }
+
+    private static void compare(String query, int warmup, int iterations,
+                                Supplier<?> stream, Supplier<?> parallel, Supplier<?> table) {
+        double streamMs = measure(stream, warmup, iterations);
+        double parallelMs = measure(parallel, warmup, iterations);
+        double tableMs = measure(table, warmup, iterations);
+        System.out.printf("%-22s %12.1f %12.1f %12.1f %8.1fx%n",
+                query, streamMs, parallelMs, tableMs, streamMs / tableMs);
+    }
+
+    private static double measure(Supplier<?> query, int warmup, int iterations) {
+        for (int i = 0; i < warmup; i++) {
+            sink = query.get();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink = query.get();
+        }
+        return (System.nanoTime() - start) / 1_000_000.0 / iterations;
+    }
+}
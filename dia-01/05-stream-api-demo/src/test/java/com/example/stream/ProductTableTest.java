@@ -0,0 +1,105 @@
+package com.example.stream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("ProductTable — tabela colunar")
+class ProductTableTest {
+
+    @Test
+    @DisplayName("categoryCode(null): código dos produtos sem categoria")
+    void nullCategoryWithUncategorizedProducts() {
+        ProductTable table = ProductTable.from(List.of(
+            new Product(1L, "Brinde", new BigDecimal("0.00"), null),
+            new Product(2L, "Notebook", new BigDecimal("4500.00"), "Eletrônicos"),
+            new Product(3L, "Caneca", new BigDecimal("25.90"), null)));
+
+        int uncategorized = table.categoryCode(null);
+
+        assertThat(uncategorized).isNotNegative();
+        assertThat(table.count((id, price, code) -> code == uncategorized)).isEqualTo(2);
+        // Categorias depois do null no dicionário continuam sendo encontradas
+        assertThat(table.categoryCode("Eletrônicos")).isNotNegative().isNotEqualTo(uncategorized);
+        assertThat(table.categoryCode("Livros")).isEqualTo(-1);
+        assertThat(table.groupByCategory().get(null).count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("categoryCode(null) sem produtos sem categoria: -1")
+    void nullCategoryWithoutUncategorizedProducts() {
+        ProductTable table = ProductTable.from(List.of(
+            new Product(1L, "Notebook", new BigDecimal("4500.00"), "Eletrônicos")));
+
+        assertThat(table.categoryCode(null)).isEqualTo(-1);
+        assertThat(table.count((id, price, code) -> code == table.categoryCode(null))).isZero();
+    }
+
+    @Test
+    @DisplayName("topKByPrice: do mais caro ao mais barato, empate pelo menor id")
+    void topKOrderAndTies() {
+        ProductTable table = ProductTable.builder(6)
+            .add(5L, 1000, "A")
+            .add(2L, 3000, "B")
+            .add(9L, 1000, "A")
+            .add(1L, 1000, "B")
+            .add(7L, 3000, "A")
+            .add(3L, 500, null)
+            .build();
+
+        assertThat(table.topKByPrice(4)).extracting(ProductTable.Row::id).containsExactly(2L, 7L, 1L, 5L);
+        assertThat(table.topKByPrice(1)).extracting(ProductTable.Row::id).containsExactly(2L);
+    }
+
+    @Test
+    @DisplayName("topKByPrice com k maior que a tabela: todas as linhas, ordenadas")
+    void topKLargerThanTable() {
+        ProductTable table = ProductTable.builder(3)
+            .add(1L, 100, "A")
+            .add(2L, 300, "A")
+            .add(3L, 200, "A")
+            .build();
+
+        assertThat(table.topKByPrice(10)).extracting(ProductTable.Row::id).containsExactly(2L, 3L, 1L);
+        assertThat(table.topKByPrice(Integer.MAX_VALUE)).extracting(ProductTable.Row::id).containsExactly(2L, 3L, 1L);
+    }
+
+    @Test
+    @DisplayName("topKByPrice com k <= 0 ou tabela vazia: lista vazia")
+    void topKEmpty() {
+        ProductTable table = ProductTable.builder(1).add(1L, 100, "A").build();
+
+        assertThat(table.topKByPrice(0)).isEmpty();
+        assertThat(table.topKByPrice(-1)).isEmpty();
+        assertThat(ProductTable.builder(0).build().topKByPrice(5)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("topKByPrice em várias folhas, com k maior que uma folha: igual a ordenar tudo")
+    void topKAcrossLeaves() {
+        int rows = 3 * ProductTable.LEAF_SIZE + 7;
+        ProductTable.Builder builder = ProductTable.builder(rows);
+        for (int row = 0; row < rows; row++) {
+            // Ids fora de ordem e poucos preços distintos: muitos empates entre folhas
+            builder.add(rows - row, (row * 7919L) % 1000, "A");
+        }
+        ProductTable table = builder.build();
+
+        Comparator<ProductTable.Row> ranking = Comparator.comparingLong(ProductTable.Row::priceCents).reversed()
+            .thenComparingLong(ProductTable.Row::id);
+        for (int k : new int[] {10, ProductTable.LEAF_SIZE + 10, rows}) {
+            List<ProductTable.Row> expected = IntStream.range(0, rows)
+                .mapToObj(table::row)
+                .sorted(ranking)
+                .limit(k)
+                .toList();
+            assertThat(table.topKByPrice(k)).as("k = %d", k).isEqualTo(expected);
+        }
+    }
+}
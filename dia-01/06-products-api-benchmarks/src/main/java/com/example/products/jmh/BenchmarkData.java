@@ -0,0 +1,51 @@
+package com.example.products.jmh;
+
+import com.example.products.config.DatabaseConfig;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Prepara o H2 em memória dos benchmarks: cria a tabela (DatabaseConfig)
+ * e a preenche com N produtos gerados no próprio banco (SYSTEM_RANGE),
+ * sem passar pelo DAO.
+ */
+final class BenchmarkData {
+
+    static final String[] CATEGORIES = {"Electronics", "Furniture", "Books", "Sports"};
+
+    private BenchmarkData() {}
+
+    /**
+     * Substitui o conteúdo da tabela por {@code rows} produtos (ids 1..rows).
+     */
+    static void seed(int rows) {
+        DatabaseConfig.initialize();
+
+        try (Connection conn = DatabaseConfig.getConnection()) {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("TRUNCATE TABLE products RESTART IDENTITY");
+            }
+            try (PreparedStatement ps = conn.prepareStatement("""
+                    INSERT INTO products (name, description, price, category, created_at, updated_at)
+                    SELECT 'Product ' || X,
+                           'Description of product number ' || X,
+                           CAST(10 + MOD(X, 5000) AS DECIMAL(10,2)),
+                           CASEWHEN(MOD(X, 4) = 0, 'Electronics',
+                               CASEWHEN(MOD(X, 4) = 1, 'Furniture',
+                                   CASEWHEN(MOD(X, 4) = 2, 'Books', 'Sports'))),
+                           CURRENT_TIMESTAMP, CURRENT_TIMESTAMP
+                    FROM SYSTEM_RANGE(1, ?)
+                    """)) {
+                ps.setInt(1, rows);
+                ps.executeUpdate();
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to seed benchmark data", e);
+        }
+
+        System.out.println("📦 Benchmark data: " + rows + " products");
+    }
+}
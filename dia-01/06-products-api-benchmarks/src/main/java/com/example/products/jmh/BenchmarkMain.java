@@ -0,0 +1,42 @@
+package com.example.products.jmh;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Main do benchmarks.jar: mesmos argumentos do JMH (filtro por regex, -p, -f...),
+ * mas por padrão grava os resultados em JSON para comparar entre versões:
+ *
+ *   jmh-results/products-api-{versão}-{yyyyMMdd-HHmmss}.json
+ *
+ * -rf / -rff na linha de comando continuam tendo precedência.
+ */
+public class BenchmarkMain {
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions cli = new CommandLineOptions(args);
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(cli);
+
+        if (!cli.getResultFormat().hasValue()) {
+            options.resultFormat(ResultFormatType.JSON);
+        }
+        if (!cli.getResult().hasValue()) {
+            Path dir = Files.createDirectories(Path.of("jmh-results"));
+            String version = BenchmarkMain.class.getPackage().getImplementationVersion();
+            String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+            Path file = dir.resolve("products-api-" + (version == null ? "dev" : version) + "-" + timestamp + ".json");
+            options.result(file.toString());
+            System.out.println("📊 Results: " + file.toAbsolutePath());
+        }
+
+        new Runner(options.build()).run();
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.products.jmh;
+
+import com.example.products.dao.ProductDAO;
+import com.example.products.model.Product;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Listagem completa em três volumes: findAll (materializa a lista) e
+ * streamAll (o caminho usado pelo servlet, linha a linha).
+ *
+ * 1M de linhas precisa de heap: o fork sobe com -Xmx2g.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class FindAllBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int rows;
+
+    private ProductDAO dao;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkData.seed(rows);
+        dao = new ProductDAO();
+    }
+
+    @Benchmark
+    public List<Product> findAll() {
+        return dao.findAll();
+    }
+
+    @Benchmark
+    public void streamAll(Blackhole blackhole) {
+        dao.streamAll(blackhole::consume);
+    }
+}
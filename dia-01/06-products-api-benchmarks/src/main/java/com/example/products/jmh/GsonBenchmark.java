@@ -0,0 +1,67 @@
+package com.example.products.jmh;
+
+import com.example.products.dto.ProductResponse;
+import com.example.products.servlet.LocalDateTimeAdapter;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gson.toJson de uma página de produtos, combinando:
+ * - pretty: setPrettyPrinting (como o ProductServlet configura) ou compacto
+ * - adapter: LocalDateTimeAdapter ou reflexão sobre LocalDateTime
+ *
+ * Sem o adapter o Gson serializa os campos internos de LocalDateTime, o que
+ * exige abrir java.time para reflexão (--add-opens no fork).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-opens=java.base/java.time=ALL-UNNAMED")
+public class GsonBenchmark {
+
+    @Param({"100"})
+    public int size;
+
+    @Param({"true", "false"})
+    public boolean pretty;
+
+    @Param({"true", "false"})
+    public boolean adapter;
+
+    private Gson gson;
+    private List<ProductResponse> page;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        GsonBuilder builder = new GsonBuilder();
+        if (pretty) {
+            builder.setPrettyPrinting();
+        }
+        if (adapter) {
+            builder.registerTypeAdapter(LocalDateTime.class, new LocalDateTimeAdapter());
+        }
+        gson = builder.create();
+
+        LocalDateTime now = LocalDateTime.now();
+        page = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            page.add(new ProductResponse((long) i, "Product " + i, "Description of product number " + i,
+                    BigDecimal.valueOf(1000 + i, 2),
+                    BenchmarkData.CATEGORIES[i % BenchmarkData.CATEGORIES.length], now));
+        }
+    }
+
+    @Benchmark
+    public String toJson() {
+        return gson.toJson(page);
+    }
+}
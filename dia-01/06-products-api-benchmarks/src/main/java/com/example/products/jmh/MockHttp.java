@@ -0,0 +1,129 @@
+package com.example.products.jmh;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.lang.reflect.Array;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Request/response de mentira para chamar o servlet sem Tomcat.
+ *
+ * São java.lang.reflect.Proxy das interfaces de Servlet: só os métodos que
+ * o ProductServlet usa têm comportamento; os demais devolvem null/0/false.
+ * O corpo da resposta é descartado, contando apenas os caracteres.
+ */
+final class MockHttp {
+
+    private MockHttp() {}
+
+    static HttpServletRequest get(String pathInfo, Map<String, String> params, Map<String, String> headers) {
+        return (HttpServletRequest) Proxy.newProxyInstance(
+                MockHttp.class.getClassLoader(),
+                new Class<?>[]{HttpServletRequest.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getMethod" -> "GET";
+                    case "getProtocol" -> "HTTP/1.1";
+                    case "getPathInfo" -> pathInfo;
+                    case "getParameter" -> params.get((String) args[0]);
+                    case "getHeader" -> headers.get((String) args[0]);
+                    case "getDateHeader" -> headers.containsKey((String) args[0])
+                            ? Long.parseLong(headers.get((String) args[0])) : -1L;
+                    default -> defaultValue(method.getReturnType());
+                });
+    }
+
+    /**
+     * Resposta que guarda status e cabeçalhos; reutilizável via {@link Response#reset()}.
+     */
+    static final class Response {
+
+        private final Map<String, String> headers = new HashMap<>();
+        private final CountingWriter body = new CountingWriter();
+        private final PrintWriter writer = new PrintWriter(body);
+        private int status = HttpServletResponse.SC_OK;
+
+        final HttpServletResponse servletResponse = (HttpServletResponse) Proxy.newProxyInstance(
+                MockHttp.class.getClassLoader(),
+                new Class<?>[]{HttpServletResponse.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "setStatus" -> status = (Integer) args[0];
+                        case "getStatus" -> {
+                            return status;
+                        }
+                        case "setHeader", "addHeader" -> headers.put((String) args[0], (String) args[1]);
+                        case "setDateHeader", "addDateHeader" -> headers.put((String) args[0], String.valueOf(args[1]));
+                        case "getHeader" -> {
+                            return headers.get((String) args[0]);
+                        }
+                        case "getWriter" -> {
+                            return writer;
+                        }
+                        default -> {
+                            return defaultValue(method.getReturnType());
+                        }
+                    }
+                    return null;
+                });
+
+        void reset() {
+            headers.clear();
+            body.count = 0;
+            status = HttpServletResponse.SC_OK;
+        }
+
+        int status() {
+            return status;
+        }
+
+        String header(String name) {
+            return headers.get(name);
+        }
+
+        long bodyLength() {
+            writer.flush();
+            return body.count;
+        }
+    }
+
+    private static final class CountingWriter extends Writer {
+        long count;
+
+        @Override
+        public void write(char[] cbuf, int off, int len) {
+            count += len;
+        }
+
+        @Override
+        public void write(String str, int off, int len) {
+            count += len;
+        }
+
+        @Override
+        public void flush() {}
+
+        @Override
+        public void close() {}
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (!type.isPrimitive() || type == void.class) {
+            return null;
+        }
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        if (type == int.class) {
+            return 0;
+        }
+        return Array.get(Array.newInstance(type, 1), 0);
+    }
+}
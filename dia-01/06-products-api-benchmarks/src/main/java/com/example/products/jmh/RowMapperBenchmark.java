@@ -0,0 +1,57 @@
+package com.example.products.jmh;
+
+import com.example.products.config.DatabaseConfig;
+import com.example.products.dao.ProductRowMapper;
+import com.example.products.model.Product;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo de mapear uma linha: getXxx("coluna") versus getXxx(índice).
+ *
+ * O ResultSet fica aberto e posicionado na mesma linha; a medida é só o
+ * mapRow (leitura das 7 colunas + criação do Product), sem consulta.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RowMapperBenchmark {
+
+    @Param({"BY_NAME", "BY_INDEX"})
+    public ProductRowMapper mapper;
+
+    private Connection connection;
+    private PreparedStatement statement;
+    private ResultSet resultSet;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        BenchmarkData.seed(10);
+        connection = DatabaseConfig.getConnection();
+        statement = connection.prepareStatement("SELECT * FROM products WHERE id = 1");
+        resultSet = statement.executeQuery();
+        if (!resultSet.next()) {
+            throw new IllegalStateException("Benchmark row not found");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        resultSet.close();
+        statement.close();
+        connection.close();
+    }
+
+    @Benchmark
+    public Product mapRow() throws SQLException {
+        return mapper.map(resultSet);
+    }
+}
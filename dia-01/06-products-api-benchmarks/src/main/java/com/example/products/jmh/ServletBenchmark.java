@@ -0,0 +1,79 @@
+package com.example.products.jmh;
+
+import com.example.products.cache.CachingProductDAO;
+import com.example.products.dao.ProductDAO;
+import com.example.products.servlet.ProductServlet;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caminho completo do GET no ProductServlet (DAO + Gson + escrita da
+ * resposta), sem rede nem Tomcat: request/response são mocks (MockHttp).
+ *
+ * Cenários:
+ * - BY_ID: GET /api/products/1
+ * - BY_ID_NOT_MODIFIED: mesmo GET com If-None-Match da versão atual (304)
+ * - CATEGORY: GET /api/products?category=Electronics (1/4 das linhas)
+ * - ALL: GET /api/products
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ServletBenchmark {
+
+    public enum Scenario { BY_ID, BY_ID_NOT_MODIFIED, CATEGORY, ALL }
+
+    @Param({"BY_ID", "BY_ID_NOT_MODIFIED", "CATEGORY", "ALL"})
+    public Scenario scenario;
+
+    @Param({"1000"})
+    public int rows;
+
+    @Param({"true", "false"})
+    public boolean cache;
+
+    private ProductServlet servlet;
+    private HttpServletRequest request;
+    private final MockHttp.Response response = new MockHttp.Response();
+
+    @Setup(Level.Trial)
+    public void setUp() throws ServletException, IOException {
+        BenchmarkData.seed(rows);
+        ProductDAO dao = new ProductDAO();
+        servlet = new ProductServlet(cache ? CachingProductDAO.fromSystemProperties(dao) : dao);
+
+        request = switch (scenario) {
+            case BY_ID -> MockHttp.get("/1", Map.of(), Map.of());
+            case BY_ID_NOT_MODIFIED -> MockHttp.get("/1", Map.of(), Map.of("If-None-Match", currentETag("/1")));
+            case CATEGORY -> MockHttp.get(null, Map.of("category", "Electronics"), Map.of());
+            case ALL -> MockHttp.get(null, Map.of(), Map.of());
+        };
+
+        int expected = scenario == Scenario.BY_ID_NOT_MODIFIED ? 304 : 200;
+        doGet();
+        if (response.status() != expected) {
+            throw new IllegalStateException(scenario + ": expected " + expected + ", got " + response.status());
+        }
+    }
+
+    @Benchmark
+    public long doGet() throws ServletException, IOException {
+        response.reset();
+        servlet.service(request, response.servletResponse);
+        return response.bodyLength() + response.status();
+    }
+
+    private String currentETag(String pathInfo) throws ServletException, IOException {
+        response.reset();
+        servlet.service(MockHttp.get(pathInfo, Map.of(), Map.of()), response.servletResponse);
+        return response.header("ETag");
+    }
+}
@@ -1,9 +1,24 @@
 package com.example.products;
 
+import com.example.products.cache.CachingProductDAO;
 import com.example.products.config.DatabaseConfig;
+import com.example.products.dao.ProductDAO;
+import com.example.products.search.ProductNameIndex;
+import com.example.products.server.PinningMonitor;
+import com.example.products.server.ThreadMode;
+import com.example.products.server.VirtualThreadExecutor;
+import com.example.products.servlet.CacheStatsServlet;
+import com.example.products.servlet.PoolStatsServlet;
 import com.example.products.servlet.ProductServlet;
+import com.example.products.startup.FirstRequestFilter;
+import com.example.products.startup.StartupTimeline;
+import com.example.products.startup.StartupTimeline.Phase;
+import com.example.products.startup.TrainingRun;
 import org.apache.catalina.Context;
+import org.apache.catalina.connector.Connector;
 import org.apache.catalina.startup.Tomcat;
+import org.apache.tomcat.util.descriptor.web.FilterDef;
+import org.apache.tomcat.util.descriptor.web.FilterMap;
 
 import java.io.File;
 
@@ -12,31 +27,55 @@ import java.io.File;
  * 
  * Usa Tomcat Embedded para servir a API REST.
  * NÃO usa Spring Boot - tudo é configurado manualmente.
+ *
+ * -Dserver.threads=virtual executa as requisições em threads virtuais
+ * (Java 21) e liga o monitor de pinning; o padrão é o pool de threads
+ * de plataforma do Tomcat.
+ *
+ * O banco é inicializado em paralelo com a subida do Tomcat e o tempo de
+ * cada fase é impresso (StartupTimeline). -Dstartup.training=true faz a
+ * execução de treino do AppCDS: chama cada endpoint uma vez e encerra.
  */
 public class ProductsApp {
 
     public static void main(String[] args) throws Exception {
-        // 1. Inicializar banco de dados (criar tabelas)
-        DatabaseConfig.initialize();
-        System.out.println("✅ Database initialized");
+        StartupTimeline.mark(Phase.MAIN);
 
-        // 2. Configurar Tomcat embedded
-        Tomcat tomcat = new Tomcat();
-        int port = Integer.parseInt(System.getProperty("server.port", "8080"));
-        tomcat.setPort(port);
-        tomcat.getConnector(); // Ativa o conector HTTP
+        // 1. Inicializar banco de dados em segundo plano (as requisições esperam por ele)
+        DatabaseConfig.initializeAsync().whenComplete((ignored, error) -> {
+            if (error != null) {
+                System.err.println("❌ Database initialization failed: " + error);
+                System.exit(1);
+            }
+            System.out.println("✅ Database initialized");
+            StartupTimeline.mark(Phase.DB_READY);
+        });
 
-        // 3. Criar contexto da aplicação
-        String docBase = new File(".").getAbsolutePath();
-        Context ctx = tomcat.addContext("", docBase);
+        // Índice de busca por nome: carregado em segundo plano (até lá, a busca usa SQL)
+        ProductNameIndex.shared().warmUpAsync();
 
-        // 4. Registrar Servlets manualmente
-        Tomcat.addServlet(ctx, "ProductServlet", new ProductServlet());
-        ctx.addServletMappingDecoded("/api/products/*", "ProductServlet");
+        // 2-4. Configurar Tomcat embedded, contexto e servlets
+        int port = Integer.parseInt(System.getProperty("server.port", "8080"));
+        ThreadMode threadMode = ThreadMode.fromSystemProperties();
+        Tomcat tomcat = createServer(port, threadMode);
+
+        if (threadMode == ThreadMode.VIRTUAL) {
+            PinningMonitor.fromSystemProperties().start();
+        }
 
         // 5. Iniciar servidor
         tomcat.start();
-        System.out.println("🚀 Server started on http://localhost:" + port);
+        StartupTimeline.mark(Phase.TOMCAT_STARTED);
+
+        if (Boolean.getBoolean("startup.training")) {
+            TrainingRun.exercise(port);
+            tomcat.stop();
+            tomcat.destroy();
+            System.exit(0); // -XX:ArchiveClassesAtExit grava o arquivo CDS aqui
+        }
+
+        System.out.println("🚀 Server started on http://localhost:" + port
+                + " (" + threadMode.name().toLowerCase() + " threads)");
         System.out.println("📡 Products API: http://localhost:" + port + "/api/products");
         System.out.println();
         System.out.println("Endpoints disponíveis:");
@@ -44,9 +83,59 @@ public class ProductsApp {
         System.out.println("  GET    /api/products/{id}     - Buscar por ID");
         System.out.println("  GET    /api/products?category=X - Buscar por categoria");
         System.out.println("  POST   /api/products          - Criar produto");
+        System.out.println("  POST   /api/products/batch    - Criar vários produtos");
         System.out.println("  PUT    /api/products/{id}     - Atualizar produto");
         System.out.println("  DELETE /api/products/{id}     - Deletar produto");
+        System.out.println("  GET    /api/pool-stats        - Estatísticas do pool de conexões");
+        System.out.println("  GET    /api/cache-stats       - Estatísticas do cache de produtos");
 
         tomcat.getServer().await();
     }
+
+    /**
+     * Monta o Tomcat com os servlets da API (sem iniciar).
+     * Também usado pelos benchmarks para subir o servidor em cada modo.
+     */
+    public static Tomcat createServer(int port, ThreadMode threadMode) {
+        // 2. Configurar Tomcat embedded
+        Tomcat tomcat = new Tomcat();
+        tomcat.setPort(port);
+        Connector connector = tomcat.getConnector(); // Ativa o conector HTTP
+
+        if (threadMode == ThreadMode.VIRTUAL) {
+            VirtualThreadExecutor executor = new VirtualThreadExecutor("http-vt-");
+            tomcat.getService().addExecutor(executor);
+            connector.getProtocolHandler().setExecutor(executor);
+        }
+
+        // 3. Criar contexto da aplicação
+        String docBase = new File(".").getAbsolutePath();
+        Context ctx = tomcat.addContext("", docBase);
+
+        // Marca o fim da primeira requisição na linha do tempo da subida
+        FilterDef firstRequest = new FilterDef();
+        firstRequest.setFilterName("FirstRequestFilter");
+        firstRequest.setFilter(new FirstRequestFilter());
+        ctx.addFilterDef(firstRequest);
+        FilterMap firstRequestMapping = new FilterMap();
+        firstRequestMapping.setFilterName("FirstRequestFilter");
+        firstRequestMapping.addURLPattern("/*");
+        ctx.addFilterMap(firstRequestMapping);
+
+        // 4. Registrar Servlets manualmente
+        //    (o DAO vai envolvido pelo cache, a menos que -Dcache.enabled=false)
+        ProductDAO productDAO = new ProductDAO();
+        if (Boolean.parseBoolean(System.getProperty("cache.enabled", "true"))) {
+            CachingProductDAO cachingDAO = CachingProductDAO.fromSystemProperties(productDAO);
+            productDAO = cachingDAO;
+            Tomcat.addServlet(ctx, "CacheStatsServlet", new CacheStatsServlet(cachingDAO));
+            ctx.addServletMappingDecoded("/api/cache-stats", "CacheStatsServlet");
+        }
+        Tomcat.addServlet(ctx, "ProductServlet", new ProductServlet(productDAO));
+        ctx.addServletMappingDecoded("/api/products/*", "ProductServlet");
+        Tomcat.addServlet(ctx, "PoolStatsServlet", new PoolStatsServlet());
+        ctx.addServletMappingDecoded("/api/pool-stats", "PoolStatsServlet");
+
+        return tomcat;
+    }
 }
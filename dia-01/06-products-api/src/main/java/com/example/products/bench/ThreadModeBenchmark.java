@@ -0,0 +1,170 @@
+package com.example.products.bench;
+
+import com.example.products.ProductsApp;
+import com.example.products.config.DatabaseConfig;
+import com.example.products.server.PinningMonitor;
+import com.example.products.server.ThreadMode;
+import org.apache.catalina.startup.Tomcat;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Teste de carga comparando os dois modos de thread do servidor.
+ *
+ * Sobe o ProductsApp em cada modo (platform e virtual), dispara N clientes
+ * concorrentes (padrão 1000) contra GET /api/products/{id} e
+ * GET /api/products?category= durante alguns segundos e imprime
+ * throughput e latências lado a lado.
+ *
+ * Executar:
+ *   mvn compile exec:java -Dexec.mainClass="com.example.products.bench.ThreadModeBenchmark"
+ *   (-Dbench.clients=1000 -Dbench.seconds=15 -Dbench.warmupSeconds=5)
+ */
+public class ThreadModeBenchmark {
+
+    private static final int CLIENTS = Integer.getInteger("bench.clients", 1_000);
+    private static final int SECONDS = Integer.getInteger("bench.seconds", 15);
+    private static final int WARMUP_SECONDS = Integer.getInteger("bench.warmupSeconds", 5);
+
+    record Result(ThreadMode mode, long requests, long errors, double seconds, long[] latenciesNanos) {
+
+        double throughput() {
+            return requests / seconds;
+        }
+
+        double percentileMs(double p) {
+            if (latenciesNanos.length == 0) {
+                return 0;
+            }
+            int index = Math.min(latenciesNanos.length - 1, (int) (latenciesNanos.length * p));
+            return latenciesNanos[index] / 1_000_000.0;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        DatabaseConfig.initialize();
+
+        List<Result> results = new ArrayList<>();
+        int port = 18080;
+        for (ThreadMode mode : ThreadMode.values()) {
+            results.add(run(mode, port++));
+        }
+
+        System.out.println();
+        System.out.printf("📊 %d concurrent clients, %ds per mode%n", CLIENTS, SECONDS);
+        System.out.println("─".repeat(88));
+        System.out.printf("%-10s %12s %12s %10s %10s %10s %10s %8s%n",
+                "Modo", "Requisições", "req/s", "p50 ms", "p90 ms", "p99 ms", "max ms", "Erros");
+        System.out.println("─".repeat(88));
+        for (Result r : results) {
+            System.out.printf("%-10s %12d %12.0f %10.2f %10.2f %10.2f %10.2f %8d%n",
+                    r.mode().name().toLowerCase(), r.requests(), r.throughput(),
+                    r.percentileMs(0.50), r.percentileMs(0.90), r.percentileMs(0.99),
+                    r.percentileMs(1.0), r.errors());
+        }
+        System.out.println("─".repeat(88));
+        System.exit(0);
+    }
+
+    private static Result run(ThreadMode mode, int port) throws Exception {
+        Tomcat tomcat = ProductsApp.createServer(port, mode);
+        PinningMonitor pinningMonitor = null;
+        if (mode == ThreadMode.VIRTUAL) {
+            pinningMonitor = PinningMonitor.fromSystemProperties();
+            pinningMonitor.start();
+        }
+        tomcat.start();
+        System.out.printf("%n▶️  %s threads on port %d%n", mode.name().toLowerCase(), port);
+
+        try (HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(10))
+                .build()) {
+
+            load(client, port, WARMUP_SECONDS); // aquecimento (JIT, conexões, pool)
+            Result result = load(client, port, SECONDS);
+            result = new Result(mode, result.requests(), result.errors(), result.seconds(),
+                    result.latenciesNanos());
+
+            if (pinningMonitor != null) {
+                System.out.println("📌 Pinned sites: " + pinningMonitor.summary());
+            }
+            return result;
+        } finally {
+            if (pinningMonitor != null) {
+                pinningMonitor.close();
+            }
+            tomcat.stop();
+            tomcat.destroy();
+        }
+    }
+
+    private static Result load(HttpClient client, int port, int seconds) throws Exception {
+        String base = "http://localhost:" + port + "/api/products";
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        LongAdder errors = new LongAdder();
+
+        long start = System.nanoTime();
+        List<Future<long[]>> clients = new ArrayList<>(CLIENTS);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < CLIENTS; c++) {
+                int clientId = c;
+                clients.add(executor.submit(() -> {
+                    long[] latencies = new long[1024];
+                    int count = 0;
+                    for (int i = 0; System.nanoTime() < deadline; i++) {
+                        String url = (clientId + i) % 4 == 0
+                                ? base + "?category=Electronics"
+                                : base + "/" + (1 + (clientId + i) % 5);
+                        HttpRequest request = HttpRequest.newBuilder(URI.create(url)).GET().build();
+                        long t0 = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response =
+                                    client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() != 200) {
+                                errors.increment();
+                                continue;
+                            }
+                        } catch (Exception e) {
+                            errors.increment();
+                            continue;
+                        }
+                        if (count == latencies.length) {
+                            latencies = Arrays.copyOf(latencies, count * 2);
+                        }
+                        latencies[count++] = System.nanoTime() - t0;
+                    }
+                    return Arrays.copyOf(latencies, count);
+                }));
+            }
+        }
+        double elapsed = (System.nanoTime() - start) / 1e9;
+
+        long[] all = clients.stream()
+                .map(ThreadModeBenchmark::join)
+                .flatMapToLong(Arrays::stream)
+                .toArray();
+        Arrays.sort(all);
+        return new Result(null, all.length, errors.sum(), elapsed, all);
+    }
+
+    private static long[] join(Future<long[]> future) {
+        try {
+            return future.get();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.products.bench;
+
+import com.example.products.config.DatabaseConfig;
+import com.example.products.dao.ProductDAO;
+import com.example.products.model.Product;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+
+/**
+ * Micro-benchmark do caminho de escrita do ProductDAO.
+ *
+ * Compara o caminho antigo (INSERT/UPDATE + SELECT de releitura numa segunda
+ * conexão) com o atual (um único comando que já devolve a linha gravada).
+ *
+ * Executar:
+ *   mvn compile exec:java -Dexec.mainClass="com.example.products.bench.WritePathBenchmark"
+ *   (-Dbench.ops=20000 -Dbench.warmup=5000 para mudar o volume)
+ */
+public class WritePathBenchmark {
+
+    private static final int WARMUP = Integer.getInteger("bench.warmup", 5_000);
+    private static final int OPS = Integer.getInteger("bench.ops", 20_000);
+
+    public static void main(String[] args) throws Exception {
+        DatabaseConfig.initialize();
+        ProductDAO dao = new ProductDAO();
+
+        System.out.println();
+        System.out.printf("⏱️  Write path benchmark (%d warmup, %d measured ops)%n", WARMUP, OPS);
+        System.out.println("─".repeat(72));
+        System.out.printf("%-32s %10s %10s %10s%n", "Operação", "média µs", "p50 µs", "p99 µs");
+        System.out.println("─".repeat(72));
+
+        report("INSERT + SELECT (antes)", WritePathBenchmark::legacySave);
+        report("INSERT ... FINAL TABLE (depois)", i -> dao.save(newProduct(i)));
+        report("UPDATE + SELECT (antes)", i -> legacyUpdate(1L + i % 5, newProduct(i)));
+        report("UPDATE ... FINAL TABLE (depois)", i -> dao.update(1L + i % 5, newProduct(i)));
+        System.out.println("─".repeat(72));
+    }
+
+    @FunctionalInterface
+    private interface Operation {
+        void run(int i) throws Exception;
+    }
+
+    private static void report(String name, Operation op) throws Exception {
+        for (int i = 0; i < WARMUP; i++) {
+            op.run(i);
+        }
+
+        long[] samples = new long[OPS];
+        for (int i = 0; i < OPS; i++) {
+            long start = System.nanoTime();
+            op.run(i);
+            samples[i] = System.nanoTime() - start;
+        }
+
+        Arrays.sort(samples);
+        double avg = Arrays.stream(samples).average().orElse(0) / 1_000;
+        System.out.printf("%-32s %10.1f %10.1f %10.1f%n", name, avg,
+                samples[OPS / 2] / 1_000.0, samples[(int) (OPS * 0.99)] / 1_000.0);
+    }
+
+    private static Product newProduct(int i) {
+        return new Product("Bench " + i, "Produto de benchmark", new BigDecimal("19.90"), "Bench");
+    }
+
+    // ═══════════════════════════════════════════════════════════
+    //  Caminho antigo do ProductDAO, mantido só para comparação
+    // ═══════════════════════════════════════════════════════════
+
+    private static void legacySave(int i) throws SQLException {
+        Product product = newProduct(i);
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement ps = conn.prepareStatement("""
+                 INSERT INTO products (name, description, price, category, created_at, updated_at)
+                 VALUES (?, ?, ?, ?, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)
+             """, Statement.RETURN_GENERATED_KEYS)) {
+            ps.setString(1, product.getName());
+            ps.setString(2, product.getDescription());
+            ps.setBigDecimal(3, product.getPrice());
+            ps.setString(4, product.getCategory());
+            ps.executeUpdate();
+            try (ResultSet rs = ps.getGeneratedKeys()) {
+                rs.next();
+                legacyFindById(rs.getLong(1));
+            }
+        }
+    }
+
+    private static void legacyUpdate(long id, Product product) throws SQLException {
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement ps = conn.prepareStatement("""
+                 UPDATE products
+                 SET name = ?, description = ?, price = ?, category = ?,
+                     updated_at = CURRENT_TIMESTAMP
+                 WHERE id = ?
+             """)) {
+            ps.setString(1, product.getName());
+            ps.setString(2, product.getDescription());
+            ps.setBigDecimal(3, product.getPrice());
+            ps.setString(4, product.getCategory());
+            ps.setLong(5, id);
+            if (ps.executeUpdate() > 0) {
+                legacyFindById(id);
+            }
+        }
+    }
+
+    private static void legacyFindById(long id) throws SQLException {
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement ps = conn.prepareStatement("SELECT * FROM products WHERE id = ?")) {
+            ps.setLong(1, id);
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+            }
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.example.products.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+
+/**
+ * Cache em memória com tamanho máximo, seguro para várias threads.
+ *
+ * - Sem lock global: as chaves são distribuídas em segmentos, cada um com
+ *   seu LinkedHashMap em ordem de acesso (LRU) e seu próprio lock.
+ * - Admissão estilo W-TinyLFU: com o segmento cheio, uma chave nova só
+ *   entra se for acessada com mais frequência que a vítima do LRU
+ *   (FrequencySketch). Assim uma varredura única não expulsa os itens quentes.
+ * - Invalidação segura: getOrLoad só grava o valor carregado se nenhuma
+ *   invalidação aconteceu durante o carregamento (evita reinserir dado velho).
+ */
+public class BoundedCache<K, V> {
+
+    private static final int SEGMENTS = 16;
+
+    private final int maxSize;
+    private final Segment<K, V>[] segments;
+    private final FrequencySketch sketch;
+    private final AtomicLong invalidationEpoch = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public BoundedCache(int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Cache size must be greater than 0");
+        }
+        this.maxSize = maxSize;
+        this.sketch = new FrequencySketch(maxSize);
+        // Array genérico: criado com wildcard e convertido (só este cast é unchecked)
+        @SuppressWarnings("unchecked")
+        Segment<K, V>[] table = (Segment<K, V>[]) new Segment<?, ?>[SEGMENTS];
+        int perSegment = Math.max(1, (maxSize + SEGMENTS - 1) / SEGMENTS);
+        for (int i = 0; i < SEGMENTS; i++) {
+            table[i] = new Segment<>(perSegment);
+        }
+        this.segments = table;
+    }
+
+    /**
+     * Valor em cache, ou null. Conta hit/miss.
+     */
+    public V getIfPresent(K key) {
+        sketch.increment(key);
+        V value = segmentFor(key).get(key);
+        if (value == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return value;
+    }
+
+    /**
+     * Read-through: devolve do cache ou chama o loader (fora de qualquer lock)
+     * e guarda o resultado. Um loader que devolve null não é cacheado.
+     */
+    public V getOrLoad(K key, Function<K, V> loader) {
+        V cached = getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        long epoch = currentEpoch();
+        V loaded = loader.apply(key);
+        if (loaded != null) {
+            putIfNotInvalidatedSince(key, loaded, epoch);
+        }
+        return loaded;
+    }
+
+    /**
+     * Marca temporal das invalidações, para usar com putIfNotInvalidatedSince
+     * quando o carregamento não cabe num Function (ex.: streaming).
+     */
+    public long currentEpoch() {
+        return invalidationEpoch.get();
+    }
+
+    public void putIfNotInvalidatedSince(K key, V value, long epoch) {
+        Segment<K, V> segment = segmentFor(key);
+        segment.lock.lock();
+        try {
+            // Conferido sob o lock do segmento: invalidate() incrementa a época
+            // antes de remover, então um valor velho nunca fica para trás.
+            if (invalidationEpoch.get() != epoch) {
+                return;
+            }
+            switch (segment.admit(key, value, sketch)) {
+                case EVICTED -> evictions.increment();
+                case REJECTED -> rejections.increment();
+                case STORED -> { }
+            }
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    public void invalidate(K key) {
+        invalidationEpoch.incrementAndGet();
+        if (segmentFor(key).remove(key)) {
+            invalidations.increment();
+        }
+    }
+
+    /**
+     * Remove todas as entradas que satisfazem o predicado.
+     */
+    public void invalidateIf(BiPredicate<K, V> predicate) {
+        invalidationEpoch.incrementAndGet();
+        for (Segment<K, V> segment : segments) {
+            invalidations.add(segment.removeIf(predicate));
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment<K, V> segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    public CacheStats stats() {
+        long h = hits.sum();
+        long m = misses.sum();
+        return new CacheStats(size(), maxSize, h, m,
+                h + m == 0 ? 0.0 : (double) h / (h + m),
+                evictions.sum(), rejections.sum(), invalidations.sum());
+    }
+
+    private Segment<K, V> segmentFor(K key) {
+        int h = key.hashCode();
+        return segments[(h ^ (h >>> 16)) & (SEGMENTS - 1)];
+    }
+
+    // ═══════════════════════════════════════════════════════════
+    //  SEGMENTO: LRU protegido por lock próprio
+    // ═══════════════════════════════════════════════════════════
+
+    private enum Admission { STORED, EVICTED, REJECTED }
+
+    private static final class Segment<K, V> {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final LinkedHashMap<K, V> entries = new LinkedHashMap<>(16, 0.75f, true);
+        private final int capacity;
+
+        private Segment(int capacity) {
+            this.capacity = capacity;
+        }
+
+        private V get(K key) {
+            lock.lock();
+            try {
+                return entries.get(key); // accessOrder: move para o fim (mais recente)
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /** Chamado com o lock já adquirido. */
+        private Admission admit(K key, V value, FrequencySketch sketch) {
+            if (entries.containsKey(key) || entries.size() < capacity) {
+                entries.put(key, value);
+                return Admission.STORED;
+            }
+            Iterator<Map.Entry<K, V>> eldest = entries.entrySet().iterator();
+            Map.Entry<K, V> victim = eldest.next();
+            if (sketch.frequency(key) <= sketch.frequency(victim.getKey())) {
+                return Admission.REJECTED;
+            }
+            eldest.remove();
+            entries.put(key, value);
+            return Admission.EVICTED;
+        }
+
+        private boolean remove(K key) {
+            lock.lock();
+            try {
+                return entries.remove(key) != null;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private int removeIf(BiPredicate<K, V> predicate) {
+            lock.lock();
+            try {
+                int removed = 0;
+                Iterator<Map.Entry<K, V>> it = entries.entrySet().iterator();
+                while (it.hasNext()) {
+                    Map.Entry<K, V> entry = it.next();
+                    if (predicate.test(entry.getKey(), entry.getValue())) {
+                        it.remove();
+                        removed++;
+                    }
+                }
+                return removed;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private int size() {
+            lock.lock();
+            try {
+                return entries.size();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.products.cache;
+
+/**
+ * Contadores de um BoundedCache, serializados em /api/cache-stats.
+ *
+ * rejections = chaves novas que o TinyLFU não admitiu por serem
+ * menos frequentes que a vítima do LRU.
+ */
+public record CacheStats(
+        int size,
+        int maxSize,
+        long hits,
+        long misses,
+        double hitRate,
+        long evictions,
+        long rejections,
+        long invalidations
+) {}
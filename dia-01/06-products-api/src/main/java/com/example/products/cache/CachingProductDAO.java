@@ -0,0 +1,288 @@
+package com.example.products.cache;
+
+import com.example.products.dao.BatchItemResult;
+import com.example.products.dao.DataVersion;
+import com.example.products.dao.ProductDAO;
+import com.example.products.model.Product;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Decorator de ProductDAO com cache read-through.
+ *
+ * O servlet continua falando com um ProductDAO; ProductsApp entrega esta
+ * versão, que envolve o DAO real:
+ * - findById: cache por id (LRU com admissão TinyLFU)
+ * - findByCategory/streamByCategory: cache da lista por categoria
+ *   (só listas de até maxCategoryRows linhas, para não reter exports grandes)
+ * - findVersion/findVersionByCategory: cache das versões (COUNT + MAX(updated_at))
+ *   usadas nos validadores das listagens; streamAll/streamByCategory também
+ *   guardam a versão das linhas que acabaram de entregar
+ * - save/saveAll/update/deleteById: invalidam exatamente as entradas afetadas
+ *   (o id e as categorias cuja lista contém o produto, antiga e nova) e todas
+ *   as versões (qualquer escrita muda a versão de "all")
+ * - findAll e busca por nome não passam pelo cache
+ */
+public class CachingProductDAO extends ProductDAO {
+
+    private static final Comparator<Product> BY_ID = Comparator.comparing(Product::getId);
+    private static final String ALL_VERSION = "all";
+
+    private final ProductDAO delegate;
+    private final BoundedCache<Long, Product> byId;
+    private final BoundedCache<String, List<Product>> byCategory;
+    private final BoundedCache<String, DataVersion> versions;
+    private final int maxCategoryRows;
+
+    public CachingProductDAO(ProductDAO delegate, int maxProducts, int maxCategories, int maxCategoryRows) {
+        this.delegate = delegate;
+        this.byId = new BoundedCache<>(maxProducts);
+        this.byCategory = new BoundedCache<>(maxCategories);
+        this.versions = new BoundedCache<>(maxCategories + 1); // uma por categoria + "all"
+        this.maxCategoryRows = maxCategoryRows;
+    }
+
+    /**
+     * Tamanhos lidos de -Dcache.products.maxSize, -Dcache.categories.maxSize
+     * e -Dcache.categories.maxRows.
+     */
+    public static CachingProductDAO fromSystemProperties(ProductDAO delegate) {
+        return new CachingProductDAO(delegate,
+                Integer.getInteger("cache.products.maxSize", 10_000),
+                Integer.getInteger("cache.categories.maxSize", 256),
+                Integer.getInteger("cache.categories.maxRows", 1_000));
+    }
+
+    /**
+     * Estatísticas dos caches (hits, misses, evictions...).
+     */
+    public Map<String, CacheStats> stats() {
+        Map<String, CacheStats> stats = new LinkedHashMap<>();
+        stats.put("productsById", byId.stats());
+        stats.put("productsByCategory", byCategory.stats());
+        stats.put("listVersions", versions.stats());
+        return stats;
+    }
+
+    // ═══════════════════════════════════════════════════════════
+    //  ESCRITAS: delegam e invalidam
+    // ═══════════════════════════════════════════════════════════
+
+    @Override
+    public Product save(Product product) {
+        Product saved = delegate.save(product);
+        invalidateCategory(saved.getCategory());
+        invalidateVersions();
+        return saved;
+    }
+
+    @Override
+    public List<BatchItemResult> saveAll(List<Product> products) {
+        return saveAll(products, DEFAULT_BATCH_SIZE);
+    }
+
+    @Override
+    public List<BatchItemResult> saveAll(List<Product> products, int batchSize) {
+        List<BatchItemResult> results = delegate.saveAll(products, batchSize);
+        results.stream()
+                .filter(BatchItemResult::success)
+                .map(result -> categoryKey(result.product().getCategory()))
+                .distinct()
+                .forEach(byCategory::invalidate);
+        if (results.stream().anyMatch(BatchItemResult::success)) {
+            invalidateVersions();
+        }
+        return results;
+    }
+
+    @Override
+    public Optional<Product> update(Long id, Product product) {
+        Optional<Product> updated = delegate.update(id, product);
+        if (updated.isPresent()) {
+            invalidateProduct(id);
+            invalidateCategory(updated.get().getCategory());
+            invalidateVersions();
+        }
+        return updated;
+    }
+
+    @Override
+    public boolean deleteById(Long id) {
+        boolean deleted = delegate.deleteById(id);
+        if (deleted) {
+            invalidateProduct(id);
+            invalidateVersions();
+        }
+        return deleted;
+    }
+
+    // ═══════════════════════════════════════════════════════════
+    //  LEITURAS
+    // ═══════════════════════════════════════════════════════════
+
+    @Override
+    public Optional<Product> findById(Long id) {
+        return Optional.ofNullable(byId.getOrLoad(id, key -> delegate.findById(key).orElse(null)));
+    }
+
+    @Override
+    public List<Product> findByCategory(String category) {
+        List<Product> products = new ArrayList<>();
+        streamByCategory(category, products::add);
+        return products;
+    }
+
+    @Override
+    public void streamByCategory(String category, Consumer<Product> consumer) {
+        String key = categoryKey(category);
+        // Época lida antes das linhas: a versão calculada só é guardada se
+        // nenhuma escrita invalidou as versões enquanto a lista era lida
+        long versionEpoch = versions.currentEpoch();
+        VersionTracker version = new VersionTracker();
+        List<Product> cached = byCategory.getIfPresent(key);
+        if (cached != null) {
+            cached.forEach(version.andThen(consumer));
+            versions.putIfNotInvalidatedSince(categoryVersionKey(category), version.result(), versionEpoch);
+            return;
+        }
+
+        // Miss: continua em streaming e guarda uma cópia só se a lista for pequena
+        long epoch = byCategory.currentEpoch();
+        List<Product> collected = new ArrayList<>();
+        boolean[] tooLarge = {false};
+        delegate.streamByCategory(category, product -> {
+            if (!tooLarge[0]) {
+                if (collected.size() < maxCategoryRows) {
+                    collected.add(product);
+                } else {
+                    tooLarge[0] = true;
+                    collected.clear();
+                }
+            }
+            version.accept(product);
+            consumer.accept(product);
+        });
+        if (!tooLarge[0]) {
+            byCategory.putIfNotInvalidatedSince(key, Collections.unmodifiableList(collected), epoch);
+        }
+        versions.putIfNotInvalidatedSince(categoryVersionKey(category), version.result(), versionEpoch);
+    }
+
+    /**
+     * Com o produto em cache, o updated_at sai da memória (as escritas invalidam a entrada).
+     */
+    @Override
+    public Optional<LocalDateTime> findUpdatedAt(Long id) {
+        Product cached = byId.getIfPresent(id);
+        if (cached != null && cached.getUpdatedAt() != null) {
+            return Optional.of(cached.getUpdatedAt());
+        }
+        return delegate.findUpdatedAt(id);
+    }
+
+    @Override
+    public DataVersion findVersion() {
+        return versions.getOrLoad(ALL_VERSION, key -> delegate.findVersion());
+    }
+
+    @Override
+    public DataVersion findVersionByCategory(String category) {
+        return versions.getOrLoad(categoryVersionKey(category), key -> delegate.findVersionByCategory(category));
+    }
+
+    @Override
+    public Optional<DataVersion> peekVersion() {
+        return Optional.ofNullable(versions.getIfPresent(ALL_VERSION));
+    }
+
+    @Override
+    public Optional<DataVersion> peekVersionByCategory(String category) {
+        return Optional.ofNullable(versions.getIfPresent(categoryVersionKey(category)));
+    }
+
+    @Override
+    public List<Product> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public void streamAll(Consumer<Product> consumer) {
+        long versionEpoch = versions.currentEpoch();
+        VersionTracker version = new VersionTracker();
+        delegate.streamAll(version.andThen(consumer));
+        versions.putIfNotInvalidatedSince(ALL_VERSION, version.result(), versionEpoch);
+    }
+
+    @Override
+    public List<Product> findByNameContaining(String name) {
+        return delegate.findByNameContaining(name);
+    }
+
+    @Override
+    public void streamByNameContaining(String name, Consumer<Product> consumer) {
+        delegate.streamByNameContaining(name, consumer);
+    }
+
+    // ═══════════════════════════════════════════════════════════
+    //  HELPERS
+    // ═══════════════════════════════════════════════════════════
+
+    private void invalidateProduct(Long id) {
+        byId.invalidate(id);
+        // A categoria antiga não é conhecida aqui; mas só importa se a lista dela
+        // estiver em cache, e nesse caso a lista contém o id (ordenada por id).
+        Product probe = new Product();
+        probe.setId(id);
+        byCategory.invalidateIf((key, products) -> Collections.binarySearch(products, probe, BY_ID) >= 0);
+    }
+
+    private void invalidateCategory(String category) {
+        byCategory.invalidate(categoryKey(category));
+    }
+
+    private void invalidateVersions() {
+        versions.invalidateIf((key, version) -> true);
+    }
+
+    private static String categoryVersionKey(String category) {
+        return "category:" + categoryKey(category);
+    }
+
+    /**
+     * Mesma normalização do SQL (LOWER(category) = LOWER(?)).
+     */
+    private static String categoryKey(String category) {
+        return category == null ? "" : category.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Calcula COUNT(*) e MAX(updated_at) das linhas que passam por ele,
+     * o mesmo que ProductDAO.findVersion devolveria para essa leitura.
+     */
+    private static final class VersionTracker implements Consumer<Product> {
+        private long count;
+        private LocalDateTime lastModified;
+
+        @Override
+        public void accept(Product product) {
+            count++;
+            LocalDateTime updatedAt = product.getUpdatedAt();
+            if (updatedAt != null && (lastModified == null || updatedAt.isAfter(lastModified))) {
+                lastModified = updatedAt;
+            }
+        }
+
+        DataVersion result() {
+            return new DataVersion(count, lastModified);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.products.cache;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Estimativa aproximada de frequência de acesso (Count-Min Sketch), no
+ * estilo do TinyLFU: decide se uma chave nova merece entrar no cache no
+ * lugar da vítima do LRU.
+ *
+ * Cada chave incrementa 4 contadores (máximo 15). Após 10 × width
+ * incrementos, todos os contadores são divididos por 2, para que o
+ * histórico antigo perca peso.
+ */
+final class FrequencySketch {
+
+    private static final int[] SEEDS = {0x97cb3127, 0xb7e15163, 0x9e3779b9, 0x85ebca6b};
+    private static final int MAX_COUNT = 15;
+
+    private final AtomicIntegerArray table;
+    private final int mask;
+    private final int resetThreshold;
+    private final AtomicInteger additions = new AtomicInteger();
+
+    FrequencySketch(int expectedSize) {
+        int width = Integer.highestOneBit(Math.max(16, expectedSize) - 1) << 1;
+        this.table = new AtomicIntegerArray(width);
+        this.mask = width - 1;
+        this.resetThreshold = 10 * width;
+    }
+
+    void increment(Object key) {
+        int hash = spread(key.hashCode());
+        boolean added = false;
+        for (int seed : SEEDS) {
+            int index = indexOf(hash, seed);
+            int count = table.get(index);
+            if (count < MAX_COUNT && table.compareAndSet(index, count, count + 1)) {
+                added = true;
+            }
+        }
+        if (added && additions.incrementAndGet() >= resetThreshold) {
+            reset();
+        }
+    }
+
+    int frequency(Object key) {
+        int hash = spread(key.hashCode());
+        int min = MAX_COUNT;
+        for (int seed : SEEDS) {
+            min = Math.min(min, table.get(indexOf(hash, seed)));
+        }
+        return min;
+    }
+
+    private void reset() {
+        additions.set(0);
+        for (int i = 0; i < table.length(); i++) {
+            table.set(i, table.get(i) >>> 1);
+        }
+    }
+
+    private int indexOf(int hash, int seed) {
+        int h = hash * seed;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    private static int spread(int hash) {
+        int h = hash * 0x9e3779b9;
+        return h ^ (h >>> 16);
+    }
+}
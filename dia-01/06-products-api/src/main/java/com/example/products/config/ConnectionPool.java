@@ -0,0 +1,422 @@
+package com.example.products.config;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pool de conexões JDBC simples (sem HikariCP).
+ *
+ * - Tamanho mínimo/máximo fixos: o Semaphore limita quantas conexões podem
+ *   estar emprestadas ao mesmo tempo; nunca existem mais que maxSize físicas.
+ * - Timeout de empréstimo: quem espera mais que borrowTimeout recebe SQLTimeoutException.
+ * - Validação no empréstimo: conexões quebradas são descartadas (isValid).
+ * - Remoção de ociosas: uma thread de manutenção fecha conexões paradas há mais
+ *   que idleTimeout, mantendo sempre minSize conexões abertas.
+ * - Detecção de vazamento: conexões emprestadas há mais que leakThreshold têm a
+ *   stack trace de quem as pegou impressa no log.
+ *
+ * O DAO continua usando try-with-resources: close() no proxy devolve a conexão
+ * ao pool em vez de fechar a conexão física.
+ *
+ * Não usa synchronized, apenas estruturas de java.util.concurrent, para não
+ * prender threads virtuais ao carrier.
+ */
+public class ConnectionPool implements AutoCloseable {
+
+    /** Limites (em ms) dos buckets do histograma de espera no empréstimo. */
+    private static final long[] WAIT_BUCKETS_MS = {1, 5, 10, 50, 100, 500, 1000};
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final Settings settings;
+
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    private final Set<PooledConnection> active = ConcurrentHashMap.newKeySet();
+    private final Semaphore permits;
+    private final AtomicInteger totalConnections = new AtomicInteger();
+    private final AtomicInteger waiters = new AtomicInteger();
+
+    private final LongAdder borrowCount = new LongAdder();
+    private final LongAdder timeoutCount = new LongAdder();
+    private final LongAdder leakCount = new LongAdder();
+    private final LongAdder[] waitHistogram = new LongAdder[WAIT_BUCKETS_MS.length + 1];
+
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean closed;
+
+    /**
+     * Configuração do pool. Todos os tempos em milissegundos;
+     * leakThresholdMs = 0 desativa a detecção de vazamento.
+     */
+    public record Settings(
+            int minSize,
+            int maxSize,
+            long borrowTimeoutMs,
+            long idleTimeoutMs,
+            long leakThresholdMs,
+            long housekeepingPeriodMs
+    ) {
+        public Settings {
+            if (minSize < 0 || maxSize < 1 || minSize > maxSize) {
+                throw new IllegalArgumentException(
+                        "Invalid pool size: min=%d, max=%d".formatted(minSize, maxSize));
+            }
+        }
+
+        /**
+         * Lê a configuração de System properties (-Ddb.pool.maxSize=20, etc).
+         */
+        public static Settings fromSystemProperties() {
+            return new Settings(
+                    Integer.getInteger("db.pool.minSize", 2),
+                    Integer.getInteger("db.pool.maxSize", 10),
+                    Long.getLong("db.pool.borrowTimeoutMs", 5_000),
+                    Long.getLong("db.pool.idleTimeoutMs", 300_000),
+                    Long.getLong("db.pool.leakThresholdMs", 30_000),
+                    Long.getLong("db.pool.housekeepingPeriodMs", 5_000)
+            );
+        }
+    }
+
+    public ConnectionPool(String url, String user, String password, Settings settings) {
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.settings = settings;
+        this.permits = new Semaphore(settings.maxSize(), true);
+        for (int i = 0; i < waitHistogram.length; i++) {
+            waitHistogram[i] = new LongAdder();
+        }
+
+        fillToMinimum();
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "connection-pool-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+        housekeeper.scheduleWithFixedDelay(this::housekeep,
+                settings.housekeepingPeriodMs(), settings.housekeepingPeriodMs(), TimeUnit.MILLISECONDS);
+    }
+
+    // ═══════════════════════════════════════════════════════════
+    //  EMPRÉSTIMO / DEVOLUÇÃO
+    // ═══════════════════════════════════════════════════════════
+
+    /**
+     * Empresta uma conexão do pool, esperando no máximo borrowTimeoutMs.
+     * A conexão retornada DEVE ser fechada (try-with-resources) para voltar ao pool.
+     */
+    public Connection borrow() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+
+        long start = System.nanoTime();
+        waiters.incrementAndGet();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(settings.borrowTimeoutMs(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a connection", e);
+        } finally {
+            waiters.decrementAndGet();
+        }
+        recordWait(System.nanoTime() - start);
+
+        if (!acquired) {
+            timeoutCount.increment();
+            throw new SQLTimeoutException("Timed out after %dms waiting for a connection (active=%d, max=%d)"
+                    .formatted(settings.borrowTimeoutMs(), active.size(), settings.maxSize()));
+        }
+
+        try {
+            PooledConnection pooled = takeValidIdle();
+            if (pooled == null) {
+                pooled = openPhysical();
+            }
+            pooled.markBorrowed(settings.leakThresholdMs() > 0);
+            active.add(pooled);
+            borrowCount.increment();
+            return pooled.newHandle();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Chamado pelo proxy em close(): limpa o estado da sessão e devolve ao pool.
+     */
+    private void release(PooledConnection pooled) {
+        active.remove(pooled);
+        try {
+            if (closed || !resetForReuse(pooled.physical)) {
+                discard(pooled);
+            } else {
+                pooled.lastUsedAt = System.currentTimeMillis();
+                idle.offerFirst(pooled); // LIFO: reusa a conexão mais "quente"
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    private PooledConnection takeValidIdle() {
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            if (isValid(pooled.physical)) {
+                return pooled;
+            }
+            System.out.println("⚠️ Discarding invalid pooled connection");
+            discard(pooled);
+        }
+        return null;
+    }
+
+    private boolean resetForReuse(Connection physical) {
+        try {
+            if (physical.isClosed()) {
+                return false;
+            }
+            if (!physical.getAutoCommit()) {
+                physical.rollback();
+                physical.setAutoCommit(true);
+            }
+            physical.clearWarnings();
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private boolean isValid(Connection physical) {
+        try {
+            return physical.isValid(1);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private PooledConnection openPhysical() throws SQLException {
+        Connection physical = DriverManager.getConnection(url, user, password);
+        totalConnections.incrementAndGet();
+        return new PooledConnection(physical);
+    }
+
+    private void discard(PooledConnection pooled) {
+        totalConnections.decrementAndGet();
+        try {
+            pooled.physical.close();
+        } catch (SQLException ignored) {
+            // conexão já estava quebrada
+        }
+    }
+
+    private void fillToMinimum() {
+        while (!closed && totalConnections.get() < settings.minSize()) {
+            if (!permits.tryAcquire()) {
+                return; // pool totalmente emprestado, nada a completar
+            }
+            try {
+                PooledConnection pooled = openPhysical();
+                pooled.lastUsedAt = System.currentTimeMillis();
+                idle.offerLast(pooled);
+            } catch (SQLException e) {
+                System.out.println("⚠️ Could not open pooled connection: " + e.getMessage());
+                return;
+            } finally {
+                permits.release();
+            }
+        }
+    }
+
+    // ═══════════════════════════════════════════════════════════
+    //  MANUTENÇÃO (ociosas + vazamentos)
+    // ═══════════════════════════════════════════════════════════
+
+    private void housekeep() {
+        try {
+            evictIdle();
+            detectLeaks();
+            fillToMinimum();
+        } catch (RuntimeException e) {
+            System.out.println("⚠️ Connection pool housekeeping failed: " + e);
+        }
+    }
+
+    private void evictIdle() {
+        long cutoff = System.currentTimeMillis() - settings.idleTimeoutMs();
+        // As mais antigas ficam no fim da fila (devolução é LIFO)
+        PooledConnection oldest;
+        while (totalConnections.get() > settings.minSize()
+                && (oldest = idle.peekLast()) != null
+                && oldest.lastUsedAt < cutoff) {
+            if (idle.removeLastOccurrence(oldest)) {
+                discard(oldest);
+            }
+        }
+    }
+
+    private void detectLeaks() {
+        long threshold = settings.leakThresholdMs();
+        if (threshold <= 0) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        for (PooledConnection pooled : active) {
+            Throwable borrowSite = pooled.borrowSite;
+            if (!pooled.leakReported && borrowSite != null && now - pooled.borrowedAt > threshold) {
+                pooled.leakReported = true;
+                leakCount.increment();
+                System.err.printf("⚠️ Possible connection leak: held for %dms (threshold %dms)%n",
+                        now - pooled.borrowedAt, threshold);
+                borrowSite.printStackTrace();
+            }
+        }
+    }
+
+    // ═══════════════════════════════════════════════════════════
+    //  ESTATÍSTICAS
+    // ═══════════════════════════════════════════════════════════
+
+    private void recordWait(long waitNanos) {
+        long waitMs = TimeUnit.NANOSECONDS.toMillis(waitNanos);
+        int bucket = 0;
+        while (bucket < WAIT_BUCKETS_MS.length && waitMs >= WAIT_BUCKETS_MS[bucket]) {
+            bucket++;
+        }
+        waitHistogram[bucket].increment();
+    }
+
+    /**
+     * Retrato instantâneo do pool (valores lidos sem lock, podem variar entre si).
+     */
+    public PoolStats stats() {
+        Map<String, Long> histogram = new LinkedHashMap<>();
+        for (int i = 0; i < WAIT_BUCKETS_MS.length; i++) {
+            histogram.put("<" + WAIT_BUCKETS_MS[i] + "ms", waitHistogram[i].sum());
+        }
+        histogram.put(">=" + WAIT_BUCKETS_MS[WAIT_BUCKETS_MS.length - 1] + "ms",
+                waitHistogram[WAIT_BUCKETS_MS.length].sum());
+
+        return new PoolStats(
+                active.size(),
+                idle.size(),
+                totalConnections.get(),
+                waiters.get(),
+                settings.minSize(),
+                settings.maxSize(),
+                borrowCount.sum(),
+                timeoutCount.sum(),
+                leakCount.sum(),
+                histogram
+        );
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        housekeeper.shutdownNow();
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            discard(pooled);
+        }
+    }
+
+    // ═══════════════════════════════════════════════════════════
+    //  CONEXÃO FÍSICA + PROXY
+    // ═══════════════════════════════════════════════════════════
+
+    private final class PooledConnection {
+        private final Connection physical;
+        private volatile long lastUsedAt;
+        private volatile long borrowedAt;
+        private volatile Throwable borrowSite;
+        private volatile boolean leakReported;
+
+        private PooledConnection(Connection physical) {
+            this.physical = physical;
+        }
+
+        private void markBorrowed(boolean captureStack) {
+            borrowedAt = System.currentTimeMillis();
+            leakReported = false;
+            borrowSite = captureStack ? new Exception("Connection borrowed here") : null;
+        }
+
+        /**
+         * Cada empréstimo recebe um proxy novo: um handle antigo já fechado
+         * nunca consegue mexer na conexão de quem pegou depois.
+         */
+        private Connection newHandle() {
+            return (Connection) Proxy.newProxyInstance(
+                    ConnectionPool.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    new Handle(this));
+        }
+    }
+
+    private final class Handle implements InvocationHandler {
+        private final PooledConnection pooled;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Handle(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close" -> {
+                    if (closed.compareAndSet(false, true)) {
+                        release(pooled);
+                    }
+                    return null;
+                }
+                case "isClosed" -> {
+                    return closed.get() || pooled.physical.isClosed();
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "toString" -> {
+                    return "PooledConnection[" + pooled.physical + "]";
+                }
+                default -> {
+                    if (closed.get()) {
+                        throw new SQLException("Connection is closed (already returned to the pool)");
+                    }
+                    try {
+                        return method.invoke(pooled.physical, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                }
+            }
+        }
+    }
+}
@@ -1,36 +1,119 @@
 package com.example.products.config;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Configuração do banco de dados H2 (em memória).
  * 
- * Gerencia conexões JDBC de forma simples.
- * Em produção, usaríamos um Connection Pool (HikariCP, etc).
+ * Gerencia conexões JDBC através de um pool próprio (ConnectionPool).
+ * Em produção, usaríamos um Connection Pool pronto (HikariCP, etc).
+ *
+ * A inicialização (pool + schema + dados de exemplo) roda em uma thread
+ * própria: o ProductsApp dispara initializeAsync() e sobe o Tomcat em
+ * paralelo. getConnection() espera o banco ficar pronto; se ninguém chamou
+ * initializeAsync(), o primeiro getConnection() dispara a inicialização.
  */
 public class DatabaseConfig {
 
-    private static final String URL = "jdbc:h2:mem:productsdb;DB_CLOSE_DELAY=-1";
+    // LAZY_QUERY_EXECUTION: o H2 produz as linhas conforme o ResultSet avança,
+    // em vez de materializar o resultado inteiro antes da primeira linha.
+    private static final String URL = "jdbc:h2:mem:productsdb;DB_CLOSE_DELAY=-1;LAZY_QUERY_EXECUTION=1";
     private static final String USER = "sa";
     private static final String PASSWORD = "";
+    private static final SqlDialect DIALECT = SqlDialect.forUrl(URL);
 
     /**
-     * Obtém uma conexão com o banco de dados.
+     * Holder idiom: o pool só é criado no primeiro uso, de forma thread-safe.
+     */
+    private static final class PoolHolder {
+        private static final ConnectionPool POOL = new ConnectionPool(
+                URL, USER, PASSWORD, ConnectionPool.Settings.fromSystemProperties());
+    }
+
+    private static final AtomicBoolean INIT_STARTED = new AtomicBoolean();
+    private static final CompletableFuture<Void> READY = new CompletableFuture<>();
+
+    /**
+     * Obtém uma conexão do pool.
      * IMPORTANTE: sempre feche a conexão com try-with-resources!
+     * O close() devolve a conexão ao pool em vez de fechá-la.
+     *
+     * Bloqueia enquanto o schema ainda está sendo criado.
      */
     public static Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(URL, USER, PASSWORD);
+        if (!READY.isDone() || READY.isCompletedExceptionally()) {
+            awaitReady();
+        }
+        return PoolHolder.POOL.borrow();
+    }
+
+    /**
+     * Dialeto SQL do banco configurado.
+     */
+    public static SqlDialect getDialect() {
+        return DIALECT;
+    }
+
+    /**
+     * Estatísticas atuais do pool (ativas, ociosas, espera, etc).
+     */
+    public static PoolStats getPoolStats() {
+        return PoolHolder.POOL.stats();
     }
 
     /**
-     * Inicializa o banco de dados criando as tabelas necessárias.
-     * Deve ser chamado uma vez ao iniciar a aplicação.
+     * Inicia a criação do schema e dos dados de exemplo em segundo plano
+     * (thread "db-init"). Só a primeira chamada inicia; as demais devolvem
+     * o mesmo future, completado quando o banco está pronto.
+     */
+    public static CompletableFuture<Void> initializeAsync() {
+        if (INIT_STARTED.compareAndSet(false, true)) {
+            Thread.ofPlatform().name("db-init").daemon().start(() -> {
+                try {
+                    createSchema();
+                    READY.complete(null);
+                } catch (Throwable e) {
+                    READY.completeExceptionally(e);
+                }
+            });
+        }
+        return READY;
+    }
+
+    /**
+     * Inicializa o banco de dados e espera terminar.
+     * Pode ser chamado mais de uma vez: o schema e os dados são criados uma única vez.
      */
     public static void initialize() {
-        try (Connection conn = getConnection();
+        try {
+            initializeAsync().join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new RuntimeException("Failed to initialize database", e.getCause());
+        }
+    }
+
+    private static void awaitReady() throws SQLException {
+        try {
+            initializeAsync().join();
+        } catch (CompletionException e) {
+            throw new SQLException("Database initialization failed", e.getCause());
+        }
+    }
+
+    /**
+     * Cria as tabelas e insere os dados de exemplo.
+     * Usa o pool diretamente: getConnection() esperaria por este próprio método.
+     */
+    private static void createSchema() {
+        try (Connection conn = PoolHolder.POOL.borrow();
              Statement stmt = conn.createStatement()) {
 
             // Criar tabela de produtos
@@ -0,0 +1,21 @@
+package com.example.products.config;
+
+import java.util.Map;
+
+/**
+ * Estatísticas do pool de conexões, serializadas em /api/pool-stats.
+ *
+ * borrowWaitHistogram conta quantos empréstimos esperaram em cada faixa de tempo.
+ */
+public record PoolStats(
+        int active,
+        int idle,
+        int total,
+        int waiters,
+        int minSize,
+        int maxSize,
+        long borrowCount,
+        long timeoutCount,
+        long leakCount,
+        Map<String, Long> borrowWaitHistogram
+) {}
@@ -0,0 +1,41 @@
+package com.example.products.config;
+
+/**
+ * Diferenças de SQL entre bancos que o DAO precisa conhecer.
+ *
+ * Hoje só cobre "escrever e já devolver a linha gravada" num único comando,
+ * para o DAO não precisar de um SELECT extra depois do INSERT/UPDATE.
+ */
+public interface SqlDialect {
+
+    /**
+     * Envolve um INSERT/UPDATE para que executeQuery() devolva as linhas
+     * gravadas (todas as colunas, já com defaults como CURRENT_TIMESTAMP).
+     */
+    String returningAll(String dml);
+
+    /**
+     * H2: data change delta table.
+     * SELECT * FROM FINAL TABLE (INSERT ...)
+     */
+    SqlDialect H2 = dml -> "SELECT * FROM FINAL TABLE (" + dml.strip() + ")";
+
+    /**
+     * PostgreSQL: cláusula RETURNING.
+     * INSERT ... RETURNING *
+     */
+    SqlDialect POSTGRESQL = dml -> dml.strip() + " RETURNING *";
+
+    /**
+     * Escolhe o dialeto a partir da URL JDBC.
+     */
+    static SqlDialect forUrl(String jdbcUrl) {
+        if (jdbcUrl.startsWith("jdbc:h2:")) {
+            return H2;
+        }
+        if (jdbcUrl.startsWith("jdbc:postgresql:")) {
+            return POSTGRESQL;
+        }
+        throw new IllegalArgumentException("Unsupported database URL: " + jdbcUrl);
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.products.dao;
+
+import com.example.products.model.Product;
+
+/**
+ * Resultado de um item em {@link ProductDAO#saveAll}.
+ *
+ * Em caso de sucesso, product vem com id e timestamps do banco;
+ * em caso de falha, error traz o motivo e product é o objeto recebido.
+ */
+public record BatchItemResult(Product product, String error) {
+
+    public static BatchItemResult saved(Product product) {
+        return new BatchItemResult(product, null);
+    }
+
+    public static BatchItemResult failed(Product product, String error) {
+        return new BatchItemResult(product, error);
+    }
+
+    public boolean success() {
+        return error == null;
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.products.dao;
+
+import java.time.LocalDateTime;
+
+/**
+ * "Versão" barata de um conjunto de produtos: quantidade de linhas e o maior
+ * updated_at. Qualquer insert, update ou delete muda pelo menos um dos dois.
+ *
+ * Usada para ETag/Last-Modified das listagens sem executar a consulta completa.
+ * lastModified é null quando o conjunto está vazio.
+ */
+public record DataVersion(long count, LocalDateTime lastModified) {}
@@ -2,11 +2,16 @@ package com.example.products.dao;
 
 import com.example.products.config.DatabaseConfig;
 import com.example.products.model.Product;
+import com.example.products.search.ProductNameIndex;
+import com.example.products.search.TextFolding;
 
 import java.sql.*;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * Data Access Object para produtos.
@@ -17,6 +22,35 @@ import java.util.Optional;
  */
 public class ProductDAO {
 
+    /** Linhas buscadas por ida ao banco nas consultas de listagem (-Ddb.fetchSize=N). */
+    private static final int FETCH_SIZE = Integer.getInteger("db.fetchSize", 500);
+
+    /** Inserts enviados por executeBatch em saveAll (-Ddb.batchSize=N). */
+    public static final int DEFAULT_BATCH_SIZE = Integer.getInteger("db.batchSize", 500);
+
+    private static final String INSERT_SQL = """
+            INSERT INTO products (name, description, price, category, created_at, updated_at)
+            VALUES (?, ?, ?, ?, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)
+        """;
+
+    /** Colunas devolvidas por getGeneratedKeys: a linha completa, sem reler a tabela. */
+    private static final String[] GENERATED_COLUMNS =
+            {"id", "name", "description", "price", "category", "created_at", "updated_at"};
+
+    private final ProductNameIndex nameIndex;
+
+    public ProductDAO() {
+        this(ProductNameIndex.shared());
+    }
+
+    /**
+     * @param nameIndex índice de nomes mantido em sincronia pelas escritas
+     *                  e usado na busca por nome
+     */
+    public ProductDAO(ProductNameIndex nameIndex) {
+        this.nameIndex = nameIndex;
+    }
+
     // ═══════════════════════════════════════════════════════════
     //  CREATE
     // ═══════════════════════════════════════════════════════════
@@ -24,60 +58,143 @@ public class ProductDAO {
     /**
      * Salva um novo produto no banco de dados.
      * O ID é gerado automaticamente pelo banco (AUTO_INCREMENT).
+     *
+     * Um único comando: o INSERT já devolve a linha completa
+     * (id e timestamps do banco), sem SELECT depois.
      */
     public Product save(Product product) {
-        String sql = """
-            INSERT INTO products (name, description, price, category, created_at, updated_at)
-            VALUES (?, ?, ?, ?, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)
-        """;
+        String sql = DatabaseConfig.getDialect().returningAll(INSERT_SQL);
 
         try (Connection conn = DatabaseConfig.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-
-            ps.setString(1, product.getName());
-            ps.setString(2, product.getDescription());
-            ps.setBigDecimal(3, product.getPrice());
-            ps.setString(4, product.getCategory());
-            ps.executeUpdate();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
 
-            // Recuperar ID gerado pelo banco
-            try (ResultSet rs = ps.getGeneratedKeys()) {
-                if (rs.next()) {
-                    product.setId(rs.getLong(1));
+            bindInsert(ps, product);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) {
+                    throw new SQLException("INSERT returned no row");
                 }
+                Product saved = mapRow(rs);
+                nameIndex.put(saved.getId(), saved.getName());
+                return saved;
             }
 
-            // Retornar produto completo (com timestamps do banco)
-            return findById(product.getId()).orElse(product);
-
         } catch (SQLException e) {
             throw new RuntimeException("Error saving product", e);
         }
     }
 
-    // ═══════════════════════════════════════════════════════════
-    //  READ
-    // ═══════════════════════════════════════════════════════════
+    /**
+     * Salva vários produtos numa única transação usando addBatch/executeBatch.
+     * Equivale a saveAll(products, DEFAULT_BATCH_SIZE).
+     */
+    public List<BatchItemResult> saveAll(List<Product> products) {
+        return saveAll(products, DEFAULT_BATCH_SIZE);
+    }
 
     /**
-     * Lista todos os produtos ordenados por ID.
+     * Salva vários produtos numa única transação, enviando os INSERTs em
+     * blocos de batchSize. Ids e timestamps voltam por getGeneratedKeys,
+     * sem reler as linhas.
+     *
+     * Se um bloco falhar, ele é desfeito (savepoint) e reenviado linha a linha:
+     * só as linhas problemáticas ficam de fora. A lista retornada tem um
+     * resultado por produto, na mesma ordem da entrada.
      */
-    public List<Product> findAll() {
-        String sql = "SELECT * FROM products ORDER BY id";
-        List<Product> products = new ArrayList<>();
+    public List<BatchItemResult> saveAll(List<Product> products, int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be greater than 0");
+        }
+        List<BatchItemResult> results = new ArrayList<>(products.size());
 
         try (Connection conn = DatabaseConfig.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql);
-             ResultSet rs = ps.executeQuery()) {
-
-            while (rs.next()) {
-                products.add(mapRow(rs));
+             PreparedStatement ps = conn.prepareStatement(INSERT_SQL, GENERATED_COLUMNS)) {
+
+            conn.setAutoCommit(false);
+            try {
+                for (int from = 0; from < products.size(); from += batchSize) {
+                    List<Product> chunk = products.subList(from, Math.min(products.size(), from + batchSize));
+                    Savepoint savepoint = conn.setSavepoint();
+                    try {
+                        for (Product product : chunk) {
+                            bindInsert(ps, product);
+                            ps.addBatch();
+                        }
+                        ps.executeBatch();
+                        try (ResultSet keys = ps.getGeneratedKeys()) {
+                            for (int i = 0; i < chunk.size(); i++) {
+                                if (!keys.next()) {
+                                    throw new SQLException("Missing generated keys for batch");
+                                }
+                                results.add(BatchItemResult.saved(mapRow(keys)));
+                            }
+                        }
+                        conn.releaseSavepoint(savepoint);
+                    } catch (BatchUpdateException e) {
+                        ps.clearBatch();
+                        conn.rollback(savepoint);
+                        saveOneByOne(conn, ps, chunk, results);
+                    }
+                }
+                conn.commit();
+                for (BatchItemResult result : results) {
+                    if (result.success()) {
+                        nameIndex.put(result.product().getId(), result.product().getName());
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
             }
 
         } catch (SQLException e) {
-            throw new RuntimeException("Error finding products", e);
+            throw new RuntimeException("Error saving products in batch", e);
         }
 
+        return results;
+    }
+
+    /**
+     * Fallback de um bloco que falhou: cada linha com seu próprio savepoint.
+     */
+    private void saveOneByOne(Connection conn, PreparedStatement ps, List<Product> chunk,
+                              List<BatchItemResult> results) throws SQLException {
+        for (Product product : chunk) {
+            Savepoint savepoint = conn.setSavepoint();
+            try {
+                bindInsert(ps, product);
+                ps.executeUpdate();
+                Product saved = product;
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    if (keys.next()) {
+                        saved = mapRow(keys);
+                    }
+                }
+                conn.releaseSavepoint(savepoint);
+                results.add(BatchItemResult.saved(saved));
+            } catch (SQLException e) {
+                conn.rollback(savepoint);
+                results.add(BatchItemResult.failed(product, e.getMessage()));
+            }
+        }
+    }
+
+    private void bindInsert(PreparedStatement ps, Product product) throws SQLException {
+        ps.setString(1, product.getName());
+        ps.setString(2, product.getDescription());
+        ps.setBigDecimal(3, product.getPrice());
+        ps.setString(4, product.getCategory());
+    }
+
+    // ═══════════════════════════════════════════════════════════
+    //  READ
+    // ═══════════════════════════════════════════════════════════
+
+    /**
+     * Lista todos os produtos ordenados por ID.
+     */
+    public List<Product> findAll() {
+        List<Product> products = new ArrayList<>();
+        streamAll(products::add);
         return products;
     }
 
@@ -108,48 +225,171 @@ public class ProductDAO {
      * Busca produtos por categoria.
      */
     public List<Product> findByCategory(String category) {
-        String sql = "SELECT * FROM products WHERE LOWER(category) = LOWER(?) ORDER BY id";
         List<Product> products = new ArrayList<>();
+        streamByCategory(category, products::add);
+        return products;
+    }
 
+    /**
+     * Busca produtos por nome (contém, ignorando maiúsculas e acentos).
+     */
+    public List<Product> findByNameContaining(String name) {
+        List<Product> products = new ArrayList<>();
+        streamByNameContaining(name, products::add);
+        return products;
+    }
+
+    // ═══════════════════════════════════════════════════════════
+    //  READ (streaming)
+    //  Entregam cada linha ao consumer enquanto percorrem o ResultSet,
+    //  sem montar uma List: o uso de memória não cresce com a tabela.
+    // ═══════════════════════════════════════════════════════════
+
+    /**
+     * Percorre todos os produtos ordenados por ID.
+     */
+    public void streamAll(Consumer<Product> consumer) {
+        stream("SELECT * FROM products ORDER BY id", consumer,
+                "Error finding products");
+    }
+
+    /**
+     * Percorre os produtos de uma categoria.
+     */
+    public void streamByCategory(String category, Consumer<Product> consumer) {
+        stream("SELECT * FROM products WHERE LOWER(category) = LOWER(?) ORDER BY id", consumer,
+                "Error finding products by category", category);
+    }
+
+    /**
+     * Percorre os produtos cujo nome contém o texto, ignorando maiúsculas e
+     * acentos; '%' e '_' são caracteres comuns, não curingas.
+     *
+     * Com o índice de trigramas pronto, os ids candidatos vêm do índice e só
+     * essas linhas são lidas. Enquanto o índice aquece (ou para consultas com
+     * menos de 3 caracteres), varre a tabela. Nos dois caminhos o nome de cada
+     * linha é conferido pela mesma regra (TextFolding), então o resultado não
+     * depende de qual deles foi usado.
+     */
+    public void streamByNameContaining(String name, Consumer<Product> consumer) {
+        String folded = TextFolding.fold(name);
+        Consumer<Product> matching = product -> {
+            if (TextFolding.fold(product.getName()).contains(folded)) {
+                consumer.accept(product);
+            }
+        };
+
+        Optional<int[]> ids = nameIndex.candidates(name);
+        if (ids.isEmpty()) {
+            // O LIKE do SQL não ignora acentos: a tabela é lida e filtrada aqui
+            stream("SELECT * FROM products ORDER BY id", matching,
+                    "Error finding products by name");
+            return;
+        }
+        if (ids.get().length == 0) {
+            return;
+        }
+        Integer[] boxed = Arrays.stream(ids.get()).boxed().toArray(Integer[]::new);
+        stream("SELECT * FROM products WHERE id = ANY(?) ORDER BY id", matching,
+                "Error finding products by name", (Object) boxed);
+    }
+
+    private void stream(String sql, Consumer<Product> consumer, String errorMessage, Object... params) {
         try (Connection conn = DatabaseConfig.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
 
-            ps.setString(1, category);
+            // Busca as linhas em blocos em vez de trazer o resultado inteiro
+            ps.setFetchSize(FETCH_SIZE);
+            for (int i = 0; i < params.length; i++) {
+                ps.setObject(i + 1, params[i]);
+            }
             try (ResultSet rs = ps.executeQuery()) {
                 while (rs.next()) {
-                    products.add(mapRow(rs));
+                    consumer.accept(mapRow(rs));
                 }
             }
 
         } catch (SQLException e) {
-            throw new RuntimeException("Error finding products by category", e);
+            throw new RuntimeException(errorMessage, e);
         }
-
-        return products;
     }
 
+    // ═══════════════════════════════════════════════════════════
+    //  READ (versões para GET condicional)
+    //  Consultas baratas usadas em ETag/Last-Modified: não leem as linhas.
+    // ═══════════════════════════════════════════════════════════
+
     /**
-     * Busca produtos por nome (LIKE, case-insensitive).
+     * updated_at de um produto, ou empty se ele não existir.
      */
-    public List<Product> findByNameContaining(String name) {
-        String sql = "SELECT * FROM products WHERE LOWER(name) LIKE LOWER(?) ORDER BY id";
-        List<Product> products = new ArrayList<>();
+    public Optional<LocalDateTime> findUpdatedAt(Long id) {
+        String sql = "SELECT updated_at FROM products WHERE id = ?";
 
         try (Connection conn = DatabaseConfig.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
 
-            ps.setString(1, "%" + name + "%");
+            ps.setLong(1, id);
             try (ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) {
-                    products.add(mapRow(rs));
+                if (rs.next()) {
+                    Timestamp updatedAt = rs.getTimestamp(1);
+                    return Optional.of(updatedAt == null ? LocalDateTime.MIN : updatedAt.toLocalDateTime());
                 }
             }
 
         } catch (SQLException e) {
-            throw new RuntimeException("Error finding products by name", e);
+            throw new RuntimeException("Error finding product version", e);
         }
 
-        return products;
+        return Optional.empty();
+    }
+
+    /**
+     * Quantidade e maior updated_at de todos os produtos.
+     */
+    public DataVersion findVersion() {
+        return findVersion("SELECT COUNT(*), MAX(updated_at) FROM products");
+    }
+
+    /**
+     * Quantidade e maior updated_at dos produtos de uma categoria.
+     */
+    public DataVersion findVersionByCategory(String category) {
+        return findVersion("SELECT COUNT(*), MAX(updated_at) FROM products WHERE LOWER(category) = LOWER(?)",
+                category);
+    }
+
+    /**
+     * Versão de todos os produtos, se já for conhecida sem ir ao banco.
+     * Aqui é sempre empty; CachingProductDAO devolve a que estiver em cache.
+     */
+    public Optional<DataVersion> peekVersion() {
+        return Optional.empty();
+    }
+
+    /**
+     * Versão dos produtos de uma categoria, se já for conhecida sem ir ao banco.
+     */
+    public Optional<DataVersion> peekVersionByCategory(String category) {
+        return Optional.empty();
+    }
+
+    private DataVersion findVersion(String sql, String... params) {
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            for (int i = 0; i < params.length; i++) {
+                ps.setString(i + 1, params[i]);
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                Timestamp lastModified = rs.getTimestamp(2);
+                return new DataVersion(rs.getLong(1),
+                        lastModified == null ? null : lastModified.toLocalDateTime());
+            }
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Error finding products version", e);
+        }
     }
 
     // ═══════════════════════════════════════════════════════════
@@ -158,14 +398,15 @@ public class ProductDAO {
 
     /**
      * Atualiza um produto existente. Retorna o produto atualizado ou empty.
+     * Assim como save(), o UPDATE já devolve a linha gravada.
      */
     public Optional<Product> update(Long id, Product product) {
-        String sql = """
-            UPDATE products 
-            SET name = ?, description = ?, price = ?, category = ?, 
+        String sql = DatabaseConfig.getDialect().returningAll("""
+            UPDATE products
+            SET name = ?, description = ?, price = ?, category = ?,
                 updated_at = CURRENT_TIMESTAMP
             WHERE id = ?
-        """;
+        """);
 
         try (Connection conn = DatabaseConfig.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
@@ -176,9 +417,12 @@ public class ProductDAO {
             ps.setString(4, product.getCategory());
             ps.setLong(5, id);
 
-            int rows = ps.executeUpdate();
-            if (rows > 0) {
-                return findById(id);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    Product updated = mapRow(rs);
+                    nameIndex.put(updated.getId(), updated.getName());
+                    return Optional.of(updated);
+                }
             }
 
         } catch (SQLException e) {
@@ -202,7 +446,11 @@ public class ProductDAO {
              PreparedStatement ps = conn.prepareStatement(sql)) {
 
             ps.setLong(1, id);
-            return ps.executeUpdate() > 0;
+            boolean deleted = ps.executeUpdate() > 0;
+            if (deleted) {
+                nameIndex.remove(id);
+            }
+            return deleted;
 
         } catch (SQLException e) {
             throw new RuntimeException("Error deleting product", e);
@@ -218,23 +466,6 @@ public class ProductDAO {
      * Este é o trabalho que o JPA/Hibernate faz automaticamente.
      */
     private Product mapRow(ResultSet rs) throws SQLException {
-        Product product = new Product();
-        product.setId(rs.getLong("id"));
-        product.setName(rs.getString("name"));
-        product.setDescription(rs.getString("description"));
-        product.setPrice(rs.getBigDecimal("price"));
-        product.setCategory(rs.getString("category"));
-
-        Timestamp createdAt = rs.getTimestamp("created_at");
-        if (createdAt != null) {
-            product.setCreatedAt(createdAt.toLocalDateTime());
-        }
-
-        Timestamp updatedAt = rs.getTimestamp("updated_at");
-        if (updatedAt != null) {
-            product.setUpdatedAt(updatedAt.toLocalDateTime());
-        }
-
-        return product;
+        return ProductRowMapper.BY_NAME.map(rs);
     }
 }
@@ -0,0 +1,63 @@
+package com.example.products.dao;
+
+import com.example.products.model.Product;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+/**
+ * Estratégias para converter uma linha do ResultSet em Product.
+ *
+ * BY_NAME procura cada coluna pelo nome (o driver resolve nome → índice a
+ * cada chamada); BY_INDEX usa a posição e depende da ordem das colunas de
+ * SELECT * (a ordem do CREATE TABLE). O ProductDAO usa BY_NAME; o módulo
+ * 06-products-api-benchmarks compara as duas.
+ */
+public enum ProductRowMapper {
+
+    BY_NAME {
+        @Override
+        public Product map(ResultSet rs) throws SQLException {
+            Product product = new Product();
+            product.setId(rs.getLong("id"));
+            product.setName(rs.getString("name"));
+            product.setDescription(rs.getString("description"));
+            product.setPrice(rs.getBigDecimal("price"));
+            product.setCategory(rs.getString("category"));
+            setTimestamps(product, rs.getTimestamp("created_at"), rs.getTimestamp("updated_at"));
+            return product;
+        }
+    },
+
+    /**
+     * Colunas na ordem: id, name, description, price, category, created_at, updated_at.
+     */
+    BY_INDEX {
+        @Override
+        public Product map(ResultSet rs) throws SQLException {
+            Product product = new Product();
+            product.setId(rs.getLong(1));
+            product.setName(rs.getString(2));
+            product.setDescription(rs.getString(3));
+            product.setPrice(rs.getBigDecimal(4));
+            product.setCategory(rs.getString(5));
+            setTimestamps(product, rs.getTimestamp(6), rs.getTimestamp(7));
+            return product;
+        }
+    };
+
+    /**
+     * Converte a linha atual do ResultSet (não avança o cursor).
+     */
+    public abstract Product map(ResultSet rs) throws SQLException;
+
+    private static void setTimestamps(Product product, Timestamp createdAt, Timestamp updatedAt) {
+        if (createdAt != null) {
+            product.setCreatedAt(createdAt.toLocalDateTime());
+        }
+        if (updatedAt != null) {
+            product.setUpdatedAt(updatedAt.toLocalDateTime());
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.products.dto;
+
+import java.util.List;
+
+/**
+ * DTO de resposta para POST /api/products/batch.
+ *
+ * Traz o resumo do lote e um item por produto enviado, na mesma ordem
+ * do array de entrada: um produto inválido não derruba o lote inteiro.
+ */
+public record BatchCreateResponse(
+        int total,
+        int created,
+        int failed,
+        List<Item> items
+) {
+    /**
+     * Resultado de um produto do lote (index = posição no array enviado).
+     */
+    public record Item(int index, boolean success, ProductResponse product, String error) {
+
+        public static Item created(int index, ProductResponse product) {
+            return new Item(index, true, product, null);
+        }
+
+        public static Item failed(int index, String error) {
+            return new Item(index, false, null, error);
+        }
+    }
+
+    public static BatchCreateResponse of(List<Item> items) {
+        int created = (int) items.stream().filter(Item::success).count();
+        return new BatchCreateResponse(items.size(), created, items.size() - created, items);
+    }
+}
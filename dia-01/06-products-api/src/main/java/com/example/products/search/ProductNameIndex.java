@@ -0,0 +1,167 @@
+package com.example.products.search;
+
+import com.example.products.config.DatabaseConfig;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Índice de nomes de produtos usado por GET /api/products?name=.
+ *
+ * É carregado do banco na inicialização (warmUp) e mantido em sincronia
+ * pelo ProductDAO em save/update/delete. Enquanto aquece, candidates()
+ * devolve Optional.empty() e o DAO varre a tabela.
+ *
+ * Escritas que chegam durante o aquecimento ficam numa fila e são aplicadas
+ * sobre o índice novo antes de ele ser publicado.
+ */
+public class ProductNameIndex {
+
+    private static final ProductNameIndex SHARED = new ProductNameIndex();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final List<Consumer<TrigramIndex>> pendingWrites = new ArrayList<>();
+    private boolean warming; // protegido por lock
+    private volatile TrigramIndex index;
+    private volatile boolean disabled;
+
+    /**
+     * Instância única compartilhada pelos DAOs da aplicação.
+     */
+    public static ProductNameIndex shared() {
+        return SHARED;
+    }
+
+    public boolean isReady() {
+        return index != null && !disabled;
+    }
+
+    /**
+     * Ids candidatos para o texto (ver TrigramIndex.candidates), ou empty se
+     * o índice ainda não estiver pronto ou a consulta for curta demais.
+     */
+    public Optional<int[]> candidates(String name) {
+        TrigramIndex current = index;
+        if (current == null || disabled) {
+            return Optional.empty();
+        }
+        return current.candidates(name);
+    }
+
+    public void put(Long id, String name) {
+        if (!fitsInIndex(id)) {
+            return;
+        }
+        int intId = id.intValue();
+        apply(index -> index.put(intId, name));
+    }
+
+    public void remove(Long id) {
+        if (!fitsInIndex(id)) {
+            return;
+        }
+        int intId = id.intValue();
+        apply(index -> index.remove(intId));
+    }
+
+    /**
+     * Carrega todos os nomes do banco num índice novo e o publica.
+     */
+    public void warmUp() {
+        long start = System.nanoTime();
+        TrigramIndex fresh = new TrigramIndex();
+        lock.lock();
+        try {
+            index = null; // volta a enfileirar escritas até o novo índice ficar pronto
+            pendingWrites.clear();
+            warming = true;
+        } finally {
+            lock.unlock();
+        }
+
+        if (!load(fresh)) {
+            lock.lock();
+            try {
+                pendingWrites.clear();
+                warming = false;
+            } finally {
+                lock.unlock();
+            }
+            return;
+        }
+
+        lock.lock();
+        try {
+            pendingWrites.forEach(write -> write.accept(fresh));
+            pendingWrites.clear();
+            warming = false;
+            index = fresh;
+        } finally {
+            lock.unlock();
+        }
+        System.out.printf("✅ Name index ready (%d products, %dms)%n",
+                fresh.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private boolean load(TrigramIndex fresh) {
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement ps = conn.prepareStatement("SELECT id, name FROM products")) {
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    long id = rs.getLong(1);
+                    if (!fitsInIndex(id)) {
+                        return false;
+                    }
+                    fresh.put((int) id, rs.getString(2));
+                }
+            }
+            return true;
+        } catch (SQLException e) {
+            System.out.println("⚠️ Name index warm-up failed, searches will use SQL: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Dispara o warmUp numa thread separada (não bloqueia a inicialização).
+     */
+    public void warmUpAsync() {
+        Thread.ofPlatform().name("name-index-warmup").daemon().start(this::warmUp);
+    }
+
+    private void apply(Consumer<TrigramIndex> write) {
+        lock.lock();
+        try {
+            TrigramIndex current = index;
+            if (current != null) {
+                write.accept(current);
+            } else if (warming) {
+                pendingWrites.add(write);
+            }
+            // sem índice e sem aquecimento: nada a fazer, o próximo warmUp lê do banco
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * As listas do índice usam int; ids acima disso desligam o índice (volta ao SQL).
+     */
+    private boolean fitsInIndex(long id) {
+        if (id > Integer.MAX_VALUE || id < 0) {
+            if (!disabled) {
+                disabled = true;
+                System.out.println("⚠️ Product id " + id + " exceeds int range, name index disabled");
+            }
+            return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.products.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.IntStream;
+
+/**
+ * Índice invertido de trigramas para busca por "contém" (LIKE '%x%').
+ *
+ * Cada nome é normalizado (TextFolding) e quebrado em trigramas:
+ * "mouse" → "mou", "ous", "use". Para cada trigrama guardamos a lista
+ * ordenada de ids que o contêm. Uma busca intersecta as listas dos
+ * trigramas da consulta, sem varrer a tabela.
+ *
+ * Só as listas de ids ficam em memória, não os nomes (eles já estão no
+ * banco). Por isso a busca devolve candidatos: os trigramas batem, mas
+ * a ordem deles não é conferida; quem lê as linhas confirma com o nome.
+ *
+ * Thread-safe: leituras em paralelo, escritas exclusivas (ReadWriteLock).
+ */
+public class TrigramIndex {
+
+    private final Map<Long, IntPostingList> postings = new HashMap<>();
+    private final IntPostingList indexedIds = new IntPostingList();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Indexa (ou reindexa) o texto de um id.
+     */
+    public void put(int id, String text) {
+        String folded = text == null ? "" : TextFolding.fold(text);
+        lock.writeLock().lock();
+        try {
+            if (indexedIds.contains(id)) {
+                removePostings(id);
+            } else {
+                indexedIds.add(id);
+            }
+            for (long trigram : trigrams(folded)) {
+                postings.computeIfAbsent(trigram, t -> new IntPostingList()).add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(int id) {
+        lock.writeLock().lock();
+        try {
+            if (indexedIds.remove(id)) {
+                removePostings(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ids (em ordem crescente) cujo texto tem todos os trigramas da consulta,
+     * ignorando maiúsculas e acentos. É um superconjunto do resultado: o
+     * chamador confere cada nome com TextFolding.fold(nome).contains(...).
+     *
+     * Empty para consultas com menos de 3 caracteres (não formam trigrama).
+     */
+    public Optional<int[]> candidates(String query) {
+        long[] queryTrigrams = trigrams(TextFolding.fold(query));
+        if (queryTrigrams.length == 0) {
+            return Optional.empty();
+        }
+
+        lock.readLock().lock();
+        try {
+            List<IntPostingList> lists = new ArrayList<>();
+            for (long trigram : queryTrigrams) {
+                IntPostingList list = postings.get(trigram);
+                if (list == null) {
+                    return Optional.of(new int[0]); // algum trigrama não existe: nenhum resultado
+                }
+                lists.add(list);
+            }
+            lists.sort((a, b) -> Integer.compare(a.size(), b.size()));
+
+            // Percorre a menor lista e confere nas demais (busca binária)
+            IntPostingList smallest = lists.get(0);
+            int[] result = new int[smallest.size()];
+            int count = 0;
+            candidates:
+            for (int i = 0; i < smallest.size(); i++) {
+                int id = smallest.get(i);
+                for (int l = 1; l < lists.size(); l++) {
+                    if (!lists.get(l).contains(id)) {
+                        continue candidates;
+                    }
+                }
+                result[count++] = id;
+            }
+            return Optional.of(Arrays.copyOf(result, count));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return indexedIds.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Sem o texto antigo, o id sai de todas as listas (busca binária em
+     * cada uma). Escritas são raras perto das buscas, então o custo fica
+     * na escrita e não numa cópia de todos os nomes em memória.
+     */
+    private void removePostings(int id) {
+        Iterator<IntPostingList> lists = postings.values().iterator();
+        while (lists.hasNext()) {
+            IntPostingList list = lists.next();
+            if (list.remove(id) && list.isEmpty()) {
+                lists.remove();
+            }
+        }
+    }
+
+    /**
+     * Trigramas distintos do texto, cada um empacotado num long (3 chars × 16 bits).
+     */
+    private static long[] trigrams(String folded) {
+        if (folded.length() < 3) {
+            return new long[0];
+        }
+        return IntStream.rangeClosed(0, folded.length() - 3)
+                .mapToLong(i -> ((long) folded.charAt(i) << 32)
+                        | ((long) folded.charAt(i + 1) << 16)
+                        | folded.charAt(i + 2))
+                .distinct()
+                .toArray();
+    }
+}
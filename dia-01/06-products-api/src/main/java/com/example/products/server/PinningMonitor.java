@@ -0,0 +1,102 @@
+package com.example.products.server;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Diagnóstico de "pinning" de threads virtuais.
+ *
+ * Quando uma thread virtual bloqueia dentro de um bloco synchronized (ou de
+ * código nativo), ela não consegue liberar o carrier: a thread de plataforma
+ * fica presa junto. Isso acontece, por exemplo, em drivers JDBC que usam
+ * synchronized internamente.
+ *
+ * Este monitor escuta o evento JFR jdk.VirtualThreadPinned e loga a stack
+ * de cada pinning acima do limite (-Dvt.pinning.thresholdMs, padrão 20),
+ * destacando frames da aplicação (com.example) e do driver (org.h2).
+ * Cada local é logado uma vez, com a contagem total em summary().
+ */
+public class PinningMonitor implements AutoCloseable {
+
+    private static final List<String> INTERESTING_PACKAGES = List.of("com.example.", "org.h2.");
+    private static final int MAX_FRAMES = 12;
+
+    private final RecordingStream stream = new RecordingStream();
+    private final Map<String, LongAdder> pinnedSites = new ConcurrentHashMap<>();
+
+    public PinningMonitor(Duration threshold) {
+        stream.enable("jdk.VirtualThreadPinned").withThreshold(threshold).withStackTrace();
+        stream.onEvent("jdk.VirtualThreadPinned", this::onPinned);
+    }
+
+    /**
+     * Monitor com o limite lido de -Dvt.pinning.thresholdMs.
+     */
+    public static PinningMonitor fromSystemProperties() {
+        return new PinningMonitor(Duration.ofMillis(Long.getLong("vt.pinning.thresholdMs", 20)));
+    }
+
+    public void start() {
+        stream.startAsync();
+        System.out.println("🔍 Virtual thread pinning monitor active");
+    }
+
+    /**
+     * Quantidade de pinnings por local (primeiro frame da aplicação/driver).
+     */
+    public Map<String, Long> summary() {
+        Map<String, Long> summary = new ConcurrentHashMap<>();
+        pinnedSites.forEach((site, count) -> summary.put(site, count.sum()));
+        return summary;
+    }
+
+    private void onPinned(RecordedEvent event) {
+        List<RecordedFrame> frames = event.getStackTrace() == null
+                ? List.of()
+                : event.getStackTrace().getFrames();
+
+        String site = frames.stream()
+                .filter(RecordedFrame::isJavaFrame)
+                .map(PinningMonitor::describe)
+                .filter(PinningMonitor::isInteresting)
+                .findFirst()
+                .orElse("<unknown>");
+
+        LongAdder count = pinnedSites.computeIfAbsent(site, s -> new LongAdder());
+        count.increment();
+        if (count.sum() > 1) {
+            return; // já logado
+        }
+
+        StringBuilder log = new StringBuilder()
+                .append("⚠️ Virtual thread pinned for ")
+                .append(event.getDuration().toMillis()).append("ms at ").append(site)
+                .append(System.lineSeparator());
+        frames.stream().limit(MAX_FRAMES).forEach(frame -> {
+            String line = describe(frame);
+            log.append(isInteresting(line) ? "    >> " : "       ").append(line).append(System.lineSeparator());
+        });
+        System.err.print(log);
+    }
+
+    private static String describe(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                + ":" + frame.getLineNumber();
+    }
+
+    private static boolean isInteresting(String frame) {
+        return INTERESTING_PACKAGES.stream().anyMatch(frame::startsWith);
+    }
+
+    @Override
+    public void close() {
+        stream.close();
+    }
+}
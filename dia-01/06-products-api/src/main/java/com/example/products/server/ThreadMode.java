@@ -0,0 +1,27 @@
+package com.example.products.server;
+
+import java.util.Locale;
+
+/**
+ * Modelo de threads usado pelo Tomcat para executar as requisições.
+ *
+ * Selecionado por -Dserver.threads=platform|virtual (padrão: platform).
+ */
+public enum ThreadMode {
+
+    /** Pool padrão do Tomcat: threads de plataforma (maxThreads = 200). */
+    PLATFORM,
+
+    /** Uma thread virtual (Java 21) por requisição. */
+    VIRTUAL;
+
+    public static ThreadMode fromSystemProperties() {
+        String value = System.getProperty("server.threads", "platform");
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(
+                    "Invalid server.threads: '" + value + "' (use platform or virtual)");
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.products.server;
+
+import org.apache.catalina.Executor;
+import org.apache.catalina.LifecycleException;
+import org.apache.catalina.LifecycleState;
+import org.apache.catalina.util.LifecycleBase;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Executor do Tomcat que roda cada requisição numa thread virtual.
+ *
+ * Uma chamada JDBC bloqueante no ProductDAO só "estaciona" a thread virtual;
+ * a thread de plataforma (carrier) fica livre para outras requisições.
+ * Registrado no Service e passado ao conector em ProductsApp.
+ */
+public class VirtualThreadExecutor extends LifecycleBase implements Executor {
+
+    private final String namePrefix;
+    private ExecutorService delegate;
+
+    public VirtualThreadExecutor(String namePrefix) {
+        this.namePrefix = namePrefix;
+    }
+
+    @Override
+    public String getName() {
+        return namePrefix + "executor";
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        ExecutorService current = delegate;
+        if (current == null) {
+            throw new RejectedExecutionException("Executor " + getName() + " is not started");
+        }
+        current.execute(command);
+    }
+
+    @Override
+    protected void initInternal() {
+        // nada a preparar
+    }
+
+    @Override
+    protected void startInternal() throws LifecycleException {
+        delegate = Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name(namePrefix, 0).factory());
+        setState(LifecycleState.STARTING);
+    }
+
+    @Override
+    protected void stopInternal() throws LifecycleException {
+        setState(LifecycleState.STOPPING);
+        ExecutorService current = delegate;
+        delegate = null;
+        if (current != null) {
+            current.shutdown();
+        }
+    }
+
+    @Override
+    protected void destroyInternal() {
+        // nada a liberar além do stop
+    }
+}
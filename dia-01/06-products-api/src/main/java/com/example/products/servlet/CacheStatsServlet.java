@@ -0,0 +1,38 @@
+package com.example.products.servlet;
+
+import com.example.products.cache.CachingProductDAO;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+
+/**
+ * Servlet de monitoramento do cache de produtos.
+ *
+ *   GET /api/cache-stats → hits, misses, evictions e invalidações
+ *                          do cache por id e do cache por categoria
+ */
+public class CacheStatsServlet extends HttpServlet {
+
+    private final CachingProductDAO cachingDAO;
+    private final Gson gson = new GsonBuilder()
+            .setPrettyPrinting()
+            .create();
+
+    public CacheStatsServlet(CachingProductDAO cachingDAO) {
+        this.cachingDAO = cachingDAO;
+    }
+
+    @Override
+    protected void doGet(HttpServletRequest req, HttpServletResponse resp)
+            throws IOException {
+
+        resp.setContentType("application/json");
+        resp.setCharacterEncoding("UTF-8");
+        resp.setStatus(HttpServletResponse.SC_OK);
+        resp.getWriter().write(gson.toJson(cachingDAO.stats()));
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.products.servlet;
+
+import com.example.products.dao.DataVersion;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Locale;
+
+/**
+ * Validadores HTTP (ETag + Last-Modified) de uma representação.
+ *
+ * O servlet calcula a versão com uma consulta barata (updated_at ou
+ * COUNT/MAX) e, se o cliente já tem essa versão (If-None-Match ou
+ * If-Modified-Since), responde 304 sem ler nem serializar os produtos.
+ *
+ * As ETags são fracas (W/"..."): a mesma versão pode sair compacta ou
+ * indentada, então só garantem equivalência semântica.
+ *
+ * @param etag         valor do cabeçalho ETag
+ * @param lastModified epoch millis (truncado em segundos) ou -1 se desconhecido
+ */
+record ConditionalGet(String etag, long lastModified) {
+
+    /**
+     * Validadores de um produto: id + updated_at com precisão de nanossegundos.
+     */
+    static ConditionalGet forProduct(Long id, LocalDateTime updatedAt) {
+        return new ConditionalGet(
+                "W/\"p-" + id + "-" + toEpochNanos(updatedAt) + "\"",
+                toEpochMillis(updatedAt));
+    }
+
+    /**
+     * Validadores de uma listagem: escopo (ex.: "all", "category:books") +
+     * quantidade de linhas + maior updated_at.
+     */
+    static ConditionalGet forList(String scope, DataVersion version) {
+        String scopeHash = Integer.toHexString(scope.toLowerCase(Locale.ROOT).hashCode());
+        return new ConditionalGet(
+                "W/\"l-" + scopeHash + "-" + version.count() + "-" + toEpochNanos(version.lastModified()) + "\"",
+                toEpochMillis(version.lastModified()));
+    }
+
+    /**
+     * true se a requisição tem algum cabeçalho condicional; sem eles não vale
+     * a pena pagar a consulta de versão.
+     */
+    static boolean isConditional(HttpServletRequest req) {
+        return req.getHeader("If-None-Match") != null || req.getHeader("If-Modified-Since") != null;
+    }
+
+    /**
+     * Regras da RFC 9110 para GET: If-None-Match tem precedência; If-Modified-Since
+     * só é avaliado quando If-None-Match está ausente. Datas inválidas são ignoradas.
+     */
+    boolean isNotModified(HttpServletRequest req) {
+        String ifNoneMatch = req.getHeader("If-None-Match");
+        if (ifNoneMatch != null) {
+            return matchesAny(ifNoneMatch);
+        }
+
+        if (lastModified < 0) {
+            return false;
+        }
+        try {
+            long ifModifiedSince = req.getDateHeader("If-Modified-Since");
+            return ifModifiedSince >= 0 && lastModified <= ifModifiedSince;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Escreve ETag, Last-Modified e Cache-Control: no-cache (o cliente pode
+     * guardar a resposta, mas deve revalidar antes de usar).
+     */
+    void applyTo(HttpServletResponse resp) {
+        resp.setHeader("ETag", etag);
+        if (lastModified >= 0) {
+            resp.setDateHeader("Last-Modified", lastModified);
+        }
+        resp.setHeader("Cache-Control", "no-cache");
+    }
+
+    /**
+     * Responde 304: só validadores, sem corpo.
+     */
+    void sendNotModified(HttpServletResponse resp) {
+        applyTo(resp);
+        resp.setContentType(null);
+        resp.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+    }
+
+    private boolean matchesAny(String ifNoneMatch) {
+        String opaque = opaqueTag(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || opaqueTag(tag).equals(opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Comparação fraca: W/"x" e "x" são equivalentes
+    private static String opaqueTag(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+
+    private static long toEpochNanos(LocalDateTime time) {
+        if (time == null || time.equals(LocalDateTime.MIN)) {
+            return 0;
+        }
+        var instant = time.atZone(ZoneId.systemDefault()).toInstant();
+        return instant.getEpochSecond() * 1_000_000_000L + instant.getNano();
+    }
+
+    private static long toEpochMillis(LocalDateTime time) {
+        if (time == null || time.equals(LocalDateTime.MIN)) {
+            return -1;
+        }
+        // HTTP-date tem resolução de segundos
+        return time.atZone(ZoneId.systemDefault()).toEpochSecond() * 1000;
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.products.servlet;
+
+import com.example.products.config.DatabaseConfig;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+
+/**
+ * Servlet de monitoramento do pool de conexões.
+ *
+ *   GET /api/pool-stats → conexões ativas, ociosas, threads esperando
+ *                         e histograma do tempo de espera no empréstimo
+ */
+public class PoolStatsServlet extends HttpServlet {
+
+    private final Gson gson = new GsonBuilder()
+            .setPrettyPrinting()
+            .disableHtmlEscaping() // chaves do histograma usam "<" e ">="
+            .create();
+
+    @Override
+    protected void doGet(HttpServletRequest req, HttpServletResponse resp)
+            throws IOException {
+
+        resp.setContentType("application/json");
+        resp.setCharacterEncoding("UTF-8");
+        resp.setStatus(HttpServletResponse.SC_OK);
+        resp.getWriter().write(gson.toJson(DatabaseConfig.getPoolStats()));
+    }
+}
@@ -1,19 +1,34 @@
 package com.example.products.servlet;
 
+import com.example.products.dao.BatchItemResult;
+import com.example.products.dao.DataVersion;
 import com.example.products.dao.ProductDAO;
+import com.example.products.dto.BatchCreateResponse;
 import com.example.products.dto.CreateProductRequest;
 import com.example.products.dto.ProductResponse;
 import com.example.products.model.Product;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
 import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonWriter;
 import jakarta.servlet.http.HttpServlet;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * Servlet REST para gerenciamento de produtos.
@@ -22,8 +37,12 @@ import java.util.List;
  *   GET    /api/products           → Lista todos os produtos
  *   GET    /api/products?category= → Filtra por categoria
  *   GET    /api/products?name=     → Busca por nome
+ *   (listas são enviadas em streaming, compactas; ?pretty=true para indentar)
+ *   (GET por id, todos e por categoria enviam ETag/Last-Modified e
+ *    respondem 304 a If-None-Match/If-Modified-Since)
  *   GET    /api/products/{id}      → Busca por ID
  *   POST   /api/products           → Cria novo produto
+ *   POST   /api/products/batch     → Cria vários produtos (JDBC batch)
  *   PUT    /api/products/{id}      → Atualiza produto
  *   DELETE /api/products/{id}      → Deleta produto
  * 
@@ -32,11 +51,23 @@ import java.util.List;
  */
 public class ProductServlet extends HttpServlet {
 
-    private final ProductDAO productDAO = new ProductDAO();
+    private final ProductDAO productDAO;
     private final Gson gson = new GsonBuilder()
             .setPrettyPrinting()
             .registerTypeAdapter(LocalDateTime.class, new LocalDateTimeAdapter())
             .create();
+    private final TypeAdapter<ProductResponse> responseAdapter = gson.getAdapter(ProductResponse.class);
+
+    public ProductServlet() {
+        this(new ProductDAO());
+    }
+
+    /**
+     * @param productDAO DAO usado pelos endpoints (ex.: CachingProductDAO)
+     */
+    public ProductServlet(ProductDAO productDAO) {
+        this.productDAO = productDAO;
+    }
 
     // ═══════════════════════════════════════════════════════════
     //  GET /api/products         → Lista todos
@@ -55,21 +86,44 @@ public class ProductServlet extends HttpServlet {
             String category = req.getParameter("category");
             String name = req.getParameter("name");
 
-            List<Product> products;
+            Consumer<Consumer<Product>> source;
+            String scope = null;
+            Supplier<DataVersion> version = null;
+            Supplier<Optional<DataVersion>> knownVersion = null;
             if (category != null && !category.isBlank()) {
-                products = productDAO.findByCategory(category);
+                source = consumer -> productDAO.streamByCategory(category, consumer);
+                scope = "category:" + category;
+                version = () -> productDAO.findVersionByCategory(category);
+                knownVersion = () -> productDAO.peekVersionByCategory(category);
             } else if (name != null && !name.isBlank()) {
-                products = productDAO.findByNameContaining(name);
+                // Busca por nome não tem versão barata: sempre 200, sem validadores
+                source = consumer -> productDAO.streamByNameContaining(name, consumer);
             } else {
-                products = productDAO.findAll();
+                source = productDAO::streamAll;
+                scope = "all";
+                version = productDAO::findVersion;
+                knownVersion = productDAO::peekVersion;
             }
 
-            List<ProductResponse> response = products.stream()
-                    .map(ProductResponse::from)
-                    .toList();
+            if (scope != null) {
+                if (ConditionalGet.isConditional(req)) {
+                    // GET condicional: a versão decide entre 304 e a lista
+                    ConditionalGet validators = ConditionalGet.forList(scope, version.get());
+                    if (validators.isNotModified(req)) {
+                        validators.sendNotModified(resp);
+                        return;
+                    }
+                    validators.applyTo(resp);
+                } else {
+                    // Sem cabeçalho condicional não há 304 possível: os validadores
+                    // só saem se a versão já for conhecida, sem consulta extra
+                    String listScope = scope;
+                    knownVersion.get().ifPresent(known -> ConditionalGet.forList(listScope, known).applyTo(resp));
+                }
+            }
 
             resp.setStatus(HttpServletResponse.SC_OK);
-            resp.getWriter().write(gson.toJson(response));
+            streamJsonArray(resp, source, "true".equalsIgnoreCase(req.getParameter("pretty")));
         } else {
             // Buscar por ID
             Long id = extractId(pathInfo);
@@ -79,8 +133,21 @@ public class ProductServlet extends HttpServlet {
                 return;
             }
 
+            // GET condicional: compara só o updated_at antes de carregar o produto
+            if (ConditionalGet.isConditional(req)) {
+                var updatedAt = productDAO.findUpdatedAt(id);
+                if (updatedAt.isPresent()) {
+                    ConditionalGet validators = ConditionalGet.forProduct(id, updatedAt.get());
+                    if (validators.isNotModified(req)) {
+                        validators.sendNotModified(resp);
+                        return;
+                    }
+                }
+            }
+
             productDAO.findById(id).ifPresentOrElse(
                     product -> {
+                        ConditionalGet.forProduct(product.getId(), product.getUpdatedAt()).applyTo(resp);
                         resp.setStatus(HttpServletResponse.SC_OK);
                         writeJson(resp, ProductResponse.from(product));
                     },
@@ -101,6 +168,11 @@ public class ProductServlet extends HttpServlet {
 
         setJsonResponse(resp);
 
+        if ("/batch".equals(req.getPathInfo())) {
+            doPostBatch(req, resp);
+            return;
+        }
+
         try {
             String body = new String(req.getInputStream().readAllBytes());
             CreateProductRequest request = gson.fromJson(body, CreateProductRequest.class);
@@ -125,6 +197,86 @@ public class ProductServlet extends HttpServlet {
         }
     }
 
+    // ═══════════════════════════════════════════════════════════
+    //  POST /api/products/batch  → Criar vários produtos
+    //  Body: array JSON de produtos; ?batchSize=N controla o tamanho
+    //  de cada executeBatch. Cada item é validado separadamente.
+    // ═══════════════════════════════════════════════════════════
+    private void doPostBatch(HttpServletRequest req, HttpServletResponse resp)
+            throws IOException {
+
+        JsonArray array;
+        int batchSize;
+        try {
+            String body = new String(req.getInputStream().readAllBytes());
+            JsonElement json = JsonParser.parseString(body);
+            if (!json.isJsonArray()) {
+                resp.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+                writeJson(resp, new ErrorResponse("Request body must be a JSON array"));
+                return;
+            }
+            array = json.getAsJsonArray();
+
+            String batchSizeParam = req.getParameter("batchSize");
+            batchSize = batchSizeParam == null
+                    ? ProductDAO.DEFAULT_BATCH_SIZE
+                    : Integer.parseInt(batchSizeParam);
+            if (batchSize < 1) {
+                throw new NumberFormatException();
+            }
+        } catch (JsonParseException e) {
+            resp.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            writeJson(resp, new ErrorResponse("Invalid JSON format"));
+            return;
+        } catch (NumberFormatException e) {
+            resp.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            writeJson(resp, new ErrorResponse("batchSize must be a positive integer"));
+            return;
+        }
+
+        // 1. Validar cada item; só os válidos vão para o banco
+        BatchCreateResponse.Item[] items = new BatchCreateResponse.Item[array.size()];
+        List<Product> valid = new ArrayList<>(array.size());
+        List<Integer> validIndexes = new ArrayList<>(array.size());
+        for (int i = 0; i < array.size(); i++) {
+            try {
+                CreateProductRequest request = gson.fromJson(array.get(i), CreateProductRequest.class);
+                if (request == null) {
+                    throw new IllegalArgumentException("Product must not be null");
+                }
+                valid.add(new Product(
+                        request.name(),
+                        request.description(),
+                        request.price(),
+                        request.category()
+                ));
+                validIndexes.add(i);
+            } catch (JsonParseException e) {
+                items[i] = BatchCreateResponse.Item.failed(i, "Invalid JSON format");
+            } catch (RuntimeException e) {
+                // Gson embrulha a exceção lançada pelo construtor compacto do record
+                Throwable cause = e instanceof IllegalArgumentException ? e : e.getCause();
+                if (!(cause instanceof IllegalArgumentException)) {
+                    throw e;
+                }
+                items[i] = BatchCreateResponse.Item.failed(i, cause.getMessage());
+            }
+        }
+
+        // 2. Inserir em lote (uma transação, executeBatch em blocos)
+        List<BatchItemResult> results = productDAO.saveAll(valid, batchSize);
+        for (int i = 0; i < results.size(); i++) {
+            int index = validIndexes.get(i);
+            BatchItemResult result = results.get(i);
+            items[index] = result.success()
+                    ? BatchCreateResponse.Item.created(index, ProductResponse.from(result.product()))
+                    : BatchCreateResponse.Item.failed(index, result.error());
+        }
+
+        resp.setStatus(HttpServletResponse.SC_OK);
+        writeJson(resp, BatchCreateResponse.of(Arrays.asList(items)));
+    }
+
     // ═══════════════════════════════════════════════════════════
     //  PUT /api/products/{id}  → Atualizar produto
     // ═══════════════════════════════════════════════════════════
@@ -216,6 +368,52 @@ public class ProductServlet extends HttpServlet {
         }
     }
 
+    /**
+     * Escreve a lista como array JSON linha a linha, direto no writer da resposta.
+     * Nenhuma List é montada: cada Product lido do ResultSet é serializado e
+     * descartado. Saída compacta por padrão; ?pretty=true para indentar.
+     *
+     * Se a leitura falhar no meio:
+     * - nada enviado ainda (tudo no buffer da resposta): descarta o buffer e
+     *   os validadores e responde 500
+     * - parte já enviada: o status 200 não pode mais mudar, então a exceção
+     *   sobe sem o ']' final e o Tomcat fecha a conexão sem terminar a
+     *   resposta; o cliente vê um erro de leitura, não um array truncado
+     */
+    private void streamJsonArray(HttpServletResponse resp, Consumer<Consumer<Product>> source,
+                                 boolean pretty) throws IOException {
+        JsonWriter writer = gson.newJsonWriter(resp.getWriter());
+        if (!pretty) {
+            writer.setIndent("");
+        }
+
+        writer.beginArray();
+        try {
+            source.accept(product -> {
+                try {
+                    responseAdapter.write(writer, ProductResponse.from(product));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause(); // cliente desconectou no meio da resposta
+        } catch (RuntimeException e) {
+            if (resp.isCommitted()) {
+                System.err.println("❌ Product list failed after the response was committed, aborting: " + e);
+                throw e;
+            }
+            System.err.println("❌ Product list failed: " + e);
+            resp.reset();
+            setJsonResponse(resp);
+            resp.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+            writeJson(resp, new ErrorResponse("Error listing products"));
+            return;
+        }
+        writer.endArray();
+        writer.flush();
+    }
+
     private void writeJson(HttpServletResponse resp, Object obj) {
         try {
             resp.getWriter().write(gson.toJson(obj));
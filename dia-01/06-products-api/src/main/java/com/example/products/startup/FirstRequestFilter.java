@@ -0,0 +1,25 @@
+package com.example.products.startup;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpFilter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+
+/**
+ * Marca a fase FIRST_REQUEST quando a primeira requisição termina.
+ * Depois disso o custo por requisição é uma leitura de um AtomicLongArray.
+ */
+public class FirstRequestFilter extends HttpFilter {
+
+    @Override
+    protected void doFilter(HttpServletRequest req, HttpServletResponse resp, FilterChain chain)
+            throws IOException, ServletException {
+
+        chain.doFilter(req, resp);
+
+        StartupTimeline.mark(StartupTimeline.Phase.FIRST_REQUEST);
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.products.startup;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Tempo de cada fase da subida, medido desde o início da JVM.
+ *
+ * Cada fase é marcada uma única vez (a primeira chamada vence) e impressa
+ * assim que acontece; quando todas terminam, imprime o resumo. O banco e o
+ * Tomcat sobem em paralelo, então DB_READY pode vir depois de TOMCAT_STARTED.
+ */
+public final class StartupTimeline {
+
+    public enum Phase {
+        MAIN("JVM → main"),
+        DB_READY("DB ready"),
+        TOMCAT_STARTED("Tomcat started"),
+        FIRST_REQUEST("First request served");
+
+        private final String label;
+
+        Phase(String label) {
+            this.label = label;
+        }
+    }
+
+    private static final Phase[] PHASES = Phase.values();
+    private static final AtomicLongArray MARKS = new AtomicLongArray(PHASES.length);
+
+    static {
+        for (int i = 0; i < PHASES.length; i++) {
+            MARKS.set(i, -1);
+        }
+    }
+
+    private StartupTimeline() {}
+
+    /**
+     * Registra o fim de uma fase (ms desde o início da JVM). Chamadas repetidas
+     * são ignoradas com uma única leitura (é chamado a cada requisição).
+     */
+    public static void mark(Phase phase) {
+        if (MARKS.get(phase.ordinal()) >= 0) {
+            return;
+        }
+        long uptime = ManagementFactory.getRuntimeMXBean().getUptime();
+        if (!MARKS.compareAndSet(phase.ordinal(), -1, uptime)) {
+            return;
+        }
+        System.out.printf("⏱️  %s: %d ms%n", phase.label, uptime);
+
+        if (isComplete()) {
+            printSummary();
+        }
+    }
+
+    private static boolean isComplete() {
+        for (int i = 0; i < PHASES.length; i++) {
+            if (MARKS.get(i) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void printSummary() {
+        StringBuilder summary = new StringBuilder("⏱️  Startup timeline (ms since JVM start)");
+        String archive = sharedArchiveFile();
+        summary.append(archive == null ? " - no CDS archive" : " - CDS archive: " + archive);
+        for (Phase phase : PHASES) {
+            summary.append(String.format("%n   %-22s %6d", phase.label, MARKS.get(phase.ordinal())));
+        }
+        System.out.println(summary);
+    }
+
+    // Só informa o que foi pedido na linha de comando; com -Xshare:auto a JVM
+    // ignora silenciosamente um arquivo inválido (use -Xlog:cds para confirmar)
+    private static String sharedArchiveFile() {
+        for (String arg : ManagementFactory.getRuntimeMXBean().getInputArguments()) {
+            if (arg.startsWith("-XX:SharedArchiveFile=")) {
+                return arg.substring("-XX:SharedArchiveFile=".length());
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.products.startup;
+
+import com.google.gson.JsonParser;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * Execução de treino para o arquivo AppCDS (-Dstartup.training=true).
+ *
+ * Chama cada endpoint uma vez para que as classes usadas no atendimento
+ * (servlets, DAO, Gson, H2, Tomcat) sejam carregadas; o ProductsApp encerra
+ * a JVM em seguida e -XX:ArchiveClassesAtExit grava o arquivo.
+ */
+public final class TrainingRun {
+
+    private TrainingRun() {}
+
+    public static void exercise(int port) throws Exception {
+        String base = "http://localhost:" + port;
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+        System.out.println("🏋️ Training run: exercising endpoints");
+
+        String created = send(client, HttpRequest.newBuilder(URI.create(base + "/api/products"))
+                .POST(json("""
+                        {"name":"Training Product","description":"CDS training","price":10.00,"category":"Training"}
+                        """)));
+        String id = JsonParser.parseString(created).getAsJsonObject().get("id").getAsString();
+
+        send(client, get(base + "/api/products"));
+        send(client, get(base + "/api/products?pretty=true"));
+        send(client, get(base + "/api/products?category=Electronics"));
+        send(client, get(base + "/api/products?name=gamer"));
+        send(client, get(base + "/api/products/" + id));
+        send(client, get(base + "/api/products/" + id).header("If-None-Match", "*"));
+        send(client, get(base + "/api/products/999999"));
+        send(client, HttpRequest.newBuilder(URI.create(base + "/api/products/batch"))
+                .POST(json("""
+                        [{"name":"Training A","price":1.00,"category":"Training"},
+                         {"name":"","price":1.00,"category":"Training"}]
+                        """)));
+        send(client, HttpRequest.newBuilder(URI.create(base + "/api/products/" + id))
+                .PUT(json("""
+                        {"name":"Training Product 2","description":"CDS training","price":11.00,"category":"Training"}
+                        """)));
+        send(client, HttpRequest.newBuilder(URI.create(base + "/api/products/" + id)).DELETE());
+        send(client, get(base + "/api/pool-stats"));
+        send(client, get(base + "/api/cache-stats"));
+
+        System.out.println("🏋️ Training run finished");
+    }
+
+    private static HttpRequest.Builder get(String url) {
+        return HttpRequest.newBuilder(URI.create(url)).GET();
+    }
+
+    private static HttpRequest.BodyPublisher json(String body) {
+        return HttpRequest.BodyPublishers.ofString(body);
+    }
+
+    private static String send(HttpClient client, HttpRequest.Builder request) throws Exception {
+        HttpRequest built = request.header("Content-Type", "application/json").build();
+        HttpResponse<String> response = client.send(built, HttpResponse.BodyHandlers.ofString());
+        System.out.println("   " + built.method() + " " + built.uri().getPath()
+                + (built.uri().getQuery() == null ? "" : "?" + built.uri().getQuery())
+                + " → " + response.statusCode());
+        return response.body();
+    }
+}
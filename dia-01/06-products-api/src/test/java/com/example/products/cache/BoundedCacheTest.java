@@ -0,0 +1,119 @@
+package com.example.products.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Chaves Integer pequenas caem no segmento (key & 15): com maxSize 32 cada
+ * segmento guarda 2 entradas, e 0, 16, 32, 48 disputam o mesmo segmento.
+ */
+@DisplayName("BoundedCache — LRU segmentado, admissão TinyLFU e invalidação")
+class BoundedCacheTest {
+
+    @Test
+    @DisplayName("nunca passa de maxSize; chave quente expulsa a menos recente do segmento")
+    void evictsAtMaxSize() {
+        BoundedCache<Integer, String> cache = new BoundedCache<>(32);
+        for (int key = 0; key < 32; key++) {
+            cache.getOrLoad(key, String::valueOf);
+        }
+        assertThat(cache.size()).isEqualTo(32);
+
+        // 0 acessada depois de 16: 16 é a vítima do LRU do segmento
+        cache.getIfPresent(0);
+        for (int i = 0; i < 5; i++) {
+            cache.getIfPresent(32);
+        }
+        assertThat(cache.getOrLoad(32, String::valueOf)).isEqualTo("32");
+
+        assertThat(cache.size()).isEqualTo(32);
+        assertThat(cache.getIfPresent(32)).isEqualTo("32");
+        assertThat(cache.getIfPresent(0)).isEqualTo("0");
+        assertThat(cache.getIfPresent(16)).isNull();
+        assertThat(cache.stats().evictions()).isEqualTo(1);
+        assertThat(cache.stats().maxSize()).isEqualTo(32);
+    }
+
+    @Test
+    @DisplayName("admissão: chave fria não entra no lugar de uma mais acessada")
+    void rejectsColdKey() {
+        BoundedCache<Integer, String> cache = new BoundedCache<>(32);
+        for (int key = 0; key < 32; key++) {
+            cache.getOrLoad(key, String::valueOf);
+        }
+        // 16 fica como vítima do segmento, mas com vários acessos
+        for (int i = 0; i < 5; i++) {
+            cache.getIfPresent(16);
+        }
+        cache.getIfPresent(0);
+
+        AtomicInteger loads = new AtomicInteger();
+        assertThat(cache.getOrLoad(48, key -> {
+            loads.incrementAndGet();
+            return "48";
+        })).isEqualTo("48");
+
+        assertThat(loads).hasValue(1);
+        assertThat(cache.stats().rejections()).isEqualTo(1);
+        assertThat(cache.stats().evictions()).isZero();
+        assertThat(cache.getIfPresent(16)).isEqualTo("16");
+        assertThat(cache.getIfPresent(0)).isEqualTo("0");
+        assertThat(cache.size()).isEqualTo(32);
+    }
+
+    @Test
+    @DisplayName("carga que cruza uma invalidação não é guardada")
+    void loadRacingInvalidationIsNotStored() {
+        BoundedCache<String, String> cache = new BoundedCache<>(16);
+
+        // invalidate da própria chave no meio do carregamento
+        assertThat(cache.getOrLoad("a", key -> {
+            cache.invalidate(key);
+            return "velho";
+        })).isEqualTo("velho");
+        assertThat(cache.getIfPresent("a")).isNull();
+
+        // invalidateIf de outra chave também conta: a época é uma só
+        assertThat(cache.getOrLoad("b", key -> {
+            cache.invalidateIf((k, v) -> false);
+            return "velho";
+        })).isEqualTo("velho");
+        assertThat(cache.getIfPresent("b")).isNull();
+
+        // Época lida antes de um carregamento em streaming
+        long epoch = cache.currentEpoch();
+        cache.invalidate("c");
+        cache.putIfNotInvalidatedSince("c", "velho", epoch);
+        assertThat(cache.getIfPresent("c")).isNull();
+
+        cache.putIfNotInvalidatedSince("c", "novo", cache.currentEpoch());
+        assertThat(cache.getIfPresent("c")).isEqualTo("novo");
+    }
+
+    @Test
+    @DisplayName("invalidate e invalidateIf removem e contam; null do loader não é cacheado")
+    void invalidation() {
+        BoundedCache<String, Integer> cache = new BoundedCache<>(16);
+        cache.getOrLoad("um", key -> 1);
+        cache.getOrLoad("dois", key -> 2);
+        cache.getOrLoad("três", key -> 3);
+
+        cache.invalidate("um");
+        cache.invalidate("inexistente");
+        cache.invalidateIf((key, value) -> value % 2 == 0);
+
+        assertThat(cache.getIfPresent("um")).isNull();
+        assertThat(cache.getIfPresent("dois")).isNull();
+        assertThat(cache.getIfPresent("três")).isEqualTo(3);
+        assertThat(cache.stats().invalidations()).isEqualTo(2);
+
+        assertThat(cache.getOrLoad("nada", key -> null)).isNull();
+        assertThat(cache.size()).isEqualTo(1);
+        assertThatThrownBy(() -> new BoundedCache<>(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.products.cache;
+
+import com.example.products.dao.BatchItemResult;
+import com.example.products.dao.ProductDAO;
+import com.example.products.model.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Invalidação do cache de listas por categoria contra o ProductDAO real
+ * (H2 em memória). Cada teste usa categorias próprias, e o DAO por baixo
+ * conta quantas vezes cada categoria foi lida do banco: uma lista ainda em
+ * cache não gera leitura nova.
+ */
+@DisplayName("CachingProductDAO — invalidação das listas por categoria")
+class CachingProductDAOTest {
+
+    private CountingProductDAO database;
+    private CachingProductDAO cached;
+    private String prefix;
+
+    @BeforeEach
+    void setUp() {
+        database = new CountingProductDAO();
+        cached = new CachingProductDAO(database, 100, 16, 100);
+        prefix = UUID.randomUUID().toString().substring(0, 8) + "-";
+    }
+
+    @Test
+    @DisplayName("listas em cache saem do banco ordenadas por id (o invalidateProduct depende disso)")
+    void categoryListsAreSortedById() {
+        String category = prefix + "ordem";
+        for (int i = 0; i < 5; i++) {
+            cached.save(product("Produto " + i, category));
+        }
+
+        List<Product> first = cached.findByCategory(category);
+        List<Product> second = cached.findByCategory(category);
+
+        assertThat(first).hasSize(5).isSortedAccordingTo(Comparator.comparing(Product::getId));
+        assertThat(second).extracting(Product::getId).containsExactlyElementsOf(ids(first));
+        assertThat(database.loads(category)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("update que troca a categoria tira do cache a lista antiga e a nova")
+    void updateAcrossCategoriesEvictsBothLists() {
+        String from = prefix + "origem";
+        String to = prefix + "destino";
+        Product moving = null;
+        for (int i = 0; i < 3; i++) {
+            Product saved = cached.save(product("Origem " + i, from));
+            if (i == 1) {
+                moving = saved; // no meio da lista: só a busca binária o encontra
+            }
+        }
+        cached.save(product("Destino", to));
+        cached.findByCategory(from);
+        cached.findByCategory(to);
+
+        moving.setCategory(to);
+        cached.update(moving.getId(), moving);
+
+        assertThat(ids(cached.findByCategory(from))).doesNotContain(moving.getId()).hasSize(2);
+        assertThat(ids(cached.findByCategory(to))).contains(moving.getId()).hasSize(2);
+        assertThat(database.loads(from)).isEqualTo(2);
+        assertThat(database.loads(to)).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("update e delete não tocam nas listas que não contêm o produto")
+    void updateKeepsUnrelatedLists() {
+        String category = prefix + "alvo";
+        String other = prefix + "outra";
+        Product target = cached.save(product("Alvo", category));
+        cached.save(product("Outro", other));
+        cached.findByCategory(category);
+        cached.findByCategory(other);
+
+        target.setName("Alvo Renomeado");
+        cached.update(target.getId(), target);
+        assertThat(cached.findByCategory(category)).extracting(Product::getName).containsExactly("Alvo Renomeado");
+
+        cached.deleteById(target.getId());
+        assertThat(cached.findByCategory(category)).isEmpty();
+
+        cached.findByCategory(other);
+        assertThat(database.loads(category)).isEqualTo(3);
+        assertThat(database.loads(other)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("saveAll invalida só as categorias com linhas gravadas")
+    void saveAllInvalidatesOnlyAffectedCategories() {
+        String first = prefix + "um";
+        String second = prefix + "dois";
+        String untouched = prefix + "tres";
+        String failed = prefix + "falha";
+        for (String category : List.of(first, second, untouched, failed)) {
+            cached.save(product("Inicial", category));
+            cached.findByCategory(category);
+        }
+
+        Product invalid = product("Sem preço", failed);
+        invalid.setPrice(null); // price NOT NULL: a linha falha e a categoria não muda
+        List<BatchItemResult> results = cached.saveAll(List.of(
+                product("Novo 1", first), invalid, product("Novo 2", second), product("Novo 3", first)));
+
+        assertThat(results).extracting(BatchItemResult::success).containsExactly(true, false, true, true);
+        assertThat(cached.findByCategory(first)).hasSize(3);
+        assertThat(cached.findByCategory(second)).hasSize(2);
+        assertThat(cached.findByCategory(untouched)).hasSize(1);
+        assertThat(cached.findByCategory(failed)).hasSize(1);
+        assertThat(database.loads(first)).isEqualTo(2);
+        assertThat(database.loads(second)).isEqualTo(2);
+        assertThat(database.loads(untouched)).isEqualTo(1);
+        assertThat(database.loads(failed)).isEqualTo(1);
+    }
+
+    private static Product product(String name, String category) {
+        return new Product(name, "Produto de teste", new BigDecimal("10.00"), category);
+    }
+
+    private static List<Long> ids(List<Product> products) {
+        return products.stream().map(Product::getId).toList();
+    }
+
+    private static final class CountingProductDAO extends ProductDAO {
+
+        private final Map<String, AtomicInteger> categoryLoads = new ConcurrentHashMap<>();
+
+        @Override
+        public void streamByCategory(String category, Consumer<Product> consumer) {
+            categoryLoads.computeIfAbsent(category, key -> new AtomicInteger()).incrementAndGet();
+            super.streamByCategory(category, consumer);
+        }
+
+        int loads(String category) {
+            AtomicInteger loads = categoryLoads.get(category);
+            return loads == null ? 0 : loads.get();
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package com.example.products.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * ConnectionPool contra um H2 em memória próprio de cada teste. Os testes
+ * que não olham a manutenção usam um período longo para a thread de
+ * housekeeping não interferir.
+ */
+@DisplayName("ConnectionPool — empréstimo, devolução e manutenção")
+class ConnectionPoolTest {
+
+    private static final long NO_HOUSEKEEPING = 60_000;
+
+    private ConnectionPool pool;
+
+    @AfterEach
+    void closePool() {
+        if (pool != null) {
+            pool.close();
+        }
+    }
+
+    @Test
+    @DisplayName("no tamanho máximo, o próximo empréstimo expira em borrowTimeout")
+    void borrowTimesOutAtMaxSize() throws SQLException {
+        pool = newPool(new ConnectionPool.Settings(0, 2, 100, 60_000, 0, NO_HOUSEKEEPING));
+        Connection first = pool.borrow();
+        Connection second = pool.borrow();
+
+        long start = System.nanoTime();
+        assertThatThrownBy(pool::borrow)
+                .isInstanceOf(SQLTimeoutException.class)
+                .hasMessageContaining("active=2, max=2");
+        assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(100_000_000L);
+
+        // Devolvida uma, o empréstimo volta a funcionar
+        first.close();
+        try (Connection third = pool.borrow()) {
+            assertThat(third.isValid(1)).isTrue();
+        }
+        second.close();
+        assertThat(pool.stats().timeoutCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("close() duas vezes devolve a conexão uma vez só; o handle fechado não usa mais a conexão")
+    void doubleCloseReturnsOnce() throws SQLException {
+        pool = newPool(new ConnectionPool.Settings(0, 2, 100, 60_000, 0, NO_HOUSEKEEPING));
+        Connection handle = pool.borrow();
+        handle.close();
+        handle.close();
+
+        assertThat(handle.isClosed()).isTrue();
+        assertThatThrownBy(handle::createStatement)
+                .isInstanceOf(SQLException.class)
+                .hasMessageContaining("already returned to the pool");
+        assertThat(pool.stats().idle()).isEqualTo(1);
+
+        // Se a segunda chamada tivesse devolvido de novo, caberiam 3 empréstimos
+        Connection first = pool.borrow();
+        Connection second = pool.borrow();
+        assertThatThrownBy(pool::borrow).isInstanceOf(SQLTimeoutException.class);
+        // O handle antigo não mexe na conexão que foi reaproveitada
+        handle.close();
+        assertThat(first.isClosed()).isFalse();
+        assertThat(pool.stats().active()).isEqualTo(2);
+        first.close();
+        second.close();
+    }
+
+    @Test
+    @DisplayName("devolução LIFO: o próximo empréstimo pega a conexão devolvida por último")
+    void reusesMostRecentlyReturned() throws SQLException {
+        pool = newPool(new ConnectionPool.Settings(0, 2, 100, 60_000, 0, NO_HOUSEKEEPING));
+        Connection first = pool.borrow();
+        Connection second = pool.borrow();
+        Connection secondPhysical = second.unwrap(Connection.class);
+        first.close();
+        second.close();
+
+        try (Connection next = pool.borrow()) {
+            assertThat(next.unwrap(Connection.class)).isSameAs(secondPhysical);
+        }
+        assertThat(pool.stats().total()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("conexão quebrada é descartada, na devolução ou ao sair do pool, e nunca reaproveitada")
+    void brokenConnectionsAreDiscarded() throws SQLException {
+        pool = newPool(new ConnectionPool.Settings(0, 2, 100, 60_000, 0, NO_HOUSEKEEPING));
+
+        // Quebrada enquanto emprestada: descartada na devolução
+        Connection handle = pool.borrow();
+        Connection physical = handle.unwrap(Connection.class);
+        physical.close();
+        handle.close();
+        assertThat(pool.stats().total()).isZero();
+        assertThat(pool.stats().idle()).isZero();
+
+        // Quebrada enquanto ociosa: descartada no próximo empréstimo
+        handle = pool.borrow();
+        physical = handle.unwrap(Connection.class);
+        handle.close();
+        physical.close();
+        try (Connection next = pool.borrow()) {
+            assertThat(next.unwrap(Connection.class)).isNotSameAs(physical);
+            assertThat(next.isValid(1)).isTrue();
+        }
+        assertThat(pool.stats().total()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("manutenção fecha as ociosas além de minSize e completa o mínimo")
+    void evictsIdleAndRefillsMinimum() throws Exception {
+        pool = newPool(new ConnectionPool.Settings(2, 4, 100, 100, 0, 20));
+        assertThat(pool.stats().total()).isEqualTo(2);
+
+        Connection[] handles = new Connection[4];
+        for (int i = 0; i < handles.length; i++) {
+            handles[i] = pool.borrow();
+        }
+        for (Connection handle : handles) {
+            handle.close();
+        }
+        assertThat(pool.stats().total()).isEqualTo(4);
+
+        // Paradas há mais que idleTimeout: sobram só minSize
+        awaitUntil(() -> pool.stats().total() == 2);
+        Thread.sleep(200);
+        assertThat(pool.stats().total()).isEqualTo(2);
+        assertThat(pool.stats().idle()).isEqualTo(2);
+
+        // As duas quebradas e descartadas: a manutenção reabre até minSize
+        Connection first = pool.borrow();
+        Connection second = pool.borrow();
+        first.unwrap(Connection.class).close();
+        second.unwrap(Connection.class).close();
+        first.close();
+        second.close();
+        assertThat(pool.stats().total()).isZero();
+        awaitUntil(() -> pool.stats().total() == 2 && pool.stats().idle() == 2);
+    }
+
+    @Test
+    @DisplayName("PoolStats: ativas, ociosas, empréstimos, timeouts, vazamentos e histograma")
+    void statsCounts() throws Exception {
+        pool = newPool(new ConnectionPool.Settings(1, 2, 50, 60_000, 300, 20));
+        PoolStats initial = pool.stats();
+        assertThat(initial.total()).isEqualTo(1);
+        assertThat(initial.idle()).isEqualTo(1);
+        assertThat(initial.minSize()).isEqualTo(1);
+        assertThat(initial.maxSize()).isEqualTo(2);
+
+        Connection held = pool.borrow();
+        try (Connection other = pool.borrow()) {
+            assertThatThrownBy(pool::borrow).isInstanceOf(SQLTimeoutException.class);
+            PoolStats full = pool.stats();
+            assertThat(full.active()).isEqualTo(2);
+            assertThat(full.idle()).isZero();
+            assertThat(full.total()).isEqualTo(2);
+            assertThat(full.waiters()).isZero();
+        }
+
+        // Emprestada há mais que leakThreshold: um vazamento, contado uma vez
+        awaitUntil(() -> pool.stats().leakCount() == 1);
+        Thread.sleep(100);
+        held.close();
+
+        PoolStats stats = pool.stats();
+        assertThat(stats.leakCount()).isEqualTo(1);
+        assertThat(stats.borrowCount()).isEqualTo(2);
+        assertThat(stats.timeoutCount()).isEqualTo(1);
+        assertThat(stats.active()).isZero();
+        assertThat(stats.idle()).isEqualTo(2);
+        assertThat(stats.borrowWaitHistogram()).containsOnlyKeys(
+                "<1ms", "<5ms", "<10ms", "<50ms", "<100ms", "<500ms", "<1000ms", ">=1000ms");
+        // Toda tentativa entra no histograma, inclusive a que expirou
+        assertThat(stats.borrowWaitHistogram().values().stream().mapToLong(Long::longValue).sum()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("pool fechado recusa empréstimos e fecha a conexão devolvida depois")
+    void closedPool() throws SQLException {
+        pool = newPool(new ConnectionPool.Settings(1, 2, 100, 60_000, 0, NO_HOUSEKEEPING));
+        Connection handle = pool.borrow();
+        Connection physical = handle.unwrap(Connection.class);
+        pool.close();
+
+        assertThatThrownBy(pool::borrow).hasMessage("Connection pool is closed");
+        handle.close();
+        assertThat(physical.isClosed()).isTrue();
+        assertThat(pool.stats().total()).isZero();
+    }
+
+    private static ConnectionPool newPool(ConnectionPool.Settings settings) {
+        String url = "jdbc:h2:mem:pool-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+        return new ConnectionPool(url, "sa", "", settings);
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).as("condição não atingida em 5s").isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.products.dao;
+
+import com.example.products.model.Product;
+import com.example.products.search.ProductNameIndex;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Busca por nome no H2 em memória: com o índice de trigramas pronto e
+ * com o índice ainda frio (varredura), o resultado tem de ser o mesmo.
+ */
+@DisplayName("ProductDAO — busca por nome (índice e varredura)")
+class ProductDAONameSearchTest {
+
+    private static ProductDAO coldIndexDAO;
+    private static ProductDAO warmIndexDAO;
+
+    @BeforeAll
+    static void insertProducts() {
+        coldIndexDAO = new ProductDAO(new ProductNameIndex()); // nunca aquece: sempre varre
+        for (String name : List.of("Pé de Cabra Ótimo", "Camiseta 100% Algodão", "Cabo_USB", "Cabo USB-C")) {
+            coldIndexDAO.save(new Product(name, "Produto de teste", new BigDecimal("10.00"), "Teste"));
+        }
+
+        ProductNameIndex index = new ProductNameIndex();
+        index.warmUp();
+        assertThat(index.isReady()).isTrue();
+        warmIndexDAO = new ProductDAO(index);
+    }
+
+    static Stream<Arguments> searches() {
+        return Stream.of(
+                Arguments.of("otimo", List.of("Pé de Cabra Ótimo")),
+                Arguments.of("PÉ DE", List.of("Pé de Cabra Ótimo")),
+                Arguments.of("mecanico", List.of("Teclado Mecânico")),
+                Arguments.of("100%", List.of("Camiseta 100% Algodão")),
+                Arguments.of("%", List.of("Camiseta 100% Algodão")),
+                Arguments.of("o_u", List.of("Cabo_USB")),
+                Arguments.of("_", List.of("Cabo_USB")),
+                Arguments.of("cabo usb", List.of("Cabo USB-C")),
+                Arguments.of("usb", List.of("Cabo_USB", "Cabo USB-C")),
+                Arguments.of("ab", List.of("Pé de Cabra Ótimo", "Cabo_USB", "Cabo USB-C")),
+                Arguments.of("xyz", List.of()));
+    }
+
+    @ParameterizedTest(name = "\"{0}\" → {1}")
+    @MethodSource("searches")
+    @DisplayName("índice e varredura encontram os mesmos produtos")
+    void indexAndScanAgree(String query, List<String> expected) {
+        List<String> scanned = names(coldIndexDAO.findByNameContaining(query));
+        List<String> indexed = names(warmIndexDAO.findByNameContaining(query));
+
+        assertThat(scanned).as("varredura").containsExactlyElementsOf(expected);
+        assertThat(indexed).as("índice").containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    @DisplayName("renomear tira o id dos trigramas do nome antigo")
+    void renameUpdatesIndex() {
+        Product saved = warmIndexDAO.save(new Product("Garrafa Térmica", "Produto de teste",
+                new BigDecimal("10.00"), "Teste"));
+        saved.setName("Squeeze Esportivo");
+        warmIndexDAO.update(saved.getId(), saved);
+
+        assertThat(warmIndexDAO.findByNameContaining("garrafa")).isEmpty();
+        assertThat(names(warmIndexDAO.findByNameContaining("squeeze"))).containsExactly("Squeeze Esportivo");
+    }
+
+    private static List<String> names(List<Product> products) {
+        return products.stream().map(Product::getName).toList();
+    }
+}
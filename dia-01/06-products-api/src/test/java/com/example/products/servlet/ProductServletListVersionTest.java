@@ -0,0 +1,171 @@
+package com.example.products.servlet;
+
+import com.example.products.cache.CachingProductDAO;
+import com.example.products.dao.DataVersion;
+import com.example.products.dao.ProductDAO;
+import com.example.products.model.Product;
+import org.apache.catalina.Context;
+import org.apache.catalina.startup.Tomcat;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Validadores das listagens: a consulta de versão só roda em GET condicional,
+ * e com o cache ativo nem nesse caso quando a versão já é conhecida.
+ */
+@DisplayName("ProductServlet — versão das listagens")
+class ProductServletListVersionTest {
+
+    private Tomcat tomcat;
+    private HttpClient client;
+    private String baseUrl;
+    private InMemoryProductDAO database;
+    private CachingProductDAO cachingDAO;
+
+    @BeforeEach
+    void startServer(@TempDir Path baseDir) throws Exception {
+        database = new InMemoryProductDAO();
+        database.save(product("Notebook", "Eletrônicos"));
+        database.save(product("Livro", "Livros"));
+        cachingDAO = new CachingProductDAO(database, 100, 10, 100);
+
+        tomcat = new Tomcat();
+        tomcat.setBaseDir(baseDir.toString());
+        tomcat.setPort(0);
+        tomcat.getConnector();
+        Context ctx = tomcat.addContext("", baseDir.toString());
+        Tomcat.addServlet(ctx, "ProductServlet", new ProductServlet(cachingDAO));
+        ctx.addServletMappingDecoded("/api/products/*", "ProductServlet");
+        tomcat.start();
+
+        client = HttpClient.newHttpClient();
+        baseUrl = "http://localhost:" + tomcat.getConnector().getLocalPort() + "/api/products";
+    }
+
+    @AfterEach
+    void stopServer() throws Exception {
+        tomcat.stop();
+        tomcat.destroy();
+    }
+
+    @Test
+    @DisplayName("GET sem cabeçalho condicional não consulta a versão; a segunda já sai com ETag")
+    void unconditionalListSkipsVersionQuery() throws Exception {
+        HttpResponse<String> first = get("", null);
+        HttpResponse<String> second = get("", null);
+
+        assertThat(first.statusCode()).isEqualTo(200);
+        assertThat(first.headers().firstValue("ETag")).isEmpty();
+        assertThat(second.statusCode()).isEqualTo(200);
+        assertThat(second.headers().firstValue("ETag")).isPresent();
+        assertThat(database.versionQueries.get()).isZero();
+    }
+
+    @Test
+    @DisplayName("ETag calculada no streaming é a mesma da consulta de versão")
+    void streamedVersionMatchesQuery() throws Exception {
+        get("?category=livros", null);
+        String streamed = get("?category=livros", null).headers().firstValue("ETag").orElseThrow();
+
+        assertThat(streamed).isEqualTo(ConditionalGet.forList("category:livros",
+                database.findVersionByCategory("livros")).etag());
+    }
+
+    @Test
+    @DisplayName("GET condicional responde 304 pela versão em cache e 200 depois de uma escrita")
+    void conditionalListUsesCachedVersion() throws Exception {
+        HttpResponse<String> first = get("", "W/\"nenhuma\"");
+        String etag = first.headers().firstValue("ETag").orElseThrow();
+        assertThat(first.statusCode()).isEqualTo(200);
+        assertThat(database.versionQueries.get()).isEqualTo(1);
+
+        assertThat(get("", etag).statusCode()).isEqualTo(304);
+        assertThat(database.versionQueries.get()).isEqualTo(1);
+
+        cachingDAO.save(product("Mouse", "Eletrônicos"));
+
+        HttpResponse<String> afterWrite = get("", etag);
+        assertThat(afterWrite.statusCode()).isEqualTo(200);
+        assertThat(afterWrite.headers().firstValue("ETag")).isPresent().get().isNotEqualTo(etag);
+        assertThat(database.versionQueries.get()).isEqualTo(2);
+    }
+
+    private HttpResponse<String> get(String query, String ifNoneMatch) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + query));
+        if (ifNoneMatch != null) {
+            request.header("If-None-Match", ifNoneMatch);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static Product product(String name, String category) {
+        return new Product(name, "Produto de teste", new BigDecimal("10.00"), category);
+    }
+
+    /**
+     * "Banco" em memória que conta as consultas de versão.
+     */
+    private static final class InMemoryProductDAO extends ProductDAO {
+
+        final AtomicInteger versionQueries = new AtomicInteger();
+        private final List<Product> rows = new ArrayList<>();
+        private LocalDateTime clock = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+        @Override
+        public synchronized Product save(Product product) {
+            clock = clock.plusSeconds(1);
+            product.setId((long) rows.size() + 1);
+            product.setCreatedAt(clock);
+            product.setUpdatedAt(clock);
+            rows.add(product);
+            return product;
+        }
+
+        @Override
+        public synchronized void streamAll(Consumer<Product> consumer) {
+            rows.forEach(consumer);
+        }
+
+        @Override
+        public synchronized void streamByCategory(String category, Consumer<Product> consumer) {
+            rows.stream().filter(p -> p.getCategory().equalsIgnoreCase(category)).forEach(consumer);
+        }
+
+        @Override
+        public synchronized DataVersion findVersion() {
+            versionQueries.incrementAndGet();
+            return version(rows);
+        }
+
+        @Override
+        public synchronized DataVersion findVersionByCategory(String category) {
+            versionQueries.incrementAndGet();
+            return version(rows.stream().filter(p -> p.getCategory().equalsIgnoreCase(category)).toList());
+        }
+
+        private static DataVersion version(List<Product> products) {
+            return new DataVersion(products.size(), products.stream()
+                    .map(Product::getUpdatedAt)
+                    .max(LocalDateTime::compareTo)
+                    .orElse(null));
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.products.servlet;
+
+import com.example.products.dao.DataVersion;
+import com.example.products.dao.ProductDAO;
+import com.example.products.model.Product;
+import org.apache.catalina.Context;
+import org.apache.catalina.startup.Tomcat;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Listagem em streaming com o DAO falhando no meio, em um Tomcat embutido
+ * (o comportamento depende de a resposta já ter sido enviada ou não).
+ */
+@DisplayName("ProductServlet — falha durante o streaming")
+class ProductServletStreamingTest {
+
+    // Linhas que cabem no buffer da resposta (8 KB) / que com certeza passam dele
+    private static final int BEFORE_COMMIT = 3;
+    private static final int AFTER_COMMIT = 2_000;
+
+    private static Tomcat tomcat;
+    private static HttpClient client;
+    private static String baseUrl;
+
+    @BeforeAll
+    static void startServer(@TempDir Path baseDir) throws Exception {
+        tomcat = new Tomcat();
+        tomcat.setBaseDir(baseDir.toString());
+        tomcat.setPort(0);
+        tomcat.getConnector();
+        Context ctx = tomcat.addContext("", baseDir.toString());
+        Tomcat.addServlet(ctx, "ProductServlet", new ProductServlet(new FailingProductDAO()));
+        ctx.addServletMappingDecoded("/api/products/*", "ProductServlet");
+        tomcat.start();
+
+        client = HttpClient.newHttpClient();
+        baseUrl = "http://localhost:" + tomcat.getConnector().getLocalPort() + "/api/products";
+    }
+
+    @AfterAll
+    static void stopServer() throws Exception {
+        tomcat.stop();
+        tomcat.destroy();
+    }
+
+    @Test
+    @DisplayName("falha antes de enviar: 500 com erro JSON, sem array parcial nem ETag")
+    void failureBeforeCommitReturns500() throws Exception {
+        HttpResponse<String> response = get("?category=" + BEFORE_COMMIT);
+
+        assertThat(response.statusCode()).isEqualTo(500);
+        assertThat(response.body()).contains("\"error\": \"Error listing products\"").doesNotContain("[");
+        assertThat(response.headers().firstValue("ETag")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("falha depois de enviar parte: a conexão é abortada, o cliente não recebe um 200 completo")
+    void failureAfterCommitAbortsConnection() {
+        assertThatThrownBy(() -> get("?category=" + AFTER_COMMIT))
+            .isInstanceOf(IOException.class);
+    }
+
+    @Test
+    @DisplayName("sem falha: array completo")
+    void completeList() throws Exception {
+        HttpResponse<String> response = get("?name=ok");
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.body()).startsWith("[{").endsWith("}]");
+    }
+
+    private static HttpResponse<String> get(String query) throws IOException, InterruptedException {
+        return client.send(HttpRequest.newBuilder(URI.create(baseUrl + query)).build(),
+            HttpResponse.BodyHandlers.ofString());
+    }
+
+    /**
+     * Sem banco: ?category=N emite N produtos e falha; ?name= emite 10 e termina.
+     */
+    private static final class FailingProductDAO extends ProductDAO {
+
+        @Override
+        public void streamByCategory(String category, Consumer<Product> consumer) {
+            emit(Integer.parseInt(category), consumer);
+            throw new IllegalStateException("Connection reset while reading products");
+        }
+
+        @Override
+        public void streamByNameContaining(String name, Consumer<Product> consumer) {
+            emit(10, consumer);
+        }
+
+        @Override
+        public DataVersion findVersionByCategory(String category) {
+            return new DataVersion(1, LocalDateTime.of(2026, 1, 1, 0, 0));
+        }
+
+        private static void emit(int rows, Consumer<Product> consumer) {
+            for (long id = 1; id <= rows; id++) {
+                Product product = new Product("Produto " + id, "Descrição do produto " + id,
+                    new BigDecimal("10.00"), "Teste");
+                product.setId(id);
+                product.setCreatedAt(LocalDateTime.of(2026, 1, 1, 0, 0));
+                product.setUpdatedAt(LocalDateTime.of(2026, 1, 1, 0, 0));
+                consumer.accept(product);
+            }
+        }
+    }
+}
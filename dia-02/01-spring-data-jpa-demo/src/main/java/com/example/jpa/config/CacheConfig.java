@@ -0,0 +1,54 @@
+package com.example.jpa.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Cache de segundo nível do Hibernate com JCache (Caffeine, em memória).
+ *
+ * As caches são criadas aqui, uma por região de CacheProperties, e o
+ * CacheManager é entregue pronto ao Hibernate (hibernate.javax.cache.cache_manager).
+ * Quais entidades e queries usam cada região está em @Cache (Category, Tag)
+ * e nos @QueryHints dos repositórios.
+ */
+@Configuration
+@EnableConfigurationProperties(CacheProperties.class)
+public class CacheConfig {
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(CacheProperties properties) {
+        // URI próprio: cada contexto Spring (ex.: nos testes) tem as suas caches
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+            .getCacheManager(URI.create("jpa-demo:" + UUID.randomUUID()), getClass().getClassLoader());
+
+        properties.regions().forEach((name, region) -> cacheManager.createCache(name, configuration(region)));
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheManagerCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+    private static CaffeineConfiguration<Object, Object> configuration(CacheProperties.Region region) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        // O Hibernate já guarda cópias desmontadas das entidades: sem serializar de novo
+        configuration.setStoreByValue(false);
+        configuration.setMaximumSize(OptionalLong.of(region.maxSize()));
+        if (region.ttl() != null) {
+            configuration.setExpireAfterWrite(OptionalLong.of(region.ttl().toNanos()));
+        }
+        return configuration;
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.jpa.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Regiões do cache de segundo nível (app.cache.regions no application.yml).
+ *
+ * Cada região vira uma cache Caffeine própria, com tamanho e TTL separados.
+ * Toda região usada pelo Hibernate precisa estar aqui: a aplicação não sobe
+ * se faltar alguma (missing_cache_strategy = fail).
+ */
+@ConfigurationProperties(prefix = "app.cache")
+public record CacheProperties(Map<String, Region> regions) {
+
+    public CacheProperties {
+        regions = regions == null ? Map.of() : regions;
+    }
+
+    /**
+     * @param maxSize máximo de entradas na região
+     * @param ttl     tempo de vida desde a escrita; null = sem expiração
+     */
+    public record Region(long maxSize, Duration ttl) {
+    }
+}
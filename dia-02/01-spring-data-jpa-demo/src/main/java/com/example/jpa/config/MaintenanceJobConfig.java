@@ -0,0 +1,12 @@
+package com.example.jpa.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Liga app.jobs (MaintenanceJobProperties) para o MaintenanceJobService.
+ */
+@Configuration
+@EnableConfigurationProperties(MaintenanceJobProperties.class)
+public class MaintenanceJobConfig {
+}
@@ -0,0 +1,21 @@
+package com.example.jpa.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Jobs de manutenção em lotes (app.jobs no application.yml). Valores padrão;
+ * cada job pode sobrescrever os dois ao ser iniciado.
+ *
+ * @param chunkSize linhas (faixa de ids) por lote, cada lote em uma transação
+ * @param pause     espera entre lotes: deixa conexões e locks livres para as
+ *                  requisições online
+ */
+@ConfigurationProperties(prefix = "app.jobs")
+public record MaintenanceJobProperties(
+    @DefaultValue("1000") int chunkSize,
+    @DefaultValue("100ms") Duration pause
+) {
+}
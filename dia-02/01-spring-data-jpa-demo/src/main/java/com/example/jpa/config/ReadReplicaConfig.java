@@ -0,0 +1,117 @@
+package com.example.jpa.config;
+
+import com.example.jpa.datasource.H2ReplicaCopier;
+import com.example.jpa.datasource.ReadWriteRoutingDataSource;
+import com.example.jpa.datasource.ReadYourWritesFilter;
+import com.example.jpa.datasource.ReplicaAwareJpaDialect;
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.transaction.TransactionManager;
+
+import javax.sql.DataSource;
+
+/**
+ * Primário + réplica de leitura, ligado por app.datasource.replica.enabled.
+ *
+ * Dois pools Hikari ("primary", com spring.datasource, e "replica") atrás de
+ * um ReadWriteRoutingDataSource: transações @Transactional(readOnly = true)
+ * leem da réplica, o resto vai para o primário. O DataSource que JPA,
+ * data.sql e JdbcTemplate recebem é o proxy lazy por cima do roteamento.
+ * O transactionManager usa o ReplicaAwareJpaDialect, que tira do cache de
+ * segundo nível o que é lido da réplica.
+ *
+ * Desligado, nenhum bean daqui existe e o Spring Boot cria o pool único de sempre.
+ */
+@Configuration
+@EnableConfigurationProperties(ReplicaProperties.class)
+@ConditionalOnProperty(prefix = "app.datasource.replica", name = "enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadReplicaConfig.class);
+
+    @Bean(destroyMethod = "close")
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean(destroyMethod = "close")
+    public HikariDataSource replicaDataSource(ReplicaProperties replica, DataSourceProperties primary) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+            .type(HikariDataSource.class)
+            .url(replica.url())
+            .username(replica.username() != null ? replica.username() : primary.determineUsername())
+            .password(replica.password() != null ? replica.password() : primary.determinePassword())
+            .build();
+        dataSource.setPoolName("replica");
+        dataSource.setMaximumPoolSize(replica.maximumPoolSize());
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public ReadWriteRoutingDataSource readWriteRoutingDataSource(
+            @Qualifier("primaryDataSource") DataSource primary,
+            @Qualifier("replicaDataSource") DataSource replica,
+            ReplicaProperties properties) {
+        log.info("🔀 Read/write routing enabled: readOnly transactions → replica ({}), read-your-writes window {}",
+            properties.url(), properties.readYourWritesWindow());
+        return new ReadWriteRoutingDataSource(primary, replica, properties.readYourWritesWindow());
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    // No lugar do da auto-configuração: o JpaTransactionManager copia o dialeto do
+    // EntityManagerFactory no afterPropertiesSet, então o nosso entra depois dele
+    @Bean
+    public JpaTransactionManager transactionManager(ReadWriteRoutingDataSource routingDataSource,
+                                                    ObjectProvider<TransactionManagerCustomizers> customizers) {
+        JpaTransactionManager transactionManager = new JpaTransactionManager() {
+            @Override
+            public void afterPropertiesSet() {
+                super.afterPropertiesSet();
+                setJpaDialect(new ReplicaAwareJpaDialect(routingDataSource));
+            }
+        };
+        customizers.ifAvailable(available -> available.customize((TransactionManager) transactionManager));
+        return transactionManager;
+    }
+
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(ReplicaProperties properties) {
+        FilterRegistrationBean<ReadYourWritesFilter> registration =
+            new FilterRegistrationBean<>(new ReadYourWritesFilter(properties.readYourWritesWindow()));
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.datasource.replica", name = "h2-copy-interval")
+    public H2ReplicaCopier h2ReplicaCopier(@Qualifier("primaryDataSource") DataSource primary,
+                                           @Qualifier("replicaDataSource") DataSource replica,
+                                           TaskScheduler taskScheduler, ReplicaProperties properties) {
+        return new H2ReplicaCopier(primary, replica, taskScheduler, properties.h2CopyInterval());
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.jpa.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Réplica de leitura (app.datasource.replica no application.yml).
+ *
+ * @param enabled              liga o roteamento; desligado, tudo usa o pool de spring.datasource
+ * @param username             null = o mesmo do primário
+ * @param password             null = a mesma do primário
+ * @param readYourWritesWindow depois de uma escrita, por quanto tempo as leituras
+ *                             da mesma sessão continuam no primário (atraso máximo
+ *                             de replicação esperado)
+ * @param h2CopyInterval       só para a réplica H2 local: intervalo entre cópias do
+ *                             primário (null = sem cópia, a replicação é do banco)
+ */
+@ConfigurationProperties(prefix = "app.datasource.replica")
+public record ReplicaProperties(
+    @DefaultValue("false") boolean enabled,
+    String url,
+    String username,
+    String password,
+    @DefaultValue("10") int maximumPoolSize,
+    @DefaultValue("5s") Duration readYourWritesWindow,
+    Duration h2CopyInterval
+) {
+}
@@ -0,0 +1,13 @@
+package com.example.jpa.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Liga os métodos @Scheduled (reconciliação de category_stats, agendada
+ * por app.category-stats.reconcile-cron; "-" desliga).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
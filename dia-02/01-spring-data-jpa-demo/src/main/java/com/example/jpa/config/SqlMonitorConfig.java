@@ -0,0 +1,42 @@
+package com.example.jpa.config;
+
+import com.example.jpa.monitoring.SqlStatementInspector;
+import com.example.jpa.monitoring.SqlStatsFilter;
+import com.example.jpa.monitoring.SqlTimingListener;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Instrumentação de SQL: o Hibernate reporta statements e tempo de JDBC
+ * para a SqlStats da thread, e o SqlStatsFilter abre uma SqlStats por
+ * requisição em /api/*.
+ *
+ * A parte do Hibernate fica sempre ligada (sem SqlStats ativa ela não faz
+ * nada) para que os testes possam usar assertMaxQueries.
+ */
+@Configuration
+@EnableConfigurationProperties(SqlMonitorProperties.class)
+public class SqlMonitorConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlMonitorCustomizer() {
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, new SqlStatementInspector());
+            properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, SqlTimingListener.class.getName());
+        };
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.sql-monitor", name = "enabled", matchIfMissing = true)
+    public FilterRegistrationBean<SqlStatsFilter> sqlStatsFilter(SqlMonitorProperties properties) {
+        FilterRegistrationBean<SqlStatsFilter> registration =
+            new FilterRegistrationBean<>(new SqlStatsFilter(properties.repeatThreshold()));
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+}
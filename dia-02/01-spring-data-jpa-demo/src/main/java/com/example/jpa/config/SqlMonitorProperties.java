@@ -0,0 +1,18 @@
+package com.example.jpa.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Contagem de SQL por requisição (app.sql-monitor no application.yml).
+ *
+ * @param enabled         liga o filtro dos headers X-SQL-Count / X-SQL-Time
+ * @param repeatThreshold repetições do mesmo statement numa requisição a
+ *                        partir das quais (exclusive) o N+1 vira warning
+ */
+@ConfigurationProperties(prefix = "app.sql-monitor")
+public record SqlMonitorProperties(
+    @DefaultValue("true") boolean enabled,
+    @DefaultValue("3") int repeatThreshold
+) {
+}
@@ -0,0 +1,45 @@
+package com.example.jpa.controller;
+
+import com.example.jpa.dto.cache.CacheRegionStats;
+import com.example.jpa.service.CacheService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/cache")
+@Tag(name = "Cache", description = "Cache de segundo nível do Hibernate")
+public class CacheController {
+    
+    private final CacheService cacheService;
+    
+    public CacheController(CacheService cacheService) {
+        this.cacheService = cacheService;
+    }
+    
+    @Operation(summary = "Estatísticas por região (hits, misses, tamanho)")
+    @GetMapping("/stats")
+    public ResponseEntity<List<CacheRegionStats>> stats() {
+        return ResponseEntity.ok(cacheService.stats());
+    }
+    
+    @Operation(summary = "Limpar uma região do cache")
+    @ApiResponse(responseCode = "204", description = "Região limpa")
+    @DeleteMapping("/{region}")
+    public ResponseEntity<Void> evict(@PathVariable String region) {
+        cacheService.evict(region);
+        return ResponseEntity.noContent().build();
+    }
+    
+    @Operation(summary = "Limpar todo o cache de segundo nível")
+    @ApiResponse(responseCode = "204", description = "Cache limpo")
+    @DeleteMapping
+    public ResponseEntity<Void> evictAll() {
+        cacheService.evictAll();
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -1,8 +1,11 @@
 package com.example.jpa.controller;
 
 import com.example.jpa.dto.category.CategoryResponse;
+import com.example.jpa.dto.category.CategoryStatsResponse;
 import com.example.jpa.dto.category.CreateCategoryRequest;
+import com.example.jpa.dto.category.StatsReconcileReport;
 import com.example.jpa.service.CategoryService;
+import com.example.jpa.service.CategoryStatsService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -19,9 +22,11 @@ import java.util.List;
 public class CategoryController {
     
     private final CategoryService categoryService;
+    private final CategoryStatsService categoryStatsService;
     
-    public CategoryController(CategoryService categoryService) {
+    public CategoryController(CategoryService categoryService, CategoryStatsService categoryStatsService) {
         this.categoryService = categoryService;
+        this.categoryStatsService = categoryStatsService;
     }
     
     @Operation(summary = "Buscar categoria por ID")
@@ -45,6 +50,24 @@ public class CategoryController {
         return ResponseEntity.ok(categories);
     }
     
+    @Operation(summary = "Totais de todas as categorias", description = "Lê category_stats, sem agregar products")
+    @GetMapping("/stats")
+    public ResponseEntity<List<CategoryStatsResponse>> findAllStats() {
+        return ResponseEntity.ok(categoryStatsService.findAll());
+    }
+    
+    @Operation(summary = "Totais da categoria", description = "Produtos, produtos em estoque, estoque total e preço médio")
+    @GetMapping("/{id}/stats")
+    public ResponseEntity<CategoryStatsResponse> findStats(@PathVariable Long id) {
+        return ResponseEntity.ok(categoryStatsService.findByCategoryId(id));
+    }
+    
+    @Operation(summary = "Reconciliar totais", description = "Recalcula category_stats a partir de products e relata as divergências")
+    @PostMapping("/stats/reconcile")
+    public ResponseEntity<StatsReconcileReport> reconcileStats() {
+        return ResponseEntity.ok(categoryStatsService.reconcile());
+    }
+    
     @Operation(summary = "Criar categoria")
     @ApiResponse(responseCode = "201", description = "Categoria criada")
     @PostMapping
@@ -0,0 +1,26 @@
+package com.example.jpa.controller;
+
+import com.example.jpa.dto.datasource.DataSourceStats;
+import com.example.jpa.service.DataSourceStatsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/datasource")
+@Tag(name = "DataSource", description = "Pools de conexão e roteamento primário/réplica")
+public class DataSourceController {
+    
+    private final DataSourceStatsService dataSourceStatsService;
+    
+    public DataSourceController(DataSourceStatsService dataSourceStatsService) {
+        this.dataSourceStatsService = dataSourceStatsService;
+    }
+    
+    @Operation(summary = "Métricas por pool (ativas, livres, esperando) e conexões roteadas")
+    @GetMapping("/stats")
+    public ResponseEntity<DataSourceStats> stats() {
+        return ResponseEntity.ok(dataSourceStatsService.stats());
+    }
+}
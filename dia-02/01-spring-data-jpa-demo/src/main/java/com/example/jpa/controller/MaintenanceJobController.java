@@ -0,0 +1,77 @@
+package com.example.jpa.controller;
+
+import com.example.jpa.dto.job.MaintenanceJobResponse;
+import com.example.jpa.dto.job.StartJobRequest;
+import com.example.jpa.model.MaintenanceJob.Type;
+import com.example.jpa.service.MaintenanceJobService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/jobs")
+@Tag(name = "Jobs", description = "Manutenção em massa de produtos em lotes, em segundo plano")
+public class MaintenanceJobController {
+    
+    private static final StartJobRequest DEFAULTS = new StartJobRequest(null, null, null);
+    
+    private final MaintenanceJobService jobService;
+    
+    public MaintenanceJobController(MaintenanceJobService jobService) {
+        this.jobService = jobService;
+    }
+    
+    @Operation(summary = "Listar os últimos 20 jobs")
+    @GetMapping
+    public ResponseEntity<List<MaintenanceJobResponse>> findRecent() {
+        return ResponseEntity.ok(jobService.findRecent());
+    }
+    
+    @Operation(summary = "Situação do job", description = "Cursor, progresso, linhas afetadas e linhas por segundo")
+    @ApiResponse(responseCode = "200", description = "Job encontrado")
+    @ApiResponse(responseCode = "404", description = "Job não encontrado")
+    @GetMapping("/{id}")
+    public ResponseEntity<MaintenanceJobResponse> findById(@PathVariable Long id) {
+        return ResponseEntity.ok(jobService.findById(id));
+    }
+    
+    @Operation(summary = "Desativar sem estoque em lotes", description = "Corpo opcional: chunkSize e pauseMillis")
+    @ApiResponse(responseCode = "202", description = "Job iniciado")
+    @ApiResponse(responseCode = "422", description = "Já existe um job do mesmo tipo em execução")
+    @PostMapping("/deactivate-out-of-stock")
+    public ResponseEntity<MaintenanceJobResponse> deactivateOutOfStock(
+            @Valid @RequestBody(required = false) StartJobRequest request) {
+        
+        return start(Type.DEACTIVATE_OUT_OF_STOCK, request);
+    }
+    
+    @Operation(summary = "Remover inativos antigos em lotes", description = "Remove os produtos inativos criados antes de createdBefore")
+    @ApiResponse(responseCode = "202", description = "Job iniciado")
+    @ApiResponse(responseCode = "422", description = "Sem createdBefore, ou já existe um job do mesmo tipo em execução")
+    @PostMapping("/delete-old-inactive")
+    public ResponseEntity<MaintenanceJobResponse> deleteOldInactive(
+            @Valid @RequestBody(required = false) StartJobRequest request) {
+        
+        return start(Type.DELETE_OLD_INACTIVE, request);
+    }
+    
+    @Operation(summary = "Cancelar job", description = "O lote em andamento termina; os seguintes não rodam")
+    @ApiResponse(responseCode = "200", description = "Job cancelado")
+    @ApiResponse(responseCode = "404", description = "Job não encontrado")
+    @ApiResponse(responseCode = "422", description = "Job não está em execução")
+    @PostMapping("/{id}/cancel")
+    public ResponseEntity<MaintenanceJobResponse> cancel(@PathVariable Long id) {
+        return ResponseEntity.ok(jobService.cancel(id));
+    }
+    
+    private ResponseEntity<MaintenanceJobResponse> start(Type type, StartJobRequest request) {
+        MaintenanceJobResponse job = jobService.start(type, request != null ? request : DEFAULTS);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+    }
+}
@@ -1,8 +1,15 @@
 package com.example.jpa.controller;
 
+import com.example.jpa.dto.product.BulkImportResponse;
+import com.example.jpa.dto.product.BulkProductRequest;
 import com.example.jpa.dto.product.CreateProductRequest;
+import com.example.jpa.dto.product.ExportFormat;
 import com.example.jpa.dto.product.ProductResponse;
 import com.example.jpa.dto.product.ProductSummary;
+import com.example.jpa.dto.product.ReservationRequest;
+import com.example.jpa.dto.product.StockQuantityRequest;
+import com.example.jpa.dto.product.StockReleaseRequest;
+import com.example.jpa.dto.product.StockReservationResponse;
 import com.example.jpa.dto.product.UpdateProductRequest;
 import com.example.jpa.service.ProductService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -14,9 +21,13 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -92,6 +103,23 @@ public class ProductController {
         return ResponseEntity.ok(summaries);
     }
     
+    @Operation(summary = "Exportar catálogo", description = "Streaming de todos os produtos (id, name, price) em NDJSON ou CSV, com memória constante")
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @Parameter(description = "ndjson ou csv") @RequestParam(defaultValue = "ndjson") String format) {
+        
+        ExportFormat exportFormat = ExportFormat.from(format);
+        // O corpo é escrito em outra thread, depois que o controller retorna
+        StreamingResponseBody body = out -> productService.exportSummaries(exportFormat, out);
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(exportFormat.mediaType()))
+            .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename("products." + exportFormat.extension())
+                .build()
+                .toString())
+            .body(body);
+    }
+    
     @Operation(summary = "Listar produtos por categoria")
     @GetMapping("/category/{categoryId}")
     public ResponseEntity<List<ProductResponse>> findByCategory(@PathVariable Long categoryId) {
@@ -114,9 +142,19 @@ public class ProductController {
         return ResponseEntity.status(HttpStatus.CREATED).body(product);
     }
     
-    @Operation(summary = "Atualizar produto")
+    @Operation(summary = "Importar produtos em lote", description = "Cria até 100.000 produtos em uma transação (tudo ou nada), com INSERTs em batch")
+    @ApiResponse(responseCode = "201", description = "Produtos importados")
+    @ApiResponse(responseCode = "409", description = "Nome duplicado no lote ou já cadastrado")
+    @PostMapping("/bulk")
+    public ResponseEntity<BulkImportResponse> importBulk(@Valid @RequestBody BulkProductRequest request) {
+        BulkImportResponse result = productService.importBulk(request.products());
+        return ResponseEntity.status(HttpStatus.CREATED).body(result);
+    }
+    
+    @Operation(summary = "Atualizar produto", description = "Com version no corpo, só grava se o produto ainda estiver nessa versão")
     @ApiResponse(responseCode = "200", description = "Produto atualizado")
     @ApiResponse(responseCode = "404", description = "Produto não encontrado")
+    @ApiResponse(responseCode = "409", description = "Produto alterado por outra requisição")
     @PutMapping("/{id}")
     public ResponseEntity<ProductResponse> update(
             @PathVariable Long id,
@@ -134,6 +172,39 @@ public class ProductController {
         return ResponseEntity.noContent().build();
     }
     
+    @Operation(summary = "Reservar estoque", description = "Baixa a quantidade com um UPDATE condicional; falha sem reservar nada se não houver estoque")
+    @ApiResponse(responseCode = "200", description = "Estoque reservado")
+    @ApiResponse(responseCode = "404", description = "Produto não encontrado")
+    @ApiResponse(responseCode = "422", description = "Estoque insuficiente")
+    @PostMapping("/{id}/reserve")
+    public ResponseEntity<StockReservationResponse> reserve(
+            @PathVariable Long id,
+            @Valid @RequestBody StockQuantityRequest request) {
+        
+        return ResponseEntity.ok(productService.reserve(id, request.quantity()));
+    }
+    
+    @Operation(summary = "Devolver estoque", description = "Devolve ao estoque parte de uma reserva (reservationId do reserve); o total devolvido nunca passa do reservado")
+    @ApiResponse(responseCode = "200", description = "Estoque devolvido; reserved é o que a reserva ainda segura")
+    @ApiResponse(responseCode = "404", description = "Produto ou reserva não encontrados (ou reserva de outro produto)")
+    @ApiResponse(responseCode = "422", description = "Quantidade maior que a ainda reservada (nada muda)")
+    @PostMapping("/{id}/release")
+    public ResponseEntity<StockReservationResponse> release(
+            @PathVariable Long id,
+            @Valid @RequestBody StockReleaseRequest request) {
+        
+        return ResponseEntity.ok(productService.release(id, request.reservationId(), request.quantity()));
+    }
+    
+    @Operation(summary = "Reservar vários produtos", description = "Tudo ou nada; os produtos são travados em ordem de id")
+    @ApiResponse(responseCode = "200", description = "Todos os itens reservados")
+    @ApiResponse(responseCode = "404", description = "Produto não encontrado")
+    @ApiResponse(responseCode = "422", description = "Estoque insuficiente em algum item (nada é reservado)")
+    @PostMapping("/reserve")
+    public ResponseEntity<List<StockReservationResponse>> reserveAll(@Valid @RequestBody ReservationRequest request) {
+        return ResponseEntity.ok(productService.reserveAll(request.items()));
+    }
+    
     @Operation(summary = "Desativar sem estoque", description = "Desativa todos os produtos sem estoque")
     @PostMapping("/deactivate-out-of-stock")
     public ResponseEntity<Integer> deactivateOutOfStock() {
@@ -0,0 +1,150 @@
+package com.example.jpa.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.TaskScheduler;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Réplica de mentira para rodar localmente com dois H2: copia o primário
+ * para a réplica a cada intervalo (app.datasource.replica.h2-copy-interval).
+ * Entre uma cópia e outra a réplica fica defasada, como uma réplica real
+ * com atraso de replicação.
+ *
+ * Na primeira cópia cria o schema (SCRIPT NODATA do primário); nas seguintes
+ * troca o conteúdo de todas as tabelas numa transação só, então quem lê a
+ * réplica vê a cópia anterior inteira até o commit.
+ */
+public class H2ReplicaCopier {
+    
+    private static final Logger log = LoggerFactory.getLogger(H2ReplicaCopier.class);
+    
+    private static final int BATCH_SIZE = 500;
+    
+    private final JdbcTemplate primary;
+    private final DataSource replica;
+    private final TaskScheduler scheduler;
+    private final Duration interval;
+    private boolean schemaCreated;
+    
+    public H2ReplicaCopier(DataSource primary, DataSource replica, TaskScheduler scheduler, Duration interval) {
+        this.primary = new JdbcTemplate(primary);
+        this.replica = replica;
+        this.scheduler = scheduler;
+        this.interval = interval;
+    }
+    
+    // Primeira cópia com o data.sql já carregado no primário; depois, a cada intervalo
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        copy();
+        scheduler.scheduleWithFixedDelay(this::scheduledCopy, Instant.now().plus(interval), interval);
+    }
+    
+    // Falha agendada (primário ou réplica fora do ar) só é registrada: a réplica
+    // fica na cópia anterior e a próxima execução tenta de novo
+    private void scheduledCopy() {
+        try {
+            copy();
+        } catch (RuntimeException e) {
+            log.warn("⚠️ H2 replica refresh failed, replica keeps the previous copy", e);
+        }
+    }
+    
+    /**
+     * Copia o estado atual do primário para a réplica.
+     */
+    public synchronized void copy() {
+        long start = System.nanoTime();
+        List<String> tables = primary.queryForList(
+            "SELECT TABLE_NAME FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA = 'PUBLIC' AND TABLE_TYPE = 'BASE TABLE'",
+            String.class);
+        
+        try (Connection connection = replica.getConnection()) {
+            connection.setReadOnly(false);
+            if (!schemaCreated) {
+                createSchema(connection);
+                schemaCreated = true;
+            }
+            connection.setAutoCommit(false);
+            try {
+                long rows = 0;
+                for (String table : tables) {
+                    rows += copyTable(table, connection);
+                }
+                connection.commit();
+                log.debug("🔁 H2 replica refreshed: {} tables, {} rows ({} ms)",
+                    tables.size(), rows, (System.nanoTime() - start) / 1_000_000);
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not copy primary to H2 replica", e);
+        }
+    }
+    
+    // Tabelas, sequences e índices do primário; sem FKs checadas (a ordem da cópia não importa)
+    private void createSchema(Connection connection) throws SQLException {
+        List<String> script = primary.queryForList("SCRIPT NODATA NOPASSWORDS NOSETTINGS", String.class);
+        try (Statement statement = connection.createStatement()) {
+            for (String sql : script) {
+                if (!sql.startsWith("CREATE USER")) {
+                    statement.execute(sql);
+                }
+            }
+            statement.execute("SET REFERENTIAL_INTEGRITY FALSE");
+        }
+    }
+    
+    private long copyTable(String table, Connection target) throws SQLException {
+        try (Statement delete = target.createStatement()) {
+            delete.executeUpdate("DELETE FROM \"" + table + "\"");
+        }
+        return primary.query("SELECT * FROM \"" + table + "\"", rs -> {
+            ResultSetMetaData metadata = rs.getMetaData();
+            int columns = metadata.getColumnCount();
+            String placeholders = "?" + ", ?".repeat(columns - 1);
+            long rows = 0;
+            try (PreparedStatement insert = target.prepareStatement(
+                    "INSERT INTO \"" + table + "\" VALUES (" + placeholders + ")")) {
+                while (rs.next()) {
+                    for (int column = 1; column <= columns; column++) {
+                        insert.setObject(column, value(rs, metadata, column));
+                    }
+                    insert.addBatch();
+                    if (++rows % BATCH_SIZE == 0) {
+                        insert.executeBatch();
+                    }
+                }
+                insert.executeBatch();
+            }
+            return rows;
+        });
+    }
+    
+    // LOBs presos à conexão do primário: copiados como valor
+    private static Object value(ResultSet rs, ResultSetMetaData metadata, int column) throws SQLException {
+        return switch (metadata.getColumnType(column)) {
+            case Types.CLOB, Types.NCLOB -> rs.getString(column);
+            case Types.BLOB -> rs.getBytes(column);
+            default -> rs.getObject(column);
+        };
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.jpa.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Escolhe o pool de cada conexão pela transação corrente:
+ *
+ * - @Transactional(readOnly = true) → réplica, exceto dentro da janela de
+ *   read-your-writes depois de uma escrita (ReadYourWrites)
+ * - qualquer outra coisa (escritas, DDL, data.sql, acesso fora de transação) → primário
+ *
+ * Precisa ficar atrás de um LazyConnectionDataSourceProxy: o JpaTransactionManager
+ * pede a conexão antes de marcar a transação como readOnly, e o proxy adia a
+ * escolha até o primeiro statement.
+ *
+ * O destino de uma transação readOnly é fixado no começo dela (pinReads, pelo
+ * ReplicaAwareJpaDialect), para que o cache saiba se a leitura é da réplica mesmo que
+ * a janela de read-your-writes vença antes do primeiro statement.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+    
+    public enum Target { PRIMARY, REPLICA }
+    
+    private final Duration readYourWritesWindow;
+    private final Map<Target, LongAdder> routed = new EnumMap<>(Target.class);
+    private final LongAdder readsKeptOnPrimary = new LongAdder();
+    // Pilha: uma transação readOnly REQUIRES_NEW dentro de outra fixa o próprio destino
+    private final ThreadLocal<Deque<Target>> pinnedReads = new ThreadLocal<>();
+    
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, Duration readYourWritesWindow) {
+        this.readYourWritesWindow = readYourWritesWindow;
+        for (Target target : Target.values()) {
+            routed.put(target, new LongAdder());
+        }
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+    }
+    
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return count(route());
+    }
+    
+    private Target route() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                ReadYourWrites.recordWrite(readYourWritesWindow);
+            }
+            return Target.PRIMARY;
+        }
+        Deque<Target> pinned = pinnedReads.get();
+        return pinned != null ? pinned.peek() : readTarget();
+    }
+    
+    private Target readTarget() {
+        if (ReadYourWrites.readsFromPrimary()) {
+            readsKeptOnPrimary.increment();
+            return Target.PRIMARY;
+        }
+        return Target.REPLICA;
+    }
+    
+    /**
+     * Decide para onde vão as leituras da transação readOnly que está começando
+     * e mantém essa decisão até unpinReads.
+     */
+    public Target pinReads() {
+        Deque<Target> pinned = pinnedReads.get();
+        if (pinned == null) {
+            pinned = new ArrayDeque<>();
+            pinnedReads.set(pinned);
+        }
+        Target target = readTarget();
+        pinned.push(target);
+        return target;
+    }
+    
+    /**
+     * Fim da transação readOnly: volta ao destino da transação externa, se houver.
+     */
+    public void unpinReads() {
+        Deque<Target> pinned = pinnedReads.get();
+        pinned.pop();
+        if (pinned.isEmpty()) {
+            pinnedReads.remove();
+        }
+    }
+    
+    private Target count(Target target) {
+        routed.get(target).increment();
+        return target;
+    }
+    
+    /** Conexões entregues por pool desde a subida. */
+    public long routedConnections(Target target) {
+        return routed.get(target).sum();
+    }
+    
+    /** Leituras readOnly mandadas ao primário pela janela de read-your-writes. */
+    public long readsKeptOnPrimary() {
+        return readsKeptOnPrimary.sum();
+    }
+    
+    public Duration getReadYourWritesWindow() {
+        return readYourWritesWindow;
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.jpa.datasource;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.function.Consumer;
+
+/**
+ * Read-your-writes da thread atual: até quando as leituras readOnly ainda
+ * devem ir para o primário, porque a réplica pode não ter recebido uma
+ * escrita recente.
+ *
+ * O ReadWriteRoutingDataSource registra cada transação de escrita aqui; o
+ * ReadYourWritesFilter abre uma sessão por requisição HTTP com o prazo que
+ * veio do cliente (cookie) e devolve o novo prazo quando a requisição escreve.
+ * Fora de uma requisição (jobs, testes) o prazo vale para a thread.
+ */
+public final class ReadYourWrites {
+    
+    private static final ThreadLocal<Instant> PRIMARY_UNTIL = new ThreadLocal<>();
+    private static final ThreadLocal<Consumer<Instant>> ON_FIRST_WRITE = new ThreadLocal<>();
+    
+    private ReadYourWrites() {}
+    
+    /**
+     * Começa uma sessão na thread atual (substitui o estado anterior).
+     *
+     * @param primaryUntil prazo trazido pelo cliente, ou null
+     * @param onFirstWrite avisado com o novo prazo na primeira escrita da sessão
+     */
+    public static void begin(Instant primaryUntil, Consumer<Instant> onFirstWrite) {
+        PRIMARY_UNTIL.set(primaryUntil);
+        ON_FIRST_WRITE.set(onFirstWrite);
+    }
+    
+    /**
+     * Encerra a sessão: a thread volta a ler da réplica.
+     */
+    public static void end() {
+        PRIMARY_UNTIL.remove();
+        ON_FIRST_WRITE.remove();
+    }
+    
+    /**
+     * Se as leituras da thread ainda devem ir para o primário.
+     */
+    public static boolean readsFromPrimary() {
+        Instant until = PRIMARY_UNTIL.get();
+        return until != null && Instant.now().isBefore(until);
+    }
+    
+    static void recordWrite(Duration window) {
+        Instant until = Instant.now().plus(window);
+        PRIMARY_UNTIL.set(until);
+        Consumer<Instant> onFirstWrite = ON_FIRST_WRITE.get();
+        if (onFirstWrite != null) {
+            ON_FIRST_WRITE.remove();
+            onFirstWrite.accept(until);
+        }
+    }
+}
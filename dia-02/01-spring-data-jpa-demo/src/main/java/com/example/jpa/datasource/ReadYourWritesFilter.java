@@ -0,0 +1,77 @@
+package com.example.jpa.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Read-your-writes entre requisições do mesmo cliente.
+ *
+ * Quando uma requisição escreve, a resposta leva o cookie rw-primary-until
+ * (epoch em ms) e, até esse instante, as leituras das requisições que o
+ * trazem de volta vão para o primário.
+ *
+ * O cookie é só uma dica de roteamento: um cliente que o forja apenas manda
+ * as próprias leituras para o primário, e nunca lê dado de outro cliente.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+    
+    public static final String COOKIE = "rw-primary-until";
+    
+    private final Duration window;
+    
+    public ReadYourWritesFilter(Duration window) {
+        this.window = window;
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        ReadYourWrites.begin(primaryUntil(request), until -> addCookie(response, until));
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReadYourWrites.end();
+        }
+    }
+    
+    private Instant primaryUntil(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return null;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE.equals(cookie.getName())) {
+                try {
+                    return Instant.ofEpochMilli(Long.parseLong(cookie.getValue()));
+                } catch (NumberFormatException e) {
+                    return null;
+                }
+            }
+        }
+        return null;
+    }
+    
+    // A escrita acontece no service, antes de o corpo começar a ser escrito
+    private void addCookie(HttpServletResponse response, Instant until) {
+        if (response.isCommitted()) {
+            return;
+        }
+        ResponseCookie cookie = ResponseCookie.from(COOKIE, Long.toString(until.toEpochMilli()))
+            .path("/")
+            .maxAge(window.toSeconds() + 1)
+            .httpOnly(true)
+            .sameSite("Lax")
+            .build();
+        response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.jpa.datasource;
+
+import com.example.jpa.datasource.ReadWriteRoutingDataSource.Target;
+import jakarta.persistence.CacheStoreMode;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.sql.SQLException;
+import java.util.Objects;
+
+/**
+ * HibernateJpaDialect que fixa, no começo de cada transação readOnly, de onde
+ * ela vai ler (ReadWriteRoutingDataSource.pinReads).
+ *
+ * Se for da réplica, o EntityManager fica com CacheStoreMode.BYPASS (o
+ * CacheMode.GET do Hibernate): continua lendo o cache de segundo nível e o
+ * query cache, mas não grava neles o que veio da réplica.
+ * O cache é compartilhado, então uma categoria defasada posta ali seria
+ * servida também a quem lê do primário, até a próxima escrita ou o TTL.
+ */
+public class ReplicaAwareJpaDialect extends HibernateJpaDialect {
+    
+    // Pela propriedade JPA: o find() do Hibernate lê o modo dela, não o Session.setCacheMode
+    private static final String STORE_MODE = "jakarta.persistence.cache.storeMode";
+    
+    private final ReadWriteRoutingDataSource routingDataSource;
+    
+    public ReplicaAwareJpaDialect(ReadWriteRoutingDataSource routingDataSource) {
+        this.routingDataSource = routingDataSource;
+    }
+    
+    @Override
+    public Object beginTransaction(EntityManager entityManager, TransactionDefinition definition)
+            throws PersistenceException, SQLException {
+        Object transactionData = super.beginTransaction(entityManager, definition);
+        if (!definition.isReadOnly()) {
+            return transactionData;
+        }
+        Object previousStoreMode = entityManager.getProperties().get(STORE_MODE);
+        if (routingDataSource.pinReads() == Target.REPLICA) {
+            entityManager.setProperty(STORE_MODE, CacheStoreMode.BYPASS);
+        }
+        return new ReadOnlyTransactionData(transactionData, entityManager,
+            Objects.requireNonNullElse(previousStoreMode, CacheStoreMode.USE));
+    }
+    
+    @Override
+    public void cleanupTransaction(Object transactionData) {
+        if (transactionData instanceof ReadOnlyTransactionData readOnly) {
+            // EntityManager pré-existente (open-in-view) segue para a próxima transação
+            if (readOnly.entityManager().isOpen()) {
+                readOnly.entityManager().setProperty(STORE_MODE, readOnly.previousStoreMode());
+            }
+            routingDataSource.unpinReads();
+            transactionData = readOnly.hibernateData();
+        }
+        super.cleanupTransaction(transactionData);
+    }
+    
+    private record ReadOnlyTransactionData(Object hibernateData, EntityManager entityManager, Object previousStoreMode) {}
+}
@@ -0,0 +1,23 @@
+package com.example.jpa.dto.cache;
+
+import java.time.Duration;
+
+/**
+ * Estatísticas de uma região do cache de segundo nível.
+ *
+ * @param hits   leituras atendidas pelo cache
+ * @param misses leituras que foram ao banco
+ * @param puts   entradas gravadas no cache
+ * @param size   entradas atuais (estimativa do Caffeine)
+ */
+public record CacheRegionStats(
+    String region,
+    long hits,
+    long misses,
+    long puts,
+    double hitRatio,
+    long size,
+    long maxSize,
+    Duration ttl
+) {
+}
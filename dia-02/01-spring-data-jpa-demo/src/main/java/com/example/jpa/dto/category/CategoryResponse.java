@@ -12,13 +12,14 @@ public record CategoryResponse(
     LocalDateTime createdAt,
     LocalDateTime updatedAt
 ) {
-    public static CategoryResponse from(Category category) {
+    // productCount vem de category_stats: carregar category.getProducts() seria uma query por categoria
+    public static CategoryResponse from(Category category, long productCount) {
         return new CategoryResponse(
             category.getId(),
             category.getName(),
             category.getDescription(),
             category.getActive(),
-            category.getProducts() != null ? category.getProducts().size() : 0,
+            Math.toIntExact(productCount),
             category.getCreatedAt(),
             category.getUpdatedAt()
         );
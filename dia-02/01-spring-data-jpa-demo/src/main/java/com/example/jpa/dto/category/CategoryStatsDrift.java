@@ -0,0 +1,14 @@
+package com.example.jpa.dto.category;
+
+/**
+ * Categoria cuja linha em category_stats não batia com os produtos.
+ *
+ * @param stored valor que estava gravado (null se a linha não existia)
+ * @param actual valor recalculado a partir de products, já gravado
+ */
+public record CategoryStatsDrift(
+    Long categoryId,
+    CategoryTotals stored,
+    CategoryTotals actual
+) {
+}
@@ -0,0 +1,38 @@
+package com.example.jpa.dto.category;
+
+import com.example.jpa.model.CategoryStats;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+
+/**
+ * Linha de category_stats com a média de preço já calculada
+ * (null quando a categoria não tem produtos, como AVG no SQL).
+ */
+public record CategoryStatsResponse(
+    Long categoryId,
+    long productCount,
+    long inStockCount,
+    long totalStock,
+    BigDecimal priceSum,
+    BigDecimal averagePrice,
+    LocalDateTime updatedAt
+) {
+    public static CategoryStatsResponse from(CategoryStats stats) {
+        return of(stats.getCategoryId(), stats.totals(), stats.getUpdatedAt());
+    }
+    
+    public static CategoryStatsResponse of(Long categoryId, CategoryTotals totals, LocalDateTime updatedAt) {
+        BigDecimal average = totals.productCount() == 0 ? null
+            : totals.priceSum().divide(BigDecimal.valueOf(totals.productCount()), 2, RoundingMode.HALF_UP);
+        return new CategoryStatsResponse(
+            categoryId,
+            totals.productCount(),
+            totals.inStockCount(),
+            totals.totalStock(),
+            totals.priceSum(),
+            average,
+            updatedAt
+        );
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.jpa.dto.category;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Totais dos produtos de uma categoria (o conteúdo de uma linha de category_stats),
+ * ou a diferença entre dois totais quando um produto muda.
+ *
+ * @param inStockCount produtos com stock > 0
+ * @param priceSum     soma dos preços (a média é priceSum / productCount)
+ */
+public record CategoryTotals(
+    long productCount,
+    long inStockCount,
+    long totalStock,
+    BigDecimal priceSum
+) {
+    public static final CategoryTotals ZERO = new CategoryTotals(0, 0, 0, BigDecimal.ZERO);
+    
+    // Mesma escala da coluna price: equals compara valor, não 4500.0 com 4500.00
+    public CategoryTotals {
+        priceSum = priceSum.setScale(2, RoundingMode.HALF_UP);
+    }
+    
+    /** Contribuição de um único produto. */
+    public static CategoryTotals of(BigDecimal price, int stock) {
+        return new CategoryTotals(1, stock > 0 ? 1 : 0, stock, price);
+    }
+    
+    /** Diferença de um produto cujo estoque passou de before para after. */
+    public static CategoryTotals stockChange(int before, int after) {
+        return new CategoryTotals(0, (after > 0 ? 1 : 0) - (before > 0 ? 1 : 0), after - before, BigDecimal.ZERO);
+    }
+    
+    public CategoryTotals plus(CategoryTotals other) {
+        return new CategoryTotals(
+            productCount + other.productCount,
+            inStockCount + other.inStockCount,
+            totalStock + other.totalStock,
+            priceSum.add(other.priceSum));
+    }
+    
+    public CategoryTotals minus(CategoryTotals other) {
+        return plus(other.negate());
+    }
+    
+    public CategoryTotals negate() {
+        return new CategoryTotals(-productCount, -inStockCount, -totalStock, priceSum.negate());
+    }
+    
+    public boolean isZero() {
+        return productCount == 0 && inStockCount == 0 && totalStock == 0 && priceSum.signum() == 0;
+    }
+}
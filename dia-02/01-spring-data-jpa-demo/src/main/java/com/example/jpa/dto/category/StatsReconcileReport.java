@@ -0,0 +1,16 @@
+package com.example.jpa.dto.category;
+
+import java.util.List;
+
+/**
+ * Resultado da reconciliação de category_stats.
+ *
+ * @param categories categorias verificadas
+ * @param drifts     categorias corrigidas (vazio = nenhuma divergência)
+ */
+public record StatsReconcileReport(
+    int categories,
+    List<CategoryStatsDrift> drifts,
+    long elapsedMillis
+) {
+}
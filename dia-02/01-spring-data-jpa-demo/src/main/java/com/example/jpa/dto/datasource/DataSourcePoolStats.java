@@ -0,0 +1,21 @@
+package com.example.jpa.dto.datasource;
+
+/**
+ * Estado de um pool Hikari.
+ *
+ * @param active            conexões em uso
+ * @param idle              conexões livres no pool
+ * @param threadsAwaiting   threads esperando uma conexão (pool esgotado)
+ * @param routedConnections conexões entregues pelo roteamento desde a subida
+ *                          (null sem réplica)
+ */
+public record DataSourcePoolStats(
+    String pool,
+    int active,
+    int idle,
+    int total,
+    int maximumPoolSize,
+    int threadsAwaiting,
+    Long routedConnections
+) {
+}
@@ -0,0 +1,18 @@
+package com.example.jpa.dto.datasource;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Pools de conexão e roteamento primário/réplica.
+ *
+ * @param readsKeptOnPrimary leituras readOnly que foram ao primário pela
+ *                           janela de read-your-writes
+ */
+public record DataSourceStats(
+    boolean replicaEnabled,
+    Duration readYourWritesWindow,
+    long readsKeptOnPrimary,
+    List<DataSourcePoolStats> pools
+) {
+}
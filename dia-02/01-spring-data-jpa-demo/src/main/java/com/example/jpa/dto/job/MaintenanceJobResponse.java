@@ -0,0 +1,60 @@
+package com.example.jpa.dto.job;
+
+import com.example.jpa.model.MaintenanceJob;
+
+import java.time.LocalDateTime;
+
+/**
+ * Situação de um job de manutenção.
+ *
+ * @param lastProcessedId cursor: ids até ele já foram processados
+ * @param maxId           maior id quando o job começou (fim da faixa)
+ * @param progressPercent quanto da faixa de ids já foi percorrida
+ * @param elapsedMillis   tempo de execução (lotes + pausas)
+ * @param rowsPerSecond   linhas afetadas por segundo de execução
+ */
+public record MaintenanceJobResponse(
+    Long id,
+    MaintenanceJob.Type type,
+    MaintenanceJob.Status status,
+    LocalDateTime createdBefore,
+    int chunkSize,
+    long pauseMillis,
+    long lastProcessedId,
+    long maxId,
+    double progressPercent,
+    long rowsAffected,
+    int chunks,
+    long elapsedMillis,
+    double rowsPerSecond,
+    String error,
+    LocalDateTime startedAt,
+    LocalDateTime finishedAt
+) {
+    public static MaintenanceJobResponse from(MaintenanceJob job) {
+        double progress = job.getStatus() == MaintenanceJob.Status.COMPLETED || job.getMaxId() == 0
+            ? 100.0
+            : Math.min(100.0, job.getLastProcessedId() * 100.0 / job.getMaxId());
+        double rowsPerSecond = job.getElapsedMillis() == 0
+            ? 0.0
+            : job.getRowsAffected() * 1000.0 / job.getElapsedMillis();
+        return new MaintenanceJobResponse(
+            job.getId(),
+            job.getType(),
+            job.getStatus(),
+            job.getCreatedBefore(),
+            job.getChunkSize(),
+            job.getPauseMillis(),
+            job.getLastProcessedId(),
+            job.getMaxId(),
+            Math.round(progress * 10) / 10.0,
+            job.getRowsAffected(),
+            job.getChunks(),
+            job.getElapsedMillis(),
+            Math.round(rowsPerSecond * 10) / 10.0,
+            job.getError(),
+            job.getStartedAt(),
+            job.getFinishedAt()
+        );
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.jpa.dto.job;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+
+import java.time.LocalDateTime;
+
+/**
+ * Parâmetros de um job de manutenção; chunkSize e pauseMillis vazios usam app.jobs.
+ *
+ * @param createdBefore só delete-old-inactive (obrigatório): remove os inativos criados antes
+ */
+public record StartJobRequest(
+    LocalDateTime createdBefore,
+    
+    @Min(value = 1, message = "Tamanho do lote deve ser maior que zero")
+    @Max(value = 100_000, message = "Tamanho do lote deve ser no máximo 100000")
+    Integer chunkSize,
+    
+    @Min(value = 0, message = "Pausa não pode ser negativa")
+    @Max(value = 60_000, message = "Pausa deve ser no máximo 60000 ms")
+    Long pauseMillis
+) {}
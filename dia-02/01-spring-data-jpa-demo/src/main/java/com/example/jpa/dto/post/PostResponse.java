@@ -31,4 +31,19 @@ public record PostResponse(
             post.getUpdatedAt()
         );
     }
+    
+    // Listagem: contagem vinda da projeção, tags consultadas à parte
+    public static PostResponse from(PostSummary summary, Set<String> tags) {
+        return new PostResponse(
+            summary.id(),
+            summary.title(),
+            summary.content(),
+            summary.author(),
+            summary.published(),
+            summary.commentCount().intValue(),
+            tags,
+            summary.createdAt(),
+            summary.updatedAt()
+        );
+    }
 }
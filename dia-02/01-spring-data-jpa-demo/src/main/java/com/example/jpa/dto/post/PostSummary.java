@@ -0,0 +1,15 @@
+package com.example.jpa.dto.post;
+
+import java.time.LocalDateTime;
+
+// Projeção - post com a contagem de comentários calculada no banco (a coleção não é carregada)
+public record PostSummary(
+    Long id,
+    String title,
+    String content,
+    String author,
+    Boolean published,
+    Long commentCount,
+    LocalDateTime createdAt,
+    LocalDateTime updatedAt
+) {}
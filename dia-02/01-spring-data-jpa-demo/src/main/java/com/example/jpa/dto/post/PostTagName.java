@@ -0,0 +1,7 @@
+package com.example.jpa.dto.post;
+
+// Projeção - nome de uma tag de um post
+public record PostTagName(
+    Long postId,
+    String tagName
+) {}
@@ -0,0 +1,8 @@
+package com.example.jpa.dto.product;
+
+// Resultado da importação em lote
+public record BulkImportResponse(
+    int imported,
+    int categories,
+    long elapsedMillis
+) {}
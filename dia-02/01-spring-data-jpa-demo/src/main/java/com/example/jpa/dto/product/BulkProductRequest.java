@@ -0,0 +1,12 @@
+package com.example.jpa.dto.product;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+public record BulkProductRequest(
+    @NotEmpty(message = "Lista de produtos é obrigatória")
+    @Size(max = 100_000, message = "Máximo de 100000 produtos por importação")
+    List<@Valid CreateProductRequest> products
+) {}
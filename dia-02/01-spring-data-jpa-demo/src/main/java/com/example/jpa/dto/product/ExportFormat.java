@@ -0,0 +1,36 @@
+package com.example.jpa.dto.product;
+
+import com.example.jpa.exception.BusinessException;
+
+import java.util.Locale;
+
+// Formatos de GET /api/products/export
+public enum ExportFormat {
+    
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+    
+    private final String mediaType;
+    private final String extension;
+    
+    ExportFormat(String mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+    
+    public String mediaType() {
+        return mediaType;
+    }
+    
+    public String extension() {
+        return extension;
+    }
+    
+    public static ExportFormat from(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException("Formato de exportação inválido: " + value + " (use ndjson ou csv)");
+        }
+    }
+}
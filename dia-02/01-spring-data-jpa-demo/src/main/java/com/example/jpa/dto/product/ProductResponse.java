@@ -15,7 +15,8 @@ public record ProductResponse(
     String categoryName,
     Long categoryId,
     LocalDateTime createdAt,
-    LocalDateTime updatedAt
+    LocalDateTime updatedAt,
+    Long version
 ) {
     public static ProductResponse from(Product product) {
         return new ProductResponse(
@@ -29,7 +30,8 @@ public record ProductResponse(
             product.getCategory() != null ? product.getCategory().getName() : null,
             product.getCategory() != null ? product.getCategory().getId() : null,
             product.getCreatedAt(),
-            product.getUpdatedAt()
+            product.getUpdatedAt(),
+            product.getVersion()
         );
     }
 }
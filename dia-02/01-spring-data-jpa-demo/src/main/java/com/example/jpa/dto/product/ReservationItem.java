@@ -0,0 +1,15 @@
+package com.example.jpa.dto.product;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+public record ReservationItem(
+    @NotNull(message = "Produto é obrigatório")
+    Long productId,
+    
+    @NotNull(message = "Quantidade é obrigatória")
+    @Min(value = 1, message = "Quantidade deve ser maior que zero")
+    @Max(value = 1_000_000, message = "Quantidade deve ser no máximo 1000000")
+    Integer quantity
+) {}
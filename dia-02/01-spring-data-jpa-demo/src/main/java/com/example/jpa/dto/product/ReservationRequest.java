@@ -0,0 +1,13 @@
+package com.example.jpa.dto.product;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+// Reserva de vários produtos (tudo ou nada)
+public record ReservationRequest(
+    @NotEmpty(message = "Lista de itens é obrigatória")
+    @Size(max = 100, message = "Máximo de 100 itens por reserva")
+    List<@Valid ReservationItem> items
+) {}
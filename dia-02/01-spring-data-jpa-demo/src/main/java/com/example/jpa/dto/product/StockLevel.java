@@ -0,0 +1,8 @@
+package com.example.jpa.dto.product;
+
+// Projeção - estoque atual e categoria (delta de category_stats na reserva/devolução)
+public record StockLevel(
+    Long productId,
+    Long categoryId,
+    Integer stock
+) {}
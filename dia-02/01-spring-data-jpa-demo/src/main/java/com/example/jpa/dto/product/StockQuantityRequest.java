@@ -0,0 +1,13 @@
+package com.example.jpa.dto.product;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+// Quantidade a reservar de um produto
+public record StockQuantityRequest(
+    @NotNull(message = "Quantidade é obrigatória")
+    @Min(value = 1, message = "Quantidade deve ser maior que zero")
+    @Max(value = 1_000_000, message = "Quantidade deve ser no máximo 1000000")
+    Integer quantity
+) {}
@@ -0,0 +1,16 @@
+package com.example.jpa.dto.product;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+// Devolução de parte (ou de toda) a quantidade de uma reserva
+public record StockReleaseRequest(
+    @NotNull(message = "Reserva é obrigatória")
+    Long reservationId,
+    
+    @NotNull(message = "Quantidade é obrigatória")
+    @Min(value = 1, message = "Quantidade deve ser maior que zero")
+    @Max(value = 1_000_000, message = "Quantidade deve ser no máximo 1000000")
+    Integer quantity
+) {}
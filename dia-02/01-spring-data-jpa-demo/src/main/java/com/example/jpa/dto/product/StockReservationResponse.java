@@ -0,0 +1,15 @@
+package com.example.jpa.dto.product;
+
+// Resultado de uma reserva/devolução: quantidade movimentada, quanto a reserva
+// ainda segura (limite de devoluções futuras) e estoque que restou
+public record StockReservationResponse(
+    Long reservationId,
+    Long productId,
+    int quantity,
+    int reserved,
+    int stock
+) {
+    public static StockReservationResponse of(Long reservationId, StockLevel level, int quantity, int reserved) {
+        return new StockReservationResponse(reservationId, level.productId(), quantity, reserved, level.stock());
+    }
+}
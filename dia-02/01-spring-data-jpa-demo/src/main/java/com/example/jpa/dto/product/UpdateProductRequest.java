@@ -22,5 +22,8 @@ public record UpdateProductRequest(
     @Size(max = 500, message = "URL da imagem deve ter no máximo 500 caracteres")
     String imageUrl,
     
-    Boolean active
+    Boolean active,
+    
+    // Versão lida pelo cliente (opcional): se o produto mudou desde então, 409
+    Long version
 ) {}
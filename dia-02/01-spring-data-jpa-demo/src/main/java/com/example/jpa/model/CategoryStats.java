@@ -0,0 +1,95 @@
+package com.example.jpa.model;
+
+import com.example.jpa.dto.category.CategoryTotals;
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Totais de produtos por categoria, mantidos na mesma transação de cada escrita
+ * em products (CategoryStatsService). As consultas de dashboard leem esta linha
+ * em vez de agregar a tabela de produtos.
+ */
+@Entity
+@Table(name = "category_stats")
+public class CategoryStats {
+    
+    // Mesma chave da categoria (um para um)
+    @Id
+    @Column(name = "category_id")
+    private Long categoryId;
+    
+    @MapsId
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "category_id")
+    private Category category;
+    
+    @Column(name = "product_count", nullable = false)
+    private long productCount;
+    
+    @Column(name = "in_stock_count", nullable = false)
+    private long inStockCount;
+    
+    @Column(name = "total_stock", nullable = false)
+    private long totalStock;
+    
+    @Column(name = "price_sum", nullable = false, precision = 19, scale = 2)
+    private BigDecimal priceSum = BigDecimal.ZERO;
+    
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+    
+    @PrePersist
+    @PreUpdate
+    protected void onWrite() {
+        updatedAt = LocalDateTime.now();
+    }
+    
+    // Constructors
+    protected CategoryStats() {}
+    
+    public CategoryStats(Category category, CategoryTotals totals) {
+        this.category = category;
+        setTotals(totals);
+    }
+    
+    public CategoryTotals totals() {
+        return new CategoryTotals(productCount, inStockCount, totalStock, priceSum);
+    }
+    
+    public void setTotals(CategoryTotals totals) {
+        this.productCount = totals.productCount();
+        this.inStockCount = totals.inStockCount();
+        this.totalStock = totals.totalStock();
+        this.priceSum = totals.priceSum();
+    }
+    
+    // Getters
+    public Long getCategoryId() {
+        return categoryId;
+    }
+    
+    public Category getCategory() {
+        return category;
+    }
+    
+    public long getProductCount() {
+        return productCount;
+    }
+    
+    public long getInStockCount() {
+        return inStockCount;
+    }
+    
+    public long getTotalStock() {
+        return totalStock;
+    }
+    
+    public BigDecimal getPriceSum() {
+        return priceSum;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.jpa.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Job de manutenção em massa sobre products, executado em lotes por faixa
+ * de id (MaintenanceJobService). O progresso é gravado na mesma transação
+ * de cada lote: depois de um restart o job continua do último lote confirmado.
+ */
+@Entity
+@Table(name = "maintenance_jobs", indexes = {
+    // Jobs a retomar na subida e checagem de job do mesmo tipo em execução
+    @Index(name = "idx_maintenance_jobs_status", columnList = "status")
+})
+public class MaintenanceJob {
+    
+    public enum Type { DEACTIVATE_OUT_OF_STOCK, DELETE_OLD_INACTIVE }
+    
+    public enum Status { RUNNING, COMPLETED, CANCELLED, FAILED }
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "maintenance_jobs_seq")
+    @SequenceGenerator(name = "maintenance_jobs_seq", sequenceName = "maintenance_jobs_seq", allocationSize = 50)
+    private Long id;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    private Type type;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Status status = Status.RUNNING;
+    
+    // Só DELETE_OLD_INACTIVE: remove produtos criados antes desta data
+    @Column(name = "created_before")
+    private LocalDateTime createdBefore;
+    
+    @Column(name = "chunk_size", nullable = false)
+    private int chunkSize;
+    
+    @Column(name = "pause_millis", nullable = false)
+    private long pauseMillis;
+    
+    // Cursor: último id já processado (lotes seguintes começam depois dele)
+    @Column(name = "last_processed_id", nullable = false)
+    private long lastProcessedId;
+    
+    // Maior id na criação do job: produtos criados depois ficam de fora
+    @Column(name = "max_id", nullable = false)
+    private long maxId;
+    
+    @Column(name = "rows_affected", nullable = false)
+    private long rowsAffected;
+    
+    @Column(nullable = false)
+    private int chunks;
+    
+    // Tempo de execução (lotes + pausas), sem contar o tempo com a aplicação parada
+    @Column(name = "elapsed_millis", nullable = false)
+    private long elapsedMillis;
+    
+    @Column(length = 1000)
+    private String error;
+    
+    @Column(name = "started_at", nullable = false, updatable = false)
+    private LocalDateTime startedAt;
+    
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        startedAt = LocalDateTime.now();
+    }
+    
+    // Constructors
+    protected MaintenanceJob() {}
+    
+    public MaintenanceJob(Type type, LocalDateTime createdBefore, int chunkSize, long pauseMillis, long maxId) {
+        this.type = type;
+        this.createdBefore = createdBefore;
+        this.chunkSize = chunkSize;
+        this.pauseMillis = pauseMillis;
+        this.maxId = maxId;
+    }
+    
+    /** Um lote confirmado: avança o cursor e soma as linhas e o tempo. */
+    public void recordChunk(long lastId, int affected, long millis) {
+        lastProcessedId = lastId;
+        rowsAffected += affected;
+        chunks++;
+        elapsedMillis += millis;
+    }
+    
+    public void finish(Status status, String error) {
+        this.status = status;
+        this.error = error;
+        this.finishedAt = LocalDateTime.now();
+    }
+    
+    // Getters
+    public Long getId() {
+        return id;
+    }
+    
+    public Type getType() {
+        return type;
+    }
+    
+    public Status getStatus() {
+        return status;
+    }
+    
+    public LocalDateTime getCreatedBefore() {
+        return createdBefore;
+    }
+    
+    public int getChunkSize() {
+        return chunkSize;
+    }
+    
+    public long getPauseMillis() {
+        return pauseMillis;
+    }
+    
+    public long getLastProcessedId() {
+        return lastProcessedId;
+    }
+    
+    public long getMaxId() {
+        return maxId;
+    }
+    
+    public long getRowsAffected() {
+        return rowsAffected;
+    }
+    
+    public int getChunks() {
+        return chunks;
+    }
+    
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+    
+    public String getError() {
+        return error;
+    }
+    
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+    
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+}
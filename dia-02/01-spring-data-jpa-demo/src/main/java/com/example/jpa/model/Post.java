@@ -1,6 +1,7 @@
 package com.example.jpa.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.HashSet;
@@ -12,7 +13,8 @@ import java.util.Set;
 public class Post {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "posts_seq")
+    @SequenceGenerator(name = "posts_seq", sequenceName = "posts_seq", allocationSize = 50)
     private Long id;
     
     @Column(nullable = false, length = 200)
@@ -34,7 +36,9 @@ public class Post {
     private LocalDateTime updatedAt;
     
     // Um Post tem muitos Comments
+    // @BatchSize: ao acessar a lista de um post, carrega a de até 50 posts da sessão numa query só
     @OneToMany(mappedBy = "post", cascade = CascadeType.ALL, orphanRemoval = true)
+    @BatchSize(size = 50)
     private List<Comment> comments = new ArrayList<>();
     
     // Muitos Posts podem ter muitas Tags (ManyToMany)
@@ -44,6 +48,7 @@ public class Post {
         joinColumns = @JoinColumn(name = "post_id"),
         inverseJoinColumns = @JoinColumn(name = "tag_id")
     )
+    @BatchSize(size = 50)
     private Set<Tag> tags = new HashSet<>();
     
     @PrePersist
@@ -1,15 +1,26 @@
 package com.example.jpa.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+    // Busca exata por nome (existsByName, checagem de duplicados em lote)
+    @Index(name = "idx_products_name", columnList = "name"),
+    // Filtros da busca dinâmica (ProductSpecifications)
+    @Index(name = "idx_products_category", columnList = "category_id"),
+    @Index(name = "idx_products_price", columnList = "price"),
+    @Index(name = "idx_products_active", columnList = "active")
+})
 public class Product {
     
+    // Sequence (pooled): reserva ids em blocos de 50 e permite batch de INSERT
+    // (com IDENTITY o Hibernate precisa executar cada INSERT para saber o id)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "products_seq")
+    @SequenceGenerator(name = "products_seq", sequenceName = "products_seq", allocationSize = 50)
     private Long id;
     
     @Column(nullable = false, length = 200)
@@ -36,6 +47,14 @@ public class Product {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
     
+    // Lock otimista: update()/delete() gravam com "WHERE version = ?" e falham se
+    // outra transação mudou o produto depois da leitura (sem travar a linha ao ler).
+    // Os UPDATEs em massa de estoque também incrementam a versão
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+    
     // Relacionamento: Muitos produtos para uma categoria
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "category_id", nullable = false)
@@ -135,6 +154,10 @@ public class Product {
         this.updatedAt = updatedAt;
     }
     
+    public Long getVersion() {
+        return version;
+    }
+    
     public Category getCategory() {
         return category;
     }
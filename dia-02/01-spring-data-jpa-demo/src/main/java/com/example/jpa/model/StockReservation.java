@@ -0,0 +1,60 @@
+package com.example.jpa.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Reserva de estoque de um produto (ProductService.reserve/reserveAll).
+ * Guarda quanto ainda está reservado: release só devolve até essa quantidade,
+ * então uma devolução nunca cria estoque que não foi reservado antes.
+ */
+@Entity
+@Table(name = "stock_reservations")
+public class StockReservation {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stock_reservations_seq")
+    @SequenceGenerator(name = "stock_reservations_seq", sequenceName = "stock_reservations_seq", allocationSize = 50)
+    private Long id;
+    
+    // Só o id: a reserva é gravada depois do UPDATE condicional, sem carregar o produto
+    @Column(name = "product_id", nullable = false, updatable = false)
+    private Long productId;
+    
+    // Quantidade ainda reservada (diminui a cada devolução)
+    @Column(nullable = false)
+    private int quantity;
+    
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+    
+    // Constructors
+    protected StockReservation() {}
+    
+    public StockReservation(Long productId, int quantity) {
+        this.productId = productId;
+        this.quantity = quantity;
+    }
+    
+    // Getters
+    public Long getId() {
+        return id;
+    }
+    
+    public Long getProductId() {
+        return productId;
+    }
+    
+    public int getQuantity() {
+        return quantity;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
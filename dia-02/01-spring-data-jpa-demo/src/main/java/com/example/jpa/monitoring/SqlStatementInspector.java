@@ -0,0 +1,18 @@
+package com.example.jpa.monitoring;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Conta cada SQL preparado pelo Hibernate na SqlStats da thread. Não altera o SQL.
+ */
+public class SqlStatementInspector implements StatementInspector {
+    
+    @Override
+    public String inspect(String sql) {
+        SqlStats stats = SqlStats.current();
+        if (stats != null) {
+            stats.recordStatement(sql);
+        }
+        return sql;
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.jpa.monitoring;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * SQL executado pela thread atual entre begin() e end(): quantidade de
+ * statements, tempo de JDBC e quantas vezes cada statement se repetiu.
+ *
+ * Quem alimenta são o SqlStatementInspector (statements) e o
+ * SqlTimingListener (tempo); quem abre e fecha é o SqlStatsFilter, por
+ * requisição HTTP, ou SqlAssertions.assertMaxQueries nos testes. Fora
+ * disso current() é null e nada é contado.
+ *
+ * Cada statement preparado conta uma vez; um batch JDBC (vários addBatch
+ * no mesmo PreparedStatement) conta como um.
+ */
+public final class SqlStats {
+    
+    private static final ThreadLocal<SqlStats> CURRENT = new ThreadLocal<>();
+    
+    private static final Pattern COMMENTS = Pattern.compile("/\\*.*?\\*/", Pattern.DOTALL);
+    private static final Pattern IN_LIST = Pattern.compile("\\?(\\s*,\\s*\\?)+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    
+    // SQL exato → execuções; o Hibernate repete a mesma String a cada carga (N+1)
+    private final Map<String, Integer> statements = new LinkedHashMap<>();
+    private int count;
+    private long jdbcNanos;
+    
+    private SqlStats() {}
+    
+    /**
+     * Começa a contar na thread atual (substitui uma contagem em andamento).
+     */
+    public static SqlStats begin() {
+        SqlStats stats = new SqlStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+    
+    /**
+     * Contagem em andamento na thread atual, ou null.
+     */
+    public static SqlStats current() {
+        return CURRENT.get();
+    }
+    
+    /**
+     * Para de contar na thread atual.
+     */
+    public static void end() {
+        CURRENT.remove();
+    }
+    
+    void recordStatement(String sql) {
+        count++;
+        statements.merge(sql, 1, Integer::sum);
+    }
+    
+    void recordJdbcTime(long nanos) {
+        jdbcNanos += nanos;
+    }
+    
+    public int count() {
+        return count;
+    }
+    
+    public long jdbcNanos() {
+        return jdbcNanos;
+    }
+    
+    public double jdbcMillis() {
+        return jdbcNanos / 1_000_000.0;
+    }
+    
+    /**
+     * Statements distintos, na ordem da primeira execução.
+     */
+    public Set<String> statements() {
+        return statements.keySet();
+    }
+    
+    /**
+     * Execuções de cada formato de statement (ver shape), na ordem da primeira execução.
+     */
+    public Map<String, Integer> countsByShape() {
+        Map<String, Integer> shapes = new LinkedHashMap<>();
+        statements.forEach((sql, executions) -> shapes.merge(shape(sql), executions, Integer::sum));
+        return shapes;
+    }
+    
+    /**
+     * Formatos executados mais de {@code threshold} vezes: o sintoma de N+1.
+     */
+    public Map<String, Integer> repeatedShapes(int threshold) {
+        Map<String, Integer> repeated = new LinkedHashMap<>();
+        countsByShape().forEach((shape, executions) -> {
+            if (executions > threshold) {
+                repeated.put(shape, executions);
+            }
+        });
+        return repeated;
+    }
+    
+    /**
+     * Formato do statement: sem comentários, espaços normalizados e listas
+     * IN (?, ?, ?) reduzidas a (?), para que variações do mesmo SQL contem juntas.
+     */
+    static String shape(String sql) {
+        String shape = COMMENTS.matcher(sql).replaceAll(" ");
+        shape = IN_LIST.matcher(shape).replaceAll("?");
+        return WHITESPACE.matcher(shape).replaceAll(" ").trim();
+    }
+    
+    @Override
+    public String toString() {
+        StringBuilder out = new StringBuilder()
+            .append(count).append(" statements, ")
+            .append(String.format(Locale.ROOT, "%.2f", jdbcMillis())).append(" ms");
+        countsByShape().forEach((shape, executions) -> out.append("\n  ").append(executions).append("x ").append(shape));
+        return out.toString();
+    }
+}
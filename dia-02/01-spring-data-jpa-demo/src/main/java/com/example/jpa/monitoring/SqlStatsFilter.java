@@ -0,0 +1,132 @@
+package com.example.jpa.monitoring;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Conta o SQL de cada requisição HTTP.
+ *
+ * - Headers X-SQL-Count (statements) e X-SQL-Time (ms de JDBC), gravados
+ *   quando a resposta começa a ser escrita (depois disso headers não mudam).
+ *   Corpos escritos em outra thread (StreamingResponseBody) ficam sem eles:
+ *   o SQL dessas threads não é contado
+ * - Warning no log quando o mesmo formato de statement se repete mais de
+ *   repeatThreshold vezes: o padrão de um N+1
+ */
+public class SqlStatsFilter extends OncePerRequestFilter {
+    
+    public static final String COUNT_HEADER = "X-SQL-Count";
+    public static final String TIME_HEADER = "X-SQL-Time";
+    
+    private static final Logger log = LoggerFactory.getLogger(SqlStatsFilter.class);
+    
+    // Tamanho máximo do SQL mostrado no warning
+    private static final int MAX_SQL_IN_LOG = 300;
+    
+    private final int repeatThreshold;
+    
+    public SqlStatsFilter(int repeatThreshold) {
+        this.repeatThreshold = repeatThreshold;
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        SqlStats stats = SqlStats.begin();
+        StatsHeadersResponse wrapped = new StatsHeadersResponse(response, stats);
+        try {
+            chain.doFilter(request, wrapped);
+            // Respostas sem corpo (204, 201 sem body...)
+            wrapped.writeHeaders();
+        } finally {
+            SqlStats.end();
+            warnRepeated(request, stats);
+        }
+    }
+    
+    private void warnRepeated(HttpServletRequest request, SqlStats stats) {
+        Map<String, Integer> repeated = stats.repeatedShapes(repeatThreshold);
+        repeated.forEach((shape, executions) -> log.warn(
+            "⚠️ Possible N+1: {}x same statement in {} {} ({} statements total): {}",
+            executions, request.getMethod(), request.getRequestURI(), stats.count(), abbreviate(shape)));
+    }
+    
+    private static String abbreviate(String sql) {
+        return sql.length() <= MAX_SQL_IN_LOG ? sql : sql.substring(0, MAX_SQL_IN_LOG) + "...";
+    }
+    
+    /**
+     * Grava os headers no último momento em que ainda é possível: antes do
+     * primeiro byte do corpo, de um erro ou de um redirect.
+     */
+    private static final class StatsHeadersResponse extends HttpServletResponseWrapper {
+        
+        private final SqlStats stats;
+        private boolean headersWritten;
+        
+        StatsHeadersResponse(HttpServletResponse response, SqlStats stats) {
+            super(response);
+            this.stats = stats;
+        }
+        
+        void writeHeaders() {
+            if (headersWritten) {
+                return;
+            }
+            headersWritten = true;
+            // Só a thread da requisição tem a contagem; a de um corpo assíncrono, não
+            if (SqlStats.current() == stats && !isCommitted()) {
+                setHeader(COUNT_HEADER, Integer.toString(stats.count()));
+                setHeader(TIME_HEADER, String.format(Locale.ROOT, "%.2f", stats.jdbcMillis()));
+            }
+        }
+        
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            writeHeaders();
+            return super.getOutputStream();
+        }
+        
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            writeHeaders();
+            return super.getWriter();
+        }
+        
+        @Override
+        public void flushBuffer() throws IOException {
+            writeHeaders();
+            super.flushBuffer();
+        }
+        
+        @Override
+        public void sendError(int sc) throws IOException {
+            writeHeaders();
+            super.sendError(sc);
+        }
+        
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            writeHeaders();
+            super.sendError(sc, msg);
+        }
+        
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            writeHeaders();
+            super.sendRedirect(location);
+        }
+    }
+}
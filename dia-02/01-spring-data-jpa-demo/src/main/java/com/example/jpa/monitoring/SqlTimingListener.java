@@ -0,0 +1,50 @@
+package com.example.jpa.monitoring;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Soma o tempo de execução JDBC (execute e executeBatch) na SqlStats da thread.
+ *
+ * O Hibernate cria uma instância por Session (hibernate.session.events.auto),
+ * e uma Session é usada por uma thread de cada vez.
+ */
+public class SqlTimingListener implements SessionEventListener {
+    
+    private boolean timing;
+    private long start;
+    
+    @Override
+    public void jdbcExecuteStatementStart() {
+        startTiming();
+    }
+    
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        stopTiming();
+    }
+    
+    @Override
+    public void jdbcExecuteBatchStart() {
+        startTiming();
+    }
+    
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        stopTiming();
+    }
+    
+    private void startTiming() {
+        timing = SqlStats.current() != null;
+        if (timing) {
+            start = System.nanoTime();
+        }
+    }
+    
+    private void stopTiming() {
+        SqlStats stats = SqlStats.current();
+        if (timing && stats != null) {
+            stats.recordJdbcTime(System.nanoTime() - start);
+        }
+        timing = false;
+    }
+}
@@ -1,8 +1,11 @@
 package com.example.jpa.repository;
 
 import com.example.jpa.model.Category;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -17,6 +20,14 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
     
     boolean existsByName(String name);
     
+    @Query("SELECT c.id FROM Category c ORDER BY c.id")
+    List<Long> findAllIds();
+    
+    // Query cache: invalidada pelo Hibernate a cada escrita em categories
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "categories-query")
+    })
     @Query("SELECT c FROM Category c WHERE c.active = true ORDER BY c.name")
     List<Category> findAllActiveOrdered();
     
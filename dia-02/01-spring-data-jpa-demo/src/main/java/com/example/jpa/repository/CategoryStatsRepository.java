@@ -0,0 +1,45 @@
+package com.example.jpa.repository;
+
+import com.example.jpa.model.CategoryStats;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface CategoryStatsRepository extends JpaRepository<CategoryStats, Long> {
+    
+    // Soma a diferença no próprio UPDATE (não lê-calcula-grava): escritas concorrentes
+    // na mesma categoria esperam o lock da linha e nenhuma se perde.
+    // Retorna 0 se a categoria ainda não tem linha.
+    // flushAutomatically: as mudanças pendentes em products vão antes, então a linha do
+    // produto é travada antes da de category_stats (mesma ordem dos UPDATEs em massa)
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE CategoryStats s SET " +
+           "s.productCount = s.productCount + :productCount, " +
+           "s.inStockCount = s.inStockCount + :inStockCount, " +
+           "s.totalStock = s.totalStock + :totalStock, " +
+           "s.priceSum = s.priceSum + :priceSum, " +
+           "s.updatedAt = LOCAL DATETIME " +
+           "WHERE s.categoryId = :categoryId")
+    int addTotals(@Param("categoryId") Long categoryId,
+                  @Param("productCount") long productCount,
+                  @Param("inStockCount") long inStockCount,
+                  @Param("totalStock") long totalStock,
+                  @Param("priceSum") BigDecimal priceSum);
+    
+    // SELECT ... FOR UPDATE em ordem de id (mesma ordem em todas as transações: sem deadlock)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM CategoryStats s WHERE s.categoryId IN :categoryIds ORDER BY s.categoryId")
+    List<CategoryStats> findAllForUpdate(@Param("categoryIds") Collection<Long> categoryIds);
+    
+    @Query("SELECT s FROM CategoryStats s ORDER BY s.categoryId")
+    List<CategoryStats> findAllOrdered();
+}
@@ -0,0 +1,28 @@
+package com.example.jpa.repository;
+
+import com.example.jpa.model.MaintenanceJob;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface MaintenanceJobRepository extends JpaRepository<MaintenanceJob, Long> {
+    
+    // Cada lote trava a linha do job: o cancelamento espera o lote em andamento
+    // terminar, e o lote seguinte já vê o status CANCELLED
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT j FROM MaintenanceJob j WHERE j.id = :id")
+    Optional<MaintenanceJob> findByIdForUpdate(@Param("id") Long id);
+    
+    List<MaintenanceJob> findByStatusOrderById(MaintenanceJob.Status status);
+    
+    boolean existsByTypeAndStatus(MaintenanceJob.Type type, MaintenanceJob.Status status);
+    
+    List<MaintenanceJob> findTop20ByOrderByIdDesc();
+}
@@ -1,5 +1,7 @@
 package com.example.jpa.repository;
 
+import com.example.jpa.dto.post.PostSummary;
+import com.example.jpa.dto.post.PostTagName;
 import com.example.jpa.model.Post;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -8,6 +10,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -22,10 +25,11 @@ public interface PostRepository extends JpaRepository<Post, Long> {
     
     Page<Post> findByTitleContainingIgnoreCase(String keyword, Pageable pageable);
     
-    // JOIN FETCH para evitar N+1 (carregar comments e tags junto)
+    // JOIN FETCH para evitar N+1 (carregar comments junto)
+    // Buscar comments e tags no mesmo JOIN multiplicaria as linhas (comments x tags)
+    // e duplicaria a lista de comments; as tags vêm numa segunda query (@BatchSize)
     @Query("SELECT DISTINCT p FROM Post p " +
            "LEFT JOIN FETCH p.comments " +
-           "LEFT JOIN FETCH p.tags " +
            "WHERE p.id = :id")
     Optional<Post> findByIdWithDetails(@Param("id") Long id);
     
@@ -34,4 +38,25 @@ public interface PostRepository extends JpaRepository<Post, Long> {
     
     @Query("SELECT COUNT(c) FROM Post p JOIN p.comments c WHERE p.id = :postId")
     long countCommentsByPostId(@Param("postId") Long postId);
+    
+    // ========== Listagem (projeção + tags: duas queries para qualquer quantidade de posts) ==========
+    
+    // Contagem por subquery correlacionada: usa idx_comments_post e não lê as linhas de comments
+    String SUMMARY_SELECT = "SELECT new com.example.jpa.dto.post.PostSummary(" +
+           "p.id, p.title, p.content, p.author, p.published, " +
+           "(SELECT COUNT(c) FROM Comment c WHERE c.post = p), " +
+           "p.createdAt, p.updatedAt) FROM Post p";
+    
+    @Query(SUMMARY_SELECT)
+    List<PostSummary> findAllSummaries();
+    
+    @Query(value = SUMMARY_SELECT, countQuery = "SELECT COUNT(p) FROM Post p")
+    Page<PostSummary> findAllSummaries(Pageable pageable);
+    
+    @Query(SUMMARY_SELECT + " WHERE p.published = :published")
+    List<PostSummary> findSummariesByPublished(@Param("published") Boolean published);
+    
+    @Query("SELECT new com.example.jpa.dto.post.PostTagName(p.id, t.name) " +
+           "FROM Post p JOIN p.tags t WHERE p.id IN :postIds")
+    List<PostTagName> findTagNamesByPostIds(@Param("postIds") Collection<Long> postIds);
 }
@@ -1,22 +1,35 @@
 package com.example.jpa.repository;
 
+import com.example.jpa.dto.category.CategoryTotals;
 import com.example.jpa.dto.product.ProductSummary;
+import com.example.jpa.dto.product.StockLevel;
 import com.example.jpa.model.Product;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product> {
     
     // ========== Query Methods (Spring gera automaticamente) ==========
     
@@ -60,6 +73,11 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     @Query("SELECT DISTINCT p FROM Product p LEFT JOIN FETCH p.category WHERE p.id = :id")
     Optional<Product> findByIdWithCategory(@Param("id") Long id);
     
+    // SELECT ... FOR UPDATE: os valores lidos (preço, estoque, categoria) não mudam até o commit
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Product p WHERE p.id = :id")
+    Optional<Product> findByIdForUpdate(@Param("id") Long id);
+    
     // Agregação
     @Query("SELECT AVG(p.price) FROM Product p WHERE p.category.id = :categoryId")
     BigDecimal getAveragePriceByCategory(@Param("categoryId") Long categoryId);
@@ -70,11 +88,31 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     @Query("SELECT SUM(p.stock) FROM Product p WHERE p.category.id = :categoryId")
     Long getTotalStockByCategory(@Param("categoryId") Long categoryId);
     
+    // Totais de category_stats calculados do zero (reconciliação e operações em massa).
+    // Sem GROUP BY: categoria sem produtos devolve uma linha de zeros
+    @Query("SELECT new com.example.jpa.dto.category.CategoryTotals(COUNT(p), " +
+           "COALESCE(SUM(CASE WHEN p.stock > 0 THEN 1L ELSE 0L END), 0L), " +
+           "COALESCE(SUM(p.stock), 0L), COALESCE(SUM(p.price), 0)) " +
+           "FROM Product p WHERE p.category.id = :categoryId")
+    CategoryTotals computeTotals(@Param("categoryId") Long categoryId);
+    
+    // Duplicados em lote: quais destes nomes já existem (uma query por bloco de nomes)
+    @Query("SELECT p.name FROM Product p WHERE p.name IN :names")
+    List<String> findExistingNames(@Param("names") Collection<String> names);
+    
     // DTO Projection
     @Query("SELECT new com.example.jpa.dto.product.ProductSummary(p.id, p.name, p.price) " +
            "FROM Product p WHERE p.active = true ORDER BY p.name")
     List<ProductSummary> findAllSummaries();
     
+    // Exportação: projeção em Stream (nada entra no persistence context), lida em blocos
+    // de fetchSize linhas pelo driver; ORDER BY id segue a chave primária, sem sort.
+    // Precisa de transação aberta enquanto o Stream é consumido, e de close() no fim.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.example.jpa.dto.product.ProductSummary(p.id, p.name, p.price) " +
+           "FROM Product p ORDER BY p.id")
+    Stream<ProductSummary> streamAllSummaries();
+    
     // ========== @Query Native SQL ==========
     
     @Query(value = "SELECT * FROM products WHERE LOWER(name) LIKE LOWER(CONCAT('%', :keyword, '%'))", 
@@ -88,32 +126,71 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     
     // ========== @Modifying - UPDATE/DELETE ==========
     
+    // UPDATEs em massa incrementam version: quem leu o produto antes falha no lock otimista
+    // em vez de sobrescrever a mudança
     @Modifying
-    @Query("UPDATE Product p SET p.active = false WHERE p.stock = 0")
+    @Query("UPDATE Product p SET p.active = false, p.version = p.version + 1 WHERE p.stock = 0")
     int deactivateOutOfStock();
     
     @Modifying
-    @Query("UPDATE Product p SET p.stock = :stock WHERE p.id = :id")
+    @Query("UPDATE Product p SET p.stock = :stock, p.version = p.version + 1 WHERE p.id = :id")
     int updateStock(@Param("id") Long id, @Param("stock") Integer stock);
     
+    // Reserva: confere e baixa o estoque no mesmo statement (sem ler antes, nada a sobrevender).
+    // 0 linhas = estoque insuficiente ou produto inexistente
+    @Modifying
+    @Query("UPDATE Product p SET p.stock = p.stock - :quantity, p.version = p.version + 1 " +
+           "WHERE p.id = :id AND p.stock >= :quantity")
+    int reserveStock(@Param("id") Long id, @Param("quantity") int quantity);
+    
+    @Modifying
+    @Query("UPDATE Product p SET p.stock = p.stock + :quantity, p.version = p.version + 1 WHERE p.id = :id")
+    int releaseStock(@Param("id") Long id, @Param("quantity") int quantity);
+    
+    // Estoque depois de reserveStock/releaseStock (a linha continua travada pelo UPDATE até o commit)
+    @Query("SELECT new com.example.jpa.dto.product.StockLevel(p.id, p.category.id, p.stock) " +
+           "FROM Product p WHERE p.id = :id")
+    Optional<StockLevel> findStockLevel(@Param("id") Long id);
+    
     @Modifying
     @Query("DELETE FROM Product p WHERE p.createdAt < :date AND p.active = false")
     int deleteOldInactive(@Param("date") LocalDateTime date);
     
-    // ========== Custom Complex Query ==========
-    
-    @Query("SELECT p FROM Product p WHERE " +
-           "(:name IS NULL OR LOWER(p.name) LIKE LOWER(CONCAT('%', :name, '%'))) AND " +
-           "(:categoryId IS NULL OR p.category.id = :categoryId) AND " +
-           "(:minPrice IS NULL OR p.price >= :minPrice) AND " +
-           "(:maxPrice IS NULL OR p.price <= :maxPrice) AND " +
-           "(:active IS NULL OR p.active = :active)")
-    Page<Product> searchProducts(
-        @Param("name") String name,
-        @Param("categoryId") Long categoryId,
-        @Param("minPrice") BigDecimal minPrice,
-        @Param("maxPrice") BigDecimal maxPrice,
-        @Param("active") Boolean active,
-        Pageable pageable
-    );
+    // Categorias atingidas por deleteOldInactive (mesmo filtro)
+    @Query("SELECT DISTINCT p.category.id FROM Product p WHERE p.createdAt < :date AND p.active = false")
+    List<Long> findCategoryIdsOfOldInactive(@Param("date") LocalDateTime date);
+    
+    // ========== Lotes por faixa de id (MaintenanceJobService) ==========
+    
+    @Query("SELECT COALESCE(MAX(p.id), 0) FROM Product p")
+    long findMaxId();
+    
+    // Próximo lote: ids depois do cursor, pelo índice da PK (sem OFFSET)
+    @Query("SELECT p.id FROM Product p WHERE p.id > :afterId AND p.id <= :maxId ORDER BY p.id")
+    List<Long> findIdsInRange(@Param("afterId") long afterId, @Param("maxId") long maxId, Limit limit);
+    
+    // Mesmo filtro de deactivateOutOfStock, só na faixa (fromId, toId]; pula os já inativos
+    @Modifying
+    @Query("UPDATE Product p SET p.active = false, p.version = p.version + 1 " +
+           "WHERE p.stock = 0 AND p.active = true AND p.id > :fromId AND p.id <= :toId")
+    int deactivateOutOfStockInRange(@Param("fromId") long fromId, @Param("toId") long toId);
+    
+    @Modifying
+    @Query("DELETE FROM Product p WHERE p.createdAt < :date AND p.active = false " +
+           "AND p.id > :fromId AND p.id <= :toId")
+    int deleteOldInactiveInRange(@Param("date") LocalDateTime date,
+                                 @Param("fromId") long fromId, @Param("toId") long toId);
+    
+    @Query("SELECT DISTINCT p.category.id FROM Product p WHERE p.createdAt < :date AND p.active = false " +
+           "AND p.id > :fromId AND p.id <= :toId")
+    List<Long> findCategoryIdsOfOldInactiveInRange(@Param("date") LocalDateTime date,
+                                                   @Param("fromId") long fromId, @Param("toId") long toId);
+    
+    // ========== Specifications (busca dinâmica) ==========
+    
+    // Sobrescreve o método de JpaSpecificationExecutor para trazer a categoria
+    // no mesmo SELECT (ProductResponse usa o nome dela)
+    @Override
+    @EntityGraph(attributePaths = "category")
+    Page<Product> findAll(Specification<Product> spec, Pageable pageable);
 }
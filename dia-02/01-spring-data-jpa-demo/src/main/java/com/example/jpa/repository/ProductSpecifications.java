@@ -0,0 +1,75 @@
+package com.example.jpa.repository;
+
+import com.example.jpa.model.Product;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.util.Locale;
+
+/**
+ * Filtros da busca de produtos, um predicado por critério.
+ * 
+ * A busca combina apenas os filtros informados: cada combinação gera um SQL
+ * próprio, e o banco escolhe um plano com o índice certo. No lugar de
+ * "(:x IS NULL OR ...)", que força um plano genérico (full scan) para todas.
+ */
+public final class ProductSpecifications {
+    
+    private ProductSpecifications() {}
+    
+    /**
+     * Combina os filtros não nulos. Sem nenhum filtro, retorna todos.
+     */
+    public static Specification<Product> search(
+            String name,
+            Long categoryId,
+            BigDecimal minPrice,
+            BigDecimal maxPrice,
+            Boolean active) {
+        
+        Specification<Product> spec = Specification.where(null);
+        if (name != null && !name.isBlank()) {
+            spec = spec.and(nameContains(name));
+        }
+        if (categoryId != null) {
+            spec = spec.and(inCategory(categoryId));
+        }
+        if (minPrice != null) {
+            spec = spec.and(priceAtLeast(minPrice));
+        }
+        if (maxPrice != null) {
+            spec = spec.and(priceAtMost(maxPrice));
+        }
+        if (active != null) {
+            spec = spec.and(hasActive(active));
+        }
+        return spec;
+    }
+    
+    // LIKE '%x%' não usa índice B-tree: é o único filtro que depende dos outros para não varrer a tabela
+    public static Specification<Product> nameContains(String name) {
+        String pattern = "%" + escapeLike(name.toLowerCase(Locale.ROOT)) + "%";
+        return (root, query, cb) -> cb.like(cb.lower(root.get("name")), pattern, '\\');
+    }
+    
+    public static Specification<Product> inCategory(Long categoryId) {
+        return (root, query, cb) -> cb.equal(root.get("category").get("id"), categoryId);
+    }
+    
+    public static Specification<Product> priceAtLeast(BigDecimal minPrice) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("price"), minPrice);
+    }
+    
+    public static Specification<Product> priceAtMost(BigDecimal maxPrice) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("price"), maxPrice);
+    }
+    
+    public static Specification<Product> hasActive(Boolean active) {
+        return (root, query, cb) -> cb.equal(root.get("active"), active);
+    }
+    
+    // % e _ digitados pelo usuário são literais, não curingas
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
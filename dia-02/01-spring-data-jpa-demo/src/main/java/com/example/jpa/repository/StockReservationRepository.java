@@ -0,0 +1,26 @@
+package com.example.jpa.repository;
+
+import com.example.jpa.model.StockReservation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface StockReservationRepository extends JpaRepository<StockReservation, Long> {
+    
+    // Devolução: confere e baixa a quantidade reservada no mesmo statement, como reserveStock.
+    // Duas devoluções da mesma reserva esperam o lock da linha e nunca passam do reservado.
+    // 0 linhas = reserva inexistente, de outro produto ou com menos que a quantidade pedida
+    @Modifying
+    @Query("UPDATE StockReservation r SET r.quantity = r.quantity - :quantity " +
+           "WHERE r.id = :id AND r.productId = :productId AND r.quantity >= :quantity")
+    int release(@Param("id") Long id, @Param("productId") Long productId, @Param("quantity") int quantity);
+    
+    // Quantidade que restou depois de release (lida no banco, não no contexto de persistência)
+    @Query("SELECT r.quantity FROM StockReservation r WHERE r.id = :id")
+    Optional<Integer> findQuantity(@Param("id") Long id);
+}
@@ -0,0 +1,86 @@
+package com.example.jpa.service;
+
+import com.example.jpa.config.CacheProperties;
+import com.example.jpa.dto.cache.CacheRegionStats;
+import com.example.jpa.exception.ResourceNotFoundException;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import java.util.List;
+
+/**
+ * Estatísticas e eviction manual do cache de segundo nível.
+ *
+ * Escritas feitas pelo Hibernate já mantêm o cache em dia (entidades
+ * READ_WRITE são atualizadas e as queries cacheadas das tabelas alteradas
+ * são invalidadas). A eviction manual serve para mudanças feitas fora da
+ * aplicação, direto no banco.
+ */
+@Service
+public class CacheService {
+    
+    private final SessionFactory sessionFactory;
+    private final CacheManager cacheManager;
+    private final CacheProperties cacheProperties;
+    
+    public CacheService(EntityManagerFactory entityManagerFactory, CacheManager cacheManager,
+                        CacheProperties cacheProperties) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.cacheManager = cacheManager;
+        this.cacheProperties = cacheProperties;
+    }
+    
+    public List<CacheRegionStats> stats() {
+        Statistics statistics = sessionFactory.getStatistics();
+        return cacheProperties.regions().entrySet().stream()
+            .map(entry -> {
+                String name = entry.getKey();
+                long hits, misses, puts;
+                if (RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME.equals(name)) {
+                    // A região de timestamps tem contadores próprios
+                    hits = statistics.getUpdateTimestampsCacheHitCount();
+                    misses = statistics.getUpdateTimestampsCacheMissCount();
+                    puts = statistics.getUpdateTimestampsCachePutCount();
+                } else {
+                    CacheRegionStatistics region = statistics.getCacheRegionStatistics(name);
+                    hits = region != null ? region.getHitCount() : 0;
+                    misses = region != null ? region.getMissCount() : 0;
+                    puts = region != null ? region.getPutCount() : 0;
+                }
+                long lookups = hits + misses;
+                return new CacheRegionStats(
+                    name,
+                    hits,
+                    misses,
+                    puts,
+                    lookups == 0 ? 0 : (double) hits / lookups,
+                    estimatedSize(name),
+                    entry.getValue().maxSize(),
+                    entry.getValue().ttl()
+                );
+            })
+            .toList();
+    }
+    
+    public void evict(String region) {
+        if (!cacheProperties.regions().containsKey(region)) {
+            throw new ResourceNotFoundException("Cache region", "name", region);
+        }
+        sessionFactory.getCache().evictRegion(region);
+    }
+    
+    public void evictAll() {
+        sessionFactory.getCache().evictAll();
+    }
+    
+    private long estimatedSize(String region) {
+        Cache<Object, Object> cache = cacheManager.getCache(region);
+        return cache == null ? 0 : cache.unwrap(com.github.benmanes.caffeine.cache.Cache.class).estimatedSize();
+    }
+}
@@ -10,32 +10,39 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
 
 @Service
 @Transactional(readOnly = true)
 public class CategoryService {
     
     private final CategoryRepository categoryRepository;
+    private final CategoryStatsService categoryStatsService;
     
-    public CategoryService(CategoryRepository categoryRepository) {
+    public CategoryService(CategoryRepository categoryRepository, CategoryStatsService categoryStatsService) {
         this.categoryRepository = categoryRepository;
+        this.categoryStatsService = categoryStatsService;
     }
     
     public CategoryResponse findById(Long id) {
         Category category = categoryRepository.findById(id)
             .orElseThrow(() -> new ResourceNotFoundException("Category", "id", id));
-        return CategoryResponse.from(category);
+        return CategoryResponse.from(category, categoryStatsService.findByCategoryId(id).productCount());
     }
     
     public List<CategoryResponse> findAll() {
-        return categoryRepository.findAll().stream()
-            .map(CategoryResponse::from)
-            .toList();
+        return withProductCounts(categoryRepository.findAll());
     }
     
     public List<CategoryResponse> findAllActive() {
-        return categoryRepository.findByActive(true).stream()
-            .map(CategoryResponse::from)
+        return withProductCounts(categoryRepository.findAllActiveOrdered());
+    }
+    
+    // Contagens de todas as categorias em uma query (category_stats)
+    private List<CategoryResponse> withProductCounts(List<Category> categories) {
+        Map<Long, Long> counts = categoryStatsService.productCounts();
+        return categories.stream()
+            .map(category -> CategoryResponse.from(category, counts.getOrDefault(category.getId(), 0L)))
             .toList();
     }
     
@@ -47,7 +54,8 @@ public class CategoryService {
         
         Category category = new Category(request.name(), request.description());
         Category saved = categoryRepository.save(category);
-        return CategoryResponse.from(saved);
+        categoryStatsService.createFor(saved);
+        return CategoryResponse.from(saved, 0);
     }
     
     @Transactional
@@ -67,7 +75,7 @@ public class CategoryService {
         category.setDescription(request.description());
         
         Category updated = categoryRepository.save(category);
-        return CategoryResponse.from(updated);
+        return CategoryResponse.from(updated, categoryStatsService.findByCategoryId(id).productCount());
     }
     
     @Transactional
@@ -75,6 +83,8 @@ public class CategoryService {
         if (!categoryRepository.existsById(id)) {
             throw new ResourceNotFoundException("Category", "id", id);
         }
+        // A linha de category_stats referencia a categoria (FK): sai antes
+        categoryStatsService.deleteFor(id);
         categoryRepository.deleteById(id);
     }
 }
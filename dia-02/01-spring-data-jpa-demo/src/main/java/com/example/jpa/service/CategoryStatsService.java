@@ -0,0 +1,191 @@
+package com.example.jpa.service;
+
+import com.example.jpa.dto.category.CategoryStatsDrift;
+import com.example.jpa.dto.category.CategoryStatsResponse;
+import com.example.jpa.dto.category.CategoryTotals;
+import com.example.jpa.dto.category.StatsReconcileReport;
+import com.example.jpa.exception.ResourceNotFoundException;
+import com.example.jpa.model.Category;
+import com.example.jpa.model.CategoryStats;
+import com.example.jpa.repository.CategoryRepository;
+import com.example.jpa.repository.CategoryStatsRepository;
+import com.example.jpa.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeSet;
+
+/**
+ * Manutenção e leitura de category_stats.
+ *
+ * - Escritas de um produto (create/update/delete/importBulk): add() soma a
+ *   diferença com um UPDATE atômico, na transação de quem mudou o produto
+ * - UPDATE/DELETE em massa: recompute() trava as linhas das categorias
+ *   atingidas e recalcula a partir de products
+ * - Reconciliação (agendada e sob demanda): recompute() em todas as
+ *   categorias, uma transação por categoria, relatando o que divergia
+ *
+ * O lock da linha de category_stats é sempre o último a ser pego, e em ordem
+ * de id: quem recalcula espera quem está no meio de uma escrita (e vice-versa),
+ * então nenhuma diferença se perde nem é contada duas vezes.
+ */
+@Service
+@Transactional(readOnly = true)
+public class CategoryStatsService {
+    
+    private static final Logger log = LoggerFactory.getLogger(CategoryStatsService.class);
+    
+    private final CategoryStatsRepository statsRepository;
+    private final CategoryRepository categoryRepository;
+    private final ProductRepository productRepository;
+    private final TransactionTemplate transactionTemplate;
+    
+    public CategoryStatsService(CategoryStatsRepository statsRepository, CategoryRepository categoryRepository,
+                                ProductRepository productRepository, PlatformTransactionManager transactionManager) {
+        this.statsRepository = statsRepository;
+        this.categoryRepository = categoryRepository;
+        this.productRepository = productRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+    
+    // ========== Leitura ==========
+    
+    public CategoryStatsResponse findByCategoryId(Long categoryId) {
+        return statsRepository.findById(categoryId)
+            .map(CategoryStatsResponse::from)
+            .orElseGet(() -> computeWithoutRow(categoryId));
+    }
+    
+    public List<CategoryStatsResponse> findAll() {
+        return statsRepository.findAllOrdered().stream()
+            .map(CategoryStatsResponse::from)
+            .toList();
+    }
+    
+    /** Média de preço da categoria (null se não tem produtos). */
+    public BigDecimal averagePrice(Long categoryId) {
+        return findByCategoryId(categoryId).averagePrice();
+    }
+    
+    /** Quantidade de produtos por categoria, em uma query. */
+    public Map<Long, Long> productCounts() {
+        Map<Long, Long> counts = new HashMap<>();
+        statsRepository.findAll().forEach(stats -> counts.put(stats.getCategoryId(), stats.getProductCount()));
+        return counts;
+    }
+    
+    // Categoria criada fora da aplicação (ainda sem linha): agrega products, sem gravar
+    private CategoryStatsResponse computeWithoutRow(Long categoryId) {
+        if (!categoryRepository.existsById(categoryId)) {
+            throw new ResourceNotFoundException("Category", "id", categoryId);
+        }
+        return CategoryStatsResponse.of(categoryId, productRepository.computeTotals(categoryId), null);
+    }
+    
+    // ========== Manutenção (na transação de quem escreve) ==========
+    
+    @Transactional
+    public void createFor(Category category) {
+        statsRepository.save(new CategoryStats(category, CategoryTotals.ZERO));
+    }
+    
+    @Transactional
+    public void deleteFor(Long categoryId) {
+        statsRepository.findById(categoryId).ifPresent(statsRepository::delete);
+    }
+    
+    /**
+     * Soma a diferença aos totais da categoria.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void add(Long categoryId, CategoryTotals delta) {
+        if (delta.isZero()) {
+            return;
+        }
+        int updated = statsRepository.addTotals(categoryId, delta.productCount(), delta.inStockCount(),
+            delta.totalStock(), delta.priceSum());
+        if (updated == 0) {
+            // Sem linha: recalcula do zero (a query vê as mudanças desta transação)
+            recompute(List.of(categoryId));
+        }
+    }
+    
+    /**
+     * Várias categorias de uma vez, em ordem de id (SortedMap).
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void add(SortedMap<Long, CategoryTotals> deltas) {
+        deltas.forEach(this::add);
+    }
+    
+    /**
+     * Recalcula as categorias a partir de products, com as linhas travadas.
+     * Para UPDATE/DELETE em massa: chamar depois do statement, na mesma transação.
+     *
+     * @return categorias que estavam divergentes (já corrigidas)
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<CategoryStatsDrift> recompute(Collection<Long> categoryIds) {
+        TreeSet<Long> ids = new TreeSet<>(categoryIds);
+        Map<Long, CategoryStats> locked = new HashMap<>();
+        statsRepository.findAllForUpdate(ids).forEach(stats -> locked.put(stats.getCategoryId(), stats));
+        
+        List<CategoryStatsDrift> drifts = new ArrayList<>();
+        for (Long categoryId : ids) {
+            CategoryTotals actual = productRepository.computeTotals(categoryId);
+            CategoryStats stats = locked.get(categoryId);
+            if (stats == null) {
+                statsRepository.save(new CategoryStats(categoryRepository.getReferenceById(categoryId), actual));
+                drifts.add(new CategoryStatsDrift(categoryId, null, actual));
+            } else if (!stats.totals().equals(actual)) {
+                drifts.add(new CategoryStatsDrift(categoryId, stats.totals(), actual));
+                stats.setTotals(actual);
+            }
+        }
+        return drifts;
+    }
+    
+    // ========== Reconciliação ==========
+    
+    /**
+     * Recalcula todas as categorias e corrige as divergentes. Uma transação
+     * por categoria: as escritas em uma categoria só esperam enquanto ela
+     * está sendo recalculada.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public StatsReconcileReport reconcile() {
+        long start = System.nanoTime();
+        List<Long> categoryIds = categoryRepository.findAllIds();
+        List<CategoryStatsDrift> drifts = new ArrayList<>();
+        for (Long categoryId : categoryIds) {
+            drifts.addAll(transactionTemplate.execute(status -> recompute(List.of(categoryId))));
+        }
+        long elapsed = (System.nanoTime() - start) / 1_000_000;
+        
+        if (drifts.isEmpty()) {
+            log.info("✅ category_stats reconciled: {} categories, no drift ({} ms)", categoryIds.size(), elapsed);
+        } else {
+            log.warn("⚠️ category_stats drift fixed in {} of {} categories: {}", drifts.size(), categoryIds.size(), drifts);
+        }
+        return new StatsReconcileReport(categoryIds.size(), drifts, elapsed);
+    }
+    
+    @Scheduled(cron = "${app.category-stats.reconcile-cron}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void scheduledReconcile() {
+        reconcile();
+    }
+}
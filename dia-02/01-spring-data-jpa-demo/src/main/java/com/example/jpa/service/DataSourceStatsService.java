@@ -0,0 +1,69 @@
+package com.example.jpa.service;
+
+import com.example.jpa.datasource.ReadWriteRoutingDataSource;
+import com.example.jpa.datasource.ReadWriteRoutingDataSource.Target;
+import com.example.jpa.dto.datasource.DataSourcePoolStats;
+import com.example.jpa.dto.datasource.DataSourceStats;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Métricas dos pools Hikari (um com banco único, primary e replica com
+ * réplica) e contadores do roteamento.
+ */
+@Service
+public class DataSourceStatsService {
+    
+    private final List<HikariDataSource> pools;
+    private final ReadWriteRoutingDataSource routing;
+    
+    public DataSourceStatsService(ObjectProvider<HikariDataSource> pools,
+                                  ObjectProvider<ReadWriteRoutingDataSource> routing) {
+        this.pools = pools.orderedStream().toList();
+        this.routing = routing.getIfAvailable();
+    }
+    
+    public DataSourceStats stats() {
+        List<DataSourcePoolStats> poolStats = pools.stream()
+            .map(this::poolStats)
+            .sorted(Comparator.comparing(DataSourcePoolStats::pool))
+            .toList();
+        return new DataSourceStats(
+            routing != null,
+            routing != null ? routing.getReadYourWritesWindow() : null,
+            routing != null ? routing.readsKeptOnPrimary() : 0,
+            poolStats
+        );
+    }
+    
+    private DataSourcePoolStats poolStats(HikariDataSource dataSource) {
+        // null até a primeira conexão (o pool sobe sob demanda)
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        return new DataSourcePoolStats(
+            dataSource.getPoolName(),
+            pool != null ? pool.getActiveConnections() : 0,
+            pool != null ? pool.getIdleConnections() : 0,
+            pool != null ? pool.getTotalConnections() : 0,
+            dataSource.getMaximumPoolSize(),
+            pool != null ? pool.getThreadsAwaitingConnection() : 0,
+            routedConnections(dataSource.getPoolName())
+        );
+    }
+    
+    private Long routedConnections(String poolName) {
+        if (routing == null) {
+            return null;
+        }
+        try {
+            return routing.routedConnections(Target.valueOf(poolName.toUpperCase(Locale.ROOT)));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package com.example.jpa.service;
+
+import com.example.jpa.config.MaintenanceJobProperties;
+import com.example.jpa.dto.job.MaintenanceJobResponse;
+import com.example.jpa.dto.job.StartJobRequest;
+import com.example.jpa.exception.BusinessException;
+import com.example.jpa.exception.ResourceNotFoundException;
+import com.example.jpa.model.MaintenanceJob;
+import com.example.jpa.model.MaintenanceJob.Status;
+import com.example.jpa.model.MaintenanceJob.Type;
+import com.example.jpa.repository.MaintenanceJobRepository;
+import com.example.jpa.repository.ProductRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Manutenção em massa de products em lotes, em segundo plano.
+ *
+ * - Cada lote é uma faixa de ids (cursor, próximo id], achada pelo índice da
+ *   PK, e roda em uma transação curta: locks e conexão só durante o lote
+ * - Entre lotes o job dorme (pause), deixando o banco para as requisições online
+ * - O cursor é gravado na transação do lote: depois de um restart o job
+ *   continua do último lote confirmado (resumeRunningJobs na subida)
+ * - Cancelar marca o job como CANCELLED; o lote seguinte vê e para
+ *
+ * Ordem dos locks em um lote: linha do job, linhas de products, category_stats
+ * (só DELETE_OLD_INACTIVE) — a mesma das escritas de produto, depois do job.
+ */
+@Service
+@Transactional(readOnly = true)
+public class MaintenanceJobService {
+    
+    private static final Logger log = LoggerFactory.getLogger(MaintenanceJobService.class);
+    
+    private final MaintenanceJobRepository jobRepository;
+    private final ProductRepository productRepository;
+    private final CategoryStatsService categoryStatsService;
+    private final MaintenanceJobProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    
+    // No máximo um job por tipo em execução: uma thread por tipo
+    private final ExecutorService executor = Executors.newFixedThreadPool(
+        Type.values().length, new CustomizableThreadFactory("maintenance-job-"));
+    
+    // Jobs com thread nesta instância (evita rodar o mesmo job duas vezes)
+    private final Set<Long> running = ConcurrentHashMap.newKeySet();
+    
+    public MaintenanceJobService(MaintenanceJobRepository jobRepository, ProductRepository productRepository,
+                                 CategoryStatsService categoryStatsService, MaintenanceJobProperties properties,
+                                 PlatformTransactionManager transactionManager) {
+        this.jobRepository = jobRepository;
+        this.productRepository = productRepository;
+        this.categoryStatsService = categoryStatsService;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+    
+    // ========== Leitura ==========
+    
+    public MaintenanceJobResponse findById(Long id) {
+        return jobRepository.findById(id)
+            .map(MaintenanceJobResponse::from)
+            .orElseThrow(() -> new ResourceNotFoundException("MaintenanceJob", "id", id));
+    }
+    
+    public List<MaintenanceJobResponse> findRecent() {
+        return jobRepository.findTop20ByOrderByIdDesc().stream()
+            .map(MaintenanceJobResponse::from)
+            .toList();
+    }
+    
+    // ========== Início, cancelamento e retomada ==========
+    
+    /**
+     * Cria o job e começa a execução em segundo plano. A faixa de ids vai até
+     * o maior id de agora: produtos criados durante o job ficam de fora.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public synchronized MaintenanceJobResponse start(Type type, StartJobRequest request) {
+        if (type == Type.DELETE_OLD_INACTIVE && request.createdBefore() == null) {
+            throw new BusinessException("Informe createdBefore para remover produtos inativos");
+        }
+        int chunkSize = request.chunkSize() != null ? request.chunkSize() : properties.chunkSize();
+        long pauseMillis = request.pauseMillis() != null ? request.pauseMillis() : properties.pause().toMillis();
+        
+        // Transação de escrita: a checagem e o INSERT vão para o primário
+        MaintenanceJob job = transactionTemplate.execute(status -> {
+            if (jobRepository.existsByTypeAndStatus(type, Status.RUNNING)) {
+                throw new BusinessException("Já existe um job " + type + " em execução");
+            }
+            return jobRepository.save(new MaintenanceJob(type, request.createdBefore(), chunkSize, pauseMillis,
+                productRepository.findMaxId()));
+        });
+        log.info("🧹 Job {} {} started: ids up to {}, chunks of {}, pause {} ms",
+            job.getId(), type, job.getMaxId(), chunkSize, pauseMillis);
+        submit(job.getId());
+        return MaintenanceJobResponse.from(job);
+    }
+    
+    /**
+     * Cancela um job em execução. Espera o lote em andamento (lock da linha
+     * do job); o que ele fez fica confirmado.
+     */
+    @Transactional
+    public MaintenanceJobResponse cancel(Long id) {
+        MaintenanceJob job = jobRepository.findByIdForUpdate(id)
+            .orElseThrow(() -> new ResourceNotFoundException("MaintenanceJob", "id", id));
+        if (job.getStatus() != Status.RUNNING) {
+            throw new BusinessException("Job " + id + " não está em execução (" + job.getStatus() + ")");
+        }
+        job.finish(Status.CANCELLED, null);
+        log.info("🛑 Job {} {} cancelled after {} chunks, {} rows",
+            id, job.getType(), job.getChunks(), job.getRowsAffected());
+        return MaintenanceJobResponse.from(job);
+    }
+    
+    /**
+     * Retoma os jobs que estavam em execução quando a aplicação parou.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void resumeRunningJobs() {
+        List<MaintenanceJob> jobs = transactionTemplate.execute(
+            status -> jobRepository.findByStatusOrderById(Status.RUNNING));
+        for (MaintenanceJob job : jobs) {
+            if (submit(job.getId())) {
+                log.info("▶️ Resuming job {} {} after id {}", job.getId(), job.getType(), job.getLastProcessedId());
+            }
+        }
+    }
+    
+    // Threads interrompidas param entre lotes; os jobs continuam RUNNING e são retomados na próxima subida
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdownNow();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+    
+    private boolean submit(Long jobId) {
+        if (!running.add(jobId)) {
+            return false;
+        }
+        executor.execute(() -> {
+            try {
+                run(jobId);
+            } finally {
+                running.remove(jobId);
+            }
+        });
+        return true;
+    }
+    
+    // ========== Execução ==========
+    
+    private void run(Long jobId) {
+        long pauseMillis = transactionTemplate.execute(status -> jobRepository.findById(jobId)
+            .map(MaintenanceJob::getPauseMillis)
+            .orElse(0L));
+        long idleNanos = 0;
+        try {
+            while (processChunk(jobId, idleNanos)) {
+                long pauseStart = System.nanoTime();
+                Thread.sleep(pauseMillis);
+                idleNanos = System.nanoTime() - pauseStart;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.info("⏸️ Job {} interrupted; it will resume on the next startup", jobId);
+        } catch (RuntimeException e) {
+            log.error("❌ Job {} failed", jobId, e);
+            transactionTemplate.executeWithoutResult(status -> jobRepository.findByIdForUpdate(jobId)
+                .filter(job -> job.getStatus() == Status.RUNNING)
+                .ifPresent(job -> job.finish(Status.FAILED, abbreviate(e.toString()))));
+        }
+    }
+    
+    /**
+     * Um lote, em uma transação: processa a faixa seguinte ao cursor e grava o
+     * novo cursor. idleNanos (a pausa antes do lote) entra no tempo do job.
+     *
+     * @return true se ainda há lotes
+     */
+    private boolean processChunk(Long jobId, long idleNanos) {
+        return transactionTemplate.execute(status -> {
+            long start = System.nanoTime();
+            MaintenanceJob job = jobRepository.findByIdForUpdate(jobId).orElse(null);
+            if (job == null || job.getStatus() != Status.RUNNING) {
+                return false;
+            }
+            
+            long fromId = job.getLastProcessedId();
+            List<Long> ids = productRepository.findIdsInRange(fromId, job.getMaxId(), Limit.of(job.getChunkSize()));
+            int affected = 0;
+            if (!ids.isEmpty()) {
+                long toId = ids.get(ids.size() - 1);
+                affected = switch (job.getType()) {
+                    case DEACTIVATE_OUT_OF_STOCK -> productRepository.deactivateOutOfStockInRange(fromId, toId);
+                    case DELETE_OLD_INACTIVE -> deleteOldInactive(job.getCreatedBefore(), fromId, toId);
+                };
+                job.recordChunk(toId, affected, (idleNanos + System.nanoTime() - start) / 1_000_000);
+            }
+            
+            boolean more = ids.size() == job.getChunkSize();
+            if (!more) {
+                job.finish(Status.COMPLETED, null);
+                log.info("✅ Job {} {} completed: {} rows in {} chunks ({} ms)",
+                    jobId, job.getType(), job.getRowsAffected(), job.getChunks(), job.getElapsedMillis());
+            } else {
+                log.debug("🧹 Job {} chunk ({}, {}]: {} rows", jobId, fromId, job.getLastProcessedId(), affected);
+            }
+            return more;
+        });
+    }
+    
+    // Mesmo que ProductService.deleteInactiveCreatedBefore, só na faixa
+    private int deleteOldInactive(LocalDateTime date, long fromId, long toId) {
+        List<Long> categoryIds = productRepository.findCategoryIdsOfOldInactiveInRange(date, fromId, toId);
+        if (categoryIds.isEmpty()) {
+            return 0;
+        }
+        int deleted = productRepository.deleteOldInactiveInRange(date, fromId, toId);
+        categoryStatsService.recompute(categoryIds);
+        return deleted;
+    }
+    
+    private static String abbreviate(String message) {
+        return message.length() <= 1000 ? message : message.substring(0, 997) + "...";
+    }
+}
@@ -2,24 +2,32 @@ package com.example.jpa.service;
 
 import com.example.jpa.dto.post.CreatePostRequest;
 import com.example.jpa.dto.post.PostResponse;
+import com.example.jpa.dto.post.PostSummary;
 import com.example.jpa.exception.ResourceNotFoundException;
 import com.example.jpa.model.Post;
 import com.example.jpa.model.Tag;
 import com.example.jpa.repository.PostRepository;
 import com.example.jpa.repository.TagRepository;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
 
 @Service
 @Transactional(readOnly = true)
 public class PostService {
     
+    // Posts por query IN na busca de tags (drivers limitam o nº de parâmetros)
+    private static final int TAG_QUERY_CHUNK = 1_000;
+    
     private final PostRepository postRepository;
     private final TagRepository tagRepository;
     
@@ -35,20 +43,20 @@ public class PostService {
     }
     
     public List<PostResponse> findAll() {
-        return postRepository.findAll().stream()
-            .map(PostResponse::from)
-            .toList();
+        return withTags(postRepository.findAllSummaries());
     }
     
+    /**
+     * Página de posts em número fixo de queries, qualquer que seja o tamanho:
+     * posts com contagem de comentários (+ COUNT, quando necessário) e tags da página.
+     */
     public Page<PostResponse> findAllPaged(Pageable pageable) {
-        return postRepository.findAll(pageable)
-            .map(PostResponse::from);
+        Page<PostSummary> posts = postRepository.findAllSummaries(pageable);
+        return new PageImpl<>(withTags(posts.getContent()), posts.getPageable(), posts.getTotalElements());
     }
     
     public List<PostResponse> findByPublished(Boolean published) {
-        return postRepository.findByPublished(published).stream()
-            .map(PostResponse::from)
-            .toList();
+        return withTags(postRepository.findSummariesByPublished(published));
     }
     
     @Transactional
@@ -57,13 +65,7 @@ public class PostService {
         
         // Adicionar tags
         if (request.tagIds() != null && !request.tagIds().isEmpty()) {
-            Set<Tag> tags = new HashSet<>();
-            for (Long tagId : request.tagIds()) {
-                Tag tag = tagRepository.findById(tagId)
-                    .orElseThrow(() -> new ResourceNotFoundException("Tag", "id", tagId));
-                tags.add(tag);
-            }
-            post.setTags(tags);
+            post.setTags(findTags(request.tagIds()));
         }
         
         Post saved = postRepository.save(post);
@@ -81,12 +83,9 @@ public class PostService {
         
         // Atualizar tags
         if (request.tagIds() != null) {
+            Set<Tag> tags = findTags(request.tagIds());
             post.getTags().clear();
-            for (Long tagId : request.tagIds()) {
-                Tag tag = tagRepository.findById(tagId)
-                    .orElseThrow(() -> new ResourceNotFoundException("Tag", "id", tagId));
-                post.getTags().add(tag);
-            }
+            post.getTags().addAll(tags);
         }
         
         Post updated = postRepository.save(post);
@@ -110,4 +109,38 @@ public class PostService {
         }
         postRepository.deleteById(id);
     }
+    
+    /**
+     * Tags por id em uma única query.
+     *
+     * @throws ResourceNotFoundException com todos os ids que não existem
+     */
+    private Set<Tag> findTags(Set<Long> tagIds) {
+        List<Tag> tags = tagRepository.findAllById(tagIds);
+        if (tags.size() < tagIds.size()) {
+            Set<Long> missing = new TreeSet<>(tagIds);
+            tags.forEach(tag -> missing.remove(tag.getId()));
+            throw new ResourceNotFoundException("Tag", "id", missing);
+        }
+        return new HashSet<>(tags);
+    }
+    
+    // Tags de todos os posts em uma query por bloco de TAG_QUERY_CHUNK (em vez de uma por post)
+    private List<PostResponse> withTags(List<PostSummary> posts) {
+        if (posts.isEmpty()) {
+            return List.of();
+        }
+        List<Long> ids = posts.stream().map(PostSummary::id).toList();
+        
+        Map<Long, Set<String>> tags = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += TAG_QUERY_CHUNK) {
+            List<Long> chunk = ids.subList(from, Math.min(ids.size(), from + TAG_QUERY_CHUNK));
+            postRepository.findTagNamesByPostIds(chunk)
+                .forEach(row -> tags.computeIfAbsent(row.postId(), id -> new HashSet<>()).add(row.tagName()));
+        }
+        
+        return posts.stream()
+            .map(post -> PostResponse.from(post, tags.getOrDefault(post.id(), Set.of())))
+            .toList();
+    }
 }
@@ -1,34 +1,88 @@
 package com.example.jpa.service;
 
+import com.example.jpa.dto.category.CategoryTotals;
+import com.example.jpa.dto.product.BulkImportResponse;
 import com.example.jpa.dto.product.CreateProductRequest;
+import com.example.jpa.dto.product.ExportFormat;
 import com.example.jpa.dto.product.ProductResponse;
 import com.example.jpa.dto.product.ProductSummary;
+import com.example.jpa.dto.product.ReservationItem;
+import com.example.jpa.dto.product.StockLevel;
+import com.example.jpa.dto.product.StockReservationResponse;
 import com.example.jpa.dto.product.UpdateProductRequest;
 import com.example.jpa.exception.BusinessException;
 import com.example.jpa.exception.DuplicateResourceException;
 import com.example.jpa.exception.ResourceNotFoundException;
 import com.example.jpa.model.Category;
 import com.example.jpa.model.Product;
+import com.example.jpa.model.StockReservation;
 import com.example.jpa.repository.CategoryRepository;
 import com.example.jpa.repository.ProductRepository;
+import com.example.jpa.repository.ProductSpecifications;
+import com.example.jpa.repository.StockReservationRepository;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonFactoryBuilder;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import jakarta.persistence.EntityManager;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.stream.Stream;
 
 @Service
 @Transactional(readOnly = true)
 public class ProductService {
     
+    // Nomes por query IN na checagem de duplicados (drivers limitam o nº de parâmetros)
+    private static final int NAME_CHECK_CHUNK = 1_000;
+    
+    // Produtos entre flush/clear na importação; múltiplo de hibernate.jdbc.batch_size
+    private static final int BULK_FLUSH_SIZE = 1_000;
+    
+    // Buffer de escrita do CSV (a resposta sai em blocos deste tamanho)
+    private static final int EXPORT_BUFFER_SIZE = 64 * 1024;
+    
+    private static final JsonFactory JSON = new JsonFactoryBuilder()
+        .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+        .rootValueSeparator((String) null)
+        .build();
+    
     private final ProductRepository productRepository;
     private final CategoryRepository categoryRepository;
+    private final CategoryStatsService categoryStatsService;
+    private final StockReservationRepository stockReservationRepository;
+    private final EntityManager entityManager;
     
-    public ProductService(ProductRepository productRepository, CategoryRepository categoryRepository) {
+    public ProductService(ProductRepository productRepository, CategoryRepository categoryRepository,
+                          CategoryStatsService categoryStatsService,
+                          StockReservationRepository stockReservationRepository, EntityManager entityManager) {
         this.productRepository = productRepository;
         this.categoryRepository = categoryRepository;
+        this.categoryStatsService = categoryStatsService;
+        this.stockReservationRepository = stockReservationRepository;
+        this.entityManager = entityManager;
     }
     
     public ProductResponse findById(Long id) {
@@ -56,7 +110,10 @@ public class ProductService {
             Boolean active,
             Pageable pageable) {
         
-        return productRepository.searchProducts(name, categoryId, minPrice, maxPrice, active, pageable)
+        // Só os filtros informados viram predicados. O COUNT é pulado quando a
+        // primeira página já vem incompleta (o total é o próprio tamanho dela)
+        Specification<Product> spec = ProductSpecifications.search(name, categoryId, minPrice, maxPrice, active);
+        return productRepository.findAll(spec, pageable)
             .map(ProductResponse::from);
     }
     
@@ -64,6 +121,25 @@ public class ProductService {
         return productRepository.findAllSummaries();
     }
     
+    /**
+     * Escreve o catálogo inteiro (id, name, price) no formato pedido, linha a linha.
+     *
+     * Memória constante: as linhas chegam do banco em blocos (fetch size), como
+     * projeções (sem entidades no persistence context), e vão direto para o
+     * OutputStream. A transação fica aberta até o fim da escrita.
+     *
+     * @return quantidade de produtos escritos
+     */
+    @Transactional(readOnly = true)
+    public long exportSummaries(ExportFormat format, OutputStream out) throws IOException {
+        try (Stream<ProductSummary> products = productRepository.streamAllSummaries()) {
+            return switch (format) {
+                case NDJSON -> writeNdjson(products, out);
+                case CSV -> writeCsv(products, out);
+            };
+        }
+    }
+    
     public List<ProductResponse> findByCategory(Long categoryId) {
         // Validar se a categoria existe
         categoryRepository.findById(categoryId)
@@ -100,13 +176,96 @@ public class ProductService {
         product.setCategory(category);
         
         Product saved = productRepository.save(product);
+        categoryStatsService.add(category.getId(), CategoryTotals.of(saved.getPrice(), saved.getStock()));
         return ProductResponse.from(saved);
     }
     
+    /**
+     * Importação em lote, tudo ou nada.
+     * 
+     * - Duplicados: checados no próprio lote e no banco com IN (blocos de NAME_CHECK_CHUNK)
+     * - Categorias: uma única busca para todos os categoryIds distintos
+     * - INSERTs em batch JDBC (ids por sequence), com flush/clear a cada BULK_FLUSH_SIZE
+     *   para o contexto de persistência não crescer com o tamanho do lote
+     * - category_stats: totais somados em memória e um UPDATE por categoria no fim
+     */
+    @Transactional
+    public BulkImportResponse importBulk(List<CreateProductRequest> requests) {
+        long start = System.nanoTime();
+        
+        // Validar duplicidade (lote + banco)
+        Set<String> names = new LinkedHashSet<>();
+        for (CreateProductRequest request : requests) {
+            if (!names.add(request.name())) {
+                throw new DuplicateResourceException("Product", "name", request.name());
+            }
+        }
+        List<String> nameList = new ArrayList<>(names);
+        for (int from = 0; from < nameList.size(); from += NAME_CHECK_CHUNK) {
+            List<String> chunk = nameList.subList(from, Math.min(nameList.size(), from + NAME_CHECK_CHUNK));
+            List<String> existing = productRepository.findExistingNames(chunk);
+            if (!existing.isEmpty()) {
+                String preview = String.join(", ", existing.subList(0, Math.min(10, existing.size())));
+                throw new DuplicateResourceException("Product", "name", existing.size() > 10 ? preview + ", ..." : preview);
+            }
+        }
+        
+        // Buscar categorias de uma vez
+        Set<Long> categoryIds = new LinkedHashSet<>();
+        requests.forEach(request -> categoryIds.add(request.categoryId()));
+        Map<Long, Category> categories = new HashMap<>();
+        categoryRepository.findAllById(categoryIds).forEach(category -> categories.put(category.getId(), category));
+        for (Long categoryId : categoryIds) {
+            Category category = categories.get(categoryId);
+            if (category == null) {
+                throw new ResourceNotFoundException("Category", "id", categoryId);
+            }
+            if (!category.getActive()) {
+                throw new BusinessException("Não é possível criar produto em categoria inativa: " + category.getName());
+            }
+        }
+        
+        // Persistir em batches
+        int count = 0;
+        SortedMap<Long, CategoryTotals> deltas = new TreeMap<>();
+        for (CreateProductRequest request : requests) {
+            Product product = new Product();
+            product.setName(request.name());
+            product.setDescription(request.description());
+            product.setPrice(request.price());
+            product.setStock(request.stock());
+            product.setImageUrl(request.imageUrl());
+            product.setCategory(categories.get(request.categoryId()));
+            entityManager.persist(product);
+            deltas.merge(request.categoryId(), CategoryTotals.of(request.price(), request.stock()), CategoryTotals::plus);
+            
+            if (++count % BULK_FLUSH_SIZE == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        categoryStatsService.add(deltas);
+        
+        return new BulkImportResponse(count, categoryIds.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+    
+    /**
+     * Read-modify-write com lock otimista (@Version): a leitura não trava a linha;
+     * se outra transação mudou o produto antes da gravação, o UPDATE não encontra
+     * a versão lida e a requisição falha com 409 em vez de sobrescrever a mudança
+     * (e o "antes" usado no delta de category_stats continua valendo).
+     */
     @Transactional
     public ProductResponse update(Long id, UpdateProductRequest request) {
         Product product = productRepository.findById(id)
             .orElseThrow(() -> new ResourceNotFoundException("Product", "id", id));
+        if (request.version() != null && !request.version().equals(product.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(Product.class, id);
+        }
+        Long oldCategoryId = product.getCategory().getId();
+        CategoryTotals before = CategoryTotals.of(product.getPrice(), product.getStock());
         
         // Atualizar apenas campos fornecidos
         if (request.name() != null) {
@@ -146,27 +305,196 @@ public class ProductService {
             product.setActive(request.active());
         }
         
-        Product updated = productRepository.save(product);
+        // Flush aqui para a resposta já trazer a versão nova
+        Product updated = productRepository.saveAndFlush(product);
+        
+        // Saiu de uma categoria e entrou em outra (ou na mesma, com outros valores)
+        SortedMap<Long, CategoryTotals> deltas = new TreeMap<>();
+        deltas.put(oldCategoryId, before.negate());
+        deltas.merge(updated.getCategory().getId(), CategoryTotals.of(updated.getPrice(), updated.getStock()),
+            CategoryTotals::plus);
+        categoryStatsService.add(deltas);
+        
         return ProductResponse.from(updated);
     }
     
+    // DELETE ... WHERE version = ?: falha se o produto mudou depois da leitura
     @Transactional
     public void delete(Long id) {
-        if (!productRepository.existsById(id)) {
+        Product product = productRepository.findById(id)
+            .orElseThrow(() -> new ResourceNotFoundException("Product", "id", id));
+        productRepository.delete(product);
+        categoryStatsService.add(product.getCategory().getId(),
+            CategoryTotals.of(product.getPrice(), product.getStock()).negate());
+    }
+    
+    /**
+     * Troca o estoque com o UPDATE em massa do repositório. A linha é travada
+     * antes para o delta de category_stats partir do estoque que foi substituído.
+     */
+    @Transactional
+    public void updateStock(Long id, int stock) {
+        Product product = productRepository.findByIdForUpdate(id)
+            .orElseThrow(() -> new ResourceNotFoundException("Product", "id", id));
+        productRepository.updateStock(id, stock);
+        categoryStatsService.add(product.getCategory().getId(), CategoryTotals.stockChange(product.getStock(), stock));
+    }
+    
+    // ========== Reserva de estoque ==========
+    
+    /**
+     * Reserva com um único UPDATE condicional (stock >= quantidade): sem leitura
+     * antes, reservas concorrentes não sobrevendem nem precisam de retry; cada
+     * uma só espera o lock da linha enquanto a transação da anterior termina.
+     * A reserva fica registrada (reservationId na resposta) e limita o release.
+     *
+     * @throws BusinessException se não há estoque suficiente (nada é reservado)
+     */
+    @Transactional
+    public StockReservationResponse reserve(Long id, int quantity) {
+        return reserveAll(List.of(new ReservationItem(id, quantity))).get(0);
+    }
+    
+    /**
+     * Reserva vários produtos (tudo ou nada). Os UPDATEs saem em ordem de id:
+     * duas reservas com os mesmos produtos travam as linhas na mesma sequência,
+     * então uma espera a outra em vez de entrarem em deadlock.
+     * Cada produto ganha uma StockReservation com a quantidade reservada.
+     */
+    @Transactional
+    public List<StockReservationResponse> reserveAll(List<ReservationItem> items) {
+        // Mesmo produto em mais de um item: uma reserva só, com a soma
+        SortedMap<Long, Integer> quantities = new TreeMap<>();
+        items.forEach(item -> quantities.merge(item.productId(), item.quantity(), Integer::sum));
+        
+        List<StockReservationResponse> reserved = new ArrayList<>();
+        SortedMap<Long, CategoryTotals> deltas = new TreeMap<>();
+        quantities.forEach((productId, quantity) -> {
+            if (productRepository.reserveStock(productId, quantity) == 0) {
+                // Rollback: as reservas anteriores deste pedido são desfeitas
+                throw reservationFailure(productId, quantity);
+            }
+            StockLevel level = productRepository.findStockLevel(productId).orElseThrow();
+            deltas.merge(level.categoryId(), CategoryTotals.stockChange(level.stock() + quantity, level.stock()),
+                CategoryTotals::plus);
+            StockReservation reservation = stockReservationRepository.save(new StockReservation(productId, quantity));
+            reserved.add(StockReservationResponse.of(reservation.getId(), level, quantity, quantity));
+        });
+        categoryStatsService.add(deltas);
+        return reserved;
+    }
+    
+    /**
+     * Devolve ao estoque parte (ou toda) a quantidade de uma reserva (pedido
+     * cancelado, carrinho expirado). A baixa na reserva é um UPDATE condicional
+     * (quantidade reservada >= devolvida) antes do UPDATE no produto: devoluções
+     * repetidas ou concorrentes da mesma reserva nunca somam mais que o reservado.
+     *
+     * @throws ResourceNotFoundException se a reserva não existe ou é de outro produto
+     * @throws BusinessException se a quantidade passa do que a reserva ainda segura
+     */
+    @Transactional
+    public StockReservationResponse release(Long id, Long reservationId, int quantity) {
+        if (stockReservationRepository.release(reservationId, id, quantity) == 0) {
+            throw releaseFailure(id, reservationId, quantity);
+        }
+        if (productRepository.releaseStock(id, quantity) == 0) {
+            // Produto apagado depois da reserva; o rollback desfaz a baixa na reserva
             throw new ResourceNotFoundException("Product", "id", id);
         }
-        productRepository.deleteById(id);
+        StockLevel level = productRepository.findStockLevel(id).orElseThrow();
+        categoryStatsService.add(level.categoryId(), CategoryTotals.stockChange(level.stock() - quantity, level.stock()));
+        int reserved = stockReservationRepository.findQuantity(reservationId).orElseThrow();
+        return StockReservationResponse.of(reservationId, level, quantity, reserved);
+    }
+    
+    // UPDATE sem linhas na reserva: inexistente, de outro produto ou com menos que o pedido
+    private RuntimeException releaseFailure(Long productId, Long reservationId, int quantity) {
+        return stockReservationRepository.findById(reservationId)
+            .filter(reservation -> reservation.getProductId().equals(productId))
+            .<RuntimeException>map(reservation -> new BusinessException(
+                "Devolução maior que a reserva " + reservationId + ": pedido " + quantity
+                    + ", reservado " + reservation.getQuantity()))
+            .orElseGet(() -> new ResourceNotFoundException("Reservation", "id", reservationId));
+    }
+    
+    // UPDATE sem linhas: produto inexistente ou estoque insuficiente
+    private RuntimeException reservationFailure(Long productId, int quantity) {
+        return productRepository.findStockLevel(productId)
+            .<RuntimeException>map(level -> new BusinessException(
+                "Estoque insuficiente para o produto " + productId + ": pedido " + quantity
+                    + ", disponível " + level.stock()))
+            .orElseGet(() -> new ResourceNotFoundException("Product", "id", productId));
     }
     
+    // Só muda active, que category_stats não conta: nada a atualizar
     @Transactional
     public int deactivateOutOfStock() {
         return productRepository.deactivateOutOfStock();
     }
     
+    /**
+     * Remove produtos inativos criados antes da data (DELETE em massa) e
+     * recalcula category_stats das categorias atingidas.
+     */
+    @Transactional
+    public int deleteInactiveCreatedBefore(LocalDateTime date) {
+        List<Long> categoryIds = productRepository.findCategoryIdsOfOldInactive(date);
+        int deleted = productRepository.deleteOldInactive(date);
+        categoryStatsService.recompute(categoryIds);
+        return deleted;
+    }
+    
+    // Lê a linha de category_stats em vez de agregar products
     public BigDecimal getAveragePriceByCategory(Long categoryId) {
-        categoryRepository.findById(categoryId)
-            .orElseThrow(() -> new ResourceNotFoundException("Category", "id", categoryId));
-        
-        return productRepository.getAveragePriceByCategory(categoryId);
+        return categoryStatsService.averagePrice(categoryId);
+    }
+    
+    // ========== Exportação ==========
+    
+    // Um objeto JSON por linha: {"id":1,"name":"...","price":4500.00}
+    private static long writeNdjson(Stream<ProductSummary> products, OutputStream out) throws IOException {
+        long count = 0;
+        // close() só descarrega o buffer (AUTO_CLOSE_TARGET desligado): a resposta continua aberta
+        try (JsonGenerator json = JSON.createGenerator(out, JsonEncoding.UTF8)) {
+            for (ProductSummary product : (Iterable<ProductSummary>) products::iterator) {
+                json.writeStartObject();
+                json.writeNumberField("id", product.id());
+                json.writeStringField("name", product.name());
+                json.writeNumberField("price", product.price());
+                json.writeEndObject();
+                json.writeRaw('\n');
+                count++;
+            }
+        }
+        return count;
+    }
+    
+    private static long writeCsv(Stream<ProductSummary> products, OutputStream out) throws IOException {
+        long count = 0;
+        Writer csv = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), EXPORT_BUFFER_SIZE);
+        csv.write("id,name,price\n");
+        for (ProductSummary product : (Iterable<ProductSummary>) products::iterator) {
+            csv.write(product.id().toString());
+            csv.write(',');
+            writeCsvField(csv, product.name());
+            csv.write(',');
+            csv.write(product.price().toPlainString());
+            csv.write('\n');
+            count++;
+        }
+        csv.flush();
+        return count;
+    }
+    
+    // RFC 4180: entre aspas se tiver vírgula, aspas ou quebra de linha; aspas dobradas
+    private static void writeCsvField(Writer csv, String value) throws IOException {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            csv.write(value);
+            return;
+        }
+        csv.write('"');
+        csv.write(value.replace("\"", "\"\""));
+        csv.write('"');
     }
 }
@@ -2,27 +2,34 @@
 -- Executado automaticamente no profile 'dev'
 
 -- Categorias
-INSERT INTO categories (name, description, active, created_at, updated_at) VALUES
-('Eletrônicos', 'Produtos eletrônicos e gadgets', true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
-('Livros', 'Livros e e-books', true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
-('Roupas', 'Vestuário e acessórios', true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
-('Alimentos', 'Produtos alimentícios', true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
-('Esportes', 'Artigos esportivos', true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP);
+INSERT INTO categories (id, name, description, active, created_at, updated_at) VALUES
+(1, 'Eletrônicos', 'Produtos eletrônicos e gadgets', true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+(2, 'Livros', 'Livros e e-books', true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+(3, 'Roupas', 'Vestuário e acessórios', true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+(4, 'Alimentos', 'Produtos alimentícios', true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+(5, 'Esportes', 'Artigos esportivos', true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP);
 
 -- Produtos
-INSERT INTO products (name, description, price, stock, active, category_id, image_url, created_at, updated_at) VALUES
-('Laptop Dell XPS 13', 'Notebook ultrafino com processador Intel i7', 4500.00, 15, true, 1, 'https://example.com/dell-xps.jpg', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
-('Mouse Logitech MX Master', 'Mouse ergonômico sem fio', 350.00, 50, true, 1, 'https://example.com/mouse.jpg', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
-('Teclado Mecânico Keychron K2', 'Teclado mecânico wireless', 550.00, 30, true, 1, 'https://example.com/keyboard.jpg', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
-('Clean Code - Robert Martin', 'Livro sobre código limpo e boas práticas', 85.00, 100, true, 2, 'https://example.com/clean-code.jpg', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
-('Design Patterns - Gang of Four', 'Padrões de projeto clássicos', 120.00, 45, true, 2, 'https://example.com/design-patterns.jpg', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
-('Camiseta Básica Preta', 'Camiseta 100% algodão', 45.00, 200, true, 3, 'https://example.com/tshirt.jpg', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
-('Calça Jeans Slim', 'Calça jeans modelo slim fit', 150.00, 80, true, 3, 'https://example.com/jeans.jpg', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
-('Café Premium 500g', 'Café especial torrado em grãos', 35.00, 150, true, 4, 'https://example.com/coffee.jpg', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
-('Chocolate 70% Cacau', 'Chocolate amargo premium', 12.00, 300, true, 4, 'https://example.com/chocolate.jpg', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
-('Bola de Futebol Nike', 'Bola oficial de futebol', 180.00, 25, true, 5, 'https://example.com/soccer-ball.jpg', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
-('Raquete de Tênis Wilson', 'Raquete profissional de tênis', 800.00, 12, true, 5, 'https://example.com/tennis-racket.jpg', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
-('Fone Bluetooth JBL', 'Fone de ouvido sem fio', 250.00, 0, true, 1, 'https://example.com/headphone.jpg', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP);
+INSERT INTO products (id, name, description, price, stock, active, category_id, image_url, created_at, updated_at) VALUES
+(1, 'Laptop Dell XPS 13', 'Notebook ultrafino com processador Intel i7', 4500.00, 15, true, 1, 'https://example.com/dell-xps.jpg', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+(2, 'Mouse Logitech MX Master', 'Mouse ergonômico sem fio', 350.00, 50, true, 1, 'https://example.com/mouse.jpg', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+(3, 'Teclado Mecânico Keychron K2', 'Teclado mecânico wireless', 550.00, 30, true, 1, 'https://example.com/keyboard.jpg', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+(4, 'Clean Code - Robert Martin', 'Livro sobre código limpo e boas práticas', 85.00, 100, true, 2, 'https://example.com/clean-code.jpg', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+(5, 'Design Patterns - Gang of Four', 'Padrões de projeto clássicos', 120.00, 45, true, 2, 'https://example.com/design-patterns.jpg', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+(6, 'Camiseta Básica Preta', 'Camiseta 100% algodão', 45.00, 200, true, 3, 'https://example.com/tshirt.jpg', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+(7, 'Calça Jeans Slim', 'Calça jeans modelo slim fit', 150.00, 80, true, 3, 'https://example.com/jeans.jpg', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+(8, 'Café Premium 500g', 'Café especial torrado em grãos', 35.00, 150, true, 4, 'https://example.com/coffee.jpg', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+(9, 'Chocolate 70% Cacau', 'Chocolate amargo premium', 12.00, 300, true, 4, 'https://example.com/chocolate.jpg', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+(10, 'Bola de Futebol Nike', 'Bola oficial de futebol', 180.00, 25, true, 5, 'https://example.com/soccer-ball.jpg', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+(11, 'Raquete de Tênis Wilson', 'Raquete profissional de tênis', 800.00, 12, true, 5, 'https://example.com/tennis-racket.jpg', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+(12, 'Fone Bluetooth JBL', 'Fone de ouvido sem fio', 250.00, 0, true, 1, 'https://example.com/headphone.jpg', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP);
+
+-- Totais por categoria (mantidos pela aplicação a partir daqui)
+INSERT INTO category_stats (category_id, product_count, in_stock_count, total_stock, price_sum, updated_at)
+SELECT c.id, COUNT(p.id), COUNT(CASE WHEN p.stock > 0 THEN 1 END), COALESCE(SUM(p.stock), 0),
+       COALESCE(SUM(p.price), 0), CURRENT_TIMESTAMP
+FROM categories c LEFT JOIN products p ON p.category_id = c.id
+GROUP BY c.id;
 
 -- Tags
 INSERT INTO tags (name, color) VALUES
@@ -33,10 +40,10 @@ INSERT INTO tags (name, color) VALUES
 ('Dica', '#FFD93D');
 
 -- Posts
-INSERT INTO posts (title, content, author, published, created_at, updated_at) VALUES
-('Introdução ao Spring Data JPA', 'Neste post vamos aprender os conceitos básicos de Spring Data JPA e como utilizá-lo em projetos reais...', 'João Silva', true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
-('Otimizando Queries com JPQL', 'Aprenda técnicas avançadas para escrever queries eficientes usando JPQL...', 'Maria Santos', true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
-('Relacionamentos em JPA', 'Entenda os diferentes tipos de relacionamentos: OneToOne, OneToMany, ManyToMany...', 'Pedro Costa', false, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP);
+INSERT INTO posts (id, title, content, author, published, created_at, updated_at) VALUES
+(1, 'Introdução ao Spring Data JPA', 'Neste post vamos aprender os conceitos básicos de Spring Data JPA e como utilizá-lo em projetos reais...', 'João Silva', true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+(2, 'Otimizando Queries com JPQL', 'Aprenda técnicas avançadas para escrever queries eficientes usando JPQL...', 'Maria Santos', true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+(3, 'Relacionamentos em JPA', 'Entenda os diferentes tipos de relacionamentos: OneToOne, OneToMany, ManyToMany...', 'Pedro Costa', false, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP);
 
 -- Post-Tags (relacionamento ManyToMany)
 INSERT INTO post_tags (post_id, tag_id) VALUES
@@ -45,12 +52,18 @@ INSERT INTO post_tags (post_id, tag_id) VALUES
 (3, 1), (3, 2), (3, 3);
 
 -- Comments
-INSERT INTO comments (text, author, post_id, created_at) VALUES
-('Ótimo tutorial! Muito bem explicado.', 'Ana Paula', 1, CURRENT_TIMESTAMP),
-('Consegui implementar no meu projeto. Obrigado!', 'Carlos Mendes', 1, CURRENT_TIMESTAMP),
-('Poderia fazer um sobre Criteria API também?', 'Lucia Ferreira', 1, CURRENT_TIMESTAMP),
-('Essas dicas salvaram meu projeto!', 'Rafael Lima', 2, CURRENT_TIMESTAMP),
-('Muito útil para otimização de performance.', 'Beatriz Souza', 2, CURRENT_TIMESTAMP);
+INSERT INTO comments (id, text, author, post_id, created_at) VALUES
+(1, 'Ótimo tutorial! Muito bem explicado.', 'Ana Paula', 1, CURRENT_TIMESTAMP),
+(2, 'Consegui implementar no meu projeto. Obrigado!', 'Carlos Mendes', 1, CURRENT_TIMESTAMP),
+(3, 'Poderia fazer um sobre Criteria API também?', 'Lucia Ferreira', 1, CURRENT_TIMESTAMP),
+(4, 'Essas dicas salvaram meu projeto!', 'Rafael Lima', 2, CURRENT_TIMESTAMP),
+(5, 'Muito útil para otimização de performance.', 'Beatriz Souza', 2, CURRENT_TIMESTAMP);
+
+-- Ids explícitos acima: as sequences (allocationSize 50) continuam depois deles
+ALTER SEQUENCE categories_seq RESTART WITH 100;
+ALTER SEQUENCE products_seq RESTART WITH 100;
+ALTER SEQUENCE posts_seq RESTART WITH 100;
+ALTER SEQUENCE comments_seq RESTART WITH 100;
 
 -- Users e UserProfiles
 INSERT INTO user_profiles (bio, location, website, avatar_url) VALUES
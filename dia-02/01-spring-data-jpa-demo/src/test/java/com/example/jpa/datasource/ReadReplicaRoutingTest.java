@@ -0,0 +1,249 @@
+package com.example.jpa.datasource;
+
+import com.example.jpa.datasource.ReadWriteRoutingDataSource.Target;
+import com.example.jpa.dto.category.CreateCategoryRequest;
+import com.example.jpa.dto.datasource.DataSourcePoolStats;
+import com.example.jpa.dto.datasource.DataSourceStats;
+import com.example.jpa.dto.product.CreateProductRequest;
+import com.example.jpa.dto.product.ProductResponse;
+import com.example.jpa.exception.ResourceNotFoundException;
+import com.example.jpa.model.Category;
+import com.example.jpa.service.CategoryService;
+import com.example.jpa.service.DataSourceStatsService;
+import com.example.jpa.service.ProductService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.cookie;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Roteamento primário/réplica com dois H2 em memória: a réplica só recebe
+ * o que o primário tinha na última cópia (H2ReplicaCopier.copy), então uma
+ * leitura mostra de onde veio pelo dado que encontra.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:routing-primary",
+    "app.datasource.replica.enabled=true",
+    "app.datasource.replica.url=jdbc:h2:mem:routing-replica",
+    "app.datasource.replica.read-your-writes-window=500ms",
+    // Só a cópia da subida; os testes copiam quando precisam
+    "app.datasource.replica.h2-copy-interval=1h"
+})
+@DisplayName("ReadWriteRoutingDataSource — réplica de leitura")
+class ReadReplicaRoutingTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private H2ReplicaCopier replicaCopier;
+
+    @Autowired
+    private ReadWriteRoutingDataSource routingDataSource;
+
+    @Autowired
+    private DataSourceStatsService dataSourceStatsService;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    @Autowired
+    private FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter;
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        replicaCopier.copy();
+        ReadYourWrites.end();
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReadYourWrites.end();
+    }
+
+    @Test
+    @DisplayName("transação readOnly lê da réplica")
+    void readOnlyTransactionsUseReplica() {
+        new JdbcTemplate(replicaDataSource).update("UPDATE products SET name = 'Só na réplica' WHERE id = 1");
+        long replicaBefore = routingDataSource.routedConnections(Target.REPLICA);
+
+        assertThat(productService.findById(1L).name()).isEqualTo("Só na réplica");
+        assertThat(routingDataSource.routedConnections(Target.REPLICA)).isEqualTo(replicaBefore + 1);
+    }
+
+    @Test
+    @DisplayName("escrita vai para o primário; a réplica só vê depois da cópia")
+    void writesUsePrimary() {
+        ProductResponse product = create("Escrita no Primário");
+        ReadYourWrites.end();
+
+        assertThat(count(primaryDataSource, product.id())).isEqualTo(1);
+        assertThat(count(replicaDataSource, product.id())).isZero();
+        assertThatThrownBy(() -> productService.findById(product.id()))
+            .isInstanceOf(ResourceNotFoundException.class);
+
+        replicaCopier.copy();
+        assertThat(productService.findById(product.id()).name()).isEqualTo("Escrita no Primário");
+    }
+
+    @Test
+    @DisplayName("read-your-writes: leituras seguem no primário durante a janela")
+    void readYourWritesWindow() throws Exception {
+        AtomicReference<Instant> primaryUntil = new AtomicReference<>();
+        ReadYourWrites.begin(null, primaryUntil::set);
+        long keptBefore = routingDataSource.readsKeptOnPrimary();
+
+        ProductResponse product = create("Leia o que Escreveu");
+
+        // Réplica ainda sem o produto, mas a leitura vai para o primário
+        assertThat(primaryUntil.get()).isAfter(Instant.now());
+        assertThat(productService.findById(product.id()).id()).isEqualTo(product.id());
+        assertThat(routingDataSource.readsKeptOnPrimary()).isEqualTo(keptBefore + 1);
+
+        // Passada a janela, volta para a réplica (defasada)
+        Thread.sleep(600);
+        assertThatThrownBy(() -> productService.findById(product.id()))
+            .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("HTTP: escrita devolve o cookie e quem o reenvia lê do primário")
+    void readYourWritesCookie() throws Exception {
+        MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(context)
+            .addFilter(readYourWritesFilter.getFilter(), "/api/*")
+            .build();
+
+        MvcResult created = mockMvc.perform(post("/api/products")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new CreateProductRequest(
+                    "Produto via HTTP", null, new BigDecimal("15.00"), 3, 1L, null))))
+            .andExpect(status().isCreated())
+            .andExpect(cookie().exists(ReadYourWritesFilter.COOKIE))
+            .andExpect(cookie().httpOnly(ReadYourWritesFilter.COOKIE, true))
+            .andReturn();
+        long id = objectMapper.readTree(created.getResponse().getContentAsString()).get("id").asLong();
+        Cookie primaryUntil = created.getResponse().getCookie(ReadYourWritesFilter.COOKIE);
+
+        mockMvc.perform(get("/api/products/{id}", id).cookie(primaryUntil))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.name").value("Produto via HTTP"));
+        // Outro cliente (sem o cookie) lê a réplica, que ainda não tem o produto
+        mockMvc.perform(get("/api/products/{id}", id))
+            .andExpect(status().isNotFound());
+        // Leitura não renova o cookie
+        mockMvc.perform(get("/api/products/1"))
+            .andExpect(cookie().doesNotExist(ReadYourWritesFilter.COOKIE));
+    }
+
+    @Test
+    @DisplayName("cookie vencido ou inválido: leitura na réplica")
+    void expiredOrInvalidCookie() throws Exception {
+        MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(context)
+            .addFilter(readYourWritesFilter.getFilter(), "/api/*")
+            .build();
+        ProductResponse product = create("Cookie Vencido");
+        ReadYourWrites.end();
+
+        Cookie expired = new Cookie(ReadYourWritesFilter.COOKIE, Long.toString(System.currentTimeMillis() - 1));
+        mockMvc.perform(get("/api/products/{id}", product.id()).cookie(expired))
+            .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/products/{id}", product.id())
+                .cookie(new Cookie(ReadYourWritesFilter.COOKIE, "amanha")))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("leitura da réplica defasada não entra no cache de segundo nível")
+    void replicaReadsDoNotPopulateSecondLevelCache() {
+        Cache cache = entityManagerFactory.getCache();
+        String replicaName = categoryService.findById(1L).name();
+
+        categoryService.update(1L, new CreateCategoryRequest("Renomeada no Primário", null));
+        ReadYourWrites.end();
+        // A entrada sai do cache (TTL, tamanho da região) antes da réplica receber a escrita
+        cache.evict(Category.class, 1L);
+
+        // Réplica defasada: nome antigo, e nada vai para o cache
+        assertThat(categoryService.findById(1L).name()).isEqualTo(replicaName);
+        assertThat(cache.contains(Category.class, 1L)).isFalse();
+
+        // Pelo primário (janela de read-your-writes): o nome novo, que agora sim é cacheado
+        ReadYourWrites.begin(Instant.now().plusSeconds(5), null);
+        assertThat(categoryService.findById(1L).name()).isEqualTo("Renomeada no Primário");
+        assertThat(cache.contains(Category.class, 1L)).isTrue();
+
+        // A réplica continua lendo o cache (CacheMode.GET)
+        ReadYourWrites.end();
+        assertThat(categoryService.findById(1L).name()).isEqualTo("Renomeada no Primário");
+    }
+
+    @Test
+    @DisplayName("métricas por pool: primary e replica com conexões roteadas")
+    void poolStats() {
+        productService.findById(1L);
+        create("Métricas do Pool");
+
+        DataSourceStats stats = dataSourceStatsService.stats();
+
+        assertThat(stats.replicaEnabled()).isTrue();
+        assertThat(stats.pools()).extracting(DataSourcePoolStats::pool).containsExactly("primary", "replica");
+        assertThat(stats.pools()).allSatisfy(pool -> {
+            assertThat(pool.routedConnections()).isPositive();
+            assertThat(pool.total()).isPositive();
+            assertThat(pool.maximumPoolSize()).isEqualTo(10);
+        });
+    }
+
+    private ProductResponse create(String name) {
+        return productService.create(new CreateProductRequest(name, null, new BigDecimal("10.00"), 1, 1L, null));
+    }
+
+    private static int count(DataSource dataSource, Long productId) {
+        return new JdbcTemplate(dataSource).queryForObject(
+            "SELECT COUNT(*) FROM products WHERE id = ?", Integer.class, productId);
+    }
+}
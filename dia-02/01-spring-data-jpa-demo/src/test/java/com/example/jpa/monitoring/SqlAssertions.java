@@ -0,0 +1,58 @@
+package com.example.jpa.monitoring;
+
+import java.util.function.Supplier;
+
+/**
+ * Asserções sobre o SQL executado por um trecho de código, para que
+ * correções de N+1 não regridam:
+ *
+ * <pre>{@code
+ * PostResponse post = assertMaxQueries(2, () -> postService.findById(1L));
+ * }</pre>
+ *
+ * <p>Conta os statements preparados pelo Hibernate na thread atual (ver
+ * SqlStats); o código medido não pode estar dentro de outra contagem.</p>
+ */
+public final class SqlAssertions {
+
+    private SqlAssertions() {}
+
+    /**
+     * Executa a ação e falha se ela preparar mais de {@code max} statements.
+     *
+     * @return o resultado da ação
+     */
+    public static <T> T assertMaxQueries(int max, Supplier<T> action) {
+        SqlStats stats = SqlStats.begin();
+        T result;
+        try {
+            result = action.get();
+        } finally {
+            SqlStats.end();
+        }
+        if (stats.count() > max) {
+            throw new AssertionError("Expected at most " + max + " SQL statements but got " + stats);
+        }
+        return result;
+    }
+
+    public static void assertMaxQueries(int max, Runnable action) {
+        assertMaxQueries(max, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Executa a ação e devolve o SQL que ela gerou.
+     */
+    public static SqlStats capture(Runnable action) {
+        SqlStats stats = SqlStats.begin();
+        try {
+            action.run();
+        } finally {
+            SqlStats.end();
+        }
+        return stats;
+    }
+}
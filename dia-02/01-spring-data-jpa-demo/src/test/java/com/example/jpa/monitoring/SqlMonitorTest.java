@@ -0,0 +1,139 @@
+package com.example.jpa.monitoring;
+
+import com.example.jpa.dto.post.PostResponse;
+import com.example.jpa.repository.ProductRepository;
+import com.example.jpa.service.PostService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.WebApplicationContext;
+
+import static com.example.jpa.monitoring.SqlAssertions.assertMaxQueries;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Contagem de SQL por requisição: headers, warning de N+1 e assertMaxQueries.
+ */
+@SpringBootTest
+@ExtendWith(OutputCaptureExtension.class)
+@DisplayName("SqlStats — contagem de SQL e detecção de N+1")
+class SqlMonitorTest {
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private FilterRegistrationBean<SqlStatsFilter> sqlStatsFilter;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context)
+            .addFilters(sqlStatsFilter.getFilter())
+            .build();
+    }
+
+    @Test
+    @DisplayName("resposta traz X-SQL-Count e X-SQL-Time")
+    void shouldExposeSqlHeaders() throws Exception {
+        mockMvc.perform(get("/api/posts/1"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(SqlStatsFilter.COUNT_HEADER, "2"))
+            .andExpect(header().string(SqlStatsFilter.TIME_HEADER, matchesPattern("\\d+\\.\\d{2}")));
+    }
+
+    @Test
+    @DisplayName("headers também vão em respostas de erro")
+    void shouldExposeSqlHeadersOnErrors() throws Exception {
+        mockMvc.perform(get("/api/posts/9999"))
+            .andExpect(status().isNotFound())
+            .andExpect(header().string(SqlStatsFilter.COUNT_HEADER, "1"));
+    }
+
+    @Test
+    @DisplayName("statement repetido acima do limite gera warning de N+1")
+    void shouldWarnOnRepeatedStatements(CapturedOutput output) throws Exception {
+        MockMvc oneByOne = MockMvcBuilders.standaloneSetup(new OneByOneController())
+            .addFilters(sqlStatsFilter.getFilter())
+            .build();
+
+        oneByOne.perform(get("/api/test/products-one-by-one"))
+            .andExpect(status().isOk());
+
+        assertThat(output.getOut())
+            .contains("Possible N+1: 5x same statement in GET /api/test/products-one-by-one")
+            .contains("from products p1_0 where p1_0.id=?");
+    }
+
+    @Test
+    @DisplayName("requisição sem repetição não gera warning")
+    void shouldNotWarnWithoutRepetition(CapturedOutput output) throws Exception {
+        mockMvc.perform(get("/api/posts/1"))
+            .andExpect(status().isOk());
+
+        assertThat(output.getOut()).doesNotContain("Possible N+1");
+    }
+
+    @Test
+    @DisplayName("assertMaxQueries: findById busca post + comments (JOIN FETCH) e tags (lote)")
+    void findByIdWithDetailsIsTwoQueries() {
+        PostResponse post = assertMaxQueries(2, () -> postService.findById(1L));
+
+        assertThat(post.tags()).isNotEmpty();
+    }
+
+    @Test
+    @DisplayName("assertMaxQueries falha listando os statements repetidos")
+    void assertMaxQueriesReportsStatements() {
+        assertThatThrownBy(() -> assertMaxQueries(1, () -> postService.findAll()))
+            .isInstanceOf(AssertionError.class)
+            .hasMessageContaining("Expected at most 1 SQL statements")
+            .hasMessageContaining("from comments");
+    }
+
+    @Test
+    @DisplayName("formato ignora comentários, espaços e tamanho da lista IN")
+    void shapeNormalizesStatements() {
+        assertThat(SqlStats.shape("/* load Post */ select p.id\n  from posts p where p.id in (?, ?,?)"))
+            .isEqualTo("select p.id from posts p where p.id in (?)");
+        assertThat(SqlStats.shape("select * from t where a=? and b=?"))
+            .isEqualTo("select * from t where a=? and b=?");
+    }
+
+    // Um findById por produto: o mesmo SELECT repetido, como num N+1.
+    // Classe interna não estática: o component scan não a registra no contexto da aplicação
+    @RestController
+    class OneByOneController {
+
+        @GetMapping("/api/test/products-one-by-one")
+        long load() {
+            long found = 0;
+            for (long id = 1; id <= 5; id++) {
+                found += productRepository.findById(id).isPresent() ? 1 : 0;
+            }
+            return found;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.jpa.repository;
+
+import com.example.jpa.monitoring.SqlStats;
+import com.example.jpa.service.ProductService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Busca dinâmica de produtos: cada combinação de filtros gera só os
+ * predicados informados, e o plano (EXPLAIN do H2) usa o índice do filtro.
+ *
+ * <p>O SQL é capturado do Hibernate pela SqlStats e passado ao EXPLAIN com
+ * os parâmetros ainda em aberto (o H2 monta o plano sem eles).</p>
+ */
+@SpringBootTest
+@DisplayName("ProductSpecifications — busca dinâmica e índices")
+class ProductSearchExplainTest {
+
+    private static final Pageable FIRST_PAGE = PageRequest.of(0, 10, Sort.by("name").ascending());
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private SqlStats captured;
+
+    @BeforeEach
+    void setUp() {
+        captured = SqlStats.begin();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SqlStats.end();
+    }
+
+    static Stream<Arguments> indexedFilters() {
+        BigDecimal min = new BigDecimal("100");
+        BigDecimal max = new BigDecimal("500");
+        return Stream.of(
+                Arguments.of("categoria", null, 1L, null, null, null, "IDX_PRODUCTS_CATEGORY"),
+                Arguments.of("faixa de preço", null, null, min, max, null, "IDX_PRODUCTS_PRICE"),
+                Arguments.of("preço mínimo", null, null, min, null, null, "IDX_PRODUCTS_PRICE"),
+                Arguments.of("ativo", null, null, null, null, true, "IDX_PRODUCTS_ACTIVE"),
+                Arguments.of("nome + categoria", "o", 2L, null, null, null, "IDX_PRODUCTS_CATEGORY"),
+                Arguments.of("todos os filtros", "o", 1L, min, max, true, "IDX_PRODUCTS_"));
+    }
+
+    @ParameterizedTest(name = "{0} → {6}")
+    @MethodSource("indexedFilters")
+    @DisplayName("cada combinação de filtros usa índice")
+    void shouldUseIndexForFilterCombination(String description, String name, Long categoryId,
+                                            BigDecimal minPrice, BigDecimal maxPrice, Boolean active,
+                                            String expectedIndex) {
+        productService.searchProducts(name, categoryId, minPrice, maxPrice, active, FIRST_PAGE);
+
+        String plan = explain(searchSql());
+
+        assertThat(plan).contains(expectedIndex).doesNotContain("tableScan");
+    }
+
+    @Test
+    @DisplayName("só os filtros informados viram predicados")
+    void shouldEmitOnlySuppliedPredicates() {
+        productService.searchProducts(null, 1L, null, null, null, FIRST_PAGE);
+
+        String where = searchSql().toLowerCase(Locale.ROOT);
+        where = where.substring(where.indexOf(" where "));
+
+        assertThat(where)
+                .contains("category_id")
+                .doesNotContain("is null")
+                .doesNotContain("price")
+                .doesNotContain("active")
+                .doesNotContain("like");
+    }
+
+    @Test
+    @DisplayName("nome sozinho ('%x%') lê todas as linhas: LIKE com curinga inicial não é condição de índice")
+    void nameOnlySearchReadsEveryRow() {
+        productService.searchProducts("laptop", null, null, null, null, FIRST_PAGE);
+
+        // O H2 percorre idx_products_name só pela ordenação (ORDER BY name), sem condição
+        // de busca ("IDX: cond"); o LIKE é avaliado linha a linha
+        assertThat(explain(searchSql()))
+                .doesNotContainPattern("IDX_PRODUCTS_\\w+:")
+                .containsPattern("(?s)/\\* WHERE LOWER\\(P1_0\\.NAME\\) LIKE");
+    }
+
+    @Test
+    @DisplayName("primeira página incompleta não executa COUNT")
+    void shouldSkipCountWhenFirstPageIsShort() {
+        Page<?> page = productService.searchProducts(null, 2L, null, null, null, FIRST_PAGE);
+
+        assertThat(page.getContent()).hasSizeLessThan(FIRST_PAGE.getPageSize());
+        assertThat(page.getTotalElements()).isEqualTo(page.getContent().size());
+        assertThat(countQueries()).isZero();
+    }
+
+    @Test
+    @DisplayName("primeira página cheia executa COUNT para o total")
+    void shouldCountWhenFirstPageIsFull() {
+        Page<?> page = productService.searchProducts(null, null, null, null, null, PageRequest.of(0, 5));
+
+        assertThat(page.getContent()).hasSize(5);
+        assertThat(countQueries()).isEqualTo(1);
+        assertThat(page.getTotalElements()).isGreaterThan(5);
+    }
+
+    // ========== helpers ==========
+
+    private String searchSql() {
+        return captured.statements().stream()
+                .filter(sql -> sql.toLowerCase(Locale.ROOT).contains("from products"))
+                .filter(sql -> !sql.toLowerCase(Locale.ROOT).contains("count("))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No product SELECT captured: " + captured));
+    }
+
+    private int countQueries() {
+        return captured.countsByShape().entrySet().stream()
+                .filter(entry -> entry.getKey().toLowerCase(Locale.ROOT).contains("count("))
+                .mapToInt(entry -> entry.getValue())
+                .sum();
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.query(
+                connection -> connection.prepareStatement("EXPLAIN " + sql),
+                rs -> rs.next() ? rs.getString(1) : "");
+    }
+}
@@ -0,0 +1,235 @@
+package com.example.jpa.service;
+
+import com.example.jpa.dto.category.CategoryResponse;
+import com.example.jpa.dto.category.CategoryStatsDrift;
+import com.example.jpa.dto.category.CategoryStatsResponse;
+import com.example.jpa.dto.category.CategoryTotals;
+import com.example.jpa.dto.category.StatsReconcileReport;
+import com.example.jpa.dto.product.CreateProductRequest;
+import com.example.jpa.dto.product.ProductResponse;
+import com.example.jpa.dto.product.UpdateProductRequest;
+import com.example.jpa.exception.ResourceNotFoundException;
+import com.example.jpa.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static com.example.jpa.monitoring.SqlAssertions.assertMaxQueries;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * category_stats acompanha cada escrita em products e bate com o
+ * recálculo a partir da tabela ao fim de cada cenário.
+ */
+@SpringBootTest
+@DisplayName("CategoryStatsService — totais por categoria")
+class CategoryStatsTest {
+
+    @Autowired
+    private CategoryStatsService statsService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<Long> created = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        created.stream()
+            .filter(productRepository::existsById)
+            .forEach(productService::delete);
+        created.clear();
+
+        // Todo cenário termina sem divergência (inclusive depois da limpeza)
+        assertThat(statsService.reconcile().drifts()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("dados iniciais: category_stats bate com products")
+    void seedMatchesProducts() {
+        CategoryStatsResponse electronics = statsService.findByCategoryId(1L);
+
+        // Dell 4500 (15), Mouse 350 (50), Teclado 550 (30), Fone 250 (0)
+        assertThat(electronics.productCount()).isEqualTo(4);
+        assertThat(electronics.inStockCount()).isEqualTo(3);
+        assertThat(electronics.totalStock()).isEqualTo(95);
+        assertThat(electronics.priceSum()).isEqualByComparingTo("5650.00");
+        assertThat(electronics.averagePrice()).isEqualByComparingTo("1412.50");
+    }
+
+    @Test
+    @DisplayName("create, update (troca de categoria) e delete ajustam as duas categorias")
+    void singleProductWritesKeepTotals() {
+        CategoryTotals books = totals(2L);
+        CategoryTotals clothes = totals(3L);
+
+        ProductResponse product = create("Livro de Teste", "40.00", 0, 2L);
+        assertThat(totals(2L)).isEqualTo(books.plus(new CategoryTotals(1, 0, 0, new BigDecimal("40.00"))));
+
+        productService.update(product.id(),
+            new UpdateProductRequest(null, null, new BigDecimal("60.00"), 7, 3L, null, null, null));
+        assertThat(totals(2L)).isEqualTo(books);
+        assertThat(totals(3L)).isEqualTo(clothes.plus(new CategoryTotals(1, 1, 7, new BigDecimal("60.00"))));
+
+        productService.delete(product.id());
+        assertThat(totals(3L)).isEqualTo(clothes);
+    }
+
+    @Test
+    @DisplayName("importBulk soma os totais por categoria")
+    void bulkImportKeepsTotals() {
+        CategoryTotals food = totals(4L);
+        CategoryTotals sports = totals(5L);
+
+        List<CreateProductRequest> requests = IntStream.range(0, 30)
+            .mapToObj(i -> new CreateProductRequest("Bulk Stats " + i, null, new BigDecimal("10.00"),
+                i % 3, i % 2 == 0 ? 4L : 5L, null))
+            .toList();
+        productService.importBulk(requests);
+        productRepository.findAll().stream()
+            .filter(product -> product.getName().startsWith("Bulk Stats "))
+            .forEach(product -> created.add(product.getId()));
+
+        // 15 por categoria; estoque 0,1,2,0,1,2... → 10 com estoque, soma 15
+        assertThat(totals(4L)).isEqualTo(food.plus(new CategoryTotals(15, 10, 15, new BigDecimal("150.00"))));
+        assertThat(totals(5L)).isEqualTo(sports.plus(new CategoryTotals(15, 10, 15, new BigDecimal("150.00"))));
+    }
+
+    @Test
+    @DisplayName("updateStock (UPDATE em massa) atualiza estoque e produtos em estoque")
+    void bulkStockUpdateKeepsTotals() {
+        ProductResponse product = create("Estoque de Teste", "20.00", 5, 1L);
+        CategoryTotals before = totals(1L);
+
+        productService.updateStock(product.id(), 0);
+
+        assertThat(totals(1L)).isEqualTo(before.plus(new CategoryTotals(0, -1, -5, BigDecimal.ZERO)));
+    }
+
+    @Test
+    @DisplayName("DELETE em massa recalcula as categorias atingidas")
+    void bulkDeleteRecomputesCategories() {
+        CategoryTotals sports = totals(5L);
+        ProductResponse product = create("Inativo de Teste", "99.00", 3, 5L);
+        productService.update(product.id(), new UpdateProductRequest(null, null, null, null, null, null, false, null));
+
+        int deleted = productService.deleteInactiveCreatedBefore(LocalDateTime.now().plusMinutes(1));
+
+        assertThat(deleted).isEqualTo(1);
+        assertThat(totals(5L)).isEqualTo(sports);
+    }
+
+    @Test
+    @DisplayName("reconciliação relata e corrige divergência")
+    void reconcileFixesDrift() {
+        CategoryTotals books = totals(2L);
+        // Mudança fora da aplicação: category_stats fica para trás
+        jdbcTemplate.update("UPDATE category_stats SET product_count = 999 WHERE category_id = 2");
+
+        StatsReconcileReport report = statsService.reconcile();
+
+        assertThat(report.categories()).isGreaterThanOrEqualTo(5);
+        assertThat(report.drifts()).singleElement().satisfies(drift -> {
+            assertThat(drift.categoryId()).isEqualTo(2L);
+            assertThat(drift.stored().productCount()).isEqualTo(999);
+            assertThat(drift.actual()).isEqualTo(books);
+        });
+        assertThat(totals(2L)).isEqualTo(books);
+    }
+
+    @Test
+    @DisplayName("reconciliação cria a linha de categoria inserida direto no banco")
+    void reconcileCreatesMissingRow() {
+        jdbcTemplate.update("INSERT INTO categories (id, name, active, created_at, updated_at) "
+            + "VALUES (900, 'Sem Stats', true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)");
+        try {
+            // Sem linha: a leitura agrega products
+            assertThat(statsService.findByCategoryId(900L).productCount()).isZero();
+
+            assertThat(statsService.reconcile().drifts())
+                .extracting(CategoryStatsDrift::categoryId, CategoryStatsDrift::stored)
+                .containsExactly(tuple(900L, null));
+            assertThat(statsService.findByCategoryId(900L).updatedAt()).isNotNull();
+        } finally {
+            categoryService.delete(900L);
+        }
+    }
+
+    @Test
+    @DisplayName("escritas concorrentes na mesma categoria não perdem atualização")
+    void concurrentWritesKeepTotals() throws Exception {
+        CategoryTotals books = totals(2L);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<ProductResponse>> futures = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                String name = "Concorrente " + i;
+                futures.add(executor.submit(() -> productService.create(
+                    new CreateProductRequest(name, null, new BigDecimal("1.50"), 2, 2L, null))));
+            }
+            for (Future<ProductResponse> future : futures) {
+                created.add(future.get().id());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(totals(2L)).isEqualTo(books.plus(new CategoryTotals(40, 40, 80, new BigDecimal("60.00"))));
+    }
+
+    @Test
+    @DisplayName("leituras: uma linha por categoria, sem agregar products")
+    void readsAreSingleQueries() {
+        CategoryStatsResponse stats = assertMaxQueries(1, () -> statsService.findByCategoryId(1L));
+        BigDecimal average = assertMaxQueries(1, () -> productService.getAveragePriceByCategory(1L));
+        List<CategoryResponse> categories = assertMaxQueries(2, () -> categoryService.findAll());
+
+        assertThat(average).isEqualByComparingTo(stats.averagePrice());
+        assertThat(categories).filteredOn(category -> category.id().equals(1L))
+            .singleElement()
+            .extracting(CategoryResponse::productCount)
+            .isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("categoria inexistente gera 404")
+    void unknownCategory() {
+        assertThatThrownBy(() -> statsService.findByCategoryId(9999L))
+            .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    private ProductResponse create(String name, String price, int stock, Long categoryId) {
+        ProductResponse product = productService.create(
+            new CreateProductRequest(name, null, new BigDecimal(price), stock, categoryId, null));
+        created.add(product.id());
+        return product;
+    }
+
+    private CategoryTotals totals(Long categoryId) {
+        CategoryStatsResponse stats = statsService.findByCategoryId(categoryId);
+        return new CategoryTotals(stats.productCount(), stats.inStockCount(), stats.totalStock(), stats.priceSum());
+    }
+}
@@ -0,0 +1,248 @@
+package com.example.jpa.service;
+
+import com.example.jpa.dto.job.MaintenanceJobResponse;
+import com.example.jpa.dto.job.StartJobRequest;
+import com.example.jpa.dto.product.CreateProductRequest;
+import com.example.jpa.dto.product.ProductResponse;
+import com.example.jpa.exception.BusinessException;
+import com.example.jpa.model.MaintenanceJob;
+import com.example.jpa.model.MaintenanceJob.Status;
+import com.example.jpa.model.MaintenanceJob.Type;
+import com.example.jpa.repository.MaintenanceJobRepository;
+import com.example.jpa.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Jobs em lotes por faixa de id: processam tudo até o maior id do início,
+ * gravam o cursor a cada lote (retomada), param quando cancelados e mantêm
+ * category_stats em dia.
+ */
+@SpringBootTest
+@DisplayName("MaintenanceJobService — jobs em lotes")
+class MaintenanceJobTest {
+
+    @Autowired
+    private MaintenanceJobService jobService;
+
+    @Autowired
+    private MaintenanceJobRepository jobRepository;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryStatsService statsService;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private WebApplicationContext context;
+
+    private final List<Long> created = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        jobRepository.findByStatusOrderById(Status.RUNNING).forEach(job -> jobService.cancel(job.getId()));
+        created.stream()
+            .filter(productRepository::existsById)
+            .forEach(productService::delete);
+        created.clear();
+
+        assertThat(statsService.reconcile().drifts()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("desativar sem estoque: todos os lotes até o maior id do início")
+    void deactivateOutOfStockInChunks() throws Exception {
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        for (int i = 0; i < 25; i++) {
+            create("Sem Estoque " + i, i % 2 == 0 ? 0 : 5);
+        }
+        List<Long> outOfStock = jdbc.queryForList(
+            "SELECT id FROM products WHERE stock = 0 AND active = true ORDER BY id", Long.class);
+
+        try {
+            MaintenanceJobResponse job = awaitFinished(
+                jobService.start(Type.DEACTIVATE_OUT_OF_STOCK, new StartJobRequest(null, 5, 0L)).id());
+
+            assertThat(job.status()).isEqualTo(Status.COMPLETED);
+            assertThat(job.rowsAffected()).isEqualTo(outOfStock.size());
+            assertThat(job.chunks()).isGreaterThanOrEqualTo(5);
+            assertThat(job.lastProcessedId()).isEqualTo(job.maxId());
+            assertThat(job.progressPercent()).isEqualTo(100.0);
+            assertThat(job.finishedAt()).isNotNull();
+            assertThat(jdbc.queryForObject(
+                "SELECT COUNT(*) FROM products WHERE stock = 0 AND active = true", Integer.class)).isZero();
+            assertThat(jdbc.queryForObject(
+                "SELECT COUNT(*) FROM products WHERE stock > 0 AND active = false AND id IN (" + ids() + ")",
+                Integer.class)).isZero();
+        } finally {
+            // Seed (Fone JBL) volta a ficar ativo para os outros testes
+            outOfStock.forEach(id -> jdbc.update("UPDATE products SET active = true WHERE id = ?", id));
+        }
+    }
+
+    @Test
+    @DisplayName("remover inativos antigos: só os inativos antes da data, category_stats em dia")
+    void deleteOldInactiveInChunks() throws Exception {
+        List<Long> inactive = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            ProductResponse product = create("Inativo Antigo " + i, i);
+            inactive.add(product.id());
+        }
+        ProductResponse active = create("Ativo Antigo", 3);
+        new JdbcTemplate(dataSource).update(
+            "UPDATE products SET active = false WHERE id IN (" + ids(inactive) + ")");
+
+        MaintenanceJobResponse job = awaitFinished(jobService.start(Type.DELETE_OLD_INACTIVE,
+            new StartJobRequest(LocalDateTime.now().plusMinutes(1), 4, 0L)).id());
+
+        assertThat(job.status()).isEqualTo(Status.COMPLETED);
+        assertThat(job.rowsAffected()).isEqualTo(12);
+        assertThat(inactive).noneMatch(productRepository::existsById);
+        assertThat(productRepository.existsById(active.id())).isTrue();
+        assertThat(productRepository.existsById(1L)).isTrue();
+        // tearDown: reconcile sem divergência (cada lote recalculou suas categorias)
+    }
+
+    @Test
+    @DisplayName("cancelar: o job para no lote seguinte e mantém o que já fez")
+    void cancel() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            create("Cancelável " + i, 1);
+        }
+        MaintenanceJobResponse started = jobService.start(Type.DEACTIVATE_OUT_OF_STOCK, new StartJobRequest(null, 1, 200L));
+        awaitChunks(started.id(), 1);
+
+        MaintenanceJobResponse cancelled = jobService.cancel(started.id());
+        Thread.sleep(400);
+        MaintenanceJobResponse after = jobService.findById(started.id());
+
+        assertThat(cancelled.status()).isEqualTo(Status.CANCELLED);
+        assertThat(after.status()).isEqualTo(Status.CANCELLED);
+        assertThat(after.chunks()).isEqualTo(cancelled.chunks());
+        assertThat(after.lastProcessedId()).isLessThan(after.maxId());
+        assertThatThrownBy(() -> jobService.cancel(started.id()))
+            .isInstanceOf(BusinessException.class)
+            .hasMessageContaining("não está em execução");
+    }
+
+    @Test
+    @DisplayName("retomada: job RUNNING de antes do restart continua depois do cursor")
+    void resumeAfterRestart() throws Exception {
+        ProductResponse before = create("Antes do Cursor", 0);
+        ProductResponse after = create("Depois do Cursor", 0);
+        // Como se a aplicação tivesse parado depois do lote que terminou em before.id()
+        MaintenanceJob job = new MaintenanceJob(Type.DEACTIVATE_OUT_OF_STOCK, null, 10, 0, after.id());
+        job.recordChunk(before.id(), 0, 0);
+        Long jobId = jobRepository.save(job).getId();
+
+        jobService.resumeRunningJobs();
+        MaintenanceJobResponse resumed = awaitFinished(jobId);
+
+        assertThat(resumed.status()).isEqualTo(Status.COMPLETED);
+        assertThat(resumed.rowsAffected()).isEqualTo(1);
+        assertThat(productService.findById(before.id()).active()).isTrue();
+        assertThat(productService.findById(after.id()).active()).isFalse();
+    }
+
+    @Test
+    @DisplayName("um job por tipo; delete-old-inactive exige a data")
+    void validation() {
+        MaintenanceJobResponse running = jobService.start(Type.DEACTIVATE_OUT_OF_STOCK, new StartJobRequest(null, 1, 1000L));
+
+        assertThatThrownBy(() -> jobService.start(Type.DEACTIVATE_OUT_OF_STOCK, new StartJobRequest(null, null, null)))
+            .isInstanceOf(BusinessException.class)
+            .hasMessageContaining("em execução");
+        assertThatThrownBy(() -> jobService.start(Type.DELETE_OLD_INACTIVE, new StartJobRequest(null, null, null)))
+            .isInstanceOf(BusinessException.class)
+            .hasMessageContaining("createdBefore");
+
+        jobService.cancel(running.id());
+    }
+
+    @Test
+    @DisplayName("HTTP: POST devolve 202 e GET mostra o progresso")
+    void http() throws Exception {
+        MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+
+        String body = mockMvc.perform(post("/api/jobs/delete-old-inactive")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"createdBefore\": \"2000-01-01T00:00:00\", \"chunkSize\": 50}"))
+            .andExpect(status().isAccepted())
+            .andExpect(jsonPath("$.status").value("RUNNING"))
+            .andExpect(jsonPath("$.chunkSize").value(50))
+            .andReturn().getResponse().getContentAsString();
+        long id = Long.parseLong(body.replaceAll(".*\"id\":(\\d+).*", "$1"));
+        awaitFinished(id);
+
+        mockMvc.perform(get("/api/jobs/{id}", id))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.status").value("COMPLETED"))
+            .andExpect(jsonPath("$.rowsAffected").value(0));
+        mockMvc.perform(post("/api/jobs/{id}/cancel", id))
+            .andExpect(status().isUnprocessableEntity());
+        mockMvc.perform(post("/api/jobs/deactivate-out-of-stock")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"chunkSize\": 0}"))
+            .andExpect(status().isBadRequest());
+    }
+
+    private ProductResponse create(String name, int stock) {
+        ProductResponse product = productService.create(
+            new CreateProductRequest(name, null, new BigDecimal("10.00"), stock, 2L, null));
+        created.add(product.id());
+        return product;
+    }
+
+    private String ids() {
+        return ids(created);
+    }
+
+    private static String ids(List<Long> ids) {
+        return String.join(",", ids.stream().map(String::valueOf).toList());
+    }
+
+    private MaintenanceJobResponse awaitFinished(Long jobId) throws InterruptedException {
+        for (int i = 0; i < 200; i++) {
+            MaintenanceJobResponse job = jobService.findById(jobId);
+            if (job.status() != Status.RUNNING) {
+                return job;
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("Job " + jobId + " não terminou em 10 s");
+    }
+
+    private void awaitChunks(Long jobId, int chunks) throws InterruptedException {
+        for (int i = 0; i < 200 && jobService.findById(jobId).chunks() < chunks; i++) {
+            Thread.sleep(20);
+        }
+    }
+}
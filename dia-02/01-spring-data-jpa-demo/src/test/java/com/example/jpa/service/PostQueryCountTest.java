@@ -0,0 +1,192 @@
+package com.example.jpa.service;
+
+import com.example.jpa.dto.post.CreatePostRequest;
+import com.example.jpa.dto.post.PostResponse;
+import com.example.jpa.exception.ResourceNotFoundException;
+import com.example.jpa.model.Comment;
+import com.example.jpa.model.Post;
+import com.example.jpa.model.Tag;
+import com.example.jpa.monitoring.SqlStats;
+import com.example.jpa.repository.TagRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import static com.example.jpa.monitoring.SqlAssertions.assertMaxQueries;
+import static com.example.jpa.monitoring.SqlAssertions.capture;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Posts sem N+1: tags resolvidas em uma query e listagem com número fixo
+ * de queries, qualquer que seja o tamanho da página.
+ */
+@SpringBootTest
+@Transactional
+@DisplayName("PostService — quantidade de queries")
+class PostQueryCountTest {
+
+    private static final int EXTRA_POSTS = 30;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private TagRepository tagRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        // Posts com 2 tags e 0 a 2 comentários (desfeitos no rollback do teste)
+        List<Tag> tags = tagRepository.findAll();
+        for (int i = 0; i < EXTRA_POSTS; i++) {
+            Post post = new Post("Post de carga " + i, "Conteúdo do post de carga " + i, "Autor " + i);
+            post.addTag(tags.get(i % tags.size()));
+            post.addTag(tags.get((i + 1) % tags.size()));
+            for (int c = 0; c < i % 3; c++) {
+                post.addComment(new Comment("Comentário " + c, "Leitor " + c));
+            }
+            entityManager.persist(post);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @ParameterizedTest(name = "página de {0}")
+    @ValueSource(ints = {2, 10, 25})
+    @DisplayName("findAllPaged: posts com contagem + COUNT + tags, para qualquer tamanho de página")
+    void pagedListingHasConstantQueryCount(int size) {
+        Page<PostResponse> page = assertMaxQueries(3,
+            () -> postService.findAllPaged(PageRequest.of(0, size, Sort.by("createdAt").descending())));
+
+        assertThat(page.getContent()).hasSize(size);
+        assertThat(page.getContent()).allSatisfy(post -> assertThat(post.tags()).isNotEmpty());
+    }
+
+    @Test
+    @DisplayName("findAllPaged traz as mesmas tags e contagens que o post carregado por inteiro")
+    void pagedListingMatchesEntityData() {
+        Page<PostResponse> page = postService.findAllPaged(PageRequest.of(0, 50, Sort.by("id")));
+        entityManager.clear();
+
+        assertThat(page.getContent()).hasSize(EXTRA_POSTS + 3);
+        for (PostResponse listed : page.getContent()) {
+            PostResponse full = PostResponse.from(entityManager.find(Post.class, listed.id()));
+            assertThat(listed.tags()).isEqualTo(full.tags());
+            assertThat(listed.commentCount()).isEqualTo(full.commentCount());
+        }
+    }
+
+    @Test
+    @DisplayName("findAll não cresce com a quantidade de posts")
+    void listingIsNotNPlusOne() {
+        List<PostResponse> posts = assertMaxQueries(2, () -> postService.findAll());
+
+        assertThat(posts).hasSize(EXTRA_POSTS + 3);
+    }
+
+    @Test
+    @DisplayName("findAll com mais posts que o bloco do IN: uma query de tags por bloco de 1000 ids")
+    void tagQueryIsChunked() {
+        Tag tag = tagRepository.findAll().get(0);
+        for (int i = 0; i < 1_000; i++) {
+            Post post = new Post("Post em massa " + i, "Conteúdo do post em massa " + i, "Autor");
+            post.addTag(tag);
+            entityManager.persist(post);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        SqlStats stats = capture(() -> postService.findAll());
+        List<PostResponse> posts = postService.findAll();
+
+        long tagQueries = stats.statements().stream()
+            .filter(sql -> sql.toLowerCase(Locale.ROOT).contains("join post_tags"))
+            .count();
+        assertThat(tagQueries).isEqualTo(2);
+        assertThat(stats.count()).isEqualTo(3);
+        assertThat(posts).hasSize(EXTRA_POSTS + 3 + 1_000);
+        assertThat(posts).allSatisfy(post -> assertThat(post.tags()).isNotEmpty());
+    }
+
+    @Test
+    @DisplayName("listagem conta comentários no banco, sem ler as linhas de comments")
+    void listingNeverLoadsComments() {
+        SqlStats stats = capture(() -> postService.findByPublished(true));
+
+        assertThat(stats.count()).isEqualTo(2);
+        assertThat(String.join("\n", stats.statements()).toLowerCase(Locale.ROOT))
+            .contains("count(")
+            .doesNotContain(".text");
+    }
+
+    @Test
+    @DisplayName("coleções lazy de vários posts carregam em lote (@BatchSize)")
+    void lazyCollectionsLoadInBatches() {
+        List<Post> posts = entityManager.createQuery("SELECT p FROM Post p", Post.class).getResultList();
+
+        SqlStats stats = capture(() -> posts.forEach(post -> {
+            post.getComments().size();
+            post.getTags().size();
+        }));
+
+        assertThat(stats.count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("findById: commentCount não é multiplicado pelas tags")
+    void findByIdCountsEachCommentOnce() {
+        PostResponse post = postService.findById(1L);
+
+        assertThat(post.commentCount()).isEqualTo(3);
+        assertThat(post.tags()).hasSize(3);
+    }
+
+    @Test
+    @DisplayName("create resolve todas as tags em uma query")
+    void createResolvesTagsInOneQuery() {
+        SqlStats stats = capture(() -> postService.create(
+            new CreatePostRequest("Post com tags", "Conteúdo com várias tags", "Autor", Set.of(1L, 2L, 3L, 4L))));
+
+        long tagQueries = stats.countsByShape().entrySet().stream()
+            .filter(entry -> entry.getKey().toLowerCase(Locale.ROOT).contains("from tags"))
+            .mapToInt(entry -> entry.getValue())
+            .sum();
+        assertThat(tagQueries).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("create informa todos os ids de tag inexistentes")
+    void createReportsEveryMissingTag() {
+        CreatePostRequest request = new CreatePostRequest("Post com tags", "Conteúdo com várias tags", "Autor",
+            Set.of(1L, 999L, 998L));
+
+        assertThatThrownBy(() -> postService.create(request))
+            .isInstanceOf(ResourceNotFoundException.class)
+            .hasMessageContaining("[998, 999]");
+    }
+
+    @Test
+    @DisplayName("update troca as tags com uma query de tags")
+    void updateReplacesTags() {
+        PostResponse updated = postService.update(1L,
+            new CreatePostRequest("Título atualizado", "Conteúdo atualizado", "Autor", Set.of(4L, 5L)));
+
+        assertThat(updated.tags()).hasSize(2);
+    }
+}
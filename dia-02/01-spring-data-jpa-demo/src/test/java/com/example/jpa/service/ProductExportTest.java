@@ -0,0 +1,169 @@
+package com.example.jpa.service;
+
+import com.example.jpa.dto.product.ExportFormat;
+import com.example.jpa.exception.BusinessException;
+import com.example.jpa.model.Category;
+import com.example.jpa.model.Product;
+import com.example.jpa.monitoring.SqlStats;
+import com.example.jpa.repository.CategoryRepository;
+import com.example.jpa.repository.ProductRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Exportação de produtos em stream: uma linha por produto, uma única query
+ * e nenhuma entidade no contexto de persistência.
+ */
+@SpringBootTest
+@DisplayName("ProductService — exportação NDJSON/CSV")
+class ProductExportTest {
+
+    private static final String TRICKY_NAME = "Cabo \"HDMI\", 2m";
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Product tricky;
+
+    @BeforeEach
+    void setUp() {
+        Category category = categoryRepository.findAll().get(0);
+        tricky = productRepository.save(new Product(TRICKY_NAME, new BigDecimal("19.90"), 5, category));
+    }
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteById(tricky.getId());
+    }
+
+    @Test
+    @DisplayName("NDJSON: um objeto por linha, todos os produtos, em uma query")
+    void ndjsonHasOneLinePerProduct() throws IOException {
+        SqlStats stats = SqlStats.begin();
+        String body;
+        try {
+            body = export(ExportFormat.NDJSON);
+        } finally {
+            SqlStats.end();
+        }
+
+        List<String> lines = body.lines().toList();
+        assertThat(lines).hasSize((int) productRepository.count());
+        assertThat(body).endsWith("\n").doesNotStartWith(" ");
+        assertThat(stats.count()).isEqualTo(1);
+
+        JsonNode last = objectMapper.readTree(lines.get(lines.size() - 1));
+        assertThat(last.get("id").asLong()).isEqualTo(tricky.getId());
+        assertThat(last.get("name").asText()).isEqualTo(TRICKY_NAME);
+        assertThat(last.get("price").decimalValue()).isEqualByComparingTo("19.90");
+    }
+
+    @Test
+    @DisplayName("CSV: cabeçalho e campos com vírgula/aspas escapados (RFC 4180)")
+    void csvEscapesSpecialCharacters() throws IOException {
+        List<String> lines = export(ExportFormat.CSV).lines().toList();
+
+        assertThat(lines.get(0)).isEqualTo("id,name,price");
+        assertThat(lines).hasSize((int) productRepository.count() + 1);
+        assertThat(lines.get(lines.size() - 1))
+            .isEqualTo(tricky.getId() + ",\"Cabo \"\"HDMI\"\", 2m\",19.90");
+    }
+
+    @Test
+    @DisplayName("projeção não deixa entidades no contexto de persistência")
+    void exportDoesNotManageEntities() {
+        // Mesma transação do export: o contexto inspecionado é o que ele usou
+        int managed = transactionTemplate.execute(tx -> {
+            try {
+                productService.exportSummaries(ExportFormat.NDJSON, OutputStream.nullOutputStream());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return entityManager.unwrap(Session.class).getStatistics().getEntityCount();
+        });
+
+        assertThat(managed).isZero();
+    }
+
+    @Test
+    @DisplayName("formato inválido é rejeitado")
+    void shouldRejectUnknownFormat() {
+        assertThatThrownBy(() -> ExportFormat.from("xml"))
+            .isInstanceOf(BusinessException.class)
+            .hasMessageContaining("xml");
+    }
+
+    @Test
+    @DisplayName("GET /api/products/export responde em stream com Content-Disposition")
+    void endpointStreamsAttachment() throws Exception {
+        MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+
+        MvcResult started = mockMvc.perform(get("/api/products/export").param("format", "csv"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        mockMvc.perform(asyncDispatch(started))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith("text/csv"))
+            .andExpect(header().string("Content-Disposition", "attachment; filename=\"products.csv\""))
+            .andExpect(content().string(startsWith("id,name,price\n")));
+
+        mockMvc.perform(get("/api/products/export").param("format", "xml"))
+            .andExpect(status().isUnprocessableEntity());
+    }
+
+    private String export(ExportFormat format) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        productService.exportSummaries(format, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.jpa.service;
+
+import com.example.jpa.dto.product.BulkImportResponse;
+import com.example.jpa.dto.product.CreateProductRequest;
+import com.example.jpa.exception.DuplicateResourceException;
+import com.example.jpa.model.Product;
+import com.example.jpa.monitoring.SqlStats;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Session;
+import org.hibernate.SessionEventListener;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static com.example.jpa.monitoring.SqlAssertions.capture;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Importação em lote: duplicados barrados antes de qualquer INSERT e
+ * produtos gravados em batches JDBC com ids reservados em blocos pela sequence.
+ */
+@SpringBootTest
+@Transactional
+@DisplayName("ProductService.importBulk — duplicados e batch de INSERT")
+class ProductImportTest {
+
+    // hibernate.jdbc.batch_size e allocationSize de products_seq
+    private static final int BATCH_SIZE = 50;
+    private static final int PRODUCTS = 120;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("nome repetido dentro do lote: nada é gravado nem consultado")
+    void rejectsDuplicateWithinBatch() {
+        List<CreateProductRequest> requests = List.of(
+            request("Importado Repetido", 1L),
+            request("Importado Único", 1L),
+            request("Importado Repetido", 2L));
+
+        SqlStats stats = capture(() -> assertThatThrownBy(() -> productService.importBulk(requests))
+            .isInstanceOf(DuplicateResourceException.class)
+            .hasMessageContaining("Importado Repetido"));
+
+        assertThat(stats.count()).isZero();
+        assertThat(statistics.getEntityInsertCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("nome que já existe no banco: uma consulta IN e nenhum INSERT")
+    void rejectsDuplicateAgainstDatabase() {
+        List<CreateProductRequest> requests = List.of(
+            request("Importado Novo", 1L),
+            request("Laptop Dell XPS 13", 1L));
+
+        SqlStats stats = capture(() -> assertThatThrownBy(() -> productService.importBulk(requests))
+            .isInstanceOf(DuplicateResourceException.class)
+            .hasMessageContaining("Laptop Dell XPS 13"));
+
+        assertThat(stats.count()).isEqualTo(1);
+        assertThat(statistics.getEntityInsertCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("INSERTs em batches de 50 e ids da sequence em blocos de 50")
+    void insertsInJdbcBatchesWithPooledIds() {
+        List<CreateProductRequest> requests = IntStream.range(0, PRODUCTS)
+            .mapToObj(i -> request("Importado em Lote " + i, i % 2 == 0 ? 1L : 2L))
+            .toList();
+
+        // executeBatch não passa pelo StatementInspector: contado pelos eventos da Session
+        AtomicInteger executedBatches = new AtomicInteger();
+        entityManager.unwrap(Session.class).addEventListeners(new SessionEventListener() {
+            @Override
+            public void jdbcExecuteBatchStart() {
+                executedBatches.incrementAndGet();
+            }
+        });
+
+        List<BulkImportResponse> response = new ArrayList<>();
+        SqlStats stats = capture(() -> response.add(productService.importBulk(requests)));
+
+        int batches = (PRODUCTS + BATCH_SIZE - 1) / BATCH_SIZE;
+        assertThat(response.get(0).imported()).isEqualTo(PRODUCTS);
+        assertThat(response.get(0).categories()).isEqualTo(2);
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(PRODUCTS);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(stats.count());
+        // Um PreparedStatement de INSERT por flush, executado em 3 batches (50 + 50 + 20)
+        assertThat(statements(stats, "insert into products")).isEqualTo(1);
+        assertThat(executedBatches.get()).isEqualTo(batches);
+        assertThat(statements(stats, "products_seq")).isLessThanOrEqualTo(batches + 1);
+
+        List<Long> ids = entityManager.createQuery(
+                "SELECT p.id FROM Product p WHERE p.name LIKE 'Importado em Lote %' ORDER BY p.id", Long.class)
+            .getResultList();
+        assertThat(ids).hasSize(PRODUCTS).doesNotHaveDuplicates();
+        // Um bloco reservado por vez: ids consecutivos, sem um nextval por produto
+        assertThat(ids.get(ids.size() - 1) - ids.get(0)).isEqualTo(PRODUCTS - 1);
+        assertThat(entityManager.find(Product.class, ids.get(0)).getCategory().getId()).isEqualTo(1L);
+    }
+
+    private static long statements(SqlStats stats, String fragment) {
+        return stats.countsByShape().entrySet().stream()
+            .filter(entry -> entry.getKey().toLowerCase(Locale.ROOT).contains(fragment))
+            .mapToInt(entry -> entry.getValue())
+            .sum();
+    }
+
+    private static CreateProductRequest request(String name, Long categoryId) {
+        return new CreateProductRequest(name, null, new BigDecimal("10.00"), 1, categoryId, null);
+    }
+}
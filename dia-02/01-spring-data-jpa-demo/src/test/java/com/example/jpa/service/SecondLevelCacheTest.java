@@ -0,0 +1,149 @@
+package com.example.jpa.service;
+
+import com.example.jpa.dto.cache.CacheRegionStats;
+import com.example.jpa.dto.category.CategoryResponse;
+import com.example.jpa.dto.category.CreateCategoryRequest;
+import com.example.jpa.exception.ResourceNotFoundException;
+import com.example.jpa.repository.CategoryRepository;
+import com.example.jpa.repository.TagRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Cache de segundo nível de Category e Tag: leituras repetidas não vão ao
+ * banco, e escritas pelo JPA invalidam o que ficou em cache.
+ */
+@SpringBootTest
+@DisplayName("Cache de segundo nível — Category e Tag")
+class SecondLevelCacheTest {
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private TagRepository tagRepository;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private CacheService cacheService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        cacheService.evictAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("findById de categoria vai ao banco só na primeira vez")
+    void categoryFindByIdIsCached() {
+        categoryRepository.findById(1L).orElseThrow();
+        long statements = statistics.getPrepareStatementCount();
+
+        categoryRepository.findById(1L).orElseThrow();
+        categoryRepository.findById(1L).orElseThrow();
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(statements);
+        assertThat(statistics.getDomainDataRegionStatistics("categories").getHitCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("findByName de tag usa o query cache")
+    void tagFindByNameIsCached() {
+        tagRepository.findByName("Java").orElseThrow();
+        long statements = statistics.getPrepareStatementCount();
+
+        assertThat(tagRepository.findByName("Java")).get()
+            .extracting(tag -> tag.getName()).isEqualTo("Java");
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(statements);
+        assertThat(statistics.getQueryRegionStatistics("tags-query").getHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("findAllActiveOrdered é invalidada quando uma categoria é criada")
+    void activeCategoriesQueryIsInvalidatedOnWrite() {
+        int before = categoryRepository.findAllActiveOrdered().size();
+        categoryRepository.findAllActiveOrdered();
+        assertThat(statistics.getQueryRegionStatistics("categories-query").getHitCount()).isEqualTo(1);
+
+        CategoryResponse created = categoryService.create(new CreateCategoryRequest("Cache Test", "Categoria temporária"));
+        try {
+            assertThat(categoryRepository.findAllActiveOrdered())
+                .hasSize(before + 1)
+                .extracting(category -> category.getName())
+                .contains("Cache Test");
+        } finally {
+            categoryService.delete(created.id());
+        }
+
+        assertThat(categoryRepository.findAllActiveOrdered()).hasSize(before);
+        assertThat(categoryRepository.findById(created.id())).isEmpty();
+    }
+
+    @Test
+    @DisplayName("update de categoria atualiza a entrada em cache")
+    void categoryUpdateRefreshesCache() {
+        CategoryResponse original = categoryService.findById(2L);
+        try {
+            categoryService.update(2L, new CreateCategoryRequest("Renamed", original.description()));
+
+            long statements = statistics.getPrepareStatementCount();
+            assertThat(categoryRepository.findById(2L)).get()
+                .extracting(category -> category.getName()).isEqualTo("Renamed");
+            assertThat(statistics.getPrepareStatementCount()).isEqualTo(statements);
+        } finally {
+            categoryService.update(2L, new CreateCategoryRequest(original.name(), original.description()));
+        }
+    }
+
+    @Test
+    @DisplayName("stats traz hits e tamanho de cada região configurada")
+    void statsReportEveryRegion() {
+        categoryRepository.findById(1L);
+        categoryRepository.findById(1L);
+
+        assertThat(cacheService.stats())
+            .extracting(CacheRegionStats::region)
+            .contains("categories", "tags", "categories-query", "tags-query", "default-update-timestamps-region");
+        assertThat(cacheService.stats())
+            .filteredOn(stats -> stats.region().equals("categories"))
+            .singleElement()
+            .satisfies(stats -> {
+                assertThat(stats.hits()).isEqualTo(1);
+                assertThat(stats.misses()).isEqualTo(1);
+                assertThat(stats.size()).isEqualTo(1);
+                assertThat(stats.hitRatio()).isEqualTo(0.5);
+            });
+    }
+
+    @Test
+    @DisplayName("evict limpa a região; região desconhecida gera 404")
+    void evictRegion() {
+        categoryRepository.findById(1L);
+        cacheService.evict("categories");
+
+        long statements = statistics.getPrepareStatementCount();
+        categoryRepository.findById(1L);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(statements + 1);
+
+        assertThatThrownBy(() -> cacheService.evict("unknown"))
+            .isInstanceOf(ResourceNotFoundException.class);
+    }
+}
@@ -0,0 +1,378 @@
+package com.example.jpa.service;
+
+import com.example.jpa.dto.category.CategoryStatsResponse;
+import com.example.jpa.dto.category.CategoryTotals;
+import com.example.jpa.dto.product.CreateProductRequest;
+import com.example.jpa.dto.product.ProductResponse;
+import com.example.jpa.dto.product.ReservationItem;
+import com.example.jpa.dto.product.StockReservationResponse;
+import com.example.jpa.dto.product.UpdateProductRequest;
+import com.example.jpa.exception.BusinessException;
+import com.example.jpa.exception.ResourceNotFoundException;
+import com.example.jpa.repository.ProductRepository;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Reserva de estoque com UPDATE condicional: centenas de threads disputando
+ * o mesmo produto nunca sobrevendem, e o update() genérico falha com lock
+ * otimista em vez de sobrescrever uma reserva.
+ */
+@SpringBootTest
+@DisplayName("ProductService — reserva de estoque")
+class StockReservationTest {
+
+    private static final Logger log = LoggerFactory.getLogger(StockReservationTest.class);
+
+    private static final int THREADS = 200;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryStatsService statsService;
+
+    @Autowired
+    private WebApplicationContext context;
+
+    private final List<Long> created = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        created.stream()
+            .filter(productRepository::existsById)
+            .forEach(productService::delete);
+        created.clear();
+
+        // Reservas e devoluções mantêm category_stats em dia
+        assertThat(statsService.reconcile().drifts()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("200 threads disputando 500 unidades: exatamente 500 reservas, estoque 0")
+    void concurrentReservationsNeverOversell() throws Exception {
+        ProductResponse product = create("Reserva Concorrente", 500, 1L);
+        CategoryTotals before = totals(1L);
+        AtomicInteger reserved = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        // Cada thread reserva 1 unidade por vez até o estoque acabar
+        long elapsed = runConcurrently(() -> {
+            while (true) {
+                try {
+                    productService.reserve(product.id(), 1);
+                    reserved.incrementAndGet();
+                } catch (BusinessException e) {
+                    rejected.incrementAndGet();
+                    return null;
+                }
+            }
+        });
+
+        log.info("📊 Conditional UPDATE: {} reservations, {} rejected by {} threads in {} ms ({} reservations/s)",
+            reserved.get(), rejected.get(), THREADS, elapsed, perSecond(reserved.get(), elapsed));
+        assertThat(reserved.get()).isEqualTo(500);
+        assertThat(rejected.get()).isEqualTo(THREADS);
+        assertThat(stock(product.id())).isZero();
+        assertThat(totals(1L)).isEqualTo(before.plus(new CategoryTotals(0, -1, -500, BigDecimal.ZERO)));
+    }
+
+    @Test
+    @DisplayName("read-modify-write com @Version: sem sobrevenda, mas com conflitos e retries")
+    void optimisticReadModifyWriteForComparison() throws Exception {
+        ProductResponse product = create("Reserva Otimista", 50, 1L);
+        AtomicInteger reserved = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+
+        // O mesmo trabalho pelo caminho genérico: lê, decrementa e grava com a versão lida
+        long elapsed = runConcurrently(() -> {
+            while (true) {
+                ProductResponse current = productService.findById(product.id());
+                if (current.stock() == 0) {
+                    return null;
+                }
+                try {
+                    productService.update(product.id(), new UpdateProductRequest(
+                        null, null, null, current.stock() - 1, null, null, null, current.version()));
+                    reserved.incrementAndGet();
+                } catch (ObjectOptimisticLockingFailureException e) {
+                    conflicts.incrementAndGet();
+                }
+            }
+        });
+
+        log.info("📊 Optimistic read-modify-write: {} reservations, {} version conflicts retried by {} threads "
+            + "in {} ms ({} reservations/s)", reserved.get(), conflicts.get(), THREADS, elapsed,
+            perSecond(reserved.get(), elapsed));
+        assertThat(reserved.get()).isEqualTo(50);
+        assertThat(stock(product.id())).isZero();
+    }
+
+    @Test
+    @DisplayName("reservas de vários itens em ordens opostas: sem deadlock, tudo ou nada")
+    void multiItemReservationsInOppositeOrder() throws Exception {
+        ProductResponse first = create("Reserva Item A", 300, 2L);
+        ProductResponse second = create("Reserva Item B", 300, 3L);
+        AtomicInteger reserved = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        AtomicInteger turn = new AtomicInteger();
+
+        // Metade pede [A, B], metade [B, A]: o serviço trava sempre em ordem de id
+        long elapsed = runConcurrently(() -> {
+            boolean reversed = turn.incrementAndGet() % 2 == 0;
+            List<ReservationItem> items = reversed
+                ? List.of(new ReservationItem(second.id(), 1), new ReservationItem(first.id(), 1))
+                : List.of(new ReservationItem(first.id(), 1), new ReservationItem(second.id(), 1));
+            for (int i = 0; i < 2; i++) {
+                try {
+                    productService.reserveAll(items);
+                    reserved.incrementAndGet();
+                } catch (BusinessException e) {
+                    rejected.incrementAndGet();
+                }
+            }
+            return null;
+        });
+
+        log.info("📊 Multi-item reservations: {} reserved, {} rejected by {} threads in {} ms",
+            reserved.get(), rejected.get(), THREADS, elapsed);
+        assertThat(reserved.get()).isEqualTo(300);
+        assertThat(rejected.get()).isEqualTo(2 * THREADS - 300);
+        assertThat(stock(first.id())).isZero();
+        assertThat(stock(second.id())).isZero();
+    }
+
+    @Test
+    @DisplayName("item sem estoque desfaz a reserva dos outros itens")
+    void multiItemReservationIsAllOrNothing() {
+        ProductResponse first = create("Reserva Parcial A", 10, 4L);
+        ProductResponse second = create("Reserva Parcial B", 2, 4L);
+        CategoryTotals before = totals(4L);
+
+        assertThatThrownBy(() -> productService.reserveAll(List.of(
+                new ReservationItem(first.id(), 5), new ReservationItem(second.id(), 3))))
+            .isInstanceOf(BusinessException.class)
+            .hasMessage("Estoque insuficiente para o produto " + second.id() + ": pedido 3, disponível 2");
+
+        assertThat(stock(first.id())).isEqualTo(10);
+        assertThat(stock(second.id())).isEqualTo(2);
+        assertThat(totals(4L)).isEqualTo(before);
+    }
+
+    @Test
+    @DisplayName("itens repetidos somam; release devolve o estoque")
+    void duplicateItemsAndRelease() {
+        ProductResponse product = create("Reserva Repetida", 10, 5L);
+
+        List<StockReservationResponse> reserved = productService.reserveAll(List.of(
+            new ReservationItem(product.id(), 4), new ReservationItem(product.id(), 6)));
+        Long reservationId = reserved.get(0).reservationId();
+        assertThat(reserved).containsExactly(new StockReservationResponse(reservationId, product.id(), 10, 10, 0));
+
+        StockReservationResponse released = productService.release(product.id(), reservationId, 3);
+        assertThat(released).isEqualTo(new StockReservationResponse(reservationId, product.id(), 3, 7, 3));
+        assertThat(stock(product.id())).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("release maior que a reserva é rejeitado; devoluções parciais param no total reservado")
+    void releaseIsLimitedToReservedQuantity() {
+        ProductResponse product = create("Reserva Limitada", 10, 5L);
+        Long reservationId = productService.reserve(product.id(), 4).reservationId();
+        CategoryTotals before = totals(5L);
+
+        assertThatThrownBy(() -> productService.release(product.id(), reservationId, 5))
+            .isInstanceOf(BusinessException.class)
+            .hasMessage("Devolução maior que a reserva " + reservationId + ": pedido 5, reservado 4");
+        assertThat(stock(product.id())).isEqualTo(6);
+        assertThat(totals(5L)).isEqualTo(before);
+
+        assertThat(productService.release(product.id(), reservationId, 3).reserved()).isEqualTo(1);
+        assertThatThrownBy(() -> productService.release(product.id(), reservationId, 2))
+            .isInstanceOf(BusinessException.class);
+        assertThat(productService.release(product.id(), reservationId, 1).reserved()).isZero();
+        assertThatThrownBy(() -> productService.release(product.id(), reservationId, 1))
+            .isInstanceOf(BusinessException.class);
+
+        // Tudo devolvido: o estoque volta exatamente ao que era antes da reserva
+        assertThat(stock(product.id())).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("200 threads devolvendo a mesma reserva de 50: exatamente 50 unidades voltam")
+    void concurrentReleasesNeverExceedReservation() throws Exception {
+        ProductResponse product = create("Devolução Concorrente", 50, 1L);
+        Long reservationId = productService.reserve(product.id(), 50).reservationId();
+        AtomicInteger released = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        runConcurrently(() -> {
+            try {
+                productService.release(product.id(), reservationId, 1);
+                released.incrementAndGet();
+            } catch (BusinessException e) {
+                rejected.incrementAndGet();
+            }
+            return null;
+        });
+
+        assertThat(released.get()).isEqualTo(50);
+        assertThat(rejected.get()).isEqualTo(THREADS - 50);
+        assertThat(stock(product.id())).isEqualTo(50);
+    }
+
+    @Test
+    @DisplayName("update() com versão anterior a uma reserva falha em vez de sobrescrever o estoque")
+    void staleUpdateAfterReservationFails() {
+        ProductResponse product = create("Reserva e Update", 10, 1L);
+
+        productService.reserve(product.id(), 4);
+
+        // Cliente leu o produto antes da reserva e tenta gravar o estoque antigo
+        assertThatThrownBy(() -> productService.update(product.id(), new UpdateProductRequest(
+                null, null, null, 10, null, null, null, product.version())))
+            .isInstanceOf(ObjectOptimisticLockingFailureException.class);
+        assertThat(stock(product.id())).isEqualTo(6);
+
+        ProductResponse current = productService.findById(product.id());
+        ProductResponse updated = productService.update(product.id(), new UpdateProductRequest(
+            null, "Atualizado depois da reserva", null, null, null, null, null, current.version()));
+        assertThat(updated.version()).isEqualTo(current.version() + 1);
+    }
+
+    @Test
+    @DisplayName("endpoints: 200 na reserva, 422 sem estoque ou devolução acima do reservado, 404 sem produto, 400 inválido")
+    void reserveEndpoints() throws Exception {
+        ProductResponse product = create("Reserva HTTP", 3, 2L);
+        MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+
+        MvcResult reserved = mockMvc.perform(post("/api/products/{id}/reserve", product.id())
+                .contentType(MediaType.APPLICATION_JSON).content("{\"quantity\": 2}"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.stock").value(1))
+            .andExpect(jsonPath("$.reserved").value(2))
+            .andReturn();
+        Number reservationId = JsonPath.read(reserved.getResponse().getContentAsString(), "$.reservationId");
+        mockMvc.perform(post("/api/products/{id}/reserve", product.id())
+                .contentType(MediaType.APPLICATION_JSON).content("{\"quantity\": 2}"))
+            .andExpect(status().isUnprocessableEntity());
+        mockMvc.perform(post("/api/products/{id}/reserve", 999_999)
+                .contentType(MediaType.APPLICATION_JSON).content("{\"quantity\": 1}"))
+            .andExpect(status().isNotFound());
+        mockMvc.perform(post("/api/products/{id}/release", product.id())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"reservationId\": " + reservationId + ", \"quantity\": 0}"))
+            .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/products/{id}/release", product.id())
+                .contentType(MediaType.APPLICATION_JSON).content("{\"quantity\": 1}"))
+            .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/products/{id}/release", product.id())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"reservationId\": " + reservationId + ", \"quantity\": 3}"))
+            .andExpect(status().isUnprocessableEntity());
+        mockMvc.perform(post("/api/products/{id}/release", product.id())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"reservationId\": " + reservationId + ", \"quantity\": 2}"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.reserved").value(0))
+            .andExpect(jsonPath("$.stock").value(3));
+        mockMvc.perform(post("/api/products/reserve")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"items\": [{\"productId\": " + product.id() + ", \"quantity\": 1}]}"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].stock").value(2));
+        mockMvc.perform(put("/api/products/{id}", product.id())
+                .contentType(MediaType.APPLICATION_JSON).content("{\"stock\": 5, \"version\": 0}"))
+            .andExpect(status().isConflict());
+    }
+
+    @Test
+    @DisplayName("release de reserva inexistente ou de outro produto gera 404")
+    void releaseUnknownReservation() {
+        ProductResponse product = create("Reserva de Outro", 5, 2L);
+        ProductResponse other = create("Produto sem Reserva", 5, 2L);
+        Long reservationId = productService.reserve(product.id(), 2).reservationId();
+
+        assertThatThrownBy(() -> productService.release(product.id(), 999_999L, 1))
+            .isInstanceOf(ResourceNotFoundException.class);
+        assertThatThrownBy(() -> productService.release(other.id(), reservationId, 1))
+            .isInstanceOf(ResourceNotFoundException.class);
+        assertThat(stock(other.id())).isEqualTo(5);
+    }
+
+    // Dispara a tarefa em THREADS threads ao mesmo tempo; retorna o tempo total em ms
+    private long runConcurrently(Callable<Void> task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Void>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return task.call();
+                }));
+            }
+            long begin = System.nanoTime();
+            start.countDown();
+            for (Future<Void> future : futures) {
+                future.get(2, TimeUnit.MINUTES);
+            }
+            return Math.max(1, (System.nanoTime() - begin) / 1_000_000);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static long perSecond(int count, long millis) {
+        return count * 1000L / millis;
+    }
+
+    private ProductResponse create(String name, int stock, Long categoryId) {
+        ProductResponse product = productService.create(
+            new CreateProductRequest(name, null, new BigDecimal("10.00"), stock, categoryId, null));
+        created.add(product.id());
+        return product;
+    }
+
+    private int stock(Long productId) {
+        return productService.findById(productId).stock();
+    }
+
+    private CategoryTotals totals(Long categoryId) {
+        CategoryStatsResponse stats = statsService.findByCategoryId(categoryId);
+        return new CategoryTotals(stats.productCount(), stats.inStockCount(), stats.totalStock(), stats.priceSum());
+    }
+}